@@ -0,0 +1,40 @@
+package com.example.TeamResourceAccessManagement.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // Runs COMMON resource permission grants off the request thread
+    @Bean(name = "permissionGrantExecutor")
+    public ThreadPoolTaskExecutor permissionGrantExecutor(
+            @Value("${app.permission-grants.threads:2}") int threads,
+            @Value("${app.permission-grants.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("permission-grant-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+    
+    // Writes notification events to open streams off the request thread
+    @Bean(name = "notificationPushExecutor")
+    public ThreadPoolTaskExecutor notificationPushExecutor(
+            @Value("${app.notifications.stream.push-threads:2}") int threads,
+            @Value("${app.notifications.stream.push-queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notification-push-");
+        executor.initialize();
+        return executor;
+    }
+}
\ No newline at end of file
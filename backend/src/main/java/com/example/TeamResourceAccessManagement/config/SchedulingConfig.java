@@ -0,0 +1,10 @@
+package com.example.TeamResourceAccessManagement.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background maintenance jobs (audit partitions and the like) run on Spring's scheduler
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,6 +1,7 @@
 package com.example.TeamResourceAccessManagement.config;
 
 import java.util.Arrays;
+import java.util.List;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,11 +24,21 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.example.TeamResourceAccessManagement.service.JwtAuthFilter;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
+    // Also checked against the Origin of chat socket handshakes (see WebSocketConfig)
+    static final List<String> ALLOWED_ORIGINS = Arrays.asList(
+        "http://localhost:4200", 
+        "http://localhost:4201", 
+        "http://localhost:4203",
+        "http://localhost:4202"
+    );
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
@@ -171,12 +182,7 @@ public class SecurityConfig {
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
-        configuration.setAllowedOrigins(Arrays.asList(
-            "http://localhost:4200", 
-            "http://localhost:4201", 
-            "http://localhost:4203",
-            "http://localhost:4202"
-        ));
+        configuration.setAllowedOrigins(ALLOWED_ORIGINS);
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
@@ -193,6 +199,9 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
+                // Completion of streamed responses (event streams, exports) already passed the checks below
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Swagger Documentation
                 .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/swagger-resources/**", "/webjars/**").permitAll()
                 
@@ -234,6 +243,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/audit-logs/cleanup", "/api/audit-logs/delete-old").hasRole("SUPER_ADMIN")
                 .requestMatchers("/api/audit-logs/**").hasAnyRole("SUPER_ADMIN", "ADMIN", "MANAGER", "TEAMLEAD")
 
+                // Team chat sockets - open to the same users as the chat API
+                .requestMatchers("/ws/**").authenticated()
+
                 // Health and monitoring endpoints
                 .requestMatchers("/actuator/health").permitAll()
                 .requestMatchers("/actuator/**").hasRole("SUPER_ADMIN")
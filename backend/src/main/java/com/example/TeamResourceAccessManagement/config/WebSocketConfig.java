@@ -0,0 +1,25 @@
+package com.example.TeamResourceAccessManagement.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import com.example.TeamResourceAccessManagement.controller.TeamChatSocketHandler;
+
+// Team chat runs over plain WebSocket; rooms and fan-out live in TeamChatService
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+    
+    @Autowired
+    private TeamChatSocketHandler teamChatSocketHandler;
+    
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(teamChatSocketHandler, TeamChatSocketHandler.PATH)
+            .addInterceptors(teamChatSocketHandler)
+            .setAllowedOrigins(SecurityConfig.ALLOWED_ORIGINS.toArray(new String[0]));
+    }
+}
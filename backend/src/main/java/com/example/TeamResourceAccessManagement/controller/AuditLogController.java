@@ -1,15 +1,25 @@
 package com.example.TeamResourceAccessManagement.controller;
 
 import com.example.TeamResourceAccessManagement.domain.AuditLog;
+import com.example.TeamResourceAccessManagement.dto.AuditLogSearchResultDTO;
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import com.example.TeamResourceAccessManagement.service.AuditLogExporter;
 import com.example.TeamResourceAccessManagement.service.AuditLogService;
+import com.example.TeamResourceAccessManagement.service.AuditRollupStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -49,6 +59,29 @@ public class AuditLogController {
         return ResponseEntity.noContent().build();
     }
 
+    // Streams rows as they are read; use this rather than the list endpoints for large ranges
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long resourceId,
+            @RequestParam(required = false) AuditLog.ActionType action) {
+        // Checked up front: once streaming starts the status can no longer change
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
+        AuditLogExporter.Format exportFormat = AuditLogExporter.Format.from(format);
+        StreamingResponseBody body = out ->
+            auditLogService.exportAuditLogs(exportFormat, startDate, endDate, userId, resourceId, action, out);
+        String fileName = "audit-logs-" + startDate.toLocalDate() + "-to-" + endDate.toLocalDate() + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+            .body(body);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<AuditLog>> getAuditLogsByUser(@PathVariable Long userId) {
         List<AuditLog> auditLogs = auditLogService.getAuditLogsByUser(userId);
@@ -123,6 +156,19 @@ public class AuditLogController {
         return ResponseEntity.ok(auditLogs);
     }
 
+    @GetMapping("/search/details")
+    public ResponseEntity<CursorPageDTO<AuditLogSearchResultDTO>> searchAuditLogDetails(
+            @RequestParam String q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) AuditLog.ActionType action,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long resourceId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(auditLogService.searchAuditLogDetails(q, startDate, endDate, action, userId, resourceId, cursor, limit));
+    }
+
     @GetMapping("/after")
     public ResponseEntity<List<AuditLog>> getAuditLogsAfter(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date) {
@@ -161,6 +207,55 @@ public class AuditLogController {
         return ResponseEntity.ok(count);
     }
 
+    @GetMapping("/count/between")
+    public ResponseEntity<Long> getAuditLogCountBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        long count = auditLogService.getAuditLogCountBetween(startDate, endDate);
+        return ResponseEntity.ok(count);
+    }
+
+    @GetMapping("/rollups/histogram")
+    public ResponseEntity<List<Map<String, Object>>> getActivityHistogram(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) AuditLog.ActionType action,
+            @RequestParam(defaultValue = "HOUR") AuditRollupStore.Granularity granularity) {
+        return ResponseEntity.ok(auditLogService.getActivityHistogram(startDate, endDate, action, granularity));
+    }
+
+    @GetMapping("/rollups/actions")
+    public ResponseEntity<Map<String, Long>> getActionCounts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return ResponseEntity.ok(auditLogService.getActionCounts(startDate, endDate));
+    }
+
+    @GetMapping("/rollups/top-users")
+    public ResponseEntity<List<Map<String, Object>>> getTopActiveUsers(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) AuditLog.ActionType action,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(auditLogService.getTopActiveUsers(startDate, endDate, action, limit));
+    }
+
+    @GetMapping("/rollups/top-resources")
+    public ResponseEntity<List<Map<String, Object>>> getTopActiveResources(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) AuditLog.ActionType action,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(auditLogService.getTopActiveResources(startDate, endDate, action, limit));
+    }
+
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Long> rebuildAuditRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from) {
+        return ResponseEntity.ok(auditLogService.rebuildAuditRollups(from));
+    }
+
     @PostMapping("/log-user-action")
     public ResponseEntity<Void> logUserAction(
             @RequestParam Long userId,
@@ -180,6 +275,36 @@ public class AuditLogController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/writer/stats")
+    public ResponseEntity<Map<String, Object>> getAuditWriterStats() {
+        return ResponseEntity.ok(auditLogService.getAuditWriterStats());
+    }
+
+    @GetMapping("/partitions")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getAuditLogPartitions() {
+        return ResponseEntity.ok(auditLogService.getAuditLogPartitions());
+    }
+
+    @PostMapping("/archive")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Void> archiveOldAuditLogs(@RequestParam int daysOld) {
+        auditLogService.archiveOldAuditLogs(daysOld);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/archive/segments")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getAuditArchiveSegments() {
+        return ResponseEntity.ok(auditLogService.getAuditArchiveSegments());
+    }
+
+    @GetMapping("/archive/stats")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getAuditArchiveStats() {
+        return ResponseEntity.ok(auditLogService.getAuditArchiveStats());
+    }
+
     @PostMapping("/cleanup")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
     public ResponseEntity<Void> cleanupAuditLogs() {
@@ -1,11 +1,13 @@
 package com.example.TeamResourceAccessManagement.controller;
 
 import com.example.TeamResourceAccessManagement.domain.ChatMessage;
-import com.example.TeamResourceAccessManagement.repository.ChatMessageRepository;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import com.example.TeamResourceAccessManagement.service.TeamChatHistory;
+import com.example.TeamResourceAccessManagement.service.TeamChatService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.time.LocalDateTime;
+import java.security.Principal;
 import java.util.List;
 import java.util.Map;
 
@@ -14,24 +16,47 @@ import java.util.Map;
 @CrossOrigin(origins = "http://localhost:4200")
 public class ChatController {
     
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    
+    @Autowired
+    private TeamChatHistory teamChatHistory;
+    
     @Autowired
-    private ChatMessageRepository chatMessageRepository;
+    private TeamChatService teamChatService;
     
+    // Oldest first: the whole history without parameters, as it always was; with any of them a page of at most
+    // limit (default 50): the latest, messages after since to catch up, or the page before before to scroll back
     @GetMapping("/{teamId}/chat/messages")
-    public ResponseEntity<List<ChatMessage>> getChatMessages(@PathVariable Long teamId) {
-        List<ChatMessage> messages = chatMessageRepository.findByTeamIdOrderByTimestampAsc(teamId);
+    public ResponseEntity<List<ChatMessage>> getChatMessages(@PathVariable Long teamId,
+                                                             @RequestParam(required = false) Long since,
+                                                             @RequestParam(required = false) Long before,
+                                                             @RequestParam(required = false) Integer limit) {
+        if (since != null && before != null) {
+            throw new BadRequestException("Use either since or before, not both");
+        }
+        if (since == null && before == null && limit == null) {
+            return ResponseEntity.ok(teamChatHistory.all(teamId));
+        }
+        if (limit == null) {
+            limit = DEFAULT_PAGE_SIZE;
+        }
+        List<ChatMessage> messages;
+        if (since != null) {
+            messages = teamChatHistory.since(teamId, since, limit);
+        } else if (before != null) {
+            messages = teamChatHistory.before(teamId, before, limit);
+        } else {
+            messages = teamChatHistory.latest(teamId, limit);
+        }
         return ResponseEntity.ok(messages);
     }
     
     @PostMapping("/{teamId}/chat/messages")
-    public ResponseEntity<ChatMessage> sendMessage(@PathVariable Long teamId, @RequestBody Map<String, String> request) {
-        ChatMessage message = new ChatMessage();
-        message.setTeamId(teamId);
-        message.setSender(request.get("sender"));
-        message.setMessage(request.get("message"));
-        message.setTimestamp(LocalDateTime.now());
-        
-        ChatMessage savedMessage = chatMessageRepository.save(message);
-        return ResponseEntity.ok(savedMessage);
+    public ResponseEntity<ChatMessage> sendMessage(@PathVariable Long teamId, @RequestBody Map<String, String> request,
+                                                   Principal principal) {
+        // Same path as socket messages, so members connected to the team's chat see it too; the sender
+        // is whoever is signed in, never a name from the request body
+        ChatMessage message = teamChatService.post(teamId, principal.getName(), request.get("message"));
+        return ResponseEntity.ok(message);
     }
 }
\ No newline at end of file
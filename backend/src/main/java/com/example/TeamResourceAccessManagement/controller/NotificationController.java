@@ -1,10 +1,15 @@
 package com.example.TeamResourceAccessManagement.controller;
 
 import com.example.TeamResourceAccessManagement.domain.Notification;
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.dto.NotificationDTO;
+import com.example.TeamResourceAccessManagement.service.NotificationPushService;
 import com.example.TeamResourceAccessManagement.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.List;
 
 @RestController
@@ -14,6 +19,9 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private NotificationPushService notificationPushService;
+    
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<Notification>> getUserNotifications(@PathVariable Long userId) {
         List<Notification> notifications = notificationService.getUserNotifications(userId);
@@ -26,12 +34,28 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
     
+    @GetMapping("/user/{userId}/feed")
+    public ResponseEntity<CursorPageDTO<NotificationDTO>> getNotificationFeed(@PathVariable Long userId,
+                                                                            @RequestParam(defaultValue = "false") boolean unreadOnly,
+                                                                            @RequestParam(required = false) String cursor,
+                                                                            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(notificationService.getNotificationFeed(userId, unreadOnly, cursor, limit));
+    }
+    
     @GetMapping("/user/{userId}/count")
     public ResponseEntity<Long> getUnreadCount(@PathVariable Long userId) {
         Long count = notificationService.getUnreadCount(userId);
         return ResponseEntity.ok(count);
     }
     
+    // EventSource sends Last-Event-ID itself when it reconnects; lastEventId covers a fresh page load
+    @GetMapping(path = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@PathVariable Long userId,
+                                          @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                                          @RequestParam(required = false) Long lastEventId) {
+        return notificationPushService.subscribe(userId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+    
     @PutMapping("/{id}/read")
     public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
         notificationService.markAsRead(id);
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -177,6 +178,38 @@ public class PermissionController {
         return ResponseEntity.ok(hasPermission);
     }
 
+    @GetMapping("/access-cache/stats")
+    public ResponseEntity<Map<String, Object>> getAccessCacheStats() {
+        return ResponseEntity.ok(permissionService.getAccessCacheStats());
+    }
+
+    @GetMapping("/access-matrix/stats")
+    public ResponseEntity<Map<String, Object>> getAccessMatrixStats() {
+        return ResponseEntity.ok(permissionService.getAccessMatrixStats());
+    }
+
+    @GetMapping("/access-matrix/resource/{resourceId}/count")
+    public ResponseEntity<Integer> countUsersWithAccessLevel(
+            @PathVariable Long resourceId,
+            @RequestParam(defaultValue = "READ") Permission.AccessLevel accessLevel) {
+        return ResponseEntity.ok(permissionService.countUsersWithAccessLevel(resourceId, accessLevel));
+    }
+
+    @GetMapping("/access-matrix/common-users")
+    public ResponseEntity<List<Long>> getUsersWithAccessToAllResources(
+            @RequestParam List<Long> resourceIds,
+            @RequestParam(defaultValue = "READ") Permission.AccessLevel accessLevel) {
+        return ResponseEntity.ok(permissionService.getUsersWithAccessToAllResources(resourceIds, accessLevel));
+    }
+
+    @GetMapping("/access-matrix/user/{userId}/shared/{otherUserId}")
+    public ResponseEntity<Integer> countSharedResources(
+            @PathVariable Long userId,
+            @PathVariable Long otherUserId,
+            @RequestParam(defaultValue = "READ") Permission.AccessLevel accessLevel) {
+        return ResponseEntity.ok(permissionService.countSharedResources(userId, otherUserId, accessLevel));
+    }
+
     @GetMapping("/user/{userId}/access-level/{resourceId}")
     public ResponseEntity<Permission.AccessLevel> getUserAccessLevel(@PathVariable Long userId, @PathVariable Long resourceId) {
         Permission.AccessLevel accessLevel = permissionService.getUserAccessLevel(userId, resourceId);
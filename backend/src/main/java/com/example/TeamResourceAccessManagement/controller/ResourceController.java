@@ -1,10 +1,15 @@
 package com.example.TeamResourceAccessManagement.controller;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
 import java.util.List;
-import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.ETag;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,24 +23,44 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.dto.FileDownloadDTO;
+import com.example.TeamResourceAccessManagement.dto.PermissionGrantStatusDTO;
+import com.example.TeamResourceAccessManagement.dto.ResourceQueryDTO;
 import com.example.TeamResourceAccessManagement.dto.ResourceRequestDTO;
 import com.example.TeamResourceAccessManagement.dto.ResourceResponseDTO;
+import com.example.TeamResourceAccessManagement.dto.ResourceSearchResultDTO;
 import com.example.TeamResourceAccessManagement.dto.ResourceAccessUpdateDTO;
 import com.example.TeamResourceAccessManagement.exceptions.ResourceNotFoundException;
+import com.example.TeamResourceAccessManagement.service.LocalFileStore;
 import com.example.TeamResourceAccessManagement.service.ResourceService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/resources")
 public class ResourceController {
 
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
     @Autowired
     private ResourceService resourceService;
 
+    @Autowired
+    private LocalFileStore localFileStore;
+
+    @Value("${app.files.sendfile-min-size:49152}")
+    private long sendfileMinSize;
+
     @PostMapping
     public ResponseEntity<ResourceResponseDTO> createResource(@RequestBody ResourceRequestDTO resourceRequestDTO) {
         try {
@@ -61,7 +86,7 @@ public class ResourceController {
             @RequestParam("category") String category,
             @RequestParam("accessType") String accessType,
             @RequestParam("isGlobal") String isGlobal,
-            @RequestParam("projectId") String projectId,
+            @RequestParam("projectId") Long projectId,
             @RequestParam(value = "resourceUrl", required = false) String resourceUrl,
             @RequestParam(value = "allowedUserGroups", required = false) String allowedUserGroups) {
         try {
@@ -71,7 +96,7 @@ public class ResourceController {
             
             ResourceResponseDTO resource = resourceService.createResourceWithFile(
                 file, name, description, type, category, accessType, 
-                Boolean.parseBoolean(isGlobal), Long.parseLong(projectId), resourceUrl, allowedUserGroups);
+                Boolean.parseBoolean(isGlobal), projectId, resourceUrl, allowedUserGroups);
             
             return new ResponseEntity<>(resource, HttpStatus.CREATED);
         } catch (Exception e) {
@@ -80,30 +105,137 @@ public class ResourceController {
         }
     }
 
+    // Finishes a chunked upload (see UploadController) as a resource; takes the same fields as /upload
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<ResourceResponseDTO> completeUpload(
+            @PathVariable String uploadId,
+            @RequestParam("name") String name,
+            @RequestParam("description") String description,
+            @RequestParam("type") String type,
+            @RequestParam("category") String category,
+            @RequestParam("accessType") String accessType,
+            @RequestParam("isGlobal") String isGlobal,
+            @RequestParam("projectId") Long projectId,
+            @RequestParam(value = "resourceUrl", required = false) String resourceUrl,
+            @RequestParam(value = "allowedUserGroups", required = false) String allowedUserGroups) {
+        ResourceResponseDTO resource = resourceService.createResourceFromUpload(
+            uploadId, name, description, type, category, accessType,
+            Boolean.parseBoolean(isGlobal), projectId, resourceUrl, allowedUserGroups);
+        return new ResponseEntity<>(resource, HttpStatus.CREATED);
+    }
+
     @GetMapping("/{id}/download")
-    public ResponseEntity<byte[]> downloadFile(@PathVariable Long id) {
-        try {
-            Optional<ResourceResponseDTO> resourceOpt = resourceService.getResourceById(id);
-            if (resourceOpt.isEmpty()) {
-                return ResponseEntity.notFound().build();
+    public ResponseEntity<org.springframework.core.io.Resource> downloadFile(@PathVariable Long id,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FileDownloadDTO download = resourceService.getResourceDownload(id);
+        String contentType = download.getContentType() != null ? 
+            download.getContentType() : "application/octet-stream";
+        // An empty file on disk is still a file and goes out as an empty 200
+        if (download.getLocalFile() == null && !download.hasContent()) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Answered here for both paths, so a 304 is never audited; also sets the ETag header
+        if (new ServletWebRequest(request, response).checkNotModified(download.getETag())) {
+            return null;
+        }
+        if (startsDownload(request, download)) {
+            resourceService.recordDownload(download);
+        }
+        
+        if (download.getLocalFile() != null) {
+            // Written here, so a null entity tells Spring MVC the response is already handled
+            writeLocalFile(download, contentType, request, response);
+            return null;
+        }
+        
+        // Spring MVC answers Range (206), If-None-Match (304) and sets Content-Length from the Resource
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(contentType))
+            .eTag(download.getETag())
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+            .header(HttpHeaders.CONTENT_DISPOSITION, 
+                ContentDisposition.inline().filename(download.getFileName()).build().toString())
+            .body(download.getContent());
+    }
+
+    /**
+     * Sends a file on this server's disk. Large bodies are handed to the container's sendfile
+     * support, which copies from the page cache to the socket; the rest go out through
+     * LocalFileStore. Either way the bytes never pass through the heap. A single Range is
+     * answered as Spring MVC would (If-None-Match is already handled by the caller); several
+     * ranges get the whole file.
+     */
+    private void writeLocalFile(FileDownloadDTO download, String contentType,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long size = download.getContentLength();
+        long start = 0;
+        long end = size - 1;
+        boolean partial = false;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // An If-Range for another version means the client wants the whole current file
+        if (range != null && (ifRange == null || ifRange.equals(response.getHeader(HttpHeaders.ETAG)))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = null;
             }
-            
-            ResourceResponseDTO resource = resourceOpt.get();
-            if (resource.getFileData() == null || resource.getFileData().length == 0) {
-                return ResponseEntity.badRequest().build();
+            if (ranges == null || (ranges.size() == 1 && ranges.get(0).getRangeStart(size) >= size)) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
             }
-            
-            String contentType = resource.getMimeType() != null ? 
-                resource.getMimeType() : "application/octet-stream";
-            
-            return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, 
-                    "inline; filename=\"" + resource.getName() + "\"")
-                .body(resource.getFileData());
-                
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(size);
+                end = ranges.get(0).getRangeEnd(size);
+                partial = true;
+            }
+        }
+        
+        long length = end - start + 1;
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.inline().filename(download.getFileName()).build().toString());
+        if (partial) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        
+        if (length >= sendfileMinSize && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            // Tomcat sends the file itself once the request completes
+            request.setAttribute(SENDFILE_FILENAME_ATTR, download.getLocalFile().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+            return;
+        }
+        localFileStore.transfer(download.getLocalFile(), start, length, Channels.newChannel(response.getOutputStream()));
+    }
+
+    /**
+     * Whether this request begins a download rather than continuing one: a GET for the whole
+     * file or for a part starting at byte 0. HEAD and later parts (a player seeking, a resumed
+     * transfer) are the same download and are not audited again.
+     */
+    private static boolean startsDownload(HttpServletRequest request, FileDownloadDTO download) {
+        if (!"GET".equals(request.getMethod())) {
+            return false;
+        }
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range == null || (ifRange != null && !ifRange.equals(ETag.quoteETagIfNecessary(download.getETag())))) {
+            return true;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.isEmpty() || ranges.get(0).getRangeStart(download.getContentLength()) == 0;
+        } catch (IllegalArgumentException e) {
+            return false;
         }
     }
 
@@ -120,6 +252,27 @@ public class ResourceController {
         return ResponseEntity.ok(resources);
     }
 
+    @GetMapping("/query")
+    public ResponseEntity<CursorPageDTO<ResourceResponseDTO>> queryResources(
+            @RequestParam(required = false) Resource.ResourceType type,
+            @RequestParam(required = false) Resource.ResourceCategory category,
+            @RequestParam(required = false) Resource.ResourceAccessType accessType,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) Boolean isGlobal,
+            @RequestParam(required = false) String uploadedBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        ResourceQueryDTO query = new ResourceQueryDTO();
+        query.setType(type);
+        query.setCategory(category);
+        query.setAccessType(accessType);
+        query.setProjectId(projectId);
+        query.setIsGlobal(isGlobal);
+        query.setUploadedBy(uploadedBy);
+        return ResponseEntity.ok(resourceService.queryResources(query, cursor, size, includeTotal));
+    }
+
     @GetMapping("/type/{type}")
     public ResponseEntity<List<ResourceResponseDTO>> getResourcesByType(@PathVariable Resource.ResourceType type) {
         List<ResourceResponseDTO> resources = resourceService.getResourcesByType(type);
@@ -196,6 +349,13 @@ public class ResourceController {
         return ResponseEntity.ok(resources);
     }
 
+    @GetMapping("/search/ranked")
+    public ResponseEntity<List<ResourceSearchResultDTO>> searchResources(
+            @RequestParam("q") String text,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(resourceService.searchResources(text, limit));
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<ResourceResponseDTO>> getResourcesByUser(@PathVariable Long userId) {
         List<ResourceResponseDTO> resources = resourceService.getResourcesByUser(userId);
@@ -274,6 +434,13 @@ public class ResourceController {
         return ResponseEntity.ok(exists);
     }
 
+    @GetMapping("/{resourceId}/permission-grants")
+    public ResponseEntity<PermissionGrantStatusDTO> getPermissionGrantStatus(@PathVariable Long resourceId) {
+        return resourceService.getPermissionGrantStatus(resourceId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{resourceId}/user/{userId}/can-access")
     public ResponseEntity<Boolean> canUserAccessResource(@PathVariable Long resourceId, @PathVariable Long userId) {
         boolean canAccess = resourceService.canUserAccessResource(userId, resourceId);
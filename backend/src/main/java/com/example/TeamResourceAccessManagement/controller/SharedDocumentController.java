@@ -1,8 +1,12 @@
 package com.example.TeamResourceAccessManagement.controller;
 
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.dto.FileDownloadDTO;
 import com.example.TeamResourceAccessManagement.dto.SharedDocumentDTO;
 import com.example.TeamResourceAccessManagement.service.SharedDocumentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +29,16 @@ public class SharedDocumentController {
         return ResponseEntity.ok(documents);
     }
 
+    // Newest first, optionally for one author or document type; pass nextCursor back as cursor for the next page
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPageDTO<SharedDocumentDTO>> getSharedDocumentFeed(
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) String documentType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(sharedDocumentService.getSharedDocumentFeed(authorId, documentType, cursor, limit));
+    }
+
     @PostMapping("/share-file")
     public ResponseEntity<SharedDocumentDTO> shareDocumentWithFile(
             @RequestParam("title") String title,
@@ -47,6 +61,29 @@ public class SharedDocumentController {
         return ResponseEntity.ok(savedDocument);
     }
 
+    // Finishes a chunked upload (see UploadController) as a shared document; takes the same fields as /share-file
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<SharedDocumentDTO> shareDocumentFromUpload(
+            @PathVariable String uploadId,
+            @RequestParam("title") String title,
+            @RequestParam("message") String message,
+            @RequestParam("documentType") String documentType,
+            @RequestParam("authorId") Long authorId,
+            @RequestParam("authorName") String authorName,
+            @RequestParam("authorRole") String authorRole) {
+
+        SharedDocumentDTO documentDTO = new SharedDocumentDTO();
+        documentDTO.setTitle(title);
+        documentDTO.setMessage(message);
+        documentDTO.setDocumentType(documentType);
+        documentDTO.setAuthorId(authorId);
+        documentDTO.setAuthorName(authorName);
+        documentDTO.setAuthorRole(authorRole);
+
+        SharedDocumentDTO savedDocument = sharedDocumentService.shareDocumentFromUpload(documentDTO, uploadId);
+        return ResponseEntity.ok(savedDocument);
+    }
+
     @PostMapping("/share-url")
     public ResponseEntity<SharedDocumentDTO> shareDocumentWithUrl(@RequestBody SharedDocumentDTO documentDTO) {
         SharedDocumentDTO savedDocument = sharedDocumentService.shareDocumentWithUrl(documentDTO);
@@ -62,12 +99,19 @@ public class SharedDocumentController {
     }
 
     @GetMapping("/{documentId}/download")
-    public ResponseEntity<byte[]> downloadDocument(@PathVariable Long documentId) {
-        byte[] fileData = sharedDocumentService.downloadDocument(documentId);
-        
+    public ResponseEntity<Resource> downloadDocument(@PathVariable Long documentId) {
+        FileDownloadDTO download = sharedDocumentService.downloadDocument(documentId);
+        if (!download.hasContent()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String fileName = download.getFileName() != null ? download.getFileName() : "document";
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"document\"")
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(fileData);
+                .eTag(download.getETag())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(download.getContent());
     }
 }
\ No newline at end of file
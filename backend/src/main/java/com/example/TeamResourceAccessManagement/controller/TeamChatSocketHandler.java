@@ -0,0 +1,126 @@
+package com.example.TeamResourceAccessManagement.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import com.example.TeamResourceAccessManagement.service.TeamChatService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Team chat socket at /ws/teams/{teamId}/chat. Clients send {"message": "..."} frames and
+ * receive every message posted to the team as a ChatMessage JSON frame, their own included.
+ * A client reconnecting passes the last id it has as ?since= to be sent what it missed.
+ * The sender is always the authenticated user, never a name taken from the frame.
+ */
+@Component
+public class TeamChatSocketHandler extends TextWebSocketHandler implements HandshakeInterceptor {
+    
+    public static final String PATH = "/ws/teams/{teamId}/chat";
+    
+    private static final String TEAM_ID = "teamId";
+    private static final String SINCE = "since";
+    private static final String MEMBER = "chatMember";
+    
+    @Autowired
+    private TeamChatService teamChatService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+                                   Map<String, Object> attributes) {
+        if (request.getPrincipal() == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        Long teamId = parseTeamId(request.getURI().getPath());
+        if (teamId == null) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            return false;
+        }
+        attributes.put(TEAM_ID, teamId);
+        String since = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst(SINCE);
+        if (since != null) {
+            try {
+                attributes.put(SINCE, Long.valueOf(since));
+            } catch (NumberFormatException e) {
+                response.setStatusCode(HttpStatus.BAD_REQUEST);
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler, Exception exception) {
+    }
+    
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        session.getAttributes().put(MEMBER, teamChatService.join(teamId(session), session, (Long) session.getAttributes().get(SINCE)));
+    }
+    
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage frame) throws Exception {
+        String text;
+        try {
+            JsonNode body = objectMapper.readTree(frame.getPayload());
+            text = body.path("message").asText(null);
+        } catch (Exception e) {
+            sendError(session, "Frames must be JSON objects with a message field");
+            return;
+        }
+        try {
+            teamChatService.post(teamId(session), session.getPrincipal().getName(), text);
+        } catch (BadRequestException e) {
+            sendError(session, e.getMessage());
+        }
+    }
+    
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        WebSocketSession member = (WebSocketSession) session.getAttributes().get(MEMBER);
+        if (member != null) {
+            teamChatService.leave(teamId(session), member);
+        }
+    }
+    
+    private void sendError(WebSocketSession session, String error) throws Exception {
+        WebSocketSession member = (WebSocketSession) session.getAttributes().get(MEMBER);
+        (member != null ? member : session).sendMessage(new TextMessage(objectMapper.writeValueAsString(Map.of("error", error))));
+    }
+    
+    private static Long teamId(WebSocketSession session) {
+        return (Long) session.getAttributes().get(TEAM_ID);
+    }
+    
+    // Raw handlers get no URI template variables, so the team id is read off the path
+    static Long parseTeamId(String path) {
+        String[] segments = path.split("/");
+        for (int i = 0; i + 2 < segments.length; i++) {
+            if ("teams".equals(segments[i]) && "chat".equals(segments[i + 2])) {
+                try {
+                    return Long.valueOf(segments[i + 1]);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
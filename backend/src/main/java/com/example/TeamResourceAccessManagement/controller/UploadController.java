@@ -0,0 +1,63 @@
+package com.example.TeamResourceAccessManagement.controller;
+
+import java.io.InputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.TeamResourceAccessManagement.dto.UploadSessionDTO;
+import com.example.TeamResourceAccessManagement.service.ChunkedUploadService;
+
+/**
+ * Chunked upload sessions. Finished uploads are turned into content by
+ * POST /api/resources/uploads/{uploadId}/complete or /api/shared-documents/uploads/{uploadId}/complete.
+ */
+@RestController
+@RequestMapping("/api/uploads")
+public class UploadController {
+    
+    public static final String CHUNK_CHECKSUM_HEADER = "X-Chunk-Checksum";
+    
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+    
+    @PostMapping
+    public ResponseEntity<UploadSessionDTO> createUpload(@RequestParam String fileName,
+                                                         @RequestParam(required = false) String contentType,
+                                                         @RequestParam long totalSize) {
+        return new ResponseEntity<>(chunkedUploadService.createSession(fileName, contentType, totalSize), HttpStatus.CREATED);
+    }
+    
+    // Where to resume from after an interruption
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<UploadSessionDTO> getUpload(@PathVariable String uploadId) {
+        return ResponseEntity.ok(chunkedUploadService.getSession(uploadId));
+    }
+    
+    // The raw chunk bytes are the body, streamed to disk rather than read into memory
+    @PutMapping(value = "/{uploadId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionDTO> putChunk(@PathVariable String uploadId,
+                                                     @PathVariable long index,
+                                                     @RequestParam long offset,
+                                                     @RequestHeader(CHUNK_CHECKSUM_HEADER) String checksum,
+                                                     InputStream body) {
+        return ResponseEntity.ok(chunkedUploadService.putChunk(uploadId, index, offset, checksum, body));
+    }
+    
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable String uploadId) {
+        chunkedUploadService.abort(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -5,6 +5,8 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
+// Partitioned by month on PostgreSQL (AuditLogPartitionManager), which recreates these
+// indexes and foreign keys under the same names on the partitioned table
 @Table(name = "audit_logs",
        indexes = {
            @Index(name = "idx_audit_log_user_id", columnList = "user_id"),
@@ -42,7 +44,7 @@ public class AuditLog {
     public enum ActionType {
         ACCESS_GRANTED, ACCESS_REVOKED, ACCESS_REQUESTED, 
         RESOURCE_CREATED, RESOURCE_UPDATED, RESOURCE_DELETED,
-        USER_LOGIN, USER_LOGOUT, PERMISSION_CHANGED
+        USER_LOGIN, USER_LOGOUT, PERMISSION_CHANGED, RESOURCE_DOWNLOADED
     }
 
     // Constructors
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages",
+       indexes = {
+           @Index(name = "idx_chat_message_team_id", columnList = "team_id, id")
+       })
 public class ChatMessage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -5,7 +5,11 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications",
+       indexes = {
+           @Index(name = "idx_notification_user_read_created", columnList = "user_id, is_read, created_at DESC, id DESC"),
+           @Index(name = "idx_notification_user_created", columnList = "user_id, created_at DESC, id DESC")
+       })
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,6 +38,10 @@ public class Notification {
     @Column(name = "related_entity_type")
     private String relatedEntityType;
     
+    // A digest links every event it stands for, comma-separated, instead of one relatedEntityId
+    @Column(name = "related_entity_ids", columnDefinition = "TEXT")
+    private String relatedEntityIds;
+    
     @CreationTimestamp
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
@@ -77,6 +85,9 @@ public class Notification {
     public String getRelatedEntityType() { return relatedEntityType; }
     public void setRelatedEntityType(String relatedEntityType) { this.relatedEntityType = relatedEntityType; }
     
+    public String getRelatedEntityIds() { return relatedEntityIds; }
+    public void setRelatedEntityIds(String relatedEntityIds) { this.relatedEntityIds = relatedEntityIds; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
\ No newline at end of file
@@ -28,7 +28,10 @@ import jakarta.persistence.Table;
            @Index(name = "idx_resource_name", columnList = "name"),
            @Index(name = "idx_resource_type", columnList = "type"),
            @Index(name = "idx_resource_project_id", columnList = "project_id"),
-           @Index(name = "idx_resource_is_global", columnList = "is_global")
+           @Index(name = "idx_resource_is_global", columnList = "is_global"),
+           @Index(name = "idx_resource_content_hash", columnList = "content_hash"),
+           @Index(name = "idx_resource_created_at_id", columnList = "created_at, id"),
+           @Index(name = "idx_resource_project_created_at_id", columnList = "project_id, created_at, id")
        })
 public class Resource {
     @Id
@@ -66,9 +69,13 @@ public class Resource {
     @Column(name = "file_extension", length = 20)
     private String fileExtension;
     
+    // Legacy inline content; new uploads live in the BlobStore under content_hash
     @Column(name = "file_data", columnDefinition = "BYTEA")
     private byte[] fileData;
     
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
     @Column(name = "is_global", nullable = false)
     private Boolean isGlobal = false;
     
@@ -215,6 +222,9 @@ public class Resource {
     public byte[] getFileData() { return fileData; }
     public void setFileData(byte[] fileData) { this.fileData = fileData; }
     
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    
     public Boolean getIsGlobal() { return isGlobal; }
     public void setIsGlobal(Boolean isGlobal) { this.isGlobal = isGlobal; }
     
@@ -4,7 +4,13 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "shared_documents")
+@Table(name = "shared_documents",
+       indexes = {
+           @Index(name = "idx_shared_document_content_hash", columnList = "content_hash"),
+           @Index(name = "idx_shared_document_shared_at", columnList = "shared_at DESC, id DESC"),
+           @Index(name = "idx_shared_document_author_shared_at", columnList = "author_id, shared_at DESC, id DESC"),
+           @Index(name = "idx_shared_document_type_shared_at", columnList = "document_type, shared_at DESC, id DESC")
+       })
 public class SharedDocument {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,10 +37,14 @@ public class SharedDocument {
     @Column(name = "document_url", length = 500)
     private String documentUrl;
 
+    // Legacy inline content; new uploads live in the BlobStore under content_hash
     @Lob
     @Column(name = "file_data")
     private byte[] fileData;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "file_name")
     private String fileName;
 
@@ -76,6 +86,9 @@ public class SharedDocument {
     public byte[] getFileData() { return fileData; }
     public void setFileData(byte[] fileData) { this.fileData = fileData; }
 
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
     public String getFileName() { return fileName; }
     public void setFileName(String fileName) { this.fileName = fileName; }
 
@@ -0,0 +1,82 @@
+package com.example.TeamResourceAccessManagement.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A chunked upload in progress; the bytes received so far are spooled to disk under its id
+@Entity
+@Table(name = "upload_sessions",
+       indexes = {
+           @Index(name = "idx_upload_session_updated_at", columnList = "updated_at")
+       })
+public class UploadSession {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "total_size", nullable = false)
+    private Long totalSize;
+
+    @Column(name = "chunk_size", nullable = false)
+    private Integer chunkSize;
+
+    @Column(name = "received_bytes", nullable = false)
+    private Long receivedBytes;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public UploadSession() {}
+
+    public UploadSession(String id, String fileName, String contentType, Long totalSize, Integer chunkSize, String createdBy) {
+        this.id = id;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+        this.receivedBytes = 0L;
+        this.createdBy = createdBy;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public Long getTotalSize() { return totalSize; }
+    public void setTotalSize(Long totalSize) { this.totalSize = totalSize; }
+
+    public Integer getChunkSize() { return chunkSize; }
+    public void setChunkSize(Integer chunkSize) { this.chunkSize = chunkSize; }
+
+    public Long getReceivedBytes() { return receivedBytes; }
+    public void setReceivedBytes(Long receivedBytes) { this.receivedBytes = receivedBytes; }
+
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,61 @@
+package com.example.TeamResourceAccessManagement.dto;
+
+import java.time.LocalDateTime;
+
+// One audit row as stored in an archive segment; names are kept so it outlives the user/resource
+public class ArchivedAuditLogDTO {
+    
+    private Long id;
+    private Long userId;
+    private String username;
+    private Long resourceId;
+    private String resourceName;
+    private String action;
+    private String details;
+    private String ipAddress;
+    private LocalDateTime timestamp;
+    
+    // Constructors
+    public ArchivedAuditLogDTO() {}
+    
+    public ArchivedAuditLogDTO(Long id, Long userId, String username, Long resourceId, String resourceName,
+                               String action, String details, String ipAddress, LocalDateTime timestamp) {
+        this.id = id;
+        this.userId = userId;
+        this.username = username;
+        this.resourceId = resourceId;
+        this.resourceName = resourceName;
+        this.action = action;
+        this.details = details;
+        this.ipAddress = ipAddress;
+        this.timestamp = timestamp;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    
+    public Long getResourceId() { return resourceId; }
+    public void setResourceId(Long resourceId) { this.resourceId = resourceId; }
+    
+    public String getResourceName() { return resourceName; }
+    public void setResourceName(String resourceName) { this.resourceName = resourceName; }
+    
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+    
+    public String getDetails() { return details; }
+    public void setDetails(String details) { this.details = details; }
+    
+    public String getIpAddress() { return ipAddress; }
+    public void setIpAddress(String ipAddress) { this.ipAddress = ipAddress; }
+    
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+}
@@ -0,0 +1,61 @@
+package com.example.TeamResourceAccessManagement.dto;
+
+import java.time.LocalDateTime;
+
+// Flat audit row for search results; names are joined in so no entity has to be loaded
+public class AuditLogSearchResultDTO {
+    
+    private Long id;
+    private LocalDateTime timestamp;
+    private String action;
+    private Long userId;
+    private String username;
+    private Long resourceId;
+    private String resourceName;
+    private String details;
+    private String ipAddress;
+    
+    // Constructors
+    public AuditLogSearchResultDTO() {}
+    
+    public AuditLogSearchResultDTO(Long id, LocalDateTime timestamp, String action, Long userId, String username,
+                                   Long resourceId, String resourceName, String details, String ipAddress) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.action = action;
+        this.userId = userId;
+        this.username = username;
+        this.resourceId = resourceId;
+        this.resourceName = resourceName;
+        this.details = details;
+        this.ipAddress = ipAddress;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+    
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    
+    public Long getResourceId() { return resourceId; }
+    public void setResourceId(Long resourceId) { this.resourceId = resourceId; }
+    
+    public String getResourceName() { return resourceName; }
+    public void setResourceName(String resourceName) { this.resourceName = resourceName; }
+    
+    public String getDetails() { return details; }
+    public void setDetails(String details) { this.details = details; }
+    
+    public String getIpAddress() { return ipAddress; }
+    public void setIpAddress(String ipAddress) { this.ipAddress = ipAddress; }
+}
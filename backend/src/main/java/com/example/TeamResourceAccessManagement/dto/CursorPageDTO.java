@@ -0,0 +1,39 @@
+package com.example.TeamResourceAccessManagement.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass nextCursor back as the cursor parameter to
+ * fetch the following page; it is null on the last page.
+ */
+public class CursorPageDTO<T> {
+    
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private Long totalCount;
+    
+    // Constructors
+    public CursorPageDTO() {}
+    
+    public CursorPageDTO(List<T> items, String nextCursor, Long totalCount) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+        this.totalCount = totalCount;
+    }
+    
+    // Getters and Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+    
+    // Only filled in when the caller asks for it, since counting costs a scan of the matches
+    public Long getTotalCount() { return totalCount; }
+    public void setTotalCount(Long totalCount) { this.totalCount = totalCount; }
+}
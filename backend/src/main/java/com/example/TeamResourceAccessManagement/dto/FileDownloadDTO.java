@@ -0,0 +1,76 @@
+package com.example.TeamResourceAccessManagement.dto;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import org.springframework.core.io.Resource;
+
+public class FileDownloadDTO {
+    
+    private Long id;
+    private String fileName;
+    private String contentType;
+    private Long contentLength;
+    private LocalDateTime lastModified;
+    private String contentHash;
+    private String filePath;
+    private String eTag;
+    private Resource content;
+    private Path localFile;
+    
+    // Constructors
+    public FileDownloadDTO() {}
+    
+    // Used by the download metadata queries; content is attached by the service
+    public FileDownloadDTO(Long id, String fileName, String contentType, Long contentLength, LocalDateTime lastModified,
+                           String contentHash) {
+        this(id, fileName, contentType, contentLength, lastModified, contentHash, null);
+    }
+    
+    public FileDownloadDTO(Long id, String fileName, String contentType, Long contentLength, LocalDateTime lastModified,
+                           String contentHash, String filePath) {
+        this.id = id;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.contentLength = contentLength;
+        this.lastModified = lastModified;
+        this.contentHash = contentHash;
+        this.filePath = filePath;
+    }
+    
+    public boolean hasContent() {
+        return contentLength != null && contentLength > 0;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    
+    public Long getContentLength() { return contentLength; }
+    public void setContentLength(Long contentLength) { this.contentLength = contentLength; }
+    
+    public LocalDateTime getLastModified() { return lastModified; }
+    public void setLastModified(LocalDateTime lastModified) { this.lastModified = lastModified; }
+    
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    
+    public String getFilePath() { return filePath; }
+    public void setFilePath(String filePath) { this.filePath = filePath; }
+    
+    public String getETag() { return eTag; }
+    public void setETag(String eTag) { this.eTag = eTag; }
+    
+    public Resource getContent() { return content; }
+    public void setContent(Resource content) { this.content = content; }
+    
+    // Set when the bytes are a file on this server, which is then written straight from disk
+    public Path getLocalFile() { return localFile; }
+    public void setLocalFile(Path localFile) { this.localFile = localFile; }
+}
@@ -0,0 +1,44 @@
+package com.example.TeamResourceAccessManagement.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+
+/**
+ * Opaque position in a listing ordered by (timestamp DESC, id DESC). Encoded as URL-safe
+ * base64 so clients treat it as a token rather than building their own.
+ */
+public final class KeysetCursor {
+    
+    private final LocalDateTime timestamp;
+    private final Long id;
+    
+    public KeysetCursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+    
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public Long getId() { return id; }
+}
@@ -2,6 +2,8 @@ package com.example.TeamResourceAccessManagement.dto;
 
 import com.example.TeamResourceAccessManagement.domain.Notification;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 public class NotificationDTO {
     private Long id;
@@ -11,6 +13,8 @@ public class NotificationDTO {
     private Boolean isRead;
     private LocalDateTime createdAt;
     private Long accessRequestId;
+    // Every access request the notification is about; more than one for a digest
+    private List<Long> accessRequestIds;
     
     public NotificationDTO() {}
     
@@ -23,6 +27,20 @@ public class NotificationDTO {
         this.isRead = isRead;
         this.createdAt = createdAt;
         this.accessRequestId = accessRequestId;
+        this.accessRequestIds = accessRequestId != null ? List.of(accessRequestId) : List.of();
+    }
+    
+    // accessRequestIds as stored on a digest, comma-separated
+    public NotificationDTO(Long id, String title, String message, Notification.NotificationType type,
+                          Boolean isRead, LocalDateTime createdAt, Long accessRequestId, String accessRequestIds) {
+        this(id, title, message, type, isRead, createdAt, accessRequestId);
+        if (accessRequestIds != null && !accessRequestIds.isEmpty()) {
+            List<Long> ids = new ArrayList<>();
+            for (String requestId : accessRequestIds.split(",")) {
+                ids.add(Long.valueOf(requestId));
+            }
+            this.accessRequestIds = ids;
+        }
     }
     
     public Long getId() { return id; }
@@ -45,4 +63,7 @@ public class NotificationDTO {
     
     public Long getAccessRequestId() { return accessRequestId; }
     public void setAccessRequestId(Long accessRequestId) { this.accessRequestId = accessRequestId; }
+    
+    public List<Long> getAccessRequestIds() { return accessRequestIds; }
+    public void setAccessRequestIds(List<Long> accessRequestIds) { this.accessRequestIds = accessRequestIds; }
 }
\ No newline at end of file
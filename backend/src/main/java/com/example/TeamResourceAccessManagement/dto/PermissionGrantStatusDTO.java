@@ -0,0 +1,48 @@
+package com.example.TeamResourceAccessManagement.dto;
+
+import java.time.LocalDateTime;
+
+public class PermissionGrantStatusDTO {
+    
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+    
+    private Long resourceId;
+    private Status status;
+    private long totalUsers;
+    private long processedUsers;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private String errorMessage;
+    
+    // Constructors
+    public PermissionGrantStatusDTO() {}
+    
+    public PermissionGrantStatusDTO(Long resourceId, Status status) {
+        this.resourceId = resourceId;
+        this.status = status;
+    }
+    
+    // Getters and Setters
+    public Long getResourceId() { return resourceId; }
+    public void setResourceId(Long resourceId) { this.resourceId = resourceId; }
+    
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    
+    public long getTotalUsers() { return totalUsers; }
+    public void setTotalUsers(long totalUsers) { this.totalUsers = totalUsers; }
+    
+    public long getProcessedUsers() { return processedUsers; }
+    public void setProcessedUsers(long processedUsers) { this.processedUsers = processedUsers; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+    
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+}
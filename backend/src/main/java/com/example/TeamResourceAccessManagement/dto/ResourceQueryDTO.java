@@ -0,0 +1,36 @@
+package com.example.TeamResourceAccessManagement.dto;
+
+import com.example.TeamResourceAccessManagement.domain.Resource;
+
+// Filters for /api/resources/query; null fields are not filtered on
+public class ResourceQueryDTO {
+    
+    private Resource.ResourceType type;
+    private Resource.ResourceCategory category;
+    private Resource.ResourceAccessType accessType;
+    private Long projectId;
+    private Boolean isGlobal;
+    private String uploadedBy;
+    
+    // Constructors
+    public ResourceQueryDTO() {}
+    
+    // Getters and Setters
+    public Resource.ResourceType getType() { return type; }
+    public void setType(Resource.ResourceType type) { this.type = type; }
+    
+    public Resource.ResourceCategory getCategory() { return category; }
+    public void setCategory(Resource.ResourceCategory category) { this.category = category; }
+    
+    public Resource.ResourceAccessType getAccessType() { return accessType; }
+    public void setAccessType(Resource.ResourceAccessType accessType) { this.accessType = accessType; }
+    
+    public Long getProjectId() { return projectId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+    
+    public Boolean getIsGlobal() { return isGlobal; }
+    public void setIsGlobal(Boolean isGlobal) { this.isGlobal = isGlobal; }
+    
+    public String getUploadedBy() { return uploadedBy; }
+    public void setUploadedBy(String uploadedBy) { this.uploadedBy = uploadedBy; }
+}
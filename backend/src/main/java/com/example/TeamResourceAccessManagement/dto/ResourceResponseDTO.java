@@ -26,6 +26,7 @@ public class ResourceResponseDTO {
     private String createdBy;
     private String uploadedBy;
     private String allowedUserGroups;
+    private String downloadUrl;
     
     // Constructors
     public ResourceResponseDTO() {}
@@ -52,6 +53,22 @@ public class ResourceResponseDTO {
         this.allowedUserGroups = allowedUserGroups;
     }
     
+    // Used by the listing projections in ResourceRepository; never carries fileData
+    public ResourceResponseDTO(Long id, String name, String description, Resource.ResourceType type, Resource.ResourceCategory category, Resource.ResourceAccessType accessType, String resourceUrl, String filePath, Long fileSize, String mimeType, String fileExtension, Boolean isGlobal, Long projectId, String projectName, LocalDateTime createdAt, LocalDateTime updatedAt, String createdBy, String uploadedBy, String allowedUserGroups, Boolean hasFileData) {
+        this(id, name, description, type,
+             category != null ? category : Resource.ResourceCategory.OTHER,
+             accessType != null ? accessType : Resource.ResourceAccessType.COMMON,
+             resourceUrl, filePath, fileSize, mimeType, fileExtension, isGlobal, projectId, projectName,
+             createdAt, updatedAt, createdBy, uploadedBy, allowedUserGroups);
+        if (Boolean.TRUE.equals(hasFileData) || filePath != null) {
+            this.downloadUrl = downloadUrlFor(id);
+        }
+    }
+    
+    public static String downloadUrlFor(Long resourceId) {
+        return "/api/resources/" + resourceId + "/download";
+    }
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -112,4 +129,7 @@ public class ResourceResponseDTO {
     
     public String getAllowedUserGroups() { return allowedUserGroups; }
     public void setAllowedUserGroups(String allowedUserGroups) { this.allowedUserGroups = allowedUserGroups; }
+    
+    public String getDownloadUrl() { return downloadUrl; }
+    public void setDownloadUrl(String downloadUrl) { this.downloadUrl = downloadUrl; }
 }
@@ -0,0 +1,33 @@
+package com.example.TeamResourceAccessManagement.dto;
+
+public class ResourceSearchResultDTO {
+    
+    private ResourceResponseDTO resource;
+    private double score;
+    // HTML-escaped text with matched terms wrapped in <mark></mark>
+    private String nameHighlight;
+    private String descriptionHighlight;
+    
+    // Constructors
+    public ResourceSearchResultDTO() {}
+    
+    public ResourceSearchResultDTO(ResourceResponseDTO resource, double score, String nameHighlight, String descriptionHighlight) {
+        this.resource = resource;
+        this.score = score;
+        this.nameHighlight = nameHighlight;
+        this.descriptionHighlight = descriptionHighlight;
+    }
+    
+    // Getters and Setters
+    public ResourceResponseDTO getResource() { return resource; }
+    public void setResource(ResourceResponseDTO resource) { this.resource = resource; }
+    
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    
+    public String getNameHighlight() { return nameHighlight; }
+    public void setNameHighlight(String nameHighlight) { this.nameHighlight = nameHighlight; }
+    
+    public String getDescriptionHighlight() { return descriptionHighlight; }
+    public void setDescriptionHighlight(String descriptionHighlight) { this.descriptionHighlight = descriptionHighlight; }
+}
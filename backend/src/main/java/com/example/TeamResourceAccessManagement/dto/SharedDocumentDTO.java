@@ -18,6 +18,21 @@ public class SharedDocumentDTO {
     // Constructors
     public SharedDocumentDTO() {}
 
+    public SharedDocumentDTO(Long id, String title, String message, String documentType, Long authorId, String authorName,
+                             String authorRole, String documentUrl, String fileName, Long fileSize, LocalDateTime sharedAt) {
+        this.id = id;
+        this.title = title;
+        this.message = message;
+        this.documentType = documentType;
+        this.authorId = authorId;
+        this.authorName = authorName;
+        this.authorRole = authorRole;
+        this.documentUrl = documentUrl;
+        this.fileName = fileName;
+        this.fileSize = fileSize;
+        this.sharedAt = sharedAt;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
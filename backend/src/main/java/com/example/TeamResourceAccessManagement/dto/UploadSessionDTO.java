@@ -0,0 +1,50 @@
+package com.example.TeamResourceAccessManagement.dto;
+
+/**
+ * Where a chunked upload stands. A client resuming after an interruption sends chunk
+ * nextChunk at offset receivedBytes; once receivedBytes reaches totalSize it finalizes.
+ */
+public class UploadSessionDTO {
+    private String uploadId;
+    private String fileName;
+    private long totalSize;
+    private int chunkSize;
+    private long receivedBytes;
+    private long nextChunk;
+    private boolean complete;
+
+    // Constructors
+    public UploadSessionDTO() {}
+
+    public UploadSessionDTO(String uploadId, String fileName, long totalSize, int chunkSize, long receivedBytes) {
+        this.uploadId = uploadId;
+        this.fileName = fileName;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+        this.receivedBytes = receivedBytes;
+        this.nextChunk = receivedBytes / chunkSize;
+        this.complete = receivedBytes == totalSize;
+    }
+
+    // Getters and Setters
+    public String getUploadId() { return uploadId; }
+    public void setUploadId(String uploadId) { this.uploadId = uploadId; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public long getTotalSize() { return totalSize; }
+    public void setTotalSize(long totalSize) { this.totalSize = totalSize; }
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public long getReceivedBytes() { return receivedBytes; }
+    public void setReceivedBytes(long receivedBytes) { this.receivedBytes = receivedBytes; }
+
+    public long getNextChunk() { return nextChunk; }
+    public void setNextChunk(long nextChunk) { this.nextChunk = nextChunk; }
+
+    public boolean isComplete() { return complete; }
+    public void setComplete(boolean complete) { this.complete = complete; }
+}
@@ -31,6 +31,9 @@ public class ResourceMapper {
         resourceResponseDTO.setCreatedBy(resource.getCreatedBy());
         resourceResponseDTO.setUploadedBy(resource.getUploadedBy());
         resourceResponseDTO.setAllowedUserGroups(resource.getAllowedUserGroups());
+        if (resource.getFileData() != null || resource.getContentHash() != null || resource.getFilePath() != null) {
+            resourceResponseDTO.setDownloadUrl(ResourceResponseDTO.downloadUrlFor(resource.getId()));
+        }
         return resourceResponseDTO;
     }
 
@@ -2,10 +2,12 @@ package com.example.TeamResourceAccessManagement.repository;
 
 import com.example.TeamResourceAccessManagement.domain.AuditLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,6 +17,7 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     List<AuditLog> findByResourceId(Long resourceId);
     List<AuditLog> findByAction(AuditLog.ActionType action);
     List<AuditLog> findByTimestampBetween(LocalDateTime startDate, LocalDateTime endDate);
+    List<AuditLog> findByActionInAndTimestampBetween(Collection<AuditLog.ActionType> actions, LocalDateTime startDate, LocalDateTime endDate);
     
     @Query("SELECT a FROM AuditLog a WHERE a.user.id = :userId AND a.action = :action")
     List<AuditLog> findByUserIdAndAction(@Param("userId") Long userId, @Param("action") AuditLog.ActionType action);
@@ -39,4 +42,9 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     
     @Query("SELECT COUNT(a) FROM AuditLog a WHERE a.action = :action")
     long countByAction(@Param("action") AuditLog.ActionType action);
+    
+    // Single set-based DELETE; on the partitioned table it only touches partitions overlapping the range
+    @Modifying
+    @Query("DELETE FROM AuditLog a WHERE a.timestamp < :cutoff")
+    int deleteByTimestampBefore(@Param("cutoff") LocalDateTime cutoff);
 }
\ No newline at end of file
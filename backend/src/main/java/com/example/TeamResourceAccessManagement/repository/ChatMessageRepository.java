@@ -1,11 +1,16 @@
 package com.example.TeamResourceAccessManagement.repository;
 
 import com.example.TeamResourceAccessManagement.domain.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
-    List<ChatMessage> findByTeamIdOrderByTimestampAsc(Long teamId);
+    // Keyset pages over (team_id, id); ids follow posting order
+    List<ChatMessage> findByTeamIdOrderByIdDesc(Long teamId, Pageable pageable);
+    List<ChatMessage> findByTeamIdAndIdGreaterThanOrderByIdAsc(Long teamId, Long id, Pageable pageable);
+    List<ChatMessage> findByTeamIdAndIdLessThanOrderByIdDesc(Long teamId, Long id, Pageable pageable);
+    List<ChatMessage> findByTeamIdOrderByIdAsc(Long teamId);
 }
\ No newline at end of file
@@ -1,16 +1,62 @@
 package com.example.TeamResourceAccessManagement.repository;
 
 import com.example.TeamResourceAccessManagement.domain.Notification;
+import com.example.TeamResourceAccessManagement.dto.NotificationDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    
+    // Feed pages are projected straight into the DTO, so neither the entity nor its user is loaded
+    String FEED_SELECT = "SELECT new com.example.TeamResourceAccessManagement.dto.NotificationDTO(" +
+        "n.id, n.title, n.message, n.type, n.isRead, n.createdAt, " +
+        "CASE WHEN n.relatedEntityType = 'ACCESS_REQUEST' THEN n.relatedEntityId ELSE NULL END, " +
+        "CASE WHEN n.relatedEntityType = 'ACCESS_REQUEST' THEN n.relatedEntityIds ELSE NULL END) " +
+        "FROM Notification n WHERE n.user.id = :userId";
+    String FEED_UNREAD = " AND n.isRead = false";
+    // A row comparison, so the whole keyset bound is an index condition rather than a filter
+    String FEED_BEFORE = " AND (n.createdAt, n.id) < (:createdAt, :id)";
+    String FEED_ORDER = " ORDER BY n.createdAt DESC, n.id DESC";
+    
     List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
     List<Notification> findByUserIdAndIsReadOrderByCreatedAtDesc(Long userId, Boolean isRead);
+    // Replay for notification streams resuming from a Last-Event-ID
+    List<Notification> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Pageable pageable);
     
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
     Long countUnreadByUserId(Long userId);
+    
+    @Query("SELECT n.user.id FROM Notification n WHERE n.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+    
+    // Set-based so reads never load the notifications; the counts feed NotificationCounterStore
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.isRead = false")
+    int markAsRead(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsReadByUserId(@Param("userId") Long userId);
+    
+    @Query(FEED_SELECT + FEED_ORDER)
+    List<NotificationDTO> findFeed(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(FEED_SELECT + FEED_BEFORE + FEED_ORDER)
+    List<NotificationDTO> findFeedBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id, Pageable pageable);
+    
+    @Query(FEED_SELECT + FEED_UNREAD + FEED_ORDER)
+    List<NotificationDTO> findUnreadFeed(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(FEED_SELECT + FEED_UNREAD + FEED_BEFORE + FEED_ORDER)
+    List<NotificationDTO> findUnreadFeedBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id, Pageable pageable);
 }
\ No newline at end of file
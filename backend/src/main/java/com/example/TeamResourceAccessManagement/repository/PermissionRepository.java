@@ -1,6 +1,7 @@
 package com.example.TeamResourceAccessManagement.repository;
 
 import com.example.TeamResourceAccessManagement.domain.Permission;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -19,6 +20,29 @@ public interface PermissionRepository extends JpaRepository<Permission, Long> {
     @Query("SELECT p FROM Permission p WHERE p.expiresAt < :now AND p.isActive = true")
     List<Permission> findExpiredPermissions(LocalDateTime now);
     
+    // (resourceId, expiresAt) of every grant that is active and unexpired at :now
+    @Query("SELECT p.resource.id, p.expiresAt FROM Permission p WHERE p.user.id = :userId AND p.isActive = true " +
+           "AND (p.expiresAt IS NULL OR p.expiresAt > :now)")
+    List<Object[]> findEffectiveGrants(Long userId, LocalDateTime now);
+    
+    // (userId, expiresAt) of every grant on the resource that is active and unexpired at :now
+    @Query("SELECT p.user.id, p.expiresAt FROM Permission p WHERE p.resource.id = :resourceId AND p.isActive = true " +
+           "AND (p.expiresAt IS NULL OR p.expiresAt > :now)")
+    List<Object[]> findEffectiveGrantsByResourceId(Long resourceId, LocalDateTime now);
+    
+    // Rows of (id, userId, resourceId, accessLevel, expiresAt) for the access matrix, keyset-paged by id
+    @Query("SELECT p.id, p.user.id, p.resource.id, p.accessLevel, p.expiresAt FROM Permission p WHERE p.isActive = true " +
+           "AND (p.expiresAt IS NULL OR p.expiresAt > :now) AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findActiveGrantRows(Long afterId, LocalDateTime now, Pageable pageable);
+    
+    @Query("SELECT p.id, p.user.id, p.resource.id, p.accessLevel, p.expiresAt FROM Permission p WHERE p.isActive = true " +
+           "AND (p.expiresAt IS NULL OR p.expiresAt > :now) AND p.user.id = :userId")
+    List<Object[]> findActiveGrantRowsByUserId(Long userId, LocalDateTime now);
+    
+    @Query("SELECT p.id, p.user.id, p.resource.id, p.accessLevel, p.expiresAt FROM Permission p WHERE p.isActive = true " +
+           "AND (p.expiresAt IS NULL OR p.expiresAt > :now) AND p.resource.id = :resourceId")
+    List<Object[]> findActiveGrantRowsByResourceId(Long resourceId, LocalDateTime now);
+    
     @Query("SELECT p FROM Permission p WHERE p.user.id = :userId AND p.resource.project.id = :projectId")
     List<Permission> findByUserIdAndProjectId(Long userId, Long projectId);
 }
\ No newline at end of file
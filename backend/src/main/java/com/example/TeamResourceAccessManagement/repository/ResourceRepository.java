@@ -1,13 +1,26 @@
 package com.example.TeamResourceAccessManagement.repository;
 
 import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.dto.FileDownloadDTO;
+import com.example.TeamResourceAccessManagement.dto.ResourceResponseDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ResourceRepository extends JpaRepository<Resource, Long> {
+public interface ResourceRepository extends JpaRepository<Resource, Long>, ResourceRepositoryCustom {
+
+    // Metadata-only projection: selects every listed column except file_data
+    String SUMMARY_SELECT = "SELECT new com.example.TeamResourceAccessManagement.dto.ResourceResponseDTO(" +
+            "r.id, r.name, r.description, r.type, r.category, r.accessType, r.resourceUrl, r.filePath, " +
+            "r.fileSize, r.mimeType, r.fileExtension, r.isGlobal, p.id, p.name, r.createdAt, r.updatedAt, " +
+            "r.createdBy, r.uploadedBy, r.allowedUserGroups, " +
+            "CASE WHEN r.fileData IS NOT NULL OR r.contentHash IS NOT NULL THEN true ELSE false END) " +
+            "FROM Resource r LEFT JOIN r.project p ";
+
     List<Resource> findByIsGlobal(Boolean isGlobal);
     List<Resource> findByProjectId(Long projectId);
     List<Resource> findByType(Resource.ResourceType type);
@@ -15,10 +28,76 @@ public interface ResourceRepository extends JpaRepository<Resource, Long> {
     List<Resource> findByAccessType(Resource.ResourceAccessType accessType);
     List<Resource> findByProjectIdAndCategory(Long projectId, Resource.ResourceCategory category);
     List<Resource> findByProjectIdAndAccessType(Long projectId, Resource.ResourceAccessType accessType);
-    
+    long countByIsGlobal(Boolean isGlobal);
+    long countByProjectId(Long projectId);
+    boolean existsByName(String name);
+
     @Query("SELECT r FROM Resource r WHERE r.isGlobal = true OR r.project.id = :projectId")
     List<Resource> findAvailableResourcesForProject(Long projectId);
+
+    @Query(SUMMARY_SELECT)
+    List<ResourceResponseDTO> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE r.isGlobal = :isGlobal")
+    List<ResourceResponseDTO> findSummariesByIsGlobal(Boolean isGlobal);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id = :projectId")
+    List<ResourceResponseDTO> findSummariesByProjectId(Long projectId);
+
+    @Query(SUMMARY_SELECT + "WHERE r.type = :type")
+    List<ResourceResponseDTO> findSummariesByType(Resource.ResourceType type);
+
+    @Query(SUMMARY_SELECT + "WHERE r.category = :category")
+    List<ResourceResponseDTO> findSummariesByCategory(Resource.ResourceCategory category);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id = :projectId AND r.category = :category")
+    List<ResourceResponseDTO> findSummariesByProjectIdAndCategory(Long projectId, Resource.ResourceCategory category);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id = :projectId AND r.accessType = :accessType")
+    List<ResourceResponseDTO> findSummariesByProjectIdAndAccessType(Long projectId, Resource.ResourceAccessType accessType);
+
+    @Query(SUMMARY_SELECT + "WHERE r.isGlobal = true OR p.id = :projectId")
+    List<ResourceResponseDTO> findAvailableSummariesForProject(Long projectId);
+
+    // Wildcards in the input match themselves, as with a derived Containing query
+    @Query(SUMMARY_SELECT + "WHERE r.name LIKE %?#{escape([0])}% ESCAPE ?#{escapeCharacter()}")
+    List<ResourceResponseDTO> findSummariesByNameContaining(String name);
+
+    @Query(SUMMARY_SELECT + "WHERE r.id IN :ids")
+    List<ResourceResponseDTO> findSummariesByIdIn(List<Long> ids);
+
+    @Query("SELECT r.id FROM Resource r")
+    List<Long> findAllIds();
+
+    @Query("SELECT new com.example.TeamResourceAccessManagement.dto.FileDownloadDTO(" +
+           "r.id, r.name, r.mimeType, r.fileSize, r.updatedAt, r.contentHash, r.filePath) FROM Resource r WHERE r.id = :resourceId")
+    Optional<FileDownloadDTO> findDownloadById(Long resourceId);
+
+    // Reads the stored length only, not the bytes
+    @Query(value = "SELECT octet_length(file_data) FROM resources WHERE id = :resourceId", nativeQuery = true)
+    Long findFileDataLength(Long resourceId);
+
+    // offset is 1-based, as in SQL substring
+    @Query(value = "SELECT substring(file_data FROM :offset FOR :length) FROM resources WHERE id = :resourceId", nativeQuery = true)
+    byte[] readFileDataChunk(Long resourceId, long offset, int length);
+    
+    @Query("SELECT r.allowedUserGroups FROM Resource r WHERE r.id = :resourceId")
+    String findAllowedUserGroupsById(Long resourceId);
+    
+    // (resourceId, allowedUserGroups) for every resource that has group rules
+    @Query("SELECT r.id, r.allowedUserGroups FROM Resource r WHERE r.allowedUserGroups IS NOT NULL AND r.allowedUserGroups <> ''")
+    List<Object[]> findAllowedUserGroups();
+    
+    @Query("SELECT r.contentHash FROM Resource r WHERE r.id = :resourceId")
+    String findContentHashById(Long resourceId);
+    
+    boolean existsByContentHash(String contentHash);
+    
+    // Rows still holding their bytes inline, for the blob store migration
+    @Query(value = "SELECT id FROM resources WHERE file_data IS NOT NULL AND content_hash IS NULL ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsWithInlineFileData(int limit);
     
-    @Query("SELECT r FROM Resource r WHERE r.name LIKE %:name%")
-    List<Resource> findByNameContaining(String name);
-}
\ No newline at end of file
+    @Modifying
+    @Query("UPDATE Resource r SET r.contentHash = :contentHash, r.fileSize = :fileSize, r.fileData = null WHERE r.id = :resourceId")
+    int moveFileDataToBlobStore(Long resourceId, String contentHash, Long fileSize);
+}
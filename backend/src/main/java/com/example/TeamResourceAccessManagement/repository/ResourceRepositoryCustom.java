@@ -0,0 +1,15 @@
+package com.example.TeamResourceAccessManagement.repository;
+
+import java.util.List;
+
+import com.example.TeamResourceAccessManagement.dto.KeysetCursor;
+import com.example.TeamResourceAccessManagement.dto.ResourceQueryDTO;
+import com.example.TeamResourceAccessManagement.dto.ResourceResponseDTO;
+
+public interface ResourceRepositoryCustom {
+    
+    // Newest first; returns rows strictly after the cursor, or from the start when it is null
+    List<ResourceResponseDTO> findSummaryPage(ResourceQueryDTO query, KeysetCursor after, int limit);
+    
+    long countByQuery(ResourceQueryDTO query);
+}
@@ -0,0 +1,82 @@
+package com.example.TeamResourceAccessManagement.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.TeamResourceAccessManagement.dto.KeysetCursor;
+import com.example.TeamResourceAccessManagement.dto.ResourceQueryDTO;
+import com.example.TeamResourceAccessManagement.dto.ResourceResponseDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Builds the /api/resources/query statement from only the filters that are set, so each
+ * combination gets its own plan instead of one catch-all "(:x IS NULL OR ...)" query.
+ */
+public class ResourceRepositoryImpl implements ResourceRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<ResourceResponseDTO> findSummaryPage(ResourceQueryDTO query, KeysetCursor after, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder where = filters(query, params);
+        if (after != null) {
+            append(where, "(r.createdAt < :cursorCreatedAt OR (r.createdAt = :cursorCreatedAt AND r.id < :cursorId))");
+            params.put("cursorCreatedAt", after.getTimestamp());
+            params.put("cursorId", after.getId());
+        }
+        
+        TypedQuery<ResourceResponseDTO> typedQuery = entityManager.createQuery(
+            ResourceRepository.SUMMARY_SELECT + where + " ORDER BY r.createdAt DESC, r.id DESC", ResourceResponseDTO.class);
+        params.forEach(typedQuery::setParameter);
+        return typedQuery.setMaxResults(limit).getResultList();
+    }
+    
+    @Override
+    public long countByQuery(ResourceQueryDTO query) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder where = filters(query, params);
+        Query countQuery = entityManager.createQuery("SELECT COUNT(r) FROM Resource r LEFT JOIN r.project p " + where);
+        params.forEach(countQuery::setParameter);
+        return (Long) countQuery.getSingleResult();
+    }
+    
+    private StringBuilder filters(ResourceQueryDTO query, Map<String, Object> params) {
+        StringBuilder where = new StringBuilder();
+        if (query.getType() != null) {
+            append(where, "r.type = :type");
+            params.put("type", query.getType());
+        }
+        if (query.getCategory() != null) {
+            append(where, "r.category = :category");
+            params.put("category", query.getCategory());
+        }
+        if (query.getAccessType() != null) {
+            append(where, "r.accessType = :accessType");
+            params.put("accessType", query.getAccessType());
+        }
+        if (query.getProjectId() != null) {
+            append(where, "p.id = :projectId");
+            params.put("projectId", query.getProjectId());
+        }
+        if (query.getIsGlobal() != null) {
+            append(where, "r.isGlobal = :isGlobal");
+            params.put("isGlobal", query.getIsGlobal());
+        }
+        if (query.getUploadedBy() != null && !query.getUploadedBy().isBlank()) {
+            append(where, "r.uploadedBy = :uploadedBy");
+            params.put("uploadedBy", query.getUploadedBy());
+        }
+        return where;
+    }
+    
+    private void append(StringBuilder where, String condition) {
+        where.append(where.length() == 0 ? "WHERE " : " AND ").append(condition);
+    }
+}
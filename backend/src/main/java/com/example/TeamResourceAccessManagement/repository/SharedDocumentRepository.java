@@ -1,19 +1,80 @@
 package com.example.TeamResourceAccessManagement.repository;
 
 import com.example.TeamResourceAccessManagement.domain.SharedDocument;
+import com.example.TeamResourceAccessManagement.dto.FileDownloadDTO;
+import com.example.TeamResourceAccessManagement.dto.SharedDocumentDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SharedDocumentRepository extends JpaRepository<SharedDocument, Long> {
     
-    @Query("SELECT sd FROM SharedDocument sd ORDER BY sd.sharedAt DESC")
-    List<SharedDocument> findAllOrderBySharedAtDesc();
+    // Listings are projected straight into the DTO, so file_data is never read; content is fetched only on download
+    String FEED_SELECT = "SELECT new com.example.TeamResourceAccessManagement.dto.SharedDocumentDTO(" +
+        "sd.id, sd.title, sd.message, sd.documentType, sd.authorId, sd.authorName, sd.authorRole, " +
+        "sd.documentUrl, sd.fileName, sd.fileSize, sd.sharedAt) FROM SharedDocument sd";
+    String FEED_BY_AUTHOR = " WHERE sd.authorId = :authorId";
+    String FEED_BY_TYPE = " WHERE sd.documentType = :documentType";
+    // A row comparison, so the whole keyset bound is an index condition rather than a filter
+    String FEED_BEFORE = "(sd.sharedAt, sd.id) < (:sharedAt, :id)";
+    String FEED_ORDER = " ORDER BY sd.sharedAt DESC, sd.id DESC";
     
-    List<SharedDocument> findByAuthorIdOrderBySharedAtDesc(Long authorId);
+    @Query(FEED_SELECT + FEED_ORDER)
+    List<SharedDocumentDTO> findFeed(Pageable pageable);
     
-    List<SharedDocument> findByDocumentTypeOrderBySharedAtDesc(String documentType);
-}
\ No newline at end of file
+    @Query(FEED_SELECT + " WHERE " + FEED_BEFORE + FEED_ORDER)
+    List<SharedDocumentDTO> findFeedBefore(@Param("sharedAt") LocalDateTime sharedAt, @Param("id") Long id, Pageable pageable);
+    
+    @Query(FEED_SELECT + FEED_BY_AUTHOR + FEED_ORDER)
+    List<SharedDocumentDTO> findFeedByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+    
+    @Query(FEED_SELECT + FEED_BY_AUTHOR + " AND " + FEED_BEFORE + FEED_ORDER)
+    List<SharedDocumentDTO> findFeedByAuthorIdBefore(@Param("authorId") Long authorId, @Param("sharedAt") LocalDateTime sharedAt,
+                                                     @Param("id") Long id, Pageable pageable);
+    
+    @Query(FEED_SELECT + FEED_BY_TYPE + FEED_ORDER)
+    List<SharedDocumentDTO> findFeedByDocumentType(@Param("documentType") String documentType, Pageable pageable);
+    
+    @Query(FEED_SELECT + FEED_BY_TYPE + " AND " + FEED_BEFORE + FEED_ORDER)
+    List<SharedDocumentDTO> findFeedByDocumentTypeBefore(@Param("documentType") String documentType, @Param("sharedAt") LocalDateTime sharedAt,
+                                                         @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT sd.authorId FROM SharedDocument sd WHERE sd.id = :documentId")
+    Optional<Long> findAuthorIdById(@Param("documentId") Long documentId);
+    
+    // Deletes by id without loading the entity and its file_data first
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SharedDocument sd WHERE sd.id = :documentId")
+    int deleteByIdWithoutLoading(@Param("documentId") Long documentId);
+    
+    @Query("SELECT new com.example.TeamResourceAccessManagement.dto.FileDownloadDTO(" +
+           "sd.id, sd.fileName, 'application/octet-stream', sd.fileSize, sd.sharedAt, sd.contentHash) FROM SharedDocument sd WHERE sd.id = :documentId")
+    Optional<FileDownloadDTO> findDownloadById(Long documentId);
+    
+    // file_data is a PostgreSQL large object (@Lob); offset is 0-based
+    @Query(value = "SELECT lo_get(file_data, :offset, :length) FROM shared_documents WHERE id = :documentId", nativeQuery = true)
+    byte[] readFileDataChunk(Long documentId, long offset, int length);
+    
+    boolean existsByContentHash(String contentHash);
+    
+    @Query(value = "SELECT id FROM shared_documents WHERE file_data IS NOT NULL AND content_hash IS NULL ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsWithInlineFileData(int limit);
+    
+    // Frees the large object itself; clearing the column alone would leave it in pg_largeobject
+    @Query(value = "SELECT lo_unlink(file_data) FROM shared_documents WHERE id = :documentId AND file_data IS NOT NULL", nativeQuery = true)
+    Integer unlinkFileData(Long documentId);
+    
+    @Modifying
+    @Query(value = "UPDATE shared_documents SET content_hash = :contentHash, file_size = :fileSize, file_data = NULL WHERE id = :documentId", nativeQuery = true)
+    int moveFileDataToBlobStore(Long documentId, String contentHash, Long fileSize);
+}
@@ -17,6 +17,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u JOIN u.projects p WHERE p.id = :projectId")
     List<User> findByProjectId(Long projectId);
     
+    @Query("SELECT u.username FROM User u WHERE u.id = :userId")
+    String findUsernameById(Long userId);
+    
     @Query(value = "SELECT * FROM tramusers WHERE " +
            "LOWER(username) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(email) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -0,0 +1,237 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded in-memory cache of canUserAccessResource decisions keyed by (userId, resourceId).
+ * Entries expire after app.access-cache.ttl-seconds, or earlier when the granting permission
+ * expires. Services that change permissions, access settings or project membership must
+ * call the matching invalidate method after saving; registered listeners hear about the
+ * same changes so other access structures can stay in step.
+ * <p>
+ * Every invalidation bumps a generation counter before removing entries, and a decision
+ * loaded while the generation moved is not kept: it may have been read before the change
+ * that triggered the invalidation was committed. Inside a transaction the entries are dropped
+ * (and the generation bumped) once more after commit, so a check that ran between the
+ * invalidation and the commit cannot leave the old decision cached until the TTL.
+ */
+@Component
+public class AccessDecisionCache {
+    
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlMillis;
+    private final int maxEntries;
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    
+    public AccessDecisionCache(@Value("${app.access-cache.ttl-seconds:60}") long ttlSeconds,
+                               @Value("${app.access-cache.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+    
+    public boolean isAllowed(Long userId, Long resourceId, Supplier<Decision> loader) {
+        if (userId == null || resourceId == null) {
+            return loader.get().allowed;
+        }
+        Key key = new Key(userId, resourceId);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.validUntil > now) {
+            hits.increment();
+            return entry.allowed;
+        }
+        misses.increment();
+        
+        long loadedAt = generation.get();
+        Decision decision = loader.get();
+        long validUntil = now + ttlMillis;
+        if (decision.expiresAt != null) {
+            validUntil = Math.min(validUntil, decision.expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        Entry loaded = new Entry(decision.allowed, validUntil);
+        entries.put(key, loaded);
+        // Checked after the put: an invalidation that bumps later also removes the entry itself
+        if (generation.get() != loadedAt) {
+            entries.remove(key, loaded);
+        }
+        return decision.allowed;
+    }
+    
+    public void invalidate(Long userId, Long resourceId) {
+        Key key = new Key(userId, resourceId);
+        dropNowAndAfterCommit(() -> {
+            if (entries.remove(key) != null) {
+                invalidations.increment();
+            }
+        });
+        listeners.forEach(listener -> listener.accessChanged(userId, resourceId));
+    }
+    
+    public void invalidateUser(Long userId) {
+        dropNowAndAfterCommit(() -> removeIf(key -> key.userId.equals(userId)));
+        listeners.forEach(listener -> listener.userChanged(userId));
+    }
+    
+    public void invalidateResource(Long resourceId) {
+        dropNowAndAfterCommit(() -> removeIf(key -> key.resourceId.equals(resourceId)));
+        listeners.forEach(listener -> listener.resourceChanged(resourceId));
+    }
+    
+    public void invalidateAll() {
+        dropNowAndAfterCommit(() -> {
+            invalidations.add(entries.size());
+            entries.clear();
+        });
+        listeners.forEach(InvalidationListener::allChanged);
+    }
+    
+    public void addInvalidationListener(InvalidationListener listener) {
+        listeners.add(listener);
+    }
+    
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", ttlMillis / 1000);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+    
+    // Listeners register their own after-commit work, so only the entries are dropped twice
+    private void dropNowAndAfterCommit(Runnable drop) {
+        generation.incrementAndGet();
+        drop.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                    drop.run();
+                }
+            });
+        }
+    }
+    
+    private void removeIf(Predicate<Key> predicate) {
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (predicate.test(keys.next())) {
+                keys.remove();
+                invalidations.increment();
+            }
+        }
+    }
+    
+    // Drops expired entries first; if that is not enough, drops an arbitrary eighth of the cache
+    private void evict(long now) {
+        entries.values().removeIf(entry -> {
+            if (entry.validUntil <= now) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        int toRemove = Math.max(1, maxEntries / 8);
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (toRemove-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+    
+    public interface InvalidationListener {
+        void accessChanged(Long userId, Long resourceId);
+        void userChanged(Long userId);
+        void resourceChanged(Long resourceId);
+        void allChanged();
+    }
+    
+    public static final class Decision {
+        private final boolean allowed;
+        private final LocalDateTime expiresAt;
+        
+        private Decision(boolean allowed, LocalDateTime expiresAt) {
+            this.allowed = allowed;
+            this.expiresAt = expiresAt;
+        }
+        
+        /** @param expiresAt when the granting permission lapses, or null if it does not */
+        public static Decision allow(LocalDateTime expiresAt) {
+            return new Decision(true, expiresAt);
+        }
+        
+        public static Decision deny() {
+            return new Decision(false, null);
+        }
+    }
+    
+    private static final class Key {
+        private final Long userId;
+        private final Long resourceId;
+        
+        private Key(Long userId, Long resourceId) {
+            this.userId = userId;
+            this.resourceId = resourceId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return userId.equals(other.userId) && resourceId.equals(other.resourceId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return 31 * userId.hashCode() + resourceId.hashCode();
+        }
+    }
+    
+    private static final class Entry {
+        private final boolean allowed;
+        private final long validUntil;
+        
+        private Entry(boolean allowed, long validUntil) {
+            this.allowed = allowed;
+            this.validUntil = validUntil;
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.TeamResourceAccessManagement.domain.Permission;
+import com.example.TeamResourceAccessManagement.repository.PermissionRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Users x resources matrix of active, unexpired explicit permissions, held as compressed
+ * bitmaps in both directions with one bitmap per access level. Levels are cumulative: a
+ * WRITE grant is also present in the READ bitmaps, so "at least level L" is a single lookup.
+ * Rebuilt from PermissionRepository when the application is ready and then kept current
+ * through AccessDecisionCache invalidations. Group-based access (allowedUserGroups) is not
+ * part of the matrix; EffectiveAccessIndex covers that.
+ */
+@Component
+public class AccessMatrix implements AccessDecisionCache.InvalidationListener {
+    
+    // Declared weakest first (READ < WRITE < ADMIN < FULL_ACCESS), so ordinal doubles as rank
+    private static final Permission.AccessLevel[] LEVELS = Permission.AccessLevel.values();
+    private static final int REBUILD_PAGE_SIZE = 5000;
+    private static final int REBUILD_ATTEMPTS = 3;
+    
+    // Both optional so the matrix can be used standalone (benchmarks, tests)
+    @Autowired(required = false)
+    private PermissionRepository permissionRepository;
+    
+    @Autowired(required = false)
+    private AccessDecisionCache accessDecisionCache;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    private volatile long nextExpiry = Long.MAX_VALUE;
+    private volatile boolean loaded;
+    // Bumped on every incremental change so a rebuild that raced with one is redone
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastRebuildMillis;
+    private volatile LocalDateTime lastRebuiltAt;
+    
+    @PostConstruct
+    public void registerForInvalidation() {
+        if (accessDecisionCache != null) {
+            accessDecisionCache.addInvalidationListener(this);
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Queries retry the load lazily
+            System.err.println("Access matrix rebuild failed: " + e.getMessage());
+        }
+    }
+    
+    public void rebuild() {
+        if (permissionRepository == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        int grantCount;
+        for (int attempt = 1; ; attempt++) {
+            long buildVersion = version.get();
+            State fresh = load();
+            lock.writeLock().lock();
+            try {
+                if (version.get() == buildVersion || attempt >= REBUILD_ATTEMPTS) {
+                    state = fresh;
+                    nextExpiry = fresh.nextExpiry();
+                    loaded = true;
+                    grantCount = fresh.grants.size();
+                    break;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lastRebuildMillis = (System.nanoTime() - start) / 1_000_000;
+        lastRebuiltAt = LocalDateTime.now();
+        System.out.println("Access matrix rebuilt: " + grantCount + " grants in " + lastRebuildMillis + " ms");
+    }
+    
+    private State load() {
+        State fresh = new State();
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = permissionRepository.findActiveGrantRows(afterId, now, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (Object[] row : rows) {
+                fresh.put((Long) row[1], (Long) row[2], (Permission.AccessLevel) row[3], toMillis((LocalDateTime) row[4]));
+                afterId = (Long) row[0];
+            }
+        } while (rows.size() == REBUILD_PAGE_SIZE);
+        return fresh;
+    }
+    
+    // Grant (or regrant at a new level) a single user/resource pair
+    public void put(Long userId, Long resourceId, Permission.AccessLevel level, LocalDateTime expiresAt) {
+        long expiresAtMillis = toMillis(expiresAt);
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            remove(userId, resourceId);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            version.incrementAndGet();
+            state.put(userId, resourceId, level, expiresAtMillis);
+            nextExpiry = Math.min(nextExpiry, expiresAtMillis);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long userId, Long resourceId) {
+        lock.writeLock().lock();
+        try {
+            version.incrementAndGet();
+            state.remove(userId, resourceId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean hasAccess(Long userId, Long resourceId, Permission.AccessLevel level) {
+        prepareRead();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap resources = state.resourcesByUser.get(level.ordinal()).get(toInt(userId));
+            return resources != null && resources.contains(toInt(resourceId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Users holding at least the given level on the resource; the caller owns the returned bitmap
+    public RoaringBitmap usersWithAccess(Long resourceId, Permission.AccessLevel level) {
+        prepareRead();
+        lock.readLock().lock();
+        try {
+            return copyOf(state.usersByResource.get(level.ordinal()).get(toInt(resourceId)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public RoaringBitmap resourcesForUser(Long userId, Permission.AccessLevel level) {
+        prepareRead();
+        lock.readLock().lock();
+        try {
+            return copyOf(state.resourcesByUser.get(level.ordinal()).get(toInt(userId)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int countUsers(Long resourceId, Permission.AccessLevel level) {
+        prepareRead();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap users = state.usersByResource.get(level.ordinal()).get(toInt(resourceId));
+            return users == null ? 0 : users.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int countResources(Long userId, Permission.AccessLevel level) {
+        prepareRead();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap resources = state.resourcesByUser.get(level.ordinal()).get(toInt(userId));
+            return resources == null ? 0 : resources.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Users holding at least the given level on every one of the resources
+    public RoaringBitmap usersWithAccessToAll(List<Long> resourceIds, Permission.AccessLevel level) {
+        if (resourceIds.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        prepareRead();
+        lock.readLock().lock();
+        try {
+            Map<Integer, RoaringBitmap> usersByResource = state.usersByResource.get(level.ordinal());
+            List<RoaringBitmap> bitmaps = new ArrayList<>(resourceIds.size());
+            for (Long resourceId : resourceIds) {
+                RoaringBitmap users = usersByResource.get(toInt(resourceId));
+                if (users == null) {
+                    return new RoaringBitmap();
+                }
+                bitmaps.add(users);
+            }
+            return FastAggregation.and(bitmaps.iterator());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Number of resources both users hold at least the given level on, without materializing the set
+    public int countSharedResources(Long userId, Long otherUserId, Permission.AccessLevel level) {
+        prepareRead();
+        lock.readLock().lock();
+        try {
+            Map<Integer, RoaringBitmap> resourcesByUser = state.resourcesByUser.get(level.ordinal());
+            RoaringBitmap first = resourcesByUser.get(toInt(userId));
+            RoaringBitmap second = resourcesByUser.get(toInt(otherUserId));
+            return first == null || second == null ? 0 : RoaringBitmap.andCardinality(first, second);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        prepareRead();
+        lock.readLock().lock();
+        try {
+            long sizeInBytes = 0;
+            for (int level = 0; level < LEVELS.length; level++) {
+                for (RoaringBitmap bitmap : state.resourcesByUser.get(level).values()) {
+                    sizeInBytes += bitmap.getLongSizeInBytes();
+                }
+                for (RoaringBitmap bitmap : state.usersByResource.get(level).values()) {
+                    sizeInBytes += bitmap.getLongSizeInBytes();
+                }
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("grants", state.grants.size());
+            stats.put("users", state.resourcesByUser.get(0).size());
+            stats.put("resources", state.usersByResource.get(0).size());
+            stats.put("bitmapBytes", sizeInBytes);
+            stats.put("lastRebuildMillis", lastRebuildMillis);
+            stats.put("lastRebuiltAt", lastRebuiltAt);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public static List<Long> toIdList(RoaringBitmap ids) {
+        List<Long> list = new ArrayList<>(ids.getCardinality());
+        ids.forEach((int id) -> list.add((long) id));
+        return list;
+    }
+    
+    @Override
+    public void accessChanged(Long userId, Long resourceId) {
+        afterCommit(() -> {
+            Optional<Permission> permission = permissionRepository.findByUserIdAndResourceId(userId, resourceId);
+            if (permission.isPresent() && permission.get().getIsActive()) {
+                put(userId, resourceId, permission.get().getAccessLevel(), permission.get().getExpiresAt());
+            } else {
+                remove(userId, resourceId);
+            }
+        });
+    }
+    
+    @Override
+    public void userChanged(Long userId) {
+        afterCommit(() -> replace(permissionRepository.findActiveGrantRowsByUserId(userId, LocalDateTime.now()),
+            state -> state.grantsOfUser(toInt(userId))));
+    }
+    
+    @Override
+    public void resourceChanged(Long resourceId) {
+        afterCommit(() -> replace(permissionRepository.findActiveGrantRowsByResourceId(resourceId, LocalDateTime.now()),
+            state -> state.grantsOfResource(toInt(resourceId))));
+    }
+    
+    @Override
+    public void allChanged() {
+        afterCommit(this::rebuild);
+    }
+    
+    // Swaps every grant of one user or one resource for the freshly read rows
+    private void replace(List<Object[]> rows, Function<State, List<long[]>> stalePairs) {
+        lock.writeLock().lock();
+        try {
+            version.incrementAndGet();
+            for (long[] pair : stalePairs.apply(state)) {
+                state.remove(pair[0], pair[1]);
+            }
+            for (Object[] row : rows) {
+                long expiresAtMillis = toMillis((LocalDateTime) row[4]);
+                state.put((Long) row[1], (Long) row[2], (Permission.AccessLevel) row[3], expiresAtMillis);
+                nextExpiry = Math.min(nextExpiry, expiresAtMillis);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Re-read only once the change is visible; a rolled-back change leaves the matrix as it was
+    private void afterCommit(Runnable reload) {
+        if (permissionRepository == null) {
+            return;
+        }
+        Runnable guarded = () -> {
+            try {
+                reload.run();
+            } catch (Exception e) {
+                System.err.println("Access matrix update failed, rebuilding lazily: " + e.getMessage());
+                loaded = false;
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guarded.run();
+                }
+            });
+        } else {
+            guarded.run();
+        }
+    }
+    
+    private void prepareRead() {
+        if (!loaded && permissionRepository != null) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+        if (nextExpiry <= System.currentTimeMillis()) {
+            lock.writeLock().lock();
+            try {
+                nextExpiry = state.purgeExpired(System.currentTimeMillis());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    private static RoaringBitmap copyOf(RoaringBitmap bitmap) {
+        return bitmap == null ? new RoaringBitmap() : bitmap.clone();
+    }
+    
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime == null ? Long.MAX_VALUE : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private static int toInt(Long id) {
+        if (id > Integer.MAX_VALUE || id < 0) {
+            throw new IllegalStateException("Id " + id + " does not fit the access matrix");
+        }
+        return id.intValue();
+    }
+    
+    private static long pairKey(int userId, int resourceId) {
+        return ((long) userId << 32) | resourceId;
+    }
+    
+    private static final class Grant {
+        private final int userId;
+        private final int resourceId;
+        private final int level;
+        private final long expiresAtMillis;
+    
+        private Grant(int userId, int resourceId, int level, long expiresAtMillis) {
+            this.userId = userId;
+            this.resourceId = resourceId;
+            this.level = level;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+    
+    // Not thread-safe on its own; guarded by the matrix lock once published
+    private static final class State {
+        // Indexed by access level ordinal
+        private final List<Map<Integer, RoaringBitmap>> resourcesByUser = new ArrayList<>(LEVELS.length);
+        private final List<Map<Integer, RoaringBitmap>> usersByResource = new ArrayList<>(LEVELS.length);
+        private final Map<Long, Grant> grants = new HashMap<>();
+        private final TreeMap<Long, Set<Long>> grantsByExpiry = new TreeMap<>();
+    
+        private State() {
+            for (int level = 0; level < LEVELS.length; level++) {
+                resourcesByUser.add(new HashMap<>());
+                usersByResource.add(new HashMap<>());
+            }
+        }
+    
+        private void put(Long userId, Long resourceId, Permission.AccessLevel accessLevel, long expiresAtMillis) {
+            int user = toInt(userId);
+            int resource = toInt(resourceId);
+            remove(userId, resourceId);
+    
+            Grant grant = new Grant(user, resource, accessLevel.ordinal(), expiresAtMillis);
+            long key = pairKey(user, resource);
+            grants.put(key, grant);
+            if (expiresAtMillis != Long.MAX_VALUE) {
+                grantsByExpiry.computeIfAbsent(expiresAtMillis, at -> new HashSet<>()).add(key);
+            }
+            for (int level = 0; level <= grant.level; level++) {
+                resourcesByUser.get(level).computeIfAbsent(user, id -> new RoaringBitmap()).add(resource);
+                usersByResource.get(level).computeIfAbsent(resource, id -> new RoaringBitmap()).add(user);
+            }
+        }
+    
+        private void remove(Long userId, Long resourceId) {
+            long key = pairKey(toInt(userId), toInt(resourceId));
+            Grant grant = grants.remove(key);
+            if (grant == null) {
+                return;
+            }
+            Set<Long> sameExpiry = grantsByExpiry.get(grant.expiresAtMillis);
+            if (sameExpiry != null && sameExpiry.remove(key) && sameExpiry.isEmpty()) {
+                grantsByExpiry.remove(grant.expiresAtMillis);
+            }
+            for (int level = 0; level <= grant.level; level++) {
+                clear(resourcesByUser.get(level), grant.userId, grant.resourceId);
+                clear(usersByResource.get(level), grant.resourceId, grant.userId);
+            }
+        }
+    
+        // READ is cumulative, so its bitmaps hold every grant regardless of level
+        private List<long[]> grantsOfUser(int user) {
+            List<long[]> pairs = new ArrayList<>();
+            RoaringBitmap resources = resourcesByUser.get(0).get(user);
+            if (resources != null) {
+                resources.forEach((int resource) -> pairs.add(new long[] {user, resource}));
+            }
+            return pairs;
+        }
+    
+        private List<long[]> grantsOfResource(int resource) {
+            List<long[]> pairs = new ArrayList<>();
+            RoaringBitmap users = usersByResource.get(0).get(resource);
+            if (users != null) {
+                users.forEach((int user) -> pairs.add(new long[] {user, resource}));
+            }
+            return pairs;
+        }
+    
+        private static void clear(Map<Integer, RoaringBitmap> bitmaps, int owner, int id) {
+            RoaringBitmap bitmap = bitmaps.get(owner);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(owner);
+                }
+            }
+        }
+    
+        // Drops grants that expired by now and returns the next expiry
+        private long purgeExpired(long now) {
+            while (!grantsByExpiry.isEmpty() && grantsByExpiry.firstKey() <= now) {
+                for (Long key : new ArrayList<>(grantsByExpiry.firstEntry().getValue())) {
+                    remove(key >>> 32, key & 0xFFFFFFFFL);
+                }
+            }
+            return nextExpiry();
+        }
+    
+        private long nextExpiry() {
+            return grantsByExpiry.isEmpty() ? Long.MAX_VALUE : grantsByExpiry.firstKey();
+        }
+    }
+}
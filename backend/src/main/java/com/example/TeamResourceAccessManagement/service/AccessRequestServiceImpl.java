@@ -12,6 +12,7 @@ import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
 import com.example.TeamResourceAccessManagement.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -35,6 +36,9 @@ public class AccessRequestServiceImpl implements AccessRequestService {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private AccessDecisionCache accessDecisionCache;
+    
     @Override
     public AccessRequestDTO createAccessRequest(AccessRequestDTO accessRequestDTO) {
         try {
@@ -149,6 +153,7 @@ public class AccessRequestServiceImpl implements AccessRequestService {
     }
     
     @Override
+    @Transactional
     public AccessRequestDTO approveAccessRequest(Long id, String comments) {
         Optional<AccessRequest> requestOpt = accessRequestRepository.findById(id);
         if (requestOpt.isPresent()) {
@@ -166,6 +171,7 @@ public class AccessRequestServiceImpl implements AccessRequestService {
             permission.setIsActive(true);
             permission.setGrantedAt(LocalDateTime.now());
             permissionRepository.save(permission);
+            accessDecisionCache.invalidate(request.getUser().getId(), request.getResource().getId());
             
             // Create notification for requester
             notificationService.createAccessResponseNotification(savedRequest, true);
@@ -176,6 +182,7 @@ public class AccessRequestServiceImpl implements AccessRequestService {
     }
     
     @Override
+    @Transactional
     public AccessRequestDTO rejectAccessRequest(Long id, String comments) {
         Optional<AccessRequest> requestOpt = accessRequestRepository.findById(id);
         if (requestOpt.isPresent()) {
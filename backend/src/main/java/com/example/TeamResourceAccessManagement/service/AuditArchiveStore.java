@@ -0,0 +1,379 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.TeamResourceAccessManagement.dto.ArchivedAuditLogDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Append-only archive of cold audit rows under {@code app.audit.archive.root}. Each segment is
+ * a gzipped NDJSON file ({@code seg-000001.ndjson.gz}) written once in (timestamp, id) order,
+ * renamed into place and made read-only. Next to it a small {@code .idx} file holds the time
+ * and id range, a SHA-256 of the segment and bitmaps of the user and resource ids it contains,
+ * so a query only decompresses segments that can hold a match. The indexes are kept in memory;
+ * a missing one is rebuilt from its segment at startup.
+ */
+@Component
+public class AuditArchiveStore {
+    
+    private static final Pattern SEGMENT_NAME = Pattern.compile("seg-(\\d{6,})\\.ndjson\\.gz");
+    private static final int INDEX_MAGIC = 0x41415831; // "AAX1"
+    
+    private final Path root;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    
+    // Ordered by sequence, which is also (timestamp, id) order
+    private volatile List<SegmentIndex> segments = List.of();
+    
+    private final LongAdder segmentsScanned = new LongAdder();
+    private final LongAdder segmentsSkipped = new LongAdder();
+    
+    public AuditArchiveStore(@Value("${app.audit.archive.root:uploads/audit-archive}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+    
+    @PostConstruct
+    public void load() {
+        try {
+            Files.createDirectories(root);
+            List<SegmentIndex> loaded = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".tmp")) {
+                        // A segment that never got renamed into place
+                        Files.deleteIfExists(file);
+                        continue;
+                    }
+                    Matcher matcher = SEGMENT_NAME.matcher(name);
+                    if (matcher.matches()) {
+                        loaded.add(loadIndex(Long.parseLong(matcher.group(1)), file));
+                    }
+                }
+            }
+            loaded.sort(Comparator.comparingLong(index -> index.sequence));
+            segments = List.copyOf(loaded);
+            System.out.println("Audit archive: " + loaded.size() + " segments loaded from " + root);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load audit archive from " + root, e);
+        }
+    }
+    
+    /**
+     * Writes the rows, which must follow the current watermark in (timestamp, id) order, as
+     * one new immutable segment.
+     */
+    public synchronized Map<String, Object> writeSegment(List<ArchivedAuditLogDTO> rows) throws IOException {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("An archive segment needs at least one row");
+        }
+        List<SegmentIndex> current = segments;
+        SegmentIndex last = current.isEmpty() ? null : current.get(current.size() - 1);
+        if (last != null && compare(rows.get(0), last.lastTimestamp, last.lastId) <= 0) {
+            throw new IllegalArgumentException("Rows must come after the archive watermark " + last.lastTimestamp + "/" + last.lastId);
+        }
+    
+        long sequence = last == null ? 1 : last.sequence + 1;
+        Path segment = root.resolve(String.format("seg-%06d.ndjson.gz", sequence));
+        Path temp = root.resolve(segment.getFileName() + ".tmp");
+        MessageDigest digest = newDigest();
+        try {
+            try (OutputStream file = Files.newOutputStream(temp);
+                 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                     new GZIPOutputStream(new DigestOutputStream(file, digest), 64 * 1024), StandardCharsets.UTF_8))) {
+                for (ArchivedAuditLogDTO row : rows) {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            }
+            SegmentIndex index = SegmentIndex.of(sequence, segment, rows, HexFormat.of().formatHex(digest.digest()), Files.size(temp));
+            // Index first: a segment without one is rebuilt on load, an index without a segment is never read
+            writeIndex(index);
+            Files.move(temp, segment, StandardCopyOption.ATOMIC_MOVE);
+            segment.toFile().setReadOnly();
+            indexPath(segment).toFile().setReadOnly();
+    
+            List<SegmentIndex> next = new ArrayList<>(current);
+            next.add(index);
+            segments = List.copyOf(next);
+            return index.toMap();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * Archived rows with a timestamp in [from, to] (inclusive, like the repository's Between
+     * queries), optionally restricted to one user and/or resource, in (timestamp, id) order.
+     */
+    public List<ArchivedAuditLogDTO> scan(LocalDateTime from, LocalDateTime to, Long userId, Long resourceId) {
+        List<ArchivedAuditLogDTO> result = new ArrayList<>();
+        for (SegmentIndex index : segments) {
+            if (!index.mayContain(from, to, userId, resourceId)) {
+                segmentsSkipped.increment();
+                continue;
+            }
+            segmentsScanned.increment();
+            try (BufferedReader reader = openSegment(index.path)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    ArchivedAuditLogDTO row = objectMapper.readValue(line, ArchivedAuditLogDTO.class);
+                    if (row.getTimestamp().isAfter(to)) {
+                        // Rows are in timestamp order, nothing later in this segment can match
+                        break;
+                    }
+                    if (!row.getTimestamp().isBefore(from)
+                            && (userId == null || userId.equals(row.getUserId()))
+                            && (resourceId == null || resourceId.equals(row.getResourceId()))) {
+                        result.add(row);
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read audit archive segment " + index.path.getFileName(), e);
+            }
+        }
+        return result;
+    }
+    
+    // Timestamp of the last archived row, or null when nothing has been archived
+    public LocalDateTime getWatermarkTimestamp() {
+        List<SegmentIndex> current = segments;
+        return current.isEmpty() ? null : current.get(current.size() - 1).lastTimestamp;
+    }
+    
+    public Long getWatermarkId() {
+        List<SegmentIndex> current = segments;
+        return current.isEmpty() ? null : current.get(current.size() - 1).lastId;
+    }
+    
+    public List<Map<String, Object>> getSegments() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (SegmentIndex index : segments) {
+            result.add(index.toMap());
+        }
+        return result;
+    }
+    
+    public Map<String, Object> getStats() {
+        List<SegmentIndex> current = segments;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("root", root.toString());
+        stats.put("segments", current.size());
+        stats.put("rows", current.stream().mapToLong(index -> index.rows).sum());
+        stats.put("bytes", current.stream().mapToLong(index -> index.bytes).sum());
+        stats.put("watermarkTimestamp", getWatermarkTimestamp());
+        stats.put("watermarkId", getWatermarkId());
+        stats.put("segmentsScanned", segmentsScanned.sum());
+        stats.put("segmentsSkipped", segmentsSkipped.sum());
+        return stats;
+    }
+    
+    private SegmentIndex loadIndex(long sequence, Path segment) throws IOException {
+        Path indexFile = indexPath(segment);
+        if (Files.isRegularFile(indexFile)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(indexFile))) {
+                if (in.readInt() == INDEX_MAGIC) {
+                    return SegmentIndex.read(sequence, segment, in);
+                }
+            } catch (IOException e) {
+                System.err.println("Unreadable audit archive index " + indexFile.getFileName() + ", rebuilding: " + e.getMessage());
+            }
+        }
+    
+        List<ArchivedAuditLogDTO> rows = new ArrayList<>();
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(segment)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        try (BufferedReader reader = openSegment(segment)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rows.add(objectMapper.readValue(line, ArchivedAuditLogDTO.class));
+            }
+        }
+        SegmentIndex index = SegmentIndex.of(sequence, segment, rows, HexFormat.of().formatHex(digest.digest()), Files.size(segment));
+        Files.deleteIfExists(indexFile);
+        writeIndex(index);
+        indexFile.toFile().setReadOnly();
+        System.out.println("Audit archive: rebuilt index for " + segment.getFileName());
+        return index;
+    }
+    
+    private void writeIndex(SegmentIndex index) throws IOException {
+        Path indexFile = indexPath(index.path);
+        Path temp = root.resolve(indexFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+            out.writeInt(INDEX_MAGIC);
+            index.write(out);
+        }
+        Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static BufferedReader openSegment(Path segment) throws IOException {
+        return new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(Files.newInputStream(segment), 64 * 1024), StandardCharsets.UTF_8));
+    }
+    
+    private static Path indexPath(Path segment) {
+        String name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.length() - ".ndjson.gz".length()) + ".idx");
+    }
+    
+    private static int compare(ArchivedAuditLogDTO row, LocalDateTime timestamp, long id) {
+        int byTime = row.getTimestamp().compareTo(timestamp);
+        return byTime != 0 ? byTime : Long.compare(row.getId(), id);
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private static final class SegmentIndex {
+        private final long sequence;
+        private final Path path;
+        private long rows;
+        private long bytes;
+        private String sha256;
+        private LocalDateTime minTimestamp;
+        private LocalDateTime lastTimestamp;
+        private long minId = Long.MAX_VALUE;
+        private long maxId = Long.MIN_VALUE;
+        private long lastId;
+        private Roaring64NavigableMap userIds = new Roaring64NavigableMap();
+        private Roaring64NavigableMap resourceIds = new Roaring64NavigableMap();
+    
+        private SegmentIndex(long sequence, Path path) {
+            this.sequence = sequence;
+            this.path = path;
+        }
+    
+        private static SegmentIndex of(long sequence, Path path, List<ArchivedAuditLogDTO> rows, String sha256, long bytes) {
+            SegmentIndex index = new SegmentIndex(sequence, path);
+            for (ArchivedAuditLogDTO row : rows) {
+                index.minId = Math.min(index.minId, row.getId());
+                index.maxId = Math.max(index.maxId, row.getId());
+                if (row.getUserId() != null) {
+                    index.userIds.addLong(row.getUserId());
+                }
+                if (row.getResourceId() != null) {
+                    index.resourceIds.addLong(row.getResourceId());
+                }
+            }
+            index.rows = rows.size();
+            index.minTimestamp = rows.get(0).getTimestamp();
+            index.lastTimestamp = rows.get(rows.size() - 1).getTimestamp();
+            index.lastId = rows.get(rows.size() - 1).getId();
+            index.sha256 = sha256;
+            index.bytes = bytes;
+            index.userIds.runOptimize();
+            index.resourceIds.runOptimize();
+            return index;
+        }
+    
+        private static SegmentIndex read(long sequence, Path path, DataInputStream in) throws IOException {
+            SegmentIndex index = new SegmentIndex(sequence, path);
+            index.rows = in.readLong();
+            index.bytes = in.readLong();
+            index.sha256 = in.readUTF();
+            index.minTimestamp = readTimestamp(in);
+            index.lastTimestamp = readTimestamp(in);
+            index.minId = in.readLong();
+            index.maxId = in.readLong();
+            index.lastId = in.readLong();
+            index.userIds.deserialize(in);
+            index.resourceIds.deserialize(in);
+            return index;
+        }
+    
+        private void write(DataOutputStream out) throws IOException {
+            out.writeLong(rows);
+            out.writeLong(bytes);
+            out.writeUTF(sha256);
+            writeTimestamp(out, minTimestamp);
+            writeTimestamp(out, lastTimestamp);
+            out.writeLong(minId);
+            out.writeLong(maxId);
+            out.writeLong(lastId);
+            userIds.serialize(out);
+            resourceIds.serialize(out);
+        }
+    
+        private boolean mayContain(LocalDateTime from, LocalDateTime to, Long userId, Long resourceId) {
+            return !lastTimestamp.isBefore(from) && !minTimestamp.isAfter(to)
+                && (userId == null || userIds.contains(userId))
+                && (resourceId == null || resourceIds.contains(resourceId));
+        }
+    
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("segment", path.getFileName().toString());
+            map.put("rows", rows);
+            map.put("bytes", bytes);
+            map.put("sha256", sha256);
+            map.put("fromTimestamp", minTimestamp);
+            map.put("toTimestamp", lastTimestamp);
+            map.put("minId", minId);
+            map.put("maxId", maxId);
+            map.put("users", userIds.getLongCardinality());
+            map.put("resources", resourceIds.getLongCardinality());
+            return map;
+        }
+    
+        private static void writeTimestamp(DataOutputStream out, LocalDateTime timestamp) throws IOException {
+            out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(timestamp.getNano());
+        }
+    
+        private static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+            return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.TeamResourceAccessManagement.dto.ArchivedAuditLogDTO;
+
+/**
+ * Copies audit rows older than a cutoff into the archive store, one segment per page. Pages
+ * are read in (timestamp, id) order after the archive watermark, so a run that stopped part
+ * way, or whose purge afterwards failed, never archives a row twice. Usernames and resource
+ * names are copied with the row; the archive has to stay readable after either is deleted.
+ * Purging is bounded by the same watermark rather than the cutoff, so a row that committed
+ * after its page was read is left for the next run instead of being deleted unarchived.
+ * Neither step holds one transaction for the whole run: each segment is durable once written
+ * and each purge batch commits on its own, so a large backlog never keeps a long transaction
+ * (and its locks) open, and a run that fails part way keeps what it already did.
+ */
+@Component
+public class AuditLogArchiver {
+    
+    private static final String SELECT_SQL =
+        "SELECT a.id, a.user_id, u.username, a.resource_id, r.name, a.action, a.details, a.ip_address, a.timestamp " +
+        "FROM audit_logs a LEFT JOIN tramusers u ON u.id = a.user_id LEFT JOIN resources r ON r.id = a.resource_id " +
+        "WHERE a.timestamp < ? AND (a.timestamp > ? OR (a.timestamp = ? AND a.id > ?)) " +
+        "ORDER BY a.timestamp, a.id LIMIT ?";
+    
+    // The outer timestamp bound keeps partition pruning for the DELETE itself
+    private static final String PURGE_SQL =
+        "DELETE FROM audit_logs WHERE timestamp <= ? AND id IN (" +
+        "SELECT id FROM audit_logs WHERE timestamp <= ? AND (timestamp < ? OR id <= ?) LIMIT ?)";
+    
+    // Before any audit row this application can have written
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private AuditArchiveStore auditArchiveStore;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private AuditLogPartitionManager auditLogPartitionManager;
+    
+    @Value("${app.audit.archive.segment-rows:50000}")
+    private int segmentRows;
+    
+    @Value("${app.audit.archive.purge-batch-rows:10000}")
+    private int purgeBatchRows;
+    
+    /**
+     * Archives every row with a timestamp before the cutoff that is not archived yet and
+     * returns how many were written. Once this returns, all such rows are safe to delete.
+     */
+    public synchronized long archiveBefore(LocalDateTime cutoff) {
+        long archived = 0;
+        LocalDateTime afterTimestamp = auditArchiveStore.getWatermarkTimestamp();
+        Long afterId = auditArchiveStore.getWatermarkId();
+        if (afterTimestamp == null) {
+            afterTimestamp = EPOCH;
+            afterId = 0L;
+        }
+        while (true) {
+            List<ArchivedAuditLogDTO> rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new ArchivedAuditLogDTO(
+                    rs.getLong("id"),
+                    rs.getObject("user_id", Long.class),
+                    rs.getString("username"),
+                    rs.getObject("resource_id", Long.class),
+                    rs.getString("name"),
+                    rs.getString("action"),
+                    rs.getString("details"),
+                    rs.getString("ip_address"),
+                    rs.getTimestamp("timestamp").toLocalDateTime()),
+                Timestamp.valueOf(cutoff), Timestamp.valueOf(afterTimestamp), Timestamp.valueOf(afterTimestamp), afterId, segmentRows);
+            if (rows.isEmpty()) {
+                break;
+            }
+            try {
+                auditArchiveStore.writeSegment(rows);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write audit archive segment after " + archived + " rows", e);
+            }
+            archived += rows.size();
+            ArchivedAuditLogDTO last = rows.get(rows.size() - 1);
+            afterTimestamp = last.getTimestamp();
+            afterId = last.getId();
+            if (rows.size() < segmentRows) {
+                break;
+            }
+        }
+        return archived;
+    }
+    
+    /** Deletes every row at or before the archive watermark and returns how many were deleted. */
+    public synchronized long purgeArchived() {
+        LocalDateTime watermarkTimestamp = auditArchiveStore.getWatermarkTimestamp();
+        Long watermarkId = auditArchiveStore.getWatermarkId();
+        if (watermarkTimestamp == null) {
+            return 0;
+        }
+        // Whole months before the watermark go with their partition; the rest is one DELETE
+        List<String> removed = auditLogPartitionManager.removePartitionsBefore(watermarkTimestamp);
+        Timestamp bound = Timestamp.valueOf(watermarkTimestamp);
+        long deleted = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status ->
+                jdbcTemplate.update(PURGE_SQL, bound, bound, bound, watermarkId, purgeBatchRows));
+            deleted += batch;
+            if (batch < purgeBatchRows) {
+                break;
+            }
+        }
+        System.out.println("Audit archive purge: " + removed.size() + " partitions removed, " + deleted
+            + " rows deleted up to " + watermarkTimestamp + " #" + watermarkId);
+        return deleted;
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.TeamResourceAccessManagement.domain.AuditLog;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Streams audit rows straight from a forward-only cursor to the response, one line per row.
+ * The query joins in the username and resource name, so no entity or lazy association is ever
+ * loaded, and the PostgreSQL driver only holds {@code fetchSize} rows at a time because the
+ * read runs inside a (read-only) transaction. Memory stays flat whatever the export size.
+ */
+@Component
+public class AuditLogExporter {
+    
+    private static final String SELECT_SQL =
+        "SELECT a.id, a.timestamp, a.action, a.user_id, u.username, a.resource_id, r.name AS resource_name, " +
+        "a.details, a.ip_address " +
+        "FROM audit_logs a LEFT JOIN tramusers u ON u.id = a.user_id LEFT JOIN resources r ON r.id = a.resource_id " +
+        "WHERE a.timestamp BETWEEN ? AND ?";
+    
+    private static final String[] CSV_HEADER = {
+        "id", "timestamp", "action", "userId", "username", "resourceId", "resourceName", "details", "ipAddress"
+    };
+    
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+    
+        private final String contentType;
+        private final String extension;
+    
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+    
+        public static Format from(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unsupported export format: " + value + " (expected ndjson or csv)");
+            }
+        }
+    }
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.audit.export.fetch-size:1000}")
+    private int fetchSize;
+    
+    private TransactionTemplate readOnlyTransaction;
+    
+    // Rows are separated by the newline written after each one
+    private final JsonFactory jsonFactory = new JsonFactory().setRootValueSeparator(null);
+    
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * Writes every matching row, oldest first, and returns the number of rows written. The
+     * stream is flushed but not closed.
+     */
+    public long export(Format format, LocalDateTime startDate, LocalDateTime endDate, Long userId, Long resourceId,
+                       AuditLog.ActionType action, OutputStream out) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>(List.of(Timestamp.valueOf(startDate), Timestamp.valueOf(endDate)));
+        if (userId != null) {
+            sql.append(" AND a.user_id = ?");
+            params.add(userId);
+        }
+        if (resourceId != null) {
+            sql.append(" AND a.resource_id = ?");
+            params.add(resourceId);
+        }
+        if (action != null) {
+            sql.append(" AND a.action = ?");
+            params.add(action.name());
+        }
+        sql.append(" ORDER BY a.timestamp, a.id");
+    
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        // The driver only streams with autocommit off, so the cursor lives inside a transaction
+        Long written = readOnlyTransaction.execute(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, rs -> {
+            long rows = 0;
+            try {
+                rowWriter.start();
+                while (rs.next()) {
+                    rowWriter.write(rs);
+                    // Push each fetched page out rather than letting the client wait on the whole export
+                    if (++rows % fetchSize == 0) {
+                        rowWriter.flush();
+                    }
+                }
+                rowWriter.flush();
+            } catch (IOException e) {
+                // Usually the client went away; ending the transaction closes the cursor
+                throw new UncheckedIOException("Audit export aborted after " + rows + " rows", e);
+            }
+            return rows;
+        }));
+        return written != null ? written : 0;
+    }
+    
+    private interface RowWriter {
+        void start() throws IOException;
+        void write(ResultSet rs) throws SQLException, IOException;
+        void flush() throws IOException;
+    }
+    
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+    
+        private NdjsonRowWriter(Writer writer) {
+            try {
+                this.generator = jsonFactory.createGenerator(writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+    
+        @Override
+        public void start() {
+        }
+    
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("timestamp", rs.getTimestamp("timestamp").toLocalDateTime().toString());
+            generator.writeStringField("action", rs.getString("action"));
+            writeLongField("userId", rs.getObject("user_id", Long.class));
+            generator.writeStringField("username", rs.getString("username"));
+            writeLongField("resourceId", rs.getObject("resource_id", Long.class));
+            generator.writeStringField("resourceName", rs.getString("resource_name"));
+            generator.writeStringField("details", rs.getString("details"));
+            generator.writeStringField("ipAddress", rs.getString("ip_address"));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    
+        @Override
+        public void flush() throws IOException {
+            // Also flushes the writer underneath
+            generator.flush();
+        }
+    
+        private void writeLongField(String name, Long value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(name);
+            } else {
+                generator.writeNumberField(name, value);
+            }
+        }
+    }
+    
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+    
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+    
+        @Override
+        public void start() throws IOException {
+            writeLine(CSV_HEADER);
+        }
+    
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            writeLine(new String[] {
+                String.valueOf(rs.getLong("id")),
+                rs.getTimestamp("timestamp").toLocalDateTime().toString(),
+                rs.getString("action"),
+                rs.getString("user_id"),
+                rs.getString("username"),
+                rs.getString("resource_id"),
+                rs.getString("resource_name"),
+                rs.getString("details"),
+                rs.getString("ip_address")
+            });
+        }
+    
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    
+        // RFC 4180: quote fields holding a separator, quote or line break, doubling inner quotes
+        private void writeLine(String[] fields) throws IOException {
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String field = fields[i];
+                if (field == null) {
+                    continue;
+                }
+                if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(field.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(field);
+                }
+            }
+            writer.write("\r\n");
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.TeamResourceAccessManagement.domain.AuditLog;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Keeps audit_logs range-partitioned by month on PostgreSQL. On startup a plain table (as
+ * Hibernate creates it) is converted once; after that partitions are created a few months
+ * ahead every night, and retention detaches or drops whole partitions instead of deleting
+ * rows. Rows outside every monthly range land in audit_logs_default and are moved into their
+ * month when that partition is created. The indexes and foreign keys declared on the entity
+ * are recreated here after the conversion; the details search index and the CHECK on action
+ * are kept up to date whether or not the table is partitioned. On other databases this does
+ * nothing, and the table keeps what Hibernate created.
+ */
+@Component
+public class AuditLogPartitionManager {
+    
+    public enum RetentionMode {
+        DROP, DETACH
+    }
+    
+    private static final String PARTITION_PREFIX = "audit_logs_p";
+    private static final String DEFAULT_PARTITION = "audit_logs_default";
+    // Hibernate's name for the CHECK it derives from the ActionType enum
+    private static final String ACTION_CHECK = "audit_logs_action_check";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile(PARTITION_PREFIX + "[0-9]{4}_[0-9]{2}");
+    // Hibernate's column order, so RETURNING * from its inserts keeps the same shape
+    private static final String COLUMNS = "id, action, details, ip_address, resource_id, timestamp, user_id";
+    // Serializes conversion and maintenance across application instances
+    private static final long ADVISORY_LOCK_KEY = 0x6175646974L;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${app.audit.partitions.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.audit.partitions.months-ahead:3}")
+    private int monthsAhead;
+    
+    @Value("${app.audit.partitions.retention-mode:DROP}")
+    private RetentionMode retentionMode;
+    
+    private volatile boolean partitioned;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitioned() {
+        if (!isPostgres()) {
+            return;
+        }
+        try {
+            if (enabled && !isPartitionedTable()) {
+                convertToPartitionedTable();
+                // Pooled connections may hold statements prepared against the old table
+                if (dataSource instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null) {
+                    hikari.getHikariPoolMXBean().softEvictConnections();
+                }
+            }
+            partitioned = isPartitionedTable();
+            createUpcomingPartitions();
+        } catch (Exception e) {
+            System.err.println("Could not set up audit_logs partitioning: " + e.getMessage());
+        }
+        // A conversion drops the table with them; a failed one leaves the plain table as it was
+        try {
+            ensureIndexesAndForeignKeys();
+        } catch (Exception e) {
+            System.err.println("Could not create audit_logs indexes: " + e.getMessage());
+        }
+        // Also when partitioning is off or failed: downloads are audited either way
+        try {
+            ensureActionCheck();
+        } catch (Exception e) {
+            System.err.println("Could not update the audit_logs action check: " + e.getMessage());
+        }
+    }
+    
+    @Scheduled(cron = "${app.audit.partitions.maintenance-cron:0 15 1 * * *}")
+    public void createUpcomingPartitions() {
+        if (!partitioned) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (YearMonth month : monthsBetween(current, current.plusMonths(monthsAhead))) {
+            createPartition(month);
+        }
+    }
+    
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+    
+    /**
+     * Detaches or drops every monthly partition that ends on or before the cutoff and
+     * returns their names. Rows of the partition containing the cutoff are left to the
+     * caller, which deletes them with a (pruned) range DELETE.
+     */
+    public List<String> removePartitionsBefore(LocalDateTime cutoff) {
+        if (!partitioned) {
+            return List.of();
+        }
+        List<String> removed = new ArrayList<>();
+        for (String partition : partitionsEndingBy(listMonthlyPartitions(), cutoff)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", ADVISORY_LOCK_KEY);
+                if (retentionMode == RetentionMode.DETACH) {
+                    jdbcTemplate.execute("ALTER TABLE audit_logs DETACH PARTITION " + partition);
+                } else {
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                }
+            });
+            removed.add(partition);
+        }
+        if (!removed.isEmpty()) {
+            System.out.println("Audit retention " + retentionMode + ": " + removed);
+        }
+        return removed;
+    }
+    
+    public List<Map<String, Object>> getPartitions() {
+        if (!partitioned) {
+            return List.of();
+        }
+        List<Map<String, Object>> partitions = new ArrayList<>();
+        jdbcTemplate.query(
+            "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid), c.reltuples::bigint, pg_total_relation_size(c.oid) " +
+            "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'audit_logs'::regclass ORDER BY c.relname",
+            rs -> {
+                Map<String, Object> partition = new LinkedHashMap<>();
+                partition.put("name", rs.getString(1));
+                partition.put("bounds", rs.getString(2));
+                // Planner estimate, -1 until the partition is first analyzed
+                partition.put("estimatedRows", rs.getLong(3));
+                partition.put("totalBytes", rs.getLong(4));
+                partitions.add(partition);
+            });
+        return partitions;
+    }
+    
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+    
+    // Inclusive lower bound of the month's partition and exclusive upper bound of the one before
+    static String rangeBound(YearMonth month) {
+        return month.atDay(1) + " 00:00:00";
+    }
+    
+    static List<YearMonth> monthsBetween(YearMonth first, YearMonth last) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+    
+    /**
+     * The monthly partitions whose whole range lies before the cutoff, in the order given.
+     * Names that are not monthly partitions (such as the default partition) are skipped.
+     */
+    static List<String> partitionsEndingBy(List<String> partitions, LocalDateTime cutoff) {
+        List<String> expired = new ArrayList<>();
+        for (String partition : partitions) {
+            if (!MONTHLY_PARTITION.matcher(partition).matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            if (!month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                expired.add(partition);
+            }
+        }
+        return expired;
+    }
+    
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition)) {
+            return;
+        }
+        String from = rangeBound(month);
+        String to = rangeBound(month.plusMonths(1));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", ADVISORY_LOCK_KEY);
+            if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition)) {
+                return;
+            }
+            // Build it detached so rows already sitting in the default partition can move in first
+            // ATTACH requires the parent's CHECK constraints on the new table
+            jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE audit_logs INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update(
+                "WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " WHERE timestamp >= '" + from + "' AND timestamp < '" + to + "' " +
+                "RETURNING " + COLUMNS + ") INSERT INTO " + partition + " (" + COLUMNS + ") SELECT " + COLUMNS + " FROM moved");
+            jdbcTemplate.execute("ALTER TABLE audit_logs ATTACH PARTITION " + partition +
+                " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            System.out.println("Created audit partition " + partition + (moved > 0 ? " (" + moved + " rows moved from default)" : ""));
+        });
+    }
+    
+    private void convertToPartitionedTable() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", ADVISORY_LOCK_KEY);
+            if (isPartitionedTable()) {
+                return;
+            }
+            LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT min(timestamp) FROM audit_logs", LocalDateTime.class);
+    
+            // The CHECK on action is added back by ensureActionCheck once the conversion is done
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS audit_log_id_seq");
+            jdbcTemplate.execute("CREATE TABLE audit_logs_partitioned (" +
+                "id BIGINT NOT NULL DEFAULT nextval('audit_log_id_seq'), " +
+                "action VARCHAR(30) NOT NULL, details TEXT, ip_address VARCHAR(45), resource_id BIGINT, " +
+                "timestamp TIMESTAMP(6) NOT NULL, user_id BIGINT, " +
+                "PRIMARY KEY (id, timestamp)) PARTITION BY RANGE (timestamp)");
+            jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF audit_logs_partitioned DEFAULT");
+    
+            YearMonth first = oldest != null ? YearMonth.from(oldest) : YearMonth.now();
+            for (YearMonth month : monthsBetween(first, YearMonth.now().plusMonths(monthsAhead))) {
+                jdbcTemplate.execute("CREATE TABLE " + partitionName(month) +
+                    " PARTITION OF audit_logs_partitioned FOR VALUES FROM ('" + rangeBound(month) + "') TO ('" +
+                    rangeBound(month.plusMonths(1)) + "')");
+            }
+    
+            int copied = jdbcTemplate.update("INSERT INTO audit_logs_partitioned (" + COLUMNS + ") SELECT " + COLUMNS + " FROM audit_logs");
+            jdbcTemplate.queryForList("SELECT setval('audit_log_id_seq', COALESCE((SELECT max(id) FROM audit_logs), 0) + 1, false)");
+            jdbcTemplate.execute("DROP TABLE audit_logs");
+            jdbcTemplate.execute("ALTER TABLE audit_logs_partitioned RENAME TO audit_logs");
+            jdbcTemplate.execute("ALTER SEQUENCE audit_log_id_seq OWNED BY audit_logs.id");
+            System.out.println("Converted audit_logs to monthly partitions (" + copied + " rows copied)");
+        });
+    }
+    
+    // On a partitioned parent these cascade to every partition, present and future
+    private void ensureIndexesAndForeignKeys() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_audit_log_user_id ON audit_logs (user_id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_audit_log_resource_id ON audit_logs (resource_id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_audit_log_action ON audit_logs (action)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_audit_log_timestamp ON audit_logs (timestamp)");
+        // Word search over details (AuditLogSearchService)
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + AuditLogSearchService.DETAILS_INDEX + " ON audit_logs USING GIN ("
+            + AuditLogSearchService.detailsVector("details") + ")");
+        // Superseded by the index above, which splits words the way the search input is split
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_audit_log_details_fts");
+        addForeignKeyIfMissing("fk_audit_log_user", "user_id", "tramusers");
+        addForeignKeyIfMissing("fk_audit_log_resource", "resource_id", "resources");
+    }
+    
+    // Schema update never widens Hibernate's CHECK, so an added ActionType would fail every insert
+    private void ensureActionCheck() {
+        String expected = Stream.of(AuditLog.ActionType.values())
+            .map(action -> "'" + action.name() + "'")
+            .collect(Collectors.joining(", "));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", ADVISORY_LOCK_KEY);
+            List<String> current = jdbcTemplate.queryForList(
+                "SELECT pg_get_constraintdef(oid) FROM pg_constraint WHERE conname = ? AND conrelid = 'audit_logs'::regclass",
+                String.class, ACTION_CHECK);
+            if (!current.isEmpty() && Stream.of(AuditLog.ActionType.values())
+                    .allMatch(action -> current.get(0).contains("'" + action.name() + "'"))) {
+                return;
+            }
+            jdbcTemplate.execute("ALTER TABLE audit_logs DROP CONSTRAINT IF EXISTS " + ACTION_CHECK);
+            jdbcTemplate.execute("ALTER TABLE audit_logs ADD CONSTRAINT " + ACTION_CHECK + " CHECK (action IN (" + expected + "))");
+            System.out.println("Updated " + ACTION_CHECK + " for " + AuditLog.ActionType.values().length + " actions");
+        });
+    }
+    
+    private void addForeignKeyIfMissing(String name, String column, String referencedTable) {
+        Boolean exists = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ? AND conrelid = 'audit_logs'::regclass)", Boolean.class, name);
+        if (!exists) {
+            jdbcTemplate.execute("ALTER TABLE audit_logs ADD CONSTRAINT " + name + " FOREIGN KEY (" + column + ") REFERENCES " + referencedTable + " (id)");
+        }
+    }
+    
+    private List<String> listMonthlyPartitions() {
+        return jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'audit_logs'::regclass AND c.relname ~ '^" + PARTITION_PREFIX + "[0-9]{4}_[0-9]{2}$' ORDER BY c.relname",
+            String.class);
+    }
+    
+    private boolean isPartitionedTable() {
+        return jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('audit_logs'))", Boolean.class);
+    }
+    
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            System.err.println("Could not check database for audit partitioning: " + e.getMessage());
+            return false;
+        }
+    }
+}
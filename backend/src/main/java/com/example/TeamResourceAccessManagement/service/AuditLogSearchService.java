@@ -0,0 +1,147 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.TeamResourceAccessManagement.domain.AuditLog;
+import com.example.TeamResourceAccessManagement.dto.AuditLogSearchResultDTO;
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.dto.KeysetCursor;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Word search over audit details, newest first, with optional time, action, user and resource
+ * filters and keyset paging on (timestamp, id). Words are runs of letters and digits, as
+ * SearchTerms splits the input, and every term must prefix one of them. On PostgreSQL that is
+ * a tsquery against a GIN index on the details tsvector (created by AuditLogPartitionManager),
+ * so the time range prunes partitions and the index finds the rows. The vector is built from
+ * the details with everything but letters and digits blanked out first: the parser would
+ * otherwise keep file names, e-mail addresses, host names and paths as single lexemes, and
+ * "pdf" would not find "report.pdf". Other databases (H2 in tests) match a regular expression
+ * per term on the same word boundaries, without an index.
+ */
+@Component
+public class AuditLogSearchService {
+    
+    static final String DETAILS_INDEX = "idx_audit_log_details_words";
+    
+    private static final String SELECT_SQL =
+        "SELECT a.id, a.timestamp, a.action, a.user_id, u.username, a.resource_id, r.name AS resource_name, a.details, a.ip_address " +
+        "FROM audit_logs a LEFT JOIN tramusers u ON u.id = a.user_id LEFT JOIN resources r ON r.id = a.resource_id WHERE ";
+    
+    private static final String WORD_START = "(^|[^\\p{L}\\p{N}])";
+    
+    public static final int MAX_PAGE_SIZE = 200;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    private boolean postgres;
+    
+    @PostConstruct
+    public void init() {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            System.err.println("Could not check database for audit search: " + e.getMessage());
+        }
+    }
+    
+    public CursorPageDTO<AuditLogSearchResultDTO> search(String text, LocalDateTime startDate, LocalDateTime endDate,
+                                                         AuditLog.ActionType action, Long userId, Long resourceId,
+                                                         String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<String> terms = SearchTerms.of(text);
+        if (terms.isEmpty()) {
+            throw new BadRequestException("Search text must contain at least one letter or digit");
+        }
+    
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        appendDetailsMatch(sql, params, terms, postgres);
+        if (startDate != null) {
+            sql.append(" AND a.timestamp >= ?");
+            params.add(Timestamp.valueOf(startDate));
+        }
+        if (endDate != null) {
+            sql.append(" AND a.timestamp <= ?");
+            params.add(Timestamp.valueOf(endDate));
+        }
+        if (action != null) {
+            sql.append(" AND a.action = ?");
+            params.add(action.name());
+        }
+        if (userId != null) {
+            sql.append(" AND a.user_id = ?");
+            params.add(userId);
+        }
+        if (resourceId != null) {
+            sql.append(" AND a.resource_id = ?");
+            params.add(resourceId);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (after != null) {
+            sql.append(" AND (a.timestamp < ? OR (a.timestamp = ? AND a.id < ?))");
+            params.add(Timestamp.valueOf(after.getTimestamp()));
+            params.add(Timestamp.valueOf(after.getTimestamp()));
+            params.add(after.getId());
+        }
+        // One extra row tells whether there is a next page
+        sql.append(" ORDER BY a.timestamp DESC, a.id DESC LIMIT ?");
+        params.add(limit + 1);
+    
+        List<AuditLogSearchResultDTO> rows = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new AuditLogSearchResultDTO(
+                rs.getLong("id"),
+                rs.getTimestamp("timestamp").toLocalDateTime(),
+                rs.getString("action"),
+                rs.getObject("user_id", Long.class),
+                rs.getString("username"),
+                rs.getObject("resource_id", Long.class),
+                rs.getString("resource_name"),
+                rs.getString("details"),
+                rs.getString("ip_address")),
+            params.toArray());
+    
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            AuditLogSearchResultDTO last = rows.get(limit - 1);
+            nextCursor = new KeysetCursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(rows, nextCursor, null);
+    }
+    
+    // Must stay identical to the indexed expression (on "details") or PostgreSQL will not use the index
+    static String detailsVector(String column) {
+        return "to_tsvector('simple', regexp_replace(coalesce(" + column + ", ''), '[^[:alnum:]]+', ' ', 'g'))";
+    }
+    
+    static void appendDetailsMatch(StringBuilder sql, List<Object> params, List<String> terms, boolean postgres) {
+        if (postgres) {
+            sql.append(detailsVector("a.details")).append(" @@ to_tsquery('simple', ?)");
+            params.add(SearchTerms.prefixQueryOf(terms));
+            return;
+        }
+        // A term may start the details or follow any character that is not a letter or digit
+        for (int i = 0; i < terms.size(); i++) {
+            sql.append(i > 0 ? " AND " : "").append("REGEXP_LIKE(LOWER(a.details), ?)");
+            params.add(WORD_START + terms.get(i));
+        }
+    }
+}
@@ -3,8 +3,12 @@ package com.example.TeamResourceAccessManagement.service;
 import com.example.TeamResourceAccessManagement.domain.AuditLog;
 import com.example.TeamResourceAccessManagement.domain.User;
 import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.dto.AuditLogSearchResultDTO;
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface AuditLogService {
@@ -32,7 +36,11 @@ public interface AuditLogService {
     List<AuditLog> getTodaysAuditLogs();
     
     // Search Operations
+    // Substring match over every row; searchAuditLogDetails is the indexed, paged word search
     List<AuditLog> searchAuditLogsByDetails(String keyword);
+    CursorPageDTO<AuditLogSearchResultDTO> searchAuditLogDetails(String text, LocalDateTime startDate, LocalDateTime endDate,
+                                                                 AuditLog.ActionType action, Long userId, Long resourceId,
+                                                                 String cursor, int limit);
     List<AuditLog> getAuditLogsAfter(LocalDateTime date);
     List<AuditLog> getAuditLogsBefore(LocalDateTime date);
     
@@ -43,20 +51,36 @@ public interface AuditLogService {
     long getAuditLogCountByAction(AuditLog.ActionType action);
     long getAuditLogCountBetween(LocalDateTime startDate, LocalDateTime endDate);
     
+    // Rollup Operations
+    List<Map<String, Object>> getActivityHistogram(LocalDateTime startDate, LocalDateTime endDate, AuditLog.ActionType action, AuditRollupStore.Granularity granularity);
+    Map<String, Long> getActionCounts(LocalDateTime startDate, LocalDateTime endDate);
+    List<Map<String, Object>> getTopActiveUsers(LocalDateTime startDate, LocalDateTime endDate, AuditLog.ActionType action, int limit);
+    List<Map<String, Object>> getTopActiveResources(LocalDateTime startDate, LocalDateTime endDate, AuditLog.ActionType action, int limit);
+    long rebuildAuditRollups(LocalDateTime from);
+    
     // Utility Operations
     void logUserAction(Long userId, AuditLog.ActionType action, String details);
     void logResourceAction(Long userId, Long resourceId, AuditLog.ActionType action, String details);
     void logPermissionAction(Long userId, Long resourceId, AuditLog.ActionType action, String details);
     void logAccessRequestAction(Long userId, Long resourceId, AuditLog.ActionType action, String details);
+    void logCurrentUserAction(Long resourceId, AuditLog.ActionType action, String details);
+    Map<String, Object> getAuditWriterStats();
     
     // Cleanup Operations
     void deleteOldAuditLogs(int daysOld);
     void archiveOldAuditLogs(int daysOld);
     void cleanupAuditLogs();
+    List<Map<String, Object>> getAuditLogPartitions();
+    List<Map<String, Object>> getAuditArchiveSegments();
+    Map<String, Object> getAuditArchiveStats();
     
     // Reporting Operations
     List<AuditLog> getUserActivityReport(Long userId, LocalDateTime startDate, LocalDateTime endDate);
     List<AuditLog> getResourceActivityReport(Long resourceId, LocalDateTime startDate, LocalDateTime endDate);
     List<AuditLog> getSystemActivityReport(LocalDateTime startDate, LocalDateTime endDate);
     List<AuditLog> getSecurityAuditReport(LocalDateTime startDate, LocalDateTime endDate);
+    
+    // Export Operations
+    long exportAuditLogs(AuditLogExporter.Format format, LocalDateTime startDate, LocalDateTime endDate,
+                         Long userId, Long resourceId, AuditLog.ActionType action, OutputStream out);
 }
\ No newline at end of file
@@ -3,19 +3,38 @@ package com.example.TeamResourceAccessManagement.service;
 import com.example.TeamResourceAccessManagement.domain.AuditLog;
 import com.example.TeamResourceAccessManagement.domain.User;
 import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.dto.ArchivedAuditLogDTO;
+import com.example.TeamResourceAccessManagement.dto.AuditLogSearchResultDTO;
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
 import com.example.TeamResourceAccessManagement.repository.AuditLogRepository;
 import com.example.TeamResourceAccessManagement.repository.UserRepository;
 import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class AuditLogServiceImpl implements AuditLogService {
     
+    private static final Set<AuditLog.ActionType> SECURITY_ACTIONS = EnumSet.of(
+        AuditLog.ActionType.USER_LOGIN, AuditLog.ActionType.USER_LOGOUT,
+        AuditLog.ActionType.ACCESS_GRANTED, AuditLog.ActionType.ACCESS_REVOKED);
+    
+    private static final int MAX_TOP_LIMIT = 100;
+    
     @Autowired
     private AuditLogRepository auditLogRepository;
     
@@ -25,21 +44,50 @@ public class AuditLogServiceImpl implements AuditLogService {
     @Autowired
     private ResourceRepository resourceRepository;
     
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+    
+    @Autowired
+    private AuditLogPartitionManager auditLogPartitionManager;
+    
+    @Autowired
+    private AuditLogArchiver auditLogArchiver;
+    
+    @Autowired
+    private AuditArchiveStore auditArchiveStore;
+    
+    @Autowired
+    private AuditLogExporter auditLogExporter;
+    
+    @Autowired
+    private AuditRollupStore auditRollupStore;
+    
+    @Autowired
+    private AuditLogSearchService auditLogSearchService;
+    
     @Override
+    @Transactional
     public AuditLog createAuditLog(Long userId, Long resourceId, AuditLog.ActionType action, String details) {
         AuditLog auditLog = new AuditLog();
         auditLog.setAction(action);
         auditLog.setDetails(details);
         auditLog.setTimestamp(LocalDateTime.now());
         
-        if (userId != null) {
-            userRepository.findById(userId).ifPresent(auditLog::setUser);
+        // Unknown ids are stored as null, as AuditLogWriter does; known ones go in as references
+        // so neither row is loaded
+        Long knownUserId = userId != null && userRepository.existsById(userId) ? userId : null;
+        Long knownResourceId = resourceId != null && resourceRepository.existsById(resourceId) ? resourceId : null;
+        if (knownUserId != null) {
+            auditLog.setUser(userRepository.getReferenceById(knownUserId));
         }
-        if (resourceId != null) {
-            resourceRepository.findById(resourceId).ifPresent(auditLog::setResource);
+        if (knownResourceId != null) {
+            auditLog.setResource(resourceRepository.getReferenceById(knownResourceId));
         }
         
-        return auditLogRepository.save(auditLog);
+        AuditLog saved = auditLogRepository.save(auditLog);
+        // Dashboard counts read the rollups, so this row is counted like the writer's batches
+        auditRollupStore.record(List.of(new AuditRollupStore.RollupEvent(saved.getTimestamp(), action, knownUserId, null, knownResourceId)));
+        return saved;
     }
     
     @Override
@@ -53,8 +101,15 @@ public class AuditLogServiceImpl implements AuditLogService {
     }
     
     @Override
+    @Transactional
     public void deleteAuditLog(Long auditLogId) {
-        auditLogRepository.deleteById(auditLogId);
+        auditLogRepository.findById(auditLogId).ifPresent(auditLog -> {
+            auditLogRepository.delete(auditLog);
+            // Proxies give their ids without loading the user or resource
+            auditRollupStore.remove(List.of(new AuditRollupStore.RollupEvent(auditLog.getTimestamp(), auditLog.getAction(),
+                auditLog.getUser() != null ? auditLog.getUser().getId() : null, null,
+                auditLog.getResource() != null ? auditLog.getResource().getId() : null)));
+        });
     }
     
     @Override
@@ -114,6 +169,13 @@ public class AuditLogServiceImpl implements AuditLogService {
         return auditLogRepository.findByDetailsContaining(keyword);
     }
     
+    @Override
+    public CursorPageDTO<AuditLogSearchResultDTO> searchAuditLogDetails(String text, LocalDateTime startDate, LocalDateTime endDate,
+                                                                        AuditLog.ActionType action, Long userId, Long resourceId,
+                                                                        String cursor, int limit) {
+        return auditLogSearchService.search(text, startDate, endDate, action, userId, resourceId, cursor, limit);
+    }
+    
     @Override
     public List<AuditLog> getAuditLogsAfter(LocalDateTime date) {
         return auditLogRepository.findByTimestampBetween(date, LocalDateTime.now());
@@ -146,55 +208,116 @@ public class AuditLogServiceImpl implements AuditLogService {
     
     @Override
     public long getAuditLogCountBetween(LocalDateTime startDate, LocalDateTime endDate) {
-        return auditLogRepository.findByTimestampBetween(startDate, endDate).size();
+        return auditRollupStore.count(startDate, endDate, null, AuditRollupStore.Dimension.ALL, null);
+    }
+    
+    @Override
+    public List<Map<String, Object>> getActivityHistogram(LocalDateTime startDate, LocalDateTime endDate, AuditLog.ActionType action, AuditRollupStore.Granularity granularity) {
+        return auditRollupStore.histogram(startDate, endDate, action, granularity);
+    }
+    
+    @Override
+    public Map<String, Long> getActionCounts(LocalDateTime startDate, LocalDateTime endDate) {
+        return auditRollupStore.countByAction(startDate, endDate);
+    }
+    
+    @Override
+    public List<Map<String, Object>> getTopActiveUsers(LocalDateTime startDate, LocalDateTime endDate, AuditLog.ActionType action, int limit) {
+        return auditRollupStore.top(AuditRollupStore.Dimension.USER, startDate, endDate, action, checkTopLimit(limit));
+    }
+    
+    @Override
+    public List<Map<String, Object>> getTopActiveResources(LocalDateTime startDate, LocalDateTime endDate, AuditLog.ActionType action, int limit) {
+        return auditRollupStore.top(AuditRollupStore.Dimension.RESOURCE, startDate, endDate, action, checkTopLimit(limit));
+    }
+    
+    @Override
+    public long rebuildAuditRollups(LocalDateTime from) {
+        return auditRollupStore.rebuild(from);
     }
     
     @Override
     public void logUserAction(Long userId, AuditLog.ActionType action, String details) {
-        createAuditLog(userId, null, action, details);
+        auditLogWriter.submit(userId, null, null, action, details, null);
     }
     
     @Override
     public void logResourceAction(Long userId, Long resourceId, AuditLog.ActionType action, String details) {
-        createAuditLog(userId, resourceId, action, details);
+        auditLogWriter.submit(userId, null, resourceId, action, details, null);
     }
     
     @Override
     public void logPermissionAction(Long userId, Long resourceId, AuditLog.ActionType action, String details) {
-        createAuditLog(userId, resourceId, action, details);
+        auditLogWriter.submit(userId, null, resourceId, action, details, null);
     }
     
     @Override
     public void logAccessRequestAction(Long userId, Long resourceId, AuditLog.ActionType action, String details) {
-        createAuditLog(userId, resourceId, action, details);
+        auditLogWriter.submit(userId, null, resourceId, action, details, null);
     }
     
     @Override
+    public void logCurrentUserAction(Long resourceId, AuditLog.ActionType action, String details) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth != null ? auth.getName() : null;
+        auditLogWriter.submit(null, username, resourceId, action, details, null);
+    }
+    
+    @Override
+    public Map<String, Object> getAuditWriterStats() {
+        return auditLogWriter.getStats();
+    }
+    
+    @Override
+    @Transactional
     public void deleteOldAuditLogs(int daysOld) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
-        List<AuditLog> oldLogs = auditLogRepository.findByTimestampBetween(LocalDateTime.of(2000, 1, 1, 0, 0), cutoffDate);
-        auditLogRepository.deleteAll(oldLogs);
+        purgeBefore(LocalDateTime.now().minusDays(daysOld));
     }
     
+    @Override
+    public List<Map<String, Object>> getAuditLogPartitions() {
+        return auditLogPartitionManager.getPartitions();
+    }
+    
+    // Not @Transactional: the archiver commits segment by segment and batch by batch
     @Override
     public void archiveOldAuditLogs(int daysOld) {
-        // Implementation would depend on archiving strategy
-        deleteOldAuditLogs(daysOld);
+        // A cutoff of today would race with events still queued in the AuditLogWriter
+        if (daysOld < 1) {
+            throw new BadRequestException("daysOld must be at least 1");
+        }
+        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysOld);
+        long archived = auditLogArchiver.archiveBefore(cutoffDate);
+        System.out.println("Audit archive: " + archived + " rows archived before " + cutoffDate);
+        // Only rows up to the archive watermark are purged; if the purge fails they stay in both and reports skip the copy
+        auditLogArchiver.purgeArchived();
+    }
+    
+    @Override
+    public List<Map<String, Object>> getAuditArchiveSegments() {
+        return auditArchiveStore.getSegments();
+    }
+    
+    @Override
+    public Map<String, Object> getAuditArchiveStats() {
+        return auditArchiveStore.getStats();
     }
     
     @Override
     public void cleanupAuditLogs() {
-        deleteOldAuditLogs(365); // Delete logs older than 1 year
+        archiveOldAuditLogs(365); // Archive and remove logs older than 1 year
     }
     
     @Override
     public List<AuditLog> getUserActivityReport(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
-        return auditLogRepository.findByUserIdAndTimestampBetween(userId, startDate, endDate);
+        List<AuditLog> logs = auditLogRepository.findByUserIdAndTimestampBetween(userId, startDate, endDate);
+        return withArchived(logs, auditArchiveStore.scan(startDate, endDate, userId, null));
     }
     
     @Override
     public List<AuditLog> getResourceActivityReport(Long resourceId, LocalDateTime startDate, LocalDateTime endDate) {
-        return auditLogRepository.findByResourceIdAndTimestampBetween(resourceId, startDate, endDate);
+        List<AuditLog> logs = auditLogRepository.findByResourceIdAndTimestampBetween(resourceId, startDate, endDate);
+        return withArchived(logs, auditArchiveStore.scan(startDate, endDate, null, resourceId));
     }
     
     @Override
@@ -204,12 +327,67 @@ public class AuditLogServiceImpl implements AuditLogService {
     
     @Override
     public List<AuditLog> getSecurityAuditReport(LocalDateTime startDate, LocalDateTime endDate) {
-        List<AuditLog> allLogs = auditLogRepository.findByTimestampBetween(startDate, endDate);
-        return allLogs.stream()
-            .filter(log -> log.getAction() == AuditLog.ActionType.USER_LOGIN || 
-                          log.getAction() == AuditLog.ActionType.USER_LOGOUT ||
-                          log.getAction() == AuditLog.ActionType.ACCESS_GRANTED ||
-                          log.getAction() == AuditLog.ActionType.ACCESS_REVOKED)
-            .collect(Collectors.toList());
+        return auditLogRepository.findByActionInAndTimestampBetween(SECURITY_ACTIONS, startDate, endDate);
+    }
+    
+    @Override
+    public long exportAuditLogs(AuditLogExporter.Format format, LocalDateTime startDate, LocalDateTime endDate,
+                                Long userId, Long resourceId, AuditLog.ActionType action, OutputStream out) {
+        long rows = auditLogExporter.export(format, startDate, endDate, userId, resourceId, action, out);
+        System.out.println("Audit export: " + rows + " rows as " + format + " between " + startDate + " and " + endDate);
+        return rows;
+    }
+    
+    private static int checkTopLimit(int limit) {
+        if (limit < 1 || limit > MAX_TOP_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_TOP_LIMIT);
+        }
+        return limit;
+    }
+    
+    private void purgeBefore(LocalDateTime cutoffDate) {
+        // Whole months go with their partition; only the month containing the cutoff needs a DELETE
+        List<String> removed = auditLogPartitionManager.removePartitionsBefore(cutoffDate);
+        int deleted = auditLogRepository.deleteByTimestampBefore(cutoffDate);
+        System.out.println("Audit retention: " + removed.size() + " partitions removed, " + deleted + " rows deleted before " + cutoffDate);
+    }
+    
+    private List<AuditLog> withArchived(List<AuditLog> logs, List<ArchivedAuditLogDTO> archived) {
+        if (archived.isEmpty()) {
+            return logs;
+        }
+        Set<Long> liveIds = logs.stream().map(AuditLog::getId).collect(Collectors.toSet());
+        List<AuditLog> merged = new ArrayList<>(archived.size() + logs.size());
+        for (ArchivedAuditLogDTO row : archived) {
+            if (!liveIds.contains(row.getId())) {
+                merged.add(toAuditLog(row));
+            }
+        }
+        merged.addAll(logs);
+        merged.sort(Comparator.comparing(AuditLog::getTimestamp).thenComparing(AuditLog::getId));
+        return merged;
+    }
+    
+    // Detached copy of an archived row; user and resource carry only what the archive kept
+    private AuditLog toAuditLog(ArchivedAuditLogDTO row) {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setId(row.getId());
+        auditLog.setAction(AuditLog.ActionType.valueOf(row.getAction()));
+        auditLog.setDetails(row.getDetails());
+        auditLog.setIpAddress(row.getIpAddress());
+        auditLog.setTimestamp(row.getTimestamp());
+        if (row.getUserId() != null) {
+            User user = new User();
+            user.setId(row.getUserId());
+            user.setUsername(row.getUsername());
+            auditLog.setUser(user);
+        }
+        if (row.getResourceId() != null) {
+            Resource resource = new Resource();
+            resource.setId(row.getResourceId());
+            resource.setName(row.getResourceName());
+            auditLog.setResource(resource);
+        }
+        return auditLog;
     }
 }
\ No newline at end of file
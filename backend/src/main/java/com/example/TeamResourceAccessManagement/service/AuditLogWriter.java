@@ -0,0 +1,298 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.TeamResourceAccessManagement.domain.AuditLog;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Non-blocking audit pipeline: callers enqueue into a bounded queue and a single writer
+ * thread drains it in batched INSERTs. User and resource are written as ids resolved inside
+ * the INSERT, so an id (or username) that no longer exists is stored as NULL, as the
+ * findById-based path did, without extra round trips. When the queue is full the overflow
+ * policy decides between dropping the new event, dropping the oldest one, or writing on the
+ * caller's thread. Each batch commits together with its increments to the hourly rollups
+ * (see AuditRollupStore), in a transaction of its own.
+ */
+@Component
+public class AuditLogWriter {
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO audit_logs (user_id, resource_id, action, details, ip_address, timestamp) SELECT " +
+        "COALESCE((SELECT u.id FROM tramusers u WHERE u.id = ?), (SELECT u.id FROM tramusers u WHERE u.username = ?)), " +
+        "(SELECT r.id FROM resources r WHERE r.id = ?), ?, ?, ?, ?";
+    
+    public enum OverflowPolicy {
+        DROP_NEWEST, DROP_OLDEST, CALLER_RUNS
+    }
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private AuditRollupStore auditRollupStore;
+    
+    @Value("${app.audit.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${app.audit.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.audit.flush-interval-ms:500}")
+    private long flushIntervalMillis;
+    
+    @Value("${app.audit.overflow-policy:DROP_NEWEST}")
+    private OverflowPolicy overflowPolicy;
+    
+    private TransactionTemplate batchTransaction;
+    private BlockingQueue<AuditEvent> queue;
+    private Thread writer;
+    private volatile boolean running;
+    
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder callerWrites = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private volatile long lastBatchLagMillis;
+    private volatile LocalDateTime lastFlushAt;
+    
+    @PostConstruct
+    public void start() {
+        // Independent of any caller transaction, which CALLER_RUNS would otherwise join
+        batchTransaction = new TransactionTemplate(transactionManager);
+        batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            // The writer notices within one flush interval; interrupting could break a JDBC call in flight
+            writer.join(flushIntervalMillis * 2 + TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever the writer did not get to before shutdown
+        flushRemaining();
+    }
+    
+    public void submit(Long userId, String username, Long resourceId, AuditLog.ActionType action, String details, String ipAddress) {
+        AuditEvent event = new AuditEvent(userId, username, resourceId, action, details, ipAddress);
+        enqueued.increment();
+        if (queue.offer(event)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                if (queue.poll() != null) {
+                    dropped.increment();
+                }
+                if (!queue.offer(event)) {
+                    dropped.increment();
+                }
+                break;
+            case CALLER_RUNS:
+                callerWrites.increment();
+                write(List.of(event));
+                break;
+            default:
+                dropped.increment();
+        }
+    }
+    
+    // Blocks until everything queued before the call has been written (or the timeout passes)
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long target = enqueued.sum();
+        while (written.sum() + dropped.sum() + failed.sum() < target) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public Map<String, Object> getStats() {
+        AuditEvent oldest = queue.peek();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("overflowPolicy", overflowPolicy);
+        stats.put("enqueued", enqueued.sum());
+        stats.put("written", written.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("failed", failed.sum());
+        stats.put("callerWrites", callerWrites.sum());
+        stats.put("batches", batches.sum());
+        stats.put("oldestPendingMillis", oldest == null ? 0 : (System.nanoTime() - oldest.enqueuedAtNanos) / 1_000_000);
+        stats.put("lastBatchLagMillis", lastBatchLagMillis);
+        stats.put("lastFlushAt", lastFlushAt);
+        return stats;
+    }
+    
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuditEvent first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Give a burst up to one flush interval to fill the batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+    
+    private void flushRemaining() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+    
+    private void write(List<AuditEvent> batch) {
+        try {
+            batchTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bind(ps, batch.get(i));
+                    }
+    
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                });
+                auditRollupStore.record(toRollupEvents(batch));
+            });
+            written.add(batch.size());
+        } catch (Exception e) {
+            // One bad row must not take the rest of the batch with it
+            System.err.println("Audit batch of " + batch.size() + " failed, retrying row by row: " + e.getMessage());
+            for (AuditEvent event : batch) {
+                try {
+                    batchTransaction.executeWithoutResult(status -> {
+                        jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, event));
+                        auditRollupStore.record(toRollupEvents(List.of(event)));
+                    });
+                    written.increment();
+                } catch (Exception rowError) {
+                    failed.increment();
+                    System.err.println("Dropping audit event " + event.action + ": " + rowError.getMessage());
+                }
+            }
+        }
+        batches.increment();
+        lastBatchLagMillis = (System.nanoTime() - batch.get(0).enqueuedAtNanos) / 1_000_000;
+        lastFlushAt = LocalDateTime.now();
+    }
+    
+    private static List<AuditRollupStore.RollupEvent> toRollupEvents(List<AuditEvent> events) {
+        List<AuditRollupStore.RollupEvent> rollupEvents = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            rollupEvents.add(new AuditRollupStore.RollupEvent(event.timestamp, event.action, event.userId, event.username, event.resourceId));
+        }
+        return rollupEvents;
+    }
+    
+    private static void bind(PreparedStatement ps, AuditEvent event) throws SQLException {
+        setLong(ps, 1, event.userId);
+        ps.setString(2, event.username);
+        setLong(ps, 3, event.resourceId);
+        ps.setString(4, event.action.name());
+        ps.setString(5, event.details);
+        ps.setString(6, event.ipAddress);
+        ps.setTimestamp(7, Timestamp.valueOf(event.timestamp));
+    }
+    
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+    
+    private static final class AuditEvent {
+        private final Long userId;
+        private final String username;
+        private final Long resourceId;
+        private final AuditLog.ActionType action;
+        private final String details;
+        private final String ipAddress;
+        // Event time, not write time
+        private final LocalDateTime timestamp = LocalDateTime.now();
+        private final long enqueuedAtNanos = System.nanoTime();
+    
+        private AuditEvent(Long userId, String username, Long resourceId, AuditLog.ActionType action, String details, String ipAddress) {
+            this.userId = userId;
+            this.username = username;
+            this.resourceId = resourceId;
+            this.action = action;
+            this.details = details;
+            this.ipAddress = ipAddress;
+        }
+    }
+}
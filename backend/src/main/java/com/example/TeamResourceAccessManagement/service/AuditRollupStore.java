@@ -0,0 +1,464 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.TeamResourceAccessManagement.domain.AuditLog;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Hourly audit counts in {@code audit_log_rollups}, keyed by hour, action and one dimension:
+ * ALL (subject 0), USER or RESOURCE (subject = the id). AuditLogWriter records each batch in
+ * the same transaction as its INSERT, so the rollups match the committed rows. Dashboards sum
+ * a few hundred buckets instead of counting millions of rows; only the partial hours at either
+ * end of a range are counted from audit_logs, through the timestamp index.
+ *
+ * Rollups are kept when audit rows are archived or purged, so they cover that history too;
+ * a rebuild never reaches back past the oldest live row. Deleting a single audit row through
+ * the API takes it out of its buckets again. Where an edge hour has lost rows to the archive,
+ * its whole bucket is counted instead, so counts before the purge boundary are to the hour.
+ */
+@Component
+public class AuditRollupStore {
+    
+    private static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS audit_log_rollups (" +
+        "bucket_start TIMESTAMP NOT NULL, action VARCHAR(30) NOT NULL, dimension VARCHAR(10) NOT NULL, " +
+        "subject_id BIGINT NOT NULL, event_count BIGINT NOT NULL, " +
+        "PRIMARY KEY (bucket_start, action, dimension, subject_id))";
+    private static final String CREATE_INDEX_SQL =
+        "CREATE INDEX IF NOT EXISTS idx_audit_rollup_dimension ON audit_log_rollups (dimension, bucket_start)";
+    
+    private static final String UPSERT_SQL =
+        "INSERT INTO audit_log_rollups (bucket_start, action, dimension, subject_id, event_count) VALUES (?, ?, ?, ?, ?) " +
+        "ON CONFLICT (bucket_start, action, dimension, subject_id) DO UPDATE SET event_count = audit_log_rollups.event_count + EXCLUDED.event_count";
+    private static final String UPDATE_SQL =
+        "UPDATE audit_log_rollups SET event_count = event_count + ? WHERE bucket_start = ? AND action = ? AND dimension = ? AND subject_id = ?";
+    private static final String INSERT_SQL =
+        "INSERT INTO audit_log_rollups (bucket_start, action, dimension, subject_id, event_count) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_EMPTY_SQL =
+        "DELETE FROM audit_log_rollups WHERE event_count <= 0 AND bucket_start = ? AND action = ? AND dimension = ? AND subject_id = ?";
+    
+    // Before any audit row this application can have written
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+    
+    public enum Dimension {
+        ALL, USER, RESOURCE
+    }
+    
+    public enum Granularity {
+        HOUR, DAY
+    }
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private boolean postgres;
+    
+    @PostConstruct
+    public void init() {
+        postgres = isPostgres();
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        jdbcTemplate.execute(CREATE_INDEX_SQL);
+    }
+    
+    // A new install, or one upgraded with audit history, starts from a full rebuild
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM audit_log_rollups)", Boolean.class);
+            if (Boolean.TRUE.equals(empty)) {
+                // Nothing to keep, so the hour holding the oldest row is counted too
+                rebuildFrom(EPOCH);
+            }
+        } catch (Exception e) {
+            System.err.println("Audit rollup backfill failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Adds the events to their buckets. Must run in the transaction that inserts the events;
+     * ids and usernames are resolved the way the audit INSERT resolves them, so unknown ones
+     * only count towards ALL.
+     */
+    public void record(List<RollupEvent> events) {
+        add(events, 1);
+    }
+    
+    /**
+     * Takes deleted events back out of their buckets, dropping buckets that reach zero. Must run
+     * in the transaction that deletes them; events carry the ids stored on the row.
+     */
+    public void remove(List<RollupEvent> events) {
+        add(events, -1);
+    }
+    
+    private void add(List<RollupEvent> events, long delta) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Set<Long> userIds = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        Set<Long> resourceIds = new HashSet<>();
+        for (RollupEvent event : events) {
+            if (event.userId != null) {
+                userIds.add(event.userId);
+            }
+            if (event.username != null) {
+                usernames.add(event.username);
+            }
+            if (event.resourceId != null) {
+                resourceIds.add(event.resourceId);
+            }
+        }
+        Set<Long> knownUserIds = new HashSet<>();
+        Map<String, Long> idsByUsername = new HashMap<>();
+        if (!userIds.isEmpty() || !usernames.isEmpty()) {
+            List<Object> params = new ArrayList<>(userIds);
+            params.addAll(usernames);
+            jdbcTemplate.query("SELECT id, username FROM tramusers WHERE id IN (" + placeholders(userIds) + ") OR username IN ("
+                    + placeholders(usernames) + ")", rs -> {
+                    knownUserIds.add(rs.getLong("id"));
+                    idsByUsername.put(rs.getString("username"), rs.getLong("id"));
+                }, params.toArray());
+        }
+        Set<Long> knownResourceIds = new HashSet<>();
+        if (!resourceIds.isEmpty()) {
+            jdbcTemplate.query("SELECT id FROM resources WHERE id IN (" + placeholders(resourceIds) + ")",
+                rs -> { knownResourceIds.add(rs.getLong("id")); }, resourceIds.toArray());
+        }
+    
+        Map<BucketKey, Long> increments = new HashMap<>();
+        for (RollupEvent event : events) {
+            LocalDateTime bucket = event.timestamp.truncatedTo(ChronoUnit.HOURS);
+            String action = event.action.name();
+            increments.merge(new BucketKey(bucket, action, Dimension.ALL, 0L), delta, Long::sum);
+            // Same precedence as the INSERT: the id if it exists, else the username
+            Long userId = event.userId != null && knownUserIds.contains(event.userId)
+                ? event.userId
+                : (event.username != null ? idsByUsername.get(event.username) : null);
+            if (userId != null) {
+                increments.merge(new BucketKey(bucket, action, Dimension.USER, userId), delta, Long::sum);
+            }
+            if (event.resourceId != null && knownResourceIds.contains(event.resourceId)) {
+                increments.merge(new BucketKey(bucket, action, Dimension.RESOURCE, event.resourceId), delta, Long::sum);
+            }
+        }
+        apply(increments);
+        if (delta < 0) {
+            jdbcTemplate.batchUpdate(DELETE_EMPTY_SQL, increments.keySet().stream()
+                .map(key -> new Object[] { Timestamp.valueOf(key.bucket), key.action, key.dimension.name(), key.subjectId })
+                .collect(Collectors.toList()));
+        }
+    }
+    
+    /**
+     * Number of audit events with a timestamp in [startDate, endDate], optionally for one action
+     * and one user or resource. Whole hours come from the rollups, the edges from audit_logs
+     * unless their hour has been archived (see {@link #countEdge}).
+     */
+    public long count(LocalDateTime startDate, LocalDateTime endDate, AuditLog.ActionType action, Dimension dimension, Long subjectId) {
+        if (endDate.isBefore(startDate)) {
+            return 0;
+        }
+        LocalDateTime firstFullHour = startDate.truncatedTo(ChronoUnit.HOURS);
+        if (firstFullHour.isBefore(startDate)) {
+            firstFullHour = firstFullHour.plusHours(1);
+        }
+        LocalDateTime lastHourStart = endDate.truncatedTo(ChronoUnit.HOURS);
+        if (firstFullHour.isAfter(lastHourStart)) {
+            // Both ends in one hour
+            return countEdge(lastHourStart, startDate, endDate, true, action, dimension, subjectId);
+        }
+    
+        long total = sumBuckets(firstFullHour, lastHourStart, action, dimension, subjectId);
+        if (startDate.isBefore(firstFullHour)) {
+            total += countEdge(startDate.truncatedTo(ChronoUnit.HOURS), startDate, firstFullHour, false, action, dimension, subjectId);
+        }
+        return total + countEdge(lastHourStart, lastHourStart, endDate, true, action, dimension, subjectId);
+    }
+    
+    /**
+     * Events in the part [from, to] of the hour starting at {@code hour}. Counted from audit_logs
+     * while the hour's rows are all there; once the bucket holds more events than the hour has
+     * rows, some were archived or purged and the whole bucket is the closest count left.
+     */
+    private long countEdge(LocalDateTime hour, LocalDateTime from, LocalDateTime to, boolean toInclusive,
+                           AuditLog.ActionType action, Dimension dimension, Long subjectId) {
+        LocalDateTime nextHour = hour.plusHours(1);
+        long bucket = sumBuckets(hour, nextHour, action, dimension, subjectId);
+        if (bucket > countRows(hour, nextHour, false, action, dimension, subjectId)) {
+            return bucket;
+        }
+        return countRows(from, to, toInclusive, action, dimension, subjectId);
+    }
+    
+    private long sumBuckets(LocalDateTime from, LocalDateTime to, AuditLog.ActionType action, Dimension dimension, Long subjectId) {
+        if (!from.isBefore(to)) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("SELECT COALESCE(SUM(event_count), 0) FROM audit_log_rollups WHERE ");
+        List<Object> params = new ArrayList<>();
+        appendBucketFilter(sql, params, from, to, action, dimension, subjectId);
+        Long sum = jdbcTemplate.queryForObject(sql.toString(), Long.class, params.toArray());
+        return sum != null ? sum : 0;
+    }
+    
+    /**
+     * Event counts per hour or day and action for the buckets overlapping [startDate, endDate],
+     * in time order.
+     */
+    public List<Map<String, Object>> histogram(LocalDateTime startDate, LocalDateTime endDate, AuditLog.ActionType action, Granularity granularity) {
+        StringBuilder sql = new StringBuilder("SELECT bucket_start, action, SUM(event_count) AS total FROM audit_log_rollups WHERE ");
+        List<Object> params = new ArrayList<>();
+        appendBucketFilter(sql, params, startDate.truncatedTo(ChronoUnit.HOURS), endDate.plusNanos(1), action, Dimension.ALL, null);
+        sql.append(" GROUP BY bucket_start, action");
+    
+        ChronoUnit unit = granularity == Granularity.DAY ? ChronoUnit.DAYS : ChronoUnit.HOURS;
+        Map<LocalDateTime, Map<String, Long>> buckets = new TreeMap<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            LocalDateTime bucket = rs.getTimestamp("bucket_start").toLocalDateTime().truncatedTo(unit);
+            buckets.computeIfAbsent(bucket, key -> new TreeMap<>()).merge(rs.getString("action"), rs.getLong("total"), Long::sum);
+        }, params.toArray());
+    
+        List<Map<String, Object>> result = new ArrayList<>();
+        buckets.forEach((bucket, counts) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("bucketStart", bucket);
+            entry.put("total", counts.values().stream().mapToLong(Long::longValue).sum());
+            entry.put("byAction", counts);
+            result.add(entry);
+        });
+        return result;
+    }
+    
+    // Per-action totals over the buckets overlapping [startDate, endDate]
+    public Map<String, Long> countByAction(LocalDateTime startDate, LocalDateTime endDate) {
+        Map<String, Long> counts = new TreeMap<>();
+        jdbcTemplate.query("SELECT action, SUM(event_count) AS total FROM audit_log_rollups " +
+                "WHERE dimension = 'ALL' AND bucket_start >= ? AND bucket_start <= ? GROUP BY action",
+            rs -> { counts.put(rs.getString("action"), rs.getLong("total")); },
+            Timestamp.valueOf(startDate.truncatedTo(ChronoUnit.HOURS)), Timestamp.valueOf(endDate));
+        return counts;
+    }
+    
+    /**
+     * The most active users or resources over the buckets overlapping [startDate, endDate],
+     * with their current username or resource name.
+     */
+    public List<Map<String, Object>> top(Dimension dimension, LocalDateTime startDate, LocalDateTime endDate, AuditLog.ActionType action, int limit) {
+        if (dimension == Dimension.ALL) {
+            throw new IllegalArgumentException("Top-N needs the USER or RESOURCE dimension");
+        }
+        StringBuilder inner = new StringBuilder("SELECT subject_id, SUM(event_count) AS total FROM audit_log_rollups WHERE ");
+        List<Object> params = new ArrayList<>();
+        appendBucketFilter(inner, params, startDate.truncatedTo(ChronoUnit.HOURS), endDate.plusNanos(1), action, dimension, null);
+        inner.append(" GROUP BY subject_id ORDER BY total DESC, subject_id LIMIT ?");
+        params.add(limit);
+        String sql = dimension == Dimension.USER
+            ? "SELECT t.subject_id, u.username AS name, t.total FROM (" + inner + ") t LEFT JOIN tramusers u ON u.id = t.subject_id"
+            : "SELECT t.subject_id, r.name AS name, t.total FROM (" + inner + ") t LEFT JOIN resources r ON r.id = t.subject_id";
+    
+        List<Map<String, Object>> result = jdbcTemplate.query(sql + " ORDER BY t.total DESC, t.subject_id", (rs, rowNum) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put(dimension == Dimension.USER ? "userId" : "resourceId", rs.getLong("subject_id"));
+            entry.put(dimension == Dimension.USER ? "username" : "resourceName", rs.getString("name"));
+            entry.put("count", rs.getLong("total"));
+            return entry;
+        }, params.toArray());
+        return result;
+    }
+    
+    /**
+     * Recomputes every bucket from {@code from} (truncated to the hour) onwards out of
+     * audit_logs. Buckets before the first whole hour of live rows are kept, since archived or
+     * purged rows can no longer be counted; with no live rows nothing is rebuilt. On PostgreSQL
+     * the rollup table is locked for the duration, so writer batches committed meanwhile are
+     * neither lost nor counted twice.
+     */
+    public long rebuild(LocalDateTime from) {
+        LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM audit_logs", LocalDateTime.class);
+        if (oldest == null) {
+            System.out.println("Audit rollups not rebuilt: audit_logs is empty");
+            return 0;
+        }
+        // Earlier rows of the hour holding the oldest live row may already be gone
+        LocalDateTime firstWholeHour = oldest.truncatedTo(ChronoUnit.HOURS);
+        if (firstWholeHour.isBefore(oldest)) {
+            firstWholeHour = firstWholeHour.plusHours(1);
+        }
+        return rebuildFrom(from.isBefore(firstWholeHour) ? firstWholeHour : from);
+    }
+    
+    private long rebuildFrom(LocalDateTime from) {
+        Timestamp bucketFrom = Timestamp.valueOf(from.truncatedTo(ChronoUnit.HOURS));
+        Long rows = transactionTemplate.execute(status -> {
+            if (postgres) {
+                jdbcTemplate.execute("LOCK TABLE audit_log_rollups IN EXCLUSIVE MODE");
+            }
+            jdbcTemplate.update("DELETE FROM audit_log_rollups WHERE bucket_start >= ?", bucketFrom);
+            String bucket = postgres ? "date_trunc('hour', a.timestamp)" : "DATE_TRUNC('HOUR', a.timestamp)";
+            String select = "SELECT " + bucket + " AS bucket_start, a.action, %s, %s, COUNT(*) FROM audit_logs a %s " +
+                "WHERE a.timestamp >= ? GROUP BY " + bucket + ", a.action%s";
+            String insert = "INSERT INTO audit_log_rollups (bucket_start, action, dimension, subject_id, event_count) ";
+            long total = jdbcTemplate.update(insert + String.format(select, "'ALL'", "0", "", ""), bucketFrom);
+            // Inner joins, as record() only counts users and resources that still exist
+            jdbcTemplate.update(insert + String.format(select, "'USER'", "a.user_id", "JOIN tramusers u ON u.id = a.user_id", ", a.user_id"), bucketFrom);
+            jdbcTemplate.update(insert + String.format(select, "'RESOURCE'", "a.resource_id", "JOIN resources r ON r.id = a.resource_id", ", a.resource_id"), bucketFrom);
+            return total;
+        });
+        System.out.println("Audit rollups rebuilt from " + bucketFrom + ": " + rows + " hourly action buckets");
+        return rows != null ? rows : 0;
+    }
+    
+    private void apply(Map<BucketKey, Long> increments) {
+        List<Object[]> rows = increments.entrySet().stream()
+            .map(entry -> new Object[] {
+                Timestamp.valueOf(entry.getKey().bucket), entry.getKey().action, entry.getKey().dimension.name(),
+                entry.getKey().subjectId, entry.getValue()
+            })
+            .collect(Collectors.toList());
+        if (postgres) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            return;
+        }
+        // Portable path: update existing buckets, insert the rest
+        List<Object[]> updates = rows.stream()
+            .map(row -> new Object[] { row[4], row[0], row[1], row[2], row[3] })
+            .collect(Collectors.toList());
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                inserts.add(rows.get(i));
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+    
+    // Bucket range is [from, to)
+    private static void appendBucketFilter(StringBuilder sql, List<Object> params, LocalDateTime from, LocalDateTime to,
+                                           AuditLog.ActionType action, Dimension dimension, Long subjectId) {
+        sql.append("dimension = ? AND bucket_start >= ? AND bucket_start < ?");
+        params.add(dimension.name());
+        params.add(Timestamp.valueOf(from));
+        params.add(Timestamp.valueOf(to));
+        if (subjectId != null) {
+            sql.append(" AND subject_id = ?");
+            params.add(subjectId);
+        }
+        if (action != null) {
+            sql.append(" AND action = ?");
+            params.add(action.name());
+        }
+    }
+    
+    private long countRows(LocalDateTime from, LocalDateTime to, boolean toInclusive, AuditLog.ActionType action,
+                           Dimension dimension, Long subjectId) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM audit_logs WHERE timestamp >= ? AND timestamp ")
+            .append(toInclusive ? "<= ?" : "< ?");
+        List<Object> params = new ArrayList<>(List.of(Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        if (dimension == Dimension.USER) {
+            sql.append(" AND user_id = ?");
+            params.add(subjectId);
+        } else if (dimension == Dimension.RESOURCE) {
+            sql.append(" AND resource_id = ?");
+            params.add(subjectId);
+        }
+        if (action != null) {
+            sql.append(" AND action = ?");
+            params.add(action.name());
+        }
+        Long count = jdbcTemplate.queryForObject(sql.toString(), Long.class, params.toArray());
+        return count != null ? count : 0;
+    }
+    
+    // An empty IN list is invalid SQL; NULL matches nothing
+    private static String placeholders(Collection<?> values) {
+        return values.isEmpty() ? "NULL" : String.join(", ", Collections.nCopies(values.size(), "?"));
+    }
+    
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            System.err.println("Could not check database for audit rollups: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    public static final class RollupEvent {
+        private final LocalDateTime timestamp;
+        private final AuditLog.ActionType action;
+        private final Long userId;
+        private final String username;
+        private final Long resourceId;
+    
+        public RollupEvent(LocalDateTime timestamp, AuditLog.ActionType action, Long userId, String username, Long resourceId) {
+            this.timestamp = timestamp;
+            this.action = action;
+            this.userId = userId;
+            this.username = username;
+            this.resourceId = resourceId;
+        }
+    }
+    
+    private static final class BucketKey {
+        private final LocalDateTime bucket;
+        private final String action;
+        private final Dimension dimension;
+        private final long subjectId;
+    
+        private BucketKey(LocalDateTime bucket, String action, Dimension dimension, long subjectId) {
+            this.bucket = bucket;
+            this.action = action;
+            this.dimension = dimension;
+            this.subjectId = subjectId;
+        }
+    
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BucketKey)) return false;
+            BucketKey other = (BucketKey) o;
+            return subjectId == other.subjectId && bucket.equals(other.bucket) && action.equals(other.action) && dimension == other.dimension;
+        }
+    
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucket, action, dimension, subjectId);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.TeamResourceAccessManagement.dto.FileDownloadDTO;
+import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
+import com.example.TeamResourceAccessManagement.repository.SharedDocumentRepository;
+
+/**
+ * Ties blobs to the rows that reference them: releases blobs nobody points at any more
+ * and moves legacy inline file_data into the BlobStore one row at a time.
+ * <p>
+ * Releasing only marks a blob; the sweep deletes it once it is still unreferenced and
+ * nothing has been stored onto it for app.blob-store.release-grace-ms. An identical upload
+ * that deduplicates onto a released blob refreshes it, and has that long to save the row
+ * that points at it. Marks are kept in memory, so a restart can leave an orphaned blob
+ * behind but never deletes a referenced one.
+ */
+@Service
+public class BlobContentService {
+    
+    @Autowired
+    private BlobStore blobStore;
+    
+    @Autowired
+    private ResourceRepository resourceRepository;
+    
+    @Autowired
+    private SharedDocumentRepository sharedDocumentRepository;
+    
+    @Value("${app.blob-store.release-grace-ms:3600000}")
+    private long releaseGraceMs;
+    
+    private final Set<String> released = ConcurrentHashMap.newKeySet();
+    
+    // Blobs are shared between rows with identical content, so only delete the last reference
+    public void releaseIfUnreferenced(String contentHash) {
+        if (contentHash != null && !isReferenced(contentHash)) {
+            released.add(contentHash);
+        }
+    }
+    
+    // For a blob no row was saved with; the sweep still checks for other references first
+    public void release(String contentHash) {
+        if (contentHash != null) {
+            released.add(contentHash);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.blob-store.release-sweep-interval-ms:600000}")
+    public void sweepReleased() {
+        Instant idleSince = Instant.now().minus(Duration.ofMillis(releaseGraceMs));
+        for (String contentHash : released) {
+            try {
+                // Referenced again since the release, or deleted: either way nothing left to do
+                if (isReferenced(contentHash) || blobStore.deleteIfIdle(contentHash, idleSince)) {
+                    released.remove(contentHash);
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to delete blob " + contentHash + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    private boolean isReferenced(String contentHash) {
+        return resourceRepository.existsByContentHash(contentHash)
+            || sharedDocumentRepository.existsByContentHash(contentHash);
+    }
+    
+    public List<Long> findResourcesToMigrate(int batchSize) {
+        return resourceRepository.findIdsWithInlineFileData(batchSize);
+    }
+    
+    public List<Long> findSharedDocumentsToMigrate(int batchSize) {
+        return sharedDocumentRepository.findIdsWithInlineFileData(batchSize);
+    }
+    
+    @Transactional
+    public void migrateResource(Long resourceId) throws IOException {
+        Long length = resourceRepository.findFileDataLength(resourceId);
+        if (length == null) {
+            return;
+        }
+        ChunkedContentResource inline = new ChunkedContentResource("resource " + resourceId, null, length,
+            (offset, chunkLength) -> resourceRepository.readFileDataChunk(resourceId, offset + 1, chunkLength));
+        BlobStore.StoredBlob blob = blobStore.store(inline.getInputStream());
+        resourceRepository.moveFileDataToBlobStore(resourceId, blob.getContentHash(), blob.getSize());
+    }
+    
+    @Transactional
+    public void migrateSharedDocument(Long documentId) throws IOException {
+        FileDownloadDTO download = sharedDocumentRepository.findDownloadById(documentId).orElse(null);
+        if (download == null || !download.hasContent()) {
+            return;
+        }
+        // file_size is taken from the upload itself for shared documents, so it is the stored length
+        ChunkedContentResource inline = new ChunkedContentResource("shared document " + documentId, null, download.getContentLength(),
+            (offset, chunkLength) -> sharedDocumentRepository.readFileDataChunk(documentId, offset, chunkLength));
+        BlobStore.StoredBlob blob = blobStore.store(inline.getInputStream());
+        sharedDocumentRepository.unlinkFileData(documentId);
+        sharedDocumentRepository.moveFileDataToBlobStore(documentId, blob.getContentHash(), blob.getSize());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves file_data still stored in resources/shared_documents into the BlobStore.
+ * Runs in the background after startup when app.blob-store.migration.enabled=true;
+ * each row is migrated in its own transaction, so the job can be stopped and resumed.
+ */
+@Component
+public class BlobMigrationJob implements ApplicationRunner {
+    
+    @Autowired
+    private BlobContentService blobContentService;
+    
+    @Value("${app.blob-store.migration.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${app.blob-store.migration.batch-size:50}")
+    private int batchSize;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        Thread worker = new Thread(this::migrateAll, "blob-migration");
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    public void migrateAll() {
+        int resources = migrate("resources", blobContentService::findResourcesToMigrate, blobContentService::migrateResource);
+        int documents = migrate("shared_documents", blobContentService::findSharedDocumentsToMigrate, blobContentService::migrateSharedDocument);
+        System.out.println("Blob migration finished: " + resources + " resources, " + documents + " shared documents moved");
+    }
+    
+    private int migrate(String table, Function<Integer, List<Long>> nextBatch, RowMigration migration) {
+        int migrated = 0;
+        while (true) {
+            List<Long> ids = nextBatch.apply(batchSize);
+            int failedInBatch = 0;
+            for (Long id : ids) {
+                try {
+                    migration.migrate(id);
+                    migrated++;
+                } catch (Exception e) {
+                    failedInBatch++;
+                    System.err.println("Blob migration failed for " + table + " id " + id + ": " + e.getMessage());
+                }
+            }
+            // Failed rows stay inline and would be picked up again, so stop rather than spin on them
+            if (ids.size() < batchSize || failedInBatch == ids.size()) {
+                return migrated;
+            }
+            System.out.println("Blob migration: " + migrated + " " + table + " rows moved so far");
+        }
+    }
+    
+    @FunctionalInterface
+    private interface RowMigration {
+        void migrate(Long id) throws Exception;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Content-addressed storage for uploaded file bytes. Blobs are keyed by the
+ * lowercase hex SHA-256 of their content, so storing identical bytes twice
+ * keeps a single copy.
+ */
+public interface BlobStore {
+    
+    /** Streams {@code content} into the store and closes it. */
+    StoredBlob store(InputStream content) throws IOException;
+    
+    /** Stores a complete file, such as a finished chunked upload; the file may be moved or deleted. */
+    default StoredBlob storeFile(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return store(in);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    boolean exists(String contentHash);
+    
+    Resource load(String contentHash);
+    
+    void delete(String contentHash) throws IOException;
+    
+    /**
+     * Deletes the blob unless it was stored, or had identical content stored onto it, after
+     * {@code idleSince}. Returns false when the blob was kept.
+     */
+    boolean deleteIfIdle(String contentHash, Instant idleSince) throws IOException;
+    
+    class StoredBlob {
+        private final String contentHash;
+        private final long size;
+        
+        public StoredBlob(String contentHash, long size) {
+            this.contentHash = contentHash;
+            this.size = size;
+        }
+        
+        public String getContentHash() { return contentHash; }
+        public long getSize() { return size; }
+    }
+}
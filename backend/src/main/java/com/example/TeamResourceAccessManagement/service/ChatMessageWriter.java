@@ -0,0 +1,219 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.TeamResourceAccessManagement.domain.ChatMessage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Persists chat messages off the sender's thread. Each message gets its id when it is
+ * appended, so it can be fanned out to the room right away and still be referred to by id
+ * (history, dedupe) before it is written. On PostgreSQL ids are reserved in blocks from the
+ * column's own sequence; elsewhere they continue from the highest stored id. A writer thread
+ * drains the queue in batched INSERTs; when the queue is full the caller writes its own
+ * message, so chat is never dropped for lack of room.
+ */
+@Component
+public class ChatMessageWriter {
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO chat_messages (id, team_id, sender, message, timestamp) VALUES (?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.chat.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${app.chat.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${app.chat.flush-interval-ms:200}")
+    private long flushIntervalMillis;
+    
+    @Value("${app.chat.id-block-size:50}")
+    private int idBlockSize;
+    
+    private boolean postgres;
+    private TransactionTemplate batchTransaction;
+    private BlockingQueue<ChatMessage> queue;
+    private Thread writer;
+    private volatile boolean running;
+    
+    private final Deque<Long> reservedIds = new ArrayDeque<>();
+    private long nextLocalId = -1;
+    
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    
+    @PostConstruct
+    public void start() {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            System.err.println("Could not check database for chat writer: " + e.getMessage());
+        }
+        batchTransaction = new TransactionTemplate(transactionManager);
+        batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drainLoop, "chat-message-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            writer.join(flushIntervalMillis * 2 + TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<ChatMessage> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+    
+    /**
+     * Stamps the message with its id and time and queues it for writing. The returned message
+     * can be sent to clients immediately.
+     */
+    public ChatMessage append(Long teamId, String sender, String text) {
+        ChatMessage message = new ChatMessage(teamId, sender, text, LocalDateTime.now());
+        message.setId(nextId());
+        appended.increment();
+        if (!queue.offer(message)) {
+            write(List.of(message));
+        }
+        return message;
+    }
+    
+    // Blocks until everything appended before the call has been written (or the timeout passes)
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long target = appended.sum();
+        while (written.sum() + failed.sum() < target) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private synchronized long nextId() {
+        if (postgres) {
+            if (reservedIds.isEmpty()) {
+                List<Long> block = new ArrayList<>(jdbcTemplate.queryForList(
+                    "SELECT nextval(pg_get_serial_sequence('chat_messages', 'id')) FROM generate_series(1, ?)", Long.class, idBlockSize));
+                Collections.sort(block);
+                reservedIds.addAll(block);
+            }
+            return reservedIds.poll();
+        }
+        // Portable path: this instance is the only writer, so it continues from the stored maximum
+        if (nextLocalId < 0) {
+            Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM chat_messages", Long.class);
+            nextLocalId = (max != null ? max : 0) + 1;
+        }
+        return nextLocalId++;
+    }
+    
+    private void drainLoop() {
+        List<ChatMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ChatMessage first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+    
+    private void write(List<ChatMessage> batch) {
+        try {
+            batchTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bind(ps, batch.get(i));
+                }
+    
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            }));
+            written.add(batch.size());
+        } catch (Exception e) {
+            System.err.println("Chat batch of " + batch.size() + " failed, retrying row by row: " + e.getMessage());
+            for (ChatMessage message : batch) {
+                try {
+                    batchTransaction.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, message)));
+                    written.increment();
+                } catch (Exception rowError) {
+                    failed.increment();
+                    System.err.println("Dropping chat message " + message.getId() + ": " + rowError.getMessage());
+                }
+            }
+        }
+    }
+    
+    private static void bind(PreparedStatement ps, ChatMessage message) throws SQLException {
+        ps.setLong(1, message.getId());
+        ps.setLong(2, message.getTeamId());
+        ps.setString(3, message.getSender());
+        ps.setString(4, message.getMessage());
+        ps.setTimestamp(5, Timestamp.valueOf(message.getTimestamp()));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * Read-only {@link org.springframework.core.io.Resource} that pulls its bytes from the
+ * database one chunk at a time, so a download never holds more than one chunk in heap.
+ * {@link InputStream#skip(long)} only moves the read offset, which lets Spring's
+ * Range handling jump straight to the requested region without reading the prefix.
+ */
+public class ChunkedContentResource extends AbstractResource {
+    
+    public static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+    
+    @FunctionalInterface
+    public interface ChunkReader {
+        /** Reads up to {@code length} bytes starting at the zero-based {@code offset}. */
+        byte[] read(long offset, int length);
+    }
+    
+    private final String description;
+    private final String filename;
+    private final long contentLength;
+    private final ChunkReader chunkReader;
+    private final int chunkSize;
+    
+    public ChunkedContentResource(String description, String filename, long contentLength, ChunkReader chunkReader) {
+        this(description, filename, contentLength, chunkReader, DEFAULT_CHUNK_SIZE);
+    }
+    
+    public ChunkedContentResource(String description, String filename, long contentLength, ChunkReader chunkReader, int chunkSize) {
+        this.description = description;
+        this.filename = filename;
+        this.contentLength = contentLength;
+        this.chunkReader = chunkReader;
+        this.chunkSize = chunkSize;
+    }
+    
+    @Override
+    public String getDescription() {
+        return description;
+    }
+    
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+    
+    @Override
+    public boolean exists() {
+        return true;
+    }
+    
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+    
+    @Override
+    public InputStream getInputStream() {
+        return new ChunkedInputStream();
+    }
+    
+    private class ChunkedInputStream extends InputStream {
+        private long position = 0;
+        private byte[] chunk = new byte[0];
+        private int chunkPosition = 0;
+        
+        @Override
+        public int read() throws IOException {
+            if (!fillChunk()) {
+                return -1;
+            }
+            position++;
+            return chunk[chunkPosition++] & 0xFF;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fillChunk()) {
+                return -1;
+            }
+            int count = Math.min(len, chunk.length - chunkPosition);
+            System.arraycopy(chunk, chunkPosition, buffer, off, count);
+            chunkPosition += count;
+            position += count;
+            return count;
+        }
+        
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, contentLength - position));
+            position += skipped;
+            // Drop the buffered chunk; the next read starts at the new position
+            chunk = new byte[0];
+            chunkPosition = 0;
+            return skipped;
+        }
+        
+        @Override
+        public int available() {
+            return chunk.length - chunkPosition;
+        }
+        
+        private boolean fillChunk() throws IOException {
+            if (chunkPosition < chunk.length) {
+                return true;
+            }
+            if (position >= contentLength) {
+                return false;
+            }
+            int length = (int) Math.min(chunkSize, contentLength - position);
+            byte[] next = chunkReader.read(position, length);
+            if (next == null || next.length == 0) {
+                throw new IOException("Content ended at byte " + position + " of " + contentLength + " for " + description);
+            }
+            chunk = next;
+            chunkPosition = 0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.TeamResourceAccessManagement.domain.UploadSession;
+import com.example.TeamResourceAccessManagement.dto.UploadSessionDTO;
+import com.example.TeamResourceAccessManagement.exceptions.AccessDeniedException;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import com.example.TeamResourceAccessManagement.exceptions.ConflictException;
+import com.example.TeamResourceAccessManagement.exceptions.ResourceNotFoundException;
+import com.example.TeamResourceAccessManagement.repository.UploadSessionRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Resumable uploads. A client opens a session, then PUTs the file as numbered chunks of the
+ * session's chunk size, each at offset index * chunkSize with the SHA-256 of its bytes. Chunks
+ * are appended in order to a spool file on disk and streamed through a small buffer, so memory
+ * per upload stays bounded whatever the file size. After an interruption the client reads the
+ * session back and continues from receivedBytes; resending a chunk already received is
+ * accepted if its bytes match. Completing the session moves the spool file into the
+ * BlobStore, and the caller turns it into a Resource or SharedDocument in the same
+ * transaction; the session is only closed once that row has committed.
+ */
+@Service
+public class ChunkedUploadService {
+    
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+    
+    @Autowired
+    private BlobStore blobStore;
+    
+    @Autowired
+    private BlobContentService blobContentService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.uploads.spool-dir:uploads/spool}")
+    private String spoolDir;
+    
+    @Value("${app.uploads.chunk-size:8388608}")
+    private int chunkSize;
+    
+    @Value("${app.uploads.max-size:5368709120}")
+    private long maxSize;
+    
+    @Value("${app.uploads.expire-after-ms:86400000}")
+    private long expireAfterMillis;
+    
+    private Path spoolRoot;
+    private TransactionTemplate closeTransaction;
+    
+    // Chunks of one session are written one at a time
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    
+    // Handed to the BlobStore, waiting for the caller's transaction to finish
+    private final Set<String> completing = ConcurrentHashMap.newKeySet();
+    
+    @PostConstruct
+    public void init() throws IOException {
+        spoolRoot = Paths.get(spoolDir).toAbsolutePath().normalize();
+        Files.createDirectories(spoolRoot);
+        // Sessions are closed after the caller's commit, when its transaction can no longer be joined
+        closeTransaction = new TransactionTemplate(transactionManager);
+        closeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    public UploadSessionDTO createSession(String fileName, String contentType, long totalSize) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new BadRequestException("fileName is required");
+        }
+        if (totalSize < 1 || totalSize > maxSize) {
+            throw new BadRequestException("totalSize must be between 1 and " + maxSize);
+        }
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), fileName, contentType, totalSize, chunkSize, currentUsername());
+        try {
+            Files.createFile(spoolPath(session.getId()));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start upload: " + e.getMessage(), e);
+        }
+        return toDTO(uploadSessionRepository.save(session));
+    }
+    
+    public UploadSessionDTO getSession(String uploadId) {
+        return toDTO(findOwnSession(uploadId));
+    }
+    
+    /**
+     * Appends chunk {@code index}. The body must be exactly the chunk's bytes: chunkSize, or
+     * what is left for the last chunk. Nothing is kept if the length or checksum is wrong.
+     */
+    public UploadSessionDTO putChunk(String uploadId, long index, long offset, String checksum, InputStream body) {
+        if (checksum == null || !SHA256_HEX.matcher(checksum.toLowerCase()).matches()) {
+            throw new BadRequestException("Chunk checksum must be a hex SHA-256");
+        }
+        synchronized (lockFor(uploadId)) {
+            UploadSession session = findOwnSession(uploadId);
+            if (completing.contains(uploadId)) {
+                throw new ConflictException("Upload " + uploadId + " is being completed");
+            }
+            if (index < 0 || offset != index * session.getChunkSize() || offset >= session.getTotalSize()) {
+                throw new BadRequestException("Chunk " + index + " must start at offset " + index * session.getChunkSize()
+                    + " within " + session.getTotalSize() + " bytes");
+            }
+            long length = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+            Path spool = spoolPath(uploadId);
+            try {
+                if (offset + length <= session.getReceivedBytes()) {
+                    // A retry of a chunk that did arrive, e.g. when only the response was lost
+                    if (!checksum.equalsIgnoreCase(hashRange(spool, offset, length))) {
+                        throw new ConflictException("Chunk " + index + " differs from the bytes already received");
+                    }
+                    return toDTO(session);
+                }
+                if (offset != session.getReceivedBytes()) {
+                    throw new ConflictException("Expected chunk " + session.getReceivedBytes() / session.getChunkSize()
+                        + " at offset " + session.getReceivedBytes());
+                }
+                writeChunk(spool, offset, length, checksum, body, index);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to store chunk " + index + ": " + e.getMessage(), e);
+            }
+            session.setReceivedBytes(offset + length);
+            session.setUpdatedAt(LocalDateTime.now());
+            return toDTO(uploadSessionRepository.save(session));
+        }
+    }
+    
+    /**
+     * Hands the finished file to the BlobStore. Called inside a transaction, the session is
+     * closed when it commits; if it rolls back the file is put back in the spool and the blob
+     * released, so the upload can be completed again.
+     */
+    public CompletedUpload complete(String uploadId) {
+        synchronized (lockFor(uploadId)) {
+            UploadSession session = findOwnSession(uploadId);
+            if (!session.getReceivedBytes().equals(session.getTotalSize())) {
+                throw new ConflictException("Upload incomplete: " + session.getReceivedBytes() + " of "
+                    + session.getTotalSize() + " bytes received");
+            }
+            if (!completing.add(uploadId)) {
+                throw new ConflictException("Upload " + uploadId + " is already being completed");
+            }
+            BlobStore.StoredBlob blob;
+            try {
+                blob = blobStore.storeFile(spoolPath(uploadId));
+            } catch (IOException e) {
+                completing.remove(uploadId);
+                throw new RuntimeException("Failed to store upload: " + e.getMessage(), e);
+            }
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        synchronized (lockFor(uploadId)) {
+                            completing.remove(uploadId);
+                            if (status == STATUS_COMMITTED) {
+                                closeTransaction.executeWithoutResult(tx -> discard(session));
+                            } else {
+                                reopen(uploadId, blob);
+                            }
+                        }
+                    }
+                });
+            } else {
+                completing.remove(uploadId);
+                discard(session);
+            }
+            return new CompletedUpload(blob, session.getFileName(), session.getContentType());
+        }
+    }
+    
+    public void abort(String uploadId) {
+        synchronized (lockFor(uploadId)) {
+            if (completing.contains(uploadId)) {
+                throw new ConflictException("Upload " + uploadId + " is being completed");
+            }
+            discard(findOwnSession(uploadId));
+        }
+    }
+    
+    // Sessions nobody has written to for a while are given up on, with their spooled bytes
+    @Scheduled(fixedDelayString = "${app.uploads.cleanup-interval-ms:3600000}")
+    public void expireStaleSessions() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(expireAfterMillis));
+        for (UploadSession session : uploadSessionRepository.findByUpdatedAtBefore(cutoff)) {
+            synchronized (lockFor(session.getId())) {
+                if (!completing.contains(session.getId())) {
+                    discard(session);
+                }
+            }
+        }
+    }
+    
+    private void writeChunk(Path spool, long offset, long length, String checksum, InputStream body, long index) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(spool, StandardOpenOption.WRITE)) {
+            // Drop anything left over from a chunk that failed part way
+            channel.truncate(offset);
+            channel.position(offset);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long written = 0;
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                if (written + read > length) {
+                    channel.truncate(offset);
+                    throw new BadRequestException("Chunk " + index + " must be " + length + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                written += read;
+            }
+            if (written != length) {
+                channel.truncate(offset);
+                throw new BadRequestException("Chunk " + index + " must be " + length + " bytes, got " + written);
+            }
+            if (!checksum.equalsIgnoreCase(HexFormat.of().formatHex(digest.digest()))) {
+                channel.truncate(offset);
+                throw new BadRequestException("Checksum mismatch for chunk " + index);
+            }
+            // The session only records bytes that are on disk
+            channel.force(false);
+        }
+    }
+    
+    private static String hashRange(Path spool, long offset, long length) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(spool, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long position = offset;
+            long end = offset + length;
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(BUFFER_SIZE, end - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                digest.update(buffer.flip());
+                position += read;
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    // Nothing was saved with the blob: its bytes go back to the spool, which the session still describes
+    private void reopen(String uploadId, BlobStore.StoredBlob blob) {
+        try (InputStream in = blobStore.load(blob.getContentHash()).getInputStream()) {
+            Files.copy(in, spoolPath(uploadId), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Could not restore spooled upload " + uploadId + ": " + e.getMessage());
+        }
+        blobContentService.release(blob.getContentHash());
+    }
+    
+    private void discard(UploadSession session) {
+        try {
+            Files.deleteIfExists(spoolPath(session.getId()));
+        } catch (IOException e) {
+            System.err.println("Could not delete spooled upload " + session.getId() + ": " + e.getMessage());
+        }
+        uploadSessionRepository.delete(session);
+        locks.remove(session.getId());
+    }
+    
+    private UploadSession findOwnSession(String uploadId) {
+        UploadSession session = uploadSessionRepository.findById(uploadId)
+            .orElseThrow(() -> new ResourceNotFoundException("Upload not found: " + uploadId));
+        if (!Objects.equals(session.getCreatedBy(), currentUsername())) {
+            throw new AccessDeniedException("Upload " + uploadId + " belongs to another user");
+        }
+        return session;
+    }
+    
+    private Object lockFor(String uploadId) {
+        return locks.computeIfAbsent(uploadId, id -> new Object());
+    }
+    
+    private Path spoolPath(String uploadId) {
+        // Ids are UUIDs we generated; anything else is not a session
+        try {
+            return spoolRoot.resolve(UUID.fromString(uploadId) + ".part");
+        } catch (IllegalArgumentException e) {
+            throw new ResourceNotFoundException("Upload not found: " + uploadId);
+        }
+    }
+    
+    private static UploadSessionDTO toDTO(UploadSession session) {
+        return new UploadSessionDTO(session.getId(), session.getFileName(), session.getTotalSize(),
+            session.getChunkSize(), session.getReceivedBytes());
+    }
+    
+    private static String currentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : null;
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    public static class CompletedUpload {
+        private final BlobStore.StoredBlob blob;
+        private final String fileName;
+        private final String contentType;
+    
+        public CompletedUpload(BlobStore.StoredBlob blob, String fileName, String contentType) {
+            this.blob = blob;
+            this.fileName = fileName;
+            this.contentType = contentType;
+        }
+    
+        public BlobStore.StoredBlob getBlob() { return blob; }
+        public String getFileName() { return fileName; }
+        public String getContentType() { return contentType; }
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.TeamResourceAccessManagement.repository.PermissionRepository;
+import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-user set of resource ids the user can currently access, folding in active explicit
+ * permissions (minus expired ones) and allowedUserGroups matches. Built with two queries on
+ * first use and kept until the earliest permission expiry, the TTL, or an invalidation from
+ * AccessDecisionCache, whichever comes first. A resource change does not drop the index:
+ * once committed, that one resource's grants and groups are re-read and its bit updated for
+ * every cached user. The ids of all resources are kept the same way, so the resources a user
+ * can request are the complement of their set, looked up by id.
+ */
+@Component
+public class EffectiveAccessIndex implements AccessDecisionCache.InvalidationListener {
+    
+    @Autowired
+    private PermissionRepository permissionRepository;
+    
+    @Autowired
+    private ResourceRepository resourceRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private UserGroupAccessService userGroupAccessService;
+    
+    @Autowired
+    private AccessDecisionCache accessDecisionCache;
+    
+    @Value("${app.access-index.ttl-seconds:300}")
+    private long ttlSeconds;
+    
+    @Value("${app.access-index.max-users:5000}")
+    private int maxUsers;
+    
+    private final Map<Long, UserAccess> byUser = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a build that raced with a change is not cached
+    private final AtomicLong version = new AtomicLong();
+    // Ids of every resource; the username is unused
+    private volatile UserAccess allResources;
+    
+    @PostConstruct
+    public void registerForInvalidation() {
+        accessDecisionCache.addInvalidationListener(this);
+    }
+    
+    public List<Long> getAccessibleResourceIdList(Long userId) {
+        return AccessMatrix.toIdList(accessFor(userId));
+    }
+    
+    // Ids of every resource the user cannot access yet, ascending
+    public List<Long> getRequestableResourceIdList(Long userId) {
+        return AccessMatrix.toIdList(RoaringBitmap.andNot(allResourceIds(), accessFor(userId)));
+    }
+    
+    public boolean canAccess(Long userId, Long resourceId) {
+        return fitsIndex(resourceId) && accessFor(userId).contains(resourceId.intValue());
+    }
+    
+    private RoaringBitmap allResourceIds() {
+        long now = System.currentTimeMillis();
+        UserAccess all = allResources;
+        if (all != null && all.validUntil > now) {
+            return all.resourceIds;
+        }
+        
+        long buildVersion = version.get();
+        RoaringBitmap resourceIds = new RoaringBitmap();
+        for (Long resourceId : resourceRepository.findAllIds()) {
+            set(resourceIds, resourceId);
+        }
+        all = new UserAccess(resourceIds, null, now + ttlSeconds * 1000);
+        if (version.get() == buildVersion) {
+            allResources = all;
+        }
+        return all.resourceIds;
+    }
+    
+    private RoaringBitmap accessFor(Long userId) {
+        long now = System.currentTimeMillis();
+        UserAccess access = byUser.get(userId);
+        if (access != null && access.validUntil > now) {
+            return access.resourceIds;
+        }
+        
+        long buildVersion = version.get();
+        access = build(userId, now);
+        if (version.get() == buildVersion) {
+            if (byUser.size() >= maxUsers) {
+                evict(now);
+            }
+            byUser.put(userId, access);
+        }
+        return access.resourceIds;
+    }
+    
+    private UserAccess build(Long userId, long now) {
+        RoaringBitmap resourceIds = new RoaringBitmap();
+        long validUntil = now + ttlSeconds * 1000;
+        
+        LocalDateTime currentTime = LocalDateTime.now();
+        for (Object[] grant : permissionRepository.findEffectiveGrants(userId, currentTime)) {
+            set(resourceIds, (Long) grant[0]);
+            LocalDateTime expiresAt = (LocalDateTime) grant[1];
+            if (expiresAt != null) {
+                validUntil = Math.min(validUntil, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        }
+        
+        String username = userRepository.findUsernameById(userId);
+        if (username != null) {
+            for (Object[] rule : resourceRepository.findAllowedUserGroups()) {
+                Long resourceId = (Long) rule[0];
+                if (userGroupAccessService.getMatcher(resourceId, (String) rule[1]).matches(username)) {
+                    set(resourceIds, resourceId);
+                }
+            }
+        }
+        return new UserAccess(resourceIds, username, validUntil);
+    }
+    
+    // Re-reads one resource and patches its bit into every cached set; serialized so updates apply in order
+    private synchronized void refreshResource(Long resourceId) {
+        version.incrementAndGet();
+        int index = toIndex(resourceId);
+        boolean exists = resourceRepository.existsById(resourceId);
+        Map<Long, Long> grantExpiries = new HashMap<>();
+        if (exists) {
+            for (Object[] grant : permissionRepository.findEffectiveGrantsByResourceId(resourceId, LocalDateTime.now())) {
+                LocalDateTime expiresAt = (LocalDateTime) grant[1];
+                grantExpiries.put((Long) grant[0], expiresAt == null ? Long.MAX_VALUE
+                    : expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        }
+        UserGroupMatcher groups = UserGroupMatcher.parse(exists ? resourceRepository.findAllowedUserGroupsById(resourceId) : null);
+        
+        byUser.replaceAll((userId, access) -> {
+            Long expiresAt = grantExpiries.get(userId);
+            boolean allowed = expiresAt != null || (access.username != null && groups.matches(access.username));
+            return access.with(index, allowed, expiresAt != null ? expiresAt : Long.MAX_VALUE);
+        });
+        UserAccess all = allResources;
+        if (all != null) {
+            allResources = all.with(index, exists, Long.MAX_VALUE);
+        }
+    }
+    
+    private static boolean fitsIndex(Long resourceId) {
+        return resourceId != null && resourceId >= 0 && resourceId <= Integer.MAX_VALUE;
+    }
+    
+    private static int toIndex(Long resourceId) {
+        if (!fitsIndex(resourceId)) {
+            throw new IllegalStateException("Resource id " + resourceId + " does not fit the access index");
+        }
+        return resourceId.intValue();
+    }
+    
+    private static void set(RoaringBitmap resourceIds, Long resourceId) {
+        resourceIds.add(toIndex(resourceId));
+    }
+
+    
+    private void evict(long now) {
+        byUser.values().removeIf(access -> access.validUntil <= now);
+        if (byUser.size() < maxUsers) {
+            return;
+        }
+        Iterator<Long> users = byUser.keySet().iterator();
+        int toRemove = Math.max(1, maxUsers / 8);
+        while (toRemove-- > 0 && users.hasNext()) {
+            users.next();
+            users.remove();
+        }
+    }
+    
+    @Override
+    public void accessChanged(Long userId, Long resourceId) {
+        userChanged(userId);
+    }
+    
+    @Override
+    public void userChanged(Long userId) {
+        version.incrementAndGet();
+        byUser.remove(userId);
+    }
+    
+    // A resource change can add or remove any number of users (e.g. new allowed groups)
+    @Override
+    public void resourceChanged(Long resourceId) {
+        Runnable refresh = () -> {
+            try {
+                refreshResource(resourceId);
+            } catch (Exception e) {
+                System.err.println("Access index update failed for resource " + resourceId + ", dropping the index: " + e.getMessage());
+                allChanged();
+            }
+        };
+        // Read what the change committed, like AccessMatrix does
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh.run();
+                }
+            });
+        } else {
+            refresh.run();
+        }
+    }
+    
+    @Override
+    public void allChanged() {
+        version.incrementAndGet();
+        byUser.clear();
+        allResources = null;
+    }
+    
+    private static final class UserAccess {
+        // Never modified once published, so readers share it without locking; the public
+        // methods hand out id lists built from it. Compressed, so a user's footprint follows
+        // how many resources they can access rather than the highest resource id
+        private final RoaringBitmap resourceIds;
+        private final String username;
+        private final long validUntil;
+        
+        private UserAccess(RoaringBitmap resourceIds, String username, long validUntil) {
+            this.resourceIds = resourceIds;
+            this.username = username;
+            this.validUntil = validUntil;
+        }
+        
+        // Copy-on-write, since readers iterate resourceIds without locking
+        private UserAccess with(int resourceId, boolean allowed, long expiresAt) {
+            long until = Math.min(validUntil, expiresAt);
+            if (resourceIds.contains(resourceId) == allowed && until == validUntil) {
+                return this;
+            }
+            RoaringBitmap updated = resourceIds.clone();
+            if (allowed) {
+                updated.add(resourceId);
+            } else {
+                updated.remove(resourceId);
+            }
+            return new UserAccess(updated, username, until);
+        }
+    }
+}
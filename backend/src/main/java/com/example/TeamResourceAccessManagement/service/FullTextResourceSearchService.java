@@ -0,0 +1,171 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import com.example.TeamResourceAccessManagement.dto.ResourceResponseDTO;
+import com.example.TeamResourceAccessManagement.dto.ResourceSearchResultDTO;
+import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Full-text search over resources. On PostgreSQL matches come from two GIN indexes: a weighted
+ * tsvector expression index (name > description > category/uploader) queried with prefix
+ * terms, and a pg_trgm index on lower(name) that catches misspellings. The indexes are
+ * created on startup if missing, since the schema is otherwise managed by Hibernate.
+ * Other databases (H2 in tests) get an unindexed fallback: every term must start a word of
+ * the same four columns, names rank above the rest, and there is no misspelling match.
+ */
+@Service
+public class FullTextResourceSearchService implements ResourceSearchService {
+    
+    // Must stay identical to the indexed expression or PostgreSQL will not use the index
+    private static final String SEARCH_VECTOR =
+        "(setweight(to_tsvector('simple', coalesce(name, '')), 'A') || " +
+        "setweight(to_tsvector('simple', coalesce(description, '')), 'B') || " +
+        "setweight(to_tsvector('simple', coalesce(category, '') || ' ' || coalesce(uploaded_by, '')), 'C'))";
+    
+    private static final String PORTABLE_DOCUMENT =
+        "coalesce(name, '') || ' ' || coalesce(description, '') || ' ' || coalesce(CAST(category AS VARCHAR(30)), '') || ' ' || coalesce(uploaded_by, '')";
+    
+    // A term may start the text or follow any character the tokenizer splits on
+    private static final String WORD_START = "(^|[^\\p{L}\\p{N}])";
+    
+    private static final String HIGHLIGHT_START = "\u0002";
+    private static final String HIGHLIGHT_STOP = "\u0003";
+    private static final String HEADLINE_OPTIONS = "StartSel=" + HIGHLIGHT_START + ", StopSel=" + HIGHLIGHT_STOP;
+    
+    // Rank first, then build headlines for the page only; ts_headline is the expensive part
+    private static final String SEARCH_SQL =
+        "SELECT m.id, m.score, " +
+        "ts_headline('simple', r.name, m.query, '" + HEADLINE_OPTIONS + ", HighlightAll=true'), " +
+        "ts_headline('simple', coalesce(r.description, ''), m.query, '" + HEADLINE_OPTIONS + ", MaxFragments=2, MaxWords=20, MinWords=5') " +
+        "FROM (" +
+        "  SELECT r.id, q.query, ts_rank_cd(" + SEARCH_VECTOR + ", q.query) + similarity(lower(r.name), q.term) AS score " +
+        "  FROM resources r, (SELECT to_tsquery('simple', ?) AS query, lower(?) AS term) q " +
+        "  WHERE " + SEARCH_VECTOR + " @@ q.query OR lower(r.name) % q.term " +
+        "  ORDER BY score DESC, r.id DESC LIMIT ?" +
+        ") m JOIN resources r ON r.id = m.id " +
+        "ORDER BY m.score DESC, m.id DESC";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private ResourceRepository resourceRepository;
+    
+    private boolean postgres;
+    
+    @PostConstruct
+    public void init() {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            System.err.println("Could not check database for resource search: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public List<ResourceSearchResultDTO> search(String text, int limit) {
+        List<String> terms = SearchTerms.of(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        
+        List<Object[]> matches = postgres
+            ? jdbcTemplate.query(SEARCH_SQL,
+                (rs, i) -> new Object[] { rs.getLong(1), rs.getDouble(2), rs.getString(3), rs.getString(4) },
+                SearchTerms.toPrefixQuery(text), text.trim(), limit)
+            : searchPortable(terms, limit);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        
+        List<Long> ids = matches.stream().map(match -> (Long) match[0]).collect(Collectors.toList());
+        Map<Long, ResourceResponseDTO> summaries = resourceRepository.findSummariesByIdIn(ids).stream()
+            .collect(Collectors.toMap(ResourceResponseDTO::getId, Function.identity()));
+        
+        List<ResourceSearchResultDTO> results = new ArrayList<>();
+        for (Object[] match : matches) {
+            ResourceResponseDTO summary = summaries.get((Long) match[0]);
+            if (summary != null) {
+                results.add(new ResourceSearchResultDTO(summary, (Double) match[1],
+                    toHtml((String) match[2]), toHtml((String) match[3])));
+            }
+        }
+        return results;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureSearchIndexes() {
+        if (!postgres) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_resource_search_vector ON resources USING GIN (" + SEARCH_VECTOR + ")");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_resource_name_trgm ON resources USING GIN (lower(name) gin_trgm_ops)");
+            // Case-sensitive, for the substring match behind the legacy /search endpoint
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_resource_name_like_trgm ON resources USING GIN (name gin_trgm_ops)");
+        } catch (Exception e) {
+            System.err.println("Failed to create resource search indexes: " + e.getMessage());
+        }
+    }
+    
+    // Same row shape as SEARCH_SQL; highlighting is done here instead of by ts_headline
+    private List<Object[]> searchPortable(List<String> terms, int limit) {
+        StringBuilder score = new StringBuilder();
+        StringBuilder where = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        for (String term : terms) {
+            score.append(score.length() > 0 ? " + " : "").append("CASE WHEN REGEXP_LIKE(LOWER(name), ?) THEN 1 ELSE 0 END");
+            params.add(WORD_START + term);
+        }
+        for (String term : terms) {
+            where.append(where.length() > 0 ? " AND " : "").append("REGEXP_LIKE(LOWER(").append(PORTABLE_DOCUMENT).append("), ?)");
+            params.add(WORD_START + term);
+        }
+        params.add(limit);
+        return jdbcTemplate.query("SELECT id, name, description, " + score + " AS score FROM resources WHERE " + where +
+                " ORDER BY score DESC, id DESC LIMIT ?",
+            (rs, i) -> new Object[] { rs.getLong(1), (double) rs.getInt(4) / terms.size(),
+                highlight(rs.getString(2), terms), highlight(rs.getString(3) != null ? rs.getString(3) : "", terms) },
+            params.toArray());
+    }
+    
+    private static String highlight(String text, List<String> terms) {
+        for (String term : terms) {
+            text = Pattern.compile("(?<![\\p{L}\\p{N}])" + Pattern.quote(term), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE)
+                .matcher(text).replaceAll(match -> Matcher.quoteReplacement(HIGHLIGHT_START + match.group() + HIGHLIGHT_STOP));
+        }
+        return text;
+    }
+    
+    private static String toHtml(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline)
+            .replace(HIGHLIGHT_START, "<mark>")
+            .replace(HIGHLIGHT_STOP, "</mark>");
+    }
+}
@@ -25,9 +25,14 @@ public class JwtAuthFilter extends OncePerRequestFilter{
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        final String authHeader = request.getHeader("Authorization");
+        String authHeader = request.getHeader("Authorization");
         final String jwt;
         final String username;
+        // EventSource and WebSocket cannot set headers, so event streams and chat sockets may pass the token as a query parameter
+        if(authHeader == null && (request.getRequestURI().endsWith("/stream") || request.getRequestURI().startsWith("/ws/"))
+                && request.getParameter("access_token") != null){
+            authHeader = "Bearer " + request.getParameter("access_token");
+        }
         if(authHeader == null || !authHeader.startsWith("Bearer ")){
             filterChain.doFilter(request, response);
             return;
@@ -0,0 +1,191 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.TeamResourceAccessManagement.exceptions.ResourceNotFoundException;
+
+/**
+ * Serves resources whose bytes are a file on this server. Paths are resolved under
+ * {@code app.files.root} and never outside it. Open channels are kept in a small LRU cache,
+ * and a file that is small and keeps being asked for is memory-mapped once, so repeat reads
+ * come straight from the page cache. Otherwise bytes go out with {@link FileChannel#transferTo},
+ * and nothing is copied through the heap by this class either way.
+ */
+@Service
+public class LocalFileStore {
+    
+    private final Path root;
+    private final int handleCacheSize;
+    private final long mmapMaxSize;
+    private final int mmapAfterHits;
+    
+    // Access-ordered, so the eldest entry is the least recently served file
+    private final Map<Path, Handle> handles;
+    
+    public LocalFileStore(@Value("${app.files.root:uploads/files}") String root,
+                          @Value("${app.files.handle-cache-size:64}") int handleCacheSize,
+                          @Value("${app.files.mmap-max-size:1048576}") long mmapMaxSize,
+                          @Value("${app.files.mmap-after-hits:3}") int mmapAfterHits) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.handleCacheSize = handleCacheSize;
+        this.mmapMaxSize = Math.min(mmapMaxSize, Integer.MAX_VALUE);
+        this.mmapAfterHits = mmapAfterHits;
+        this.handles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Handle> eldest) {
+                if (size() > LocalFileStore.this.handleCacheSize) {
+                    retire(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    /**
+     * Resolves a resource's file path to a regular file under the root. Anything else,
+     * including a path that climbs out of the root or a symlink pointing out of it, is
+     * reported as not found.
+     */
+    public Path resolve(String filePath) {
+        try {
+            Path realRoot = root.toRealPath();
+            Path file = realRoot.resolve(filePath).normalize().toRealPath();
+            if (file.startsWith(realRoot) && Files.isRegularFile(file)) {
+                return file;
+            }
+        } catch (IOException | InvalidPathException e) {
+            // Missing, unreadable or not a path at all
+        }
+        throw new ResourceNotFoundException("File not found: " + filePath);
+    }
+    
+    /**
+     * Writes {@code count} bytes of {@code file} starting at {@code position} to the target.
+     * Returns the number of bytes written, which is less than asked only if the file is shorter.
+     */
+    public long transfer(Path file, long position, long count, WritableByteChannel target) throws IOException {
+        Handle handle = acquire(file);
+        try {
+            long length = Math.max(0, Math.min(count, handle.size - position));
+            if (length == 0) {
+                return 0;
+            }
+            if (handle.mapped != null) {
+                // A view of its own, so concurrent readers never share a buffer position
+                ByteBuffer slice = handle.mapped.slice((int) position, (int) length);
+                while (slice.hasRemaining()) {
+                    target.write(slice);
+                }
+                return length;
+            }
+            long sent = 0;
+            while (sent < length) {
+                long written = handle.channel.transferTo(position + sent, length - sent, target);
+                if (written <= 0) {
+                    break;
+                }
+                sent += written;
+            }
+            return sent;
+        } finally {
+            release(handle);
+        }
+    }
+    
+    public int getOpenHandleCount() {
+        synchronized (handles) {
+            return handles.size();
+        }
+    }
+    
+    public boolean isMapped(Path file) {
+        synchronized (handles) {
+            Handle handle = handles.get(file);
+            return handle != null && handle.mapped != null;
+        }
+    }
+    
+    private Handle acquire(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        synchronized (handles) {
+            Handle handle = handles.get(file);
+            if (handle != null && (handle.size != attributes.size() || !handle.modified.equals(attributes.lastModifiedTime()))) {
+                // Replaced on disk since it was opened
+                handles.remove(file);
+                retire(handle);
+                handle = null;
+            }
+            if (handle == null) {
+                handle = new Handle(FileChannel.open(file, StandardOpenOption.READ), attributes);
+                handles.put(file, handle);
+            }
+            handle.users++;
+            handle.hits++;
+            if (handle.mapped == null && handle.hits >= mmapAfterHits && handle.size > 0 && handle.size <= mmapMaxSize) {
+                // Bounded by the cache: at most handleCacheSize mappings of mmapMaxSize each
+                handle.mapped = handle.channel.map(FileChannel.MapMode.READ_ONLY, 0, handle.size);
+            }
+            return handle;
+        }
+    }
+    
+    private void release(Handle handle) {
+        synchronized (handles) {
+            handle.users--;
+            if (handle.retired && handle.users == 0) {
+                close(handle);
+            }
+        }
+    }
+    
+    // Evicted or stale handles close once the last transfer using them is done
+    private void retire(Handle handle) {
+        handle.retired = true;
+        if (handle.users == 0) {
+            close(handle);
+        }
+    }
+    
+    private static void close(Handle handle) {
+        // The mapping, if any, is released with the buffer
+        handle.mapped = null;
+        try {
+            handle.channel.close();
+        } catch (IOException e) {
+            System.err.println("Could not close file channel: " + e.getMessage());
+        }
+    }
+    
+    private static class Handle {
+        private final FileChannel channel;
+        private final long size;
+        private final FileTime modified;
+        private MappedByteBuffer mapped;
+        private int users;
+        private int hits;
+        private boolean retired;
+    
+        Handle(FileChannel channel, BasicFileAttributes attributes) {
+            this.channel = channel;
+            this.size = attributes.size();
+            this.modified = attributes.lastModifiedTime();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps blobs under {@code app.blob-store.root} as {@code ab/cd/abcd...}. Uploads are
+ * spooled to a temp file while hashing and then renamed into place, so a blob path
+ * only ever holds complete content. Placing a blob and deleting one lock the same
+ * per-hash stripe, and a store that finds its blob already present touches it, so
+ * {@link #deleteIfIdle} never removes a blob an upload has just been handed.
+ */
+@Service
+public class LocalFileSystemBlobStore implements BlobStore {
+    
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    
+    private static final int LOCK_STRIPES = 64;
+    
+    private final Path root;
+    private final Path tempDir;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    
+    public LocalFileSystemBlobStore(@Value("${app.blob-store.root:uploads/blobs}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.tempDir = this.root.resolve("tmp");
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+    
+    @Override
+    public StoredBlob store(InputStream content) throws IOException {
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+        try {
+            MessageDigest digest = newDigest();
+            long size;
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                size = in.transferTo(out);
+            }
+            
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(contentHash);
+            synchronized (lockFor(contentHash)) {
+                if (!touchIfExists(target)) {
+                    Files.createDirectories(target.getParent());
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            return new StoredBlob(contentHash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    // Hashes the file where it is and renames it into place, so it is read once and never copied
+    @Override
+    public StoredBlob storeFile(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        long size;
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            size = in.transferTo(OutputStream.nullOutputStream());
+        }
+        
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        Path target = pathFor(contentHash);
+        synchronized (lockFor(contentHash)) {
+            if (touchIfExists(target)) {
+                Files.deleteIfExists(file);
+                return new StoredBlob(contentHash, size);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(file, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                return new StoredBlob(contentHash, size);
+            } catch (AtomicMoveNotSupportedException e) {
+                // Spooled on another file system; fall back to copying through a temp file below
+            }
+        }
+        return BlobStore.super.storeFile(file);
+    }
+    
+    @Override
+    public boolean exists(String contentHash) {
+        return Files.isRegularFile(pathFor(contentHash));
+    }
+    
+    @Override
+    public Resource load(String contentHash) {
+        return new FileSystemResource(pathFor(contentHash));
+    }
+    
+    @Override
+    public void delete(String contentHash) throws IOException {
+        Path path = pathFor(contentHash);
+        synchronized (lockFor(contentHash)) {
+            Files.deleteIfExists(path);
+        }
+    }
+    
+    @Override
+    public boolean deleteIfIdle(String contentHash, Instant idleSince) throws IOException {
+        Path path = pathFor(contentHash);
+        synchronized (lockFor(contentHash)) {
+            if (Files.exists(path) && Files.getLastModifiedTime(path).toInstant().isAfter(idleSince)) {
+                return false;
+            }
+            Files.deleteIfExists(path);
+            return true;
+        }
+    }
+    
+    // Marks a deduplicated store as recent use, which deleteIfIdle checks under the same lock
+    private static boolean touchIfExists(Path target) throws IOException {
+        if (!Files.exists(target)) {
+            return false;
+        }
+        Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        return true;
+    }
+    
+    private Object lockFor(String contentHash) {
+        return locks[Math.floorMod(contentHash.hashCode(), LOCK_STRIPES)];
+    }
+    
+    private Path pathFor(String contentHash) {
+        if (contentHash == null || !SHA256_HEX.matcher(contentHash).matches()) {
+            throw new IllegalArgumentException("Invalid content hash: " + contentHash);
+        }
+        return root.resolve(contentHash.substring(0, 2))
+                   .resolve(contentHash.substring(2, 4))
+                   .resolve(contentHash);
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.sql.Connection;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Unread notification count per user in {@code notification_counters}. NotificationService
+ * adjusts a user's row in the same transaction that creates notifications or marks them read,
+ * so the badge is one primary-key lookup instead of a COUNT over the user's notifications.
+ */
+@Component
+public class NotificationCounterStore {
+    
+    private static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS notification_counters (user_id BIGINT PRIMARY KEY, unread_count BIGINT NOT NULL)";
+    
+    private static final String UPSERT_SQL =
+        "INSERT INTO notification_counters (user_id, unread_count) VALUES (?, ?) " +
+        "ON CONFLICT (user_id) DO UPDATE SET unread_count = GREATEST(notification_counters.unread_count + EXCLUDED.unread_count, 0)";
+    private static final String UPDATE_SQL =
+        "UPDATE notification_counters SET unread_count = GREATEST(unread_count + ?, 0) WHERE user_id = ?";
+    private static final String INSERT_SQL =
+        "INSERT INTO notification_counters (user_id, unread_count) VALUES (?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private boolean postgres;
+    
+    @PostConstruct
+    public void init() {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            System.err.println("Could not check database for notification counters: " + e.getMessage());
+        }
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+    }
+    
+    // Installs that already have notifications start from a full recount
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM notification_counters)", Boolean.class);
+            if (Boolean.TRUE.equals(empty)) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            System.err.println("Notification counter backfill failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Adds {@code delta} (negative when notifications are read) to the user's unread count,
+     * never going below zero. Must run in the transaction that made the change.
+     */
+    public void add(Long userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (postgres) {
+            jdbcTemplate.update(UPSERT_SQL, userId, delta);
+            return;
+        }
+        // Portable path: a missing row only appears for a first unread notification
+        if (jdbcTemplate.update(UPDATE_SQL, delta, userId) == 0 && delta > 0) {
+            jdbcTemplate.update(INSERT_SQL, userId, delta);
+        }
+    }
+    
+    public long getUnreadCount(Long userId) {
+        return jdbcTemplate.query("SELECT unread_count FROM notification_counters WHERE user_id = ?",
+            rs -> rs.next() ? rs.getLong(1) : 0L, userId);
+    }
+    
+    /**
+     * Recounts every user's unread notifications. On PostgreSQL the counters are locked for
+     * the recount, so changes committed meanwhile wait and land on top of it.
+     */
+    public long rebuild() {
+        Integer users = transactionTemplate.execute(status -> {
+            if (postgres) {
+                jdbcTemplate.execute("LOCK TABLE notification_counters IN EXCLUSIVE MODE");
+            }
+            jdbcTemplate.update("DELETE FROM notification_counters");
+            return jdbcTemplate.update("INSERT INTO notification_counters (user_id, unread_count) " +
+                "SELECT user_id, COUNT(*) FROM notifications WHERE is_read = false GROUP BY user_id");
+        });
+        return users != null ? users : 0;
+    }
+}
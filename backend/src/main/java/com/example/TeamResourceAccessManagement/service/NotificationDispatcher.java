@@ -0,0 +1,297 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.TeamResourceAccessManagement.domain.Notification;
+import com.example.TeamResourceAccessManagement.dto.NotificationDTO;
+import com.example.TeamResourceAccessManagement.service.NotificationOutbox.OutboxEvent;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Delivers NotificationOutbox events in the background. Each batch is expanded to its
+ * recipients, and events of one type for the same user are coalesced into a single digest
+ * notification that keeps every event's related entity in related_entity_ids, so no link is
+ * lost. The notifications go in as one batched INSERT, in the transaction that also
+ * bumps the unread counters and deletes the delivered events. A failing batch is retried event
+ * by event so one bad event cannot hold up the rest; failing events back off exponentially and
+ * are marked FAILED after {@code maxAttempts}.
+ */
+@Component
+public class NotificationDispatcher {
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO notifications (user_id, title, message, type, is_read, related_entity_id, related_entity_type, " +
+        "related_entity_ids, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+    
+    @Autowired
+    private NotificationCounterStore notificationCounterStore;
+    
+    @Autowired
+    private NotificationPushService notificationPushService;
+    
+    @Value("${app.notifications.outbox.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${app.notifications.outbox.max-attempts:8}")
+    private int maxAttempts;
+    
+    @Value("${app.notifications.outbox.retry-backoff-ms:1000}")
+    private long retryBackoffMillis;
+    
+    @Value("${app.notifications.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMillis;
+    
+    private TransactionTemplate deliveryTransaction;
+    
+    @PostConstruct
+    public void init() {
+        deliveryTransaction = new TransactionTemplate(transactionManager);
+        deliveryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.notifications.outbox.poll-interval-ms:500}")
+    public void poll() {
+        try {
+            dispatchPending();
+        } catch (Exception e) {
+            System.err.println("Notification dispatch failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Delivers the events that are due and returns the number of notifications written. Stops
+     * after a batch that had failures, so events retried without backoff cannot spin here.
+     */
+    public int dispatchPending() {
+        int written = 0;
+        while (true) {
+            List<OutboxEvent> claimed = new ArrayList<>();
+            try {
+                Integer delivered = deliveryTransaction.execute(status -> {
+                    claimed.addAll(notificationOutbox.claimDue(batchSize));
+                    return deliver(claimed);
+                });
+                written += delivered != null ? delivered : 0;
+            } catch (RuntimeException e) {
+                // The batch rolled back as a whole; find the culprit one event at a time
+                written += deliverIndividually(claimed);
+                return written;
+            }
+            if (claimed.size() < batchSize) {
+                return written;
+            }
+        }
+    }
+    
+    private int deliverIndividually(List<OutboxEvent> events) {
+        int written = 0;
+        for (OutboxEvent event : events) {
+            try {
+                Integer delivered = deliveryTransaction.execute(status -> deliver(notificationOutbox.claim(event.getId())));
+                written += delivered != null ? delivered : 0;
+            } catch (RuntimeException e) {
+                String error = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                long backoff = Math.min(maxBackoffMillis, retryBackoffMillis << Math.min(event.getAttempts(), 20));
+                deliveryTransaction.executeWithoutResult(status -> notificationOutbox.recordFailure(event, error,
+                    LocalDateTime.now().plusNanos(backoff * 1_000_000), maxAttempts));
+                if (event.getAttempts() + 1 >= maxAttempts) {
+                    System.err.println("Giving up on notification outbox event " + event.getId() + ": " + error);
+                }
+            }
+        }
+        return written;
+    }
+    
+    // Runs inside the delivery transaction
+    private int deliver(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<Long>> recipients = resolveRecipients(events);
+        Map<DigestKey, List<OutboxEvent>> digests = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            for (Long userId : recipients.getOrDefault(event.getId(), List.of())) {
+                DigestKey key = new DigestKey(userId, Notification.NotificationType.valueOf(event.getType()));
+                digests.computeIfAbsent(key, k -> new ArrayList<>()).add(event);
+            }
+        }
+    
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingNotification> notifications = digests.entrySet().stream()
+            .map(entry -> toNotification(entry.getKey(), entry.getValue(), now))
+            .collect(Collectors.toList());
+        if (!notifications.isEmpty()) {
+            insert(notifications);
+            notifications.stream()
+                .collect(Collectors.groupingBy(notification -> notification.userId, Collectors.counting()))
+                .forEach((userId, count) -> notificationCounterStore.add(userId, count));
+            for (PendingNotification notification : notifications) {
+                notificationPushService.publish(notification.userId, notification.toDTO());
+            }
+        }
+        notificationOutbox.delete(events);
+        return notifications.size();
+    }
+    
+    // One query for the batch; users that no longer exist are skipped
+    private Map<Long, List<Long>> resolveRecipients(List<OutboxEvent> events) {
+        Set<Long> userIds = events.stream().map(OutboxEvent::getAudienceId).collect(Collectors.toSet());
+        Set<Long> existingUsers = new HashSet<>();
+        jdbcTemplate.query("SELECT id FROM tramusers WHERE id IN (" + placeholders(userIds.size()) + ")",
+            rs -> { existingUsers.add(rs.getLong(1)); }, userIds.toArray());
+    
+        Map<Long, List<Long>> recipients = new HashMap<>();
+        for (OutboxEvent event : events) {
+            recipients.put(event.getId(), existingUsers.contains(event.getAudienceId()) ? List.of(event.getAudienceId()) : List.of());
+        }
+        return recipients;
+    }
+    
+    private static PendingNotification toNotification(DigestKey key, List<OutboxEvent> events, LocalDateTime createdAt) {
+        OutboxEvent first = events.get(0);
+        if (events.size() == 1) {
+            return new PendingNotification(key.userId, first.getTitle(), first.getMessage(), key.type,
+                first.getRelatedEntityId(), first.getRelatedEntityType(), null, createdAt);
+        }
+        String message = events.stream().map(OutboxEvent::getMessage).filter(Objects::nonNull).collect(Collectors.joining("\n"));
+        // Events of one type link to one kind of entity; the digest keeps all of those links, in event order
+        String relatedEntityType = events.stream().map(OutboxEvent::getRelatedEntityType).filter(Objects::nonNull).findFirst().orElse(null);
+        String relatedEntityIds = events.stream()
+            .filter(event -> event.getRelatedEntityId() != null && Objects.equals(event.getRelatedEntityType(), relatedEntityType))
+            .map(event -> event.getRelatedEntityId().toString())
+            .collect(Collectors.joining(","));
+        return new PendingNotification(key.userId, first.getTitle() + " (" + events.size() + ")", message, key.type,
+            null, relatedEntityType, relatedEntityIds.isEmpty() ? null : relatedEntityIds, createdAt);
+    }
+    
+    private void insert(List<PendingNotification> notifications) {
+        KeyHolder generatedKeys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[] { "id" }),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    PendingNotification notification = notifications.get(i);
+                    ps.setLong(1, notification.userId);
+                    ps.setString(2, notification.title);
+                    ps.setString(3, notification.message);
+                    ps.setString(4, notification.type.name());
+                    ps.setBoolean(5, false);
+                    if (notification.relatedEntityId != null) {
+                        ps.setLong(6, notification.relatedEntityId);
+                    } else {
+                        ps.setNull(6, Types.BIGINT);
+                    }
+                    ps.setString(7, notification.relatedEntityType);
+                    ps.setString(8, notification.relatedEntityIds);
+                    ps.setTimestamp(9, Timestamp.valueOf(notification.createdAt));
+                }
+    
+                @Override
+                public int getBatchSize() {
+                    return notifications.size();
+                }
+            }, generatedKeys);
+        List<Map<String, Object>> ids = generatedKeys.getKeyList();
+        for (int i = 0; i < notifications.size(); i++) {
+            notifications.get(i).id = ((Number) ids.get(i).get("id")).longValue();
+        }
+    }
+    
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+    
+    private static final class PendingNotification {
+        private final Long userId;
+        private final String title;
+        private final String message;
+        private final Notification.NotificationType type;
+        private final Long relatedEntityId;
+        private final String relatedEntityType;
+        private final String relatedEntityIds;
+        private final LocalDateTime createdAt;
+        private Long id;
+    
+        private PendingNotification(Long userId, String title, String message, Notification.NotificationType type,
+                                    Long relatedEntityId, String relatedEntityType, String relatedEntityIds, LocalDateTime createdAt) {
+            this.userId = userId;
+            this.title = title;
+            this.message = message;
+            this.type = type;
+            this.relatedEntityId = relatedEntityId;
+            this.relatedEntityType = relatedEntityType;
+            this.relatedEntityIds = relatedEntityIds;
+            this.createdAt = createdAt;
+        }
+    
+        private NotificationDTO toDTO() {
+            boolean accessRequest = "ACCESS_REQUEST".equals(relatedEntityType);
+            return new NotificationDTO(id, title, message, type, false, createdAt,
+                accessRequest ? relatedEntityId : null, accessRequest ? relatedEntityIds : null);
+        }
+    }
+    
+    private static final class DigestKey {
+        private final Long userId;
+        private final Notification.NotificationType type;
+    
+        private DigestKey(Long userId, Notification.NotificationType type) {
+            this.userId = userId;
+            this.type = type;
+        }
+    
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DigestKey)) {
+                return false;
+            }
+            DigestKey other = (DigestKey) o;
+            return userId.equals(other.userId) && type == other.type;
+        }
+    
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, type);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.TeamResourceAccessManagement.domain.Notification;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Pending notification events in {@code notification_outbox}. Services enqueue one row per
+ * event and audience in their own transaction, so the event exists exactly when the change
+ * that caused it commits, whatever the number of recipients; NotificationDispatcher expands
+ * and delivers them in the background. Delivered rows are deleted; rows that keep failing are
+ * left as FAILED for inspection.
+ */
+@Component
+public class NotificationOutbox {
+    
+    private static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS notification_outbox (" +
+        "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, audience VARCHAR(20) NOT NULL, audience_id BIGINT NOT NULL, " +
+        "type VARCHAR(40) NOT NULL, title VARCHAR(255) NOT NULL, message TEXT, " +
+        "related_entity_id BIGINT, related_entity_type VARCHAR(50), created_at TIMESTAMP NOT NULL, " +
+        "status VARCHAR(10) NOT NULL, attempts INT NOT NULL, next_attempt_at TIMESTAMP NOT NULL, last_error VARCHAR(1000))";
+    private static final String CREATE_INDEX_SQL =
+        "CREATE INDEX IF NOT EXISTS idx_notification_outbox_due ON notification_outbox (status, next_attempt_at)";
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO notification_outbox (audience, audience_id, type, title, message, related_entity_id, related_entity_type, " +
+        "created_at, status, attempts, next_attempt_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'PENDING', 0, ?)";
+    private static final String SELECT_SQL =
+        "SELECT id, audience, audience_id, type, title, message, related_entity_id, related_entity_type, attempts " +
+        "FROM notification_outbox WHERE status = 'PENDING' AND ";
+    
+    // Who an event is for; the dispatcher resolves the audience to user ids when it delivers
+    public enum Audience {
+        USER
+    }
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    private boolean postgres;
+    
+    @PostConstruct
+    public void init() {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            System.err.println("Could not check database for notification outbox: " + e.getMessage());
+        }
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        jdbcTemplate.execute(CREATE_INDEX_SQL);
+    }
+    
+    /**
+     * Records a notification for everyone in the audience. Joins the caller's transaction, so
+     * it is only delivered if that transaction commits.
+     */
+    public void enqueue(Audience audience, Long audienceId, Notification.NotificationType type, String title, String message,
+                        Long relatedEntityId, String relatedEntityType) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_SQL, audience.name(), audienceId, type.name(), title, message, relatedEntityId,
+            relatedEntityType, now, now);
+    }
+    
+    /**
+     * Locks and returns up to {@code limit} events that are due, oldest first. On PostgreSQL
+     * rows claimed by another instance are skipped. Must run inside the delivering transaction.
+     */
+    public List<OutboxEvent> claimDue(int limit) {
+        return jdbcTemplate.query(SELECT_SQL + "next_attempt_at <= ? ORDER BY id LIMIT ?" + lockClause(),
+            (rs, rowNum) -> toEvent(rs), Timestamp.valueOf(LocalDateTime.now()), limit);
+    }
+    
+    // Re-claims one event for an isolated retry; empty if it was delivered or claimed meanwhile
+    public List<OutboxEvent> claim(Long id) {
+        return jdbcTemplate.query(SELECT_SQL + "id = ?" + lockClause(), (rs, rowNum) -> toEvent(rs), id);
+    }
+    
+    public void delete(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate("DELETE FROM notification_outbox WHERE id = ?",
+            events.stream().map(event -> new Object[] { event.getId() }).collect(Collectors.toList()));
+    }
+    
+    // Schedules another attempt, or gives up once maxAttempts is reached
+    public void recordFailure(OutboxEvent event, String error, LocalDateTime nextAttemptAt, int maxAttempts) {
+        int attempts = event.getAttempts() + 1;
+        String status = attempts >= maxAttempts ? "FAILED" : "PENDING";
+        String lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        jdbcTemplate.update("UPDATE notification_outbox SET attempts = ?, status = ?, next_attempt_at = ?, last_error = ? WHERE id = ?",
+            attempts, status, Timestamp.valueOf(nextAttemptAt), lastError, event.getId());
+    }
+    
+    public long countByStatus(String status) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_outbox WHERE status = ?", Long.class, status);
+        return count != null ? count : 0;
+    }
+    
+    private String lockClause() {
+        return postgres ? " FOR UPDATE SKIP LOCKED" : "";
+    }
+    
+    private static OutboxEvent toEvent(ResultSet rs) throws SQLException {
+        return new OutboxEvent(rs.getLong("id"), Audience.valueOf(rs.getString("audience")), rs.getLong("audience_id"),
+            rs.getString("type"), rs.getString("title"), rs.getString("message"), rs.getObject("related_entity_id", Long.class),
+            rs.getString("related_entity_type"), rs.getInt("attempts"));
+    }
+    
+    public static final class OutboxEvent {
+        private final Long id;
+        private final Audience audience;
+        private final Long audienceId;
+        private final String type;
+        private final String title;
+        private final String message;
+        private final Long relatedEntityId;
+        private final String relatedEntityType;
+        private final int attempts;
+    
+        OutboxEvent(Long id, Audience audience, Long audienceId, String type, String title, String message,
+                    Long relatedEntityId, String relatedEntityType, int attempts) {
+            this.id = id;
+            this.audience = audience;
+            this.audienceId = audienceId;
+            this.type = type;
+            this.title = title;
+            this.message = message;
+            this.relatedEntityId = relatedEntityId;
+            this.relatedEntityType = relatedEntityType;
+            this.attempts = attempts;
+        }
+    
+        public Long getId() { return id; }
+        public Audience getAudience() { return audience; }
+        public Long getAudienceId() { return audienceId; }
+        public String getType() { return type; }
+        public String getTitle() { return title; }
+        public String getMessage() { return message; }
+        public Long getRelatedEntityId() { return relatedEntityId; }
+        public String getRelatedEntityType() { return relatedEntityType; }
+        public int getAttempts() { return attempts; }
+    }
+}
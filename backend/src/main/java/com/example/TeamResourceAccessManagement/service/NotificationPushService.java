@@ -0,0 +1,205 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.TeamResourceAccessManagement.domain.Notification;
+import com.example.TeamResourceAccessManagement.dto.NotificationDTO;
+import com.example.TeamResourceAccessManagement.repository.NotificationRepository;
+
+/**
+ * Server-Sent Event streams of each user's notifications, so open tabs are told about new
+ * notifications instead of polling for them. Every notification goes out as a
+ * {@code notification} event whose id is the notification id; a client that reconnects with
+ * {@code Last-Event-ID} gets whatever it missed replayed in order, or a {@code resync} event
+ * when it missed more than {@code replayLimit}. Unread counts go out as {@code unread-count}
+ * events (no id) on connect and whenever the count changes. A comment line is written every
+ * {@code heartbeatMs} so proxies keep the connection open and dead clients are noticed.
+ */
+@Component
+public class NotificationPushService {
+    
+    @Autowired
+    private NotificationRepository notificationRepository;
+    
+    @Autowired
+    private NotificationCounterStore notificationCounterStore;
+    
+    @Autowired
+    @Qualifier("notificationPushExecutor")
+    private Executor pushExecutor;
+    
+    @Value("${app.notifications.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+    
+    @Value("${app.notifications.stream.replay-limit:100}")
+    private int replayLimit;
+    
+    @Value("${app.notifications.stream.reconnect-ms:3000}")
+    private long reconnectMs;
+    
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    
+    /**
+     * Opens a stream for the user. With a {@code lastEventId} the notifications created after it
+     * are replayed first; without one the stream starts with the current unread count.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        // Registered before the replay query so nothing created in between is lost; the
+        // subscriber drops anything the replay already sent
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+    
+        synchronized (subscriber) {
+            subscriber.send(SseEmitter.event().reconnectTime(reconnectMs).comment("connected"));
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscriber.send(unreadCountEvent(userId));
+        }
+        return emitter;
+    }
+    
+    /**
+     * Pushes a saved notification to the user's open streams once the surrounding transaction
+     * (if any) has committed.
+     */
+    public void publish(Long userId, NotificationDTO notification) {
+        afterCommit(() -> {
+            for (Subscriber subscriber : subscribers.getOrDefault(userId, Set.of())) {
+                subscriber.sendNotification(notification);
+            }
+        });
+    }
+    
+    // Lets every open tab of the user update its badge after reads elsewhere
+    public void publishUnreadCount(Long userId) {
+        if (!subscribers.containsKey(userId)) {
+            return;
+        }
+        afterCommit(() -> {
+            SseEmitter.SseEventBuilder event = unreadCountEvent(userId);
+            for (Subscriber subscriber : subscribers.getOrDefault(userId, Set.of())) {
+                subscriber.send(event);
+            }
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${app.notifications.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.send(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+    
+    public static NotificationDTO toDTO(Notification notification) {
+        boolean accessRequest = "ACCESS_REQUEST".equals(notification.getRelatedEntityType());
+        return new NotificationDTO(notification.getId(), notification.getTitle(), notification.getMessage(),
+            notification.getType(), notification.getIsRead(), notification.getCreatedAt(),
+            accessRequest ? notification.getRelatedEntityId() : null, accessRequest ? notification.getRelatedEntityIds() : null);
+    }
+    
+    private void replay(Subscriber subscriber, Long lastEventId) {
+        List<Notification> missed = notificationRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(
+            subscriber.userId, lastEventId, PageRequest.of(0, replayLimit + 1));
+        if (missed.size() > replayLimit) {
+            // Too far behind to replay; the client reloads its list instead
+            subscriber.send(SseEmitter.event().name("resync").data(lastEventId));
+            return;
+        }
+        for (Notification notification : missed) {
+            subscriber.sendNotification(toDTO(notification));
+        }
+    }
+    
+    private SseEmitter.SseEventBuilder unreadCountEvent(Long userId) {
+        return SseEmitter.event().name("unread-count").data(notificationCounterStore.getUnreadCount(userId));
+    }
+    
+    // Sends happen on the push executor so a slow client never holds up the request that created the notification
+    private void afterCommit(Runnable push) {
+        Runnable dispatch = () -> {
+            try {
+                pushExecutor.execute(push);
+            } catch (TaskRejectedException e) {
+                // Clients catch up through Last-Event-ID when they reconnect
+                System.err.println("Notification push queue full, dropping push: " + e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch.run();
+                }
+            });
+        } else {
+            dispatch.run();
+        }
+    }
+    
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (userId, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+    
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        // Highest notification id written to this stream, so replay and live pushes never repeat one
+        private long lastSentId;
+    
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    
+        synchronized void sendNotification(NotificationDTO notification) {
+            if (notification.getId() <= lastSentId) {
+                return;
+            }
+            if (send(SseEmitter.event().id(String.valueOf(notification.getId())).name("notification").data(notification))) {
+                lastSentId = notification.getId();
+            }
+        }
+    
+        synchronized boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Client gone or stream already completed
+                remove(this);
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
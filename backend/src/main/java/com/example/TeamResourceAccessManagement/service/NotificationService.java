@@ -3,31 +3,52 @@ package com.example.TeamResourceAccessManagement.service;
 import com.example.TeamResourceAccessManagement.domain.AccessRequest;
 import com.example.TeamResourceAccessManagement.domain.Notification;
 import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.dto.KeysetCursor;
+import com.example.TeamResourceAccessManagement.dto.NotificationDTO;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
 import com.example.TeamResourceAccessManagement.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class NotificationService {
     
+    public static final int MAX_FEED_PAGE_SIZE = 100;
+    
     @Autowired
     private NotificationRepository notificationRepository;
     
+    @Autowired
+    private NotificationPushService notificationPushService;
+    
+    @Autowired
+    private NotificationCounterStore notificationCounterStore;
+    
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+    
+    @Transactional
     public void createAccessRequestNotification(AccessRequest accessRequest) {
         if (accessRequest.getProjectManager() != null) {
-            Notification notification = new Notification(
-                accessRequest.getProjectManager(),
+            notificationOutbox.enqueue(
+                NotificationOutbox.Audience.USER,
+                accessRequest.getProjectManager().getId(),
+                Notification.NotificationType.ACCESS_REQUEST_RECEIVED,
                 "New Access Request",
                 accessRequest.getUser().getUsername() + " requested access to " + accessRequest.getResource().getName(),
-                Notification.NotificationType.ACCESS_REQUEST_RECEIVED
+                accessRequest.getId(),
+                "ACCESS_REQUEST"
             );
-            notification.setRelatedEntityId(accessRequest.getId());
-            notification.setRelatedEntityType("ACCESS_REQUEST");
-            notificationRepository.save(notification);
         }
     }
     
+    @Transactional
     public void createAccessResponseNotification(AccessRequest accessRequest, boolean approved) {
         String title = approved ? "Access Request Approved" : "Access Request Rejected";
         String message = "Your request for " + accessRequest.getResource().getName() + " has been " + 
@@ -37,15 +58,16 @@ public class NotificationService {
             Notification.NotificationType.ACCESS_REQUEST_APPROVED : 
             Notification.NotificationType.ACCESS_REQUEST_REJECTED;
             
-        Notification notification = new Notification(
-            accessRequest.getUser(),
+        // Delivered by NotificationDispatcher once the caller's transaction commits
+        notificationOutbox.enqueue(
+            NotificationOutbox.Audience.USER,
+            accessRequest.getUser().getId(),
+            type,
             title,
             message,
-            type
+            accessRequest.getId(),
+            "ACCESS_REQUEST"
         );
-        notification.setRelatedEntityId(accessRequest.getId());
-        notification.setRelatedEntityType("ACCESS_REQUEST");
-        notificationRepository.save(notification);
     }
     
     public List<Notification> getUserNotifications(Long userId) {
@@ -56,20 +78,56 @@ public class NotificationService {
         return notificationRepository.findByUserIdAndIsReadOrderByCreatedAtDesc(userId, false);
     }
     
+    /**
+     * One page of the user's notifications, newest first. Pages are read by keyset over
+     * (created_at, id), so a page costs the same however long the history is.
+     */
+    public CursorPageDTO<NotificationDTO> getNotificationFeed(Long userId, boolean unreadOnly, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_FEED_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_FEED_PAGE_SIZE);
+        }
+        KeysetCursor before = KeysetCursor.decode(cursor);
+        // One extra row tells whether there is a next page
+        Pageable page = PageRequest.of(0, limit + 1);
+        List<NotificationDTO> rows;
+        if (before == null) {
+            rows = unreadOnly ? notificationRepository.findUnreadFeed(userId, page) : notificationRepository.findFeed(userId, page);
+        } else if (unreadOnly) {
+            rows = notificationRepository.findUnreadFeedBefore(userId, before.getTimestamp(), before.getId(), page);
+        } else {
+            rows = notificationRepository.findFeedBefore(userId, before.getTimestamp(), before.getId(), page);
+        }
+        
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            NotificationDTO last = rows.get(limit - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(rows, nextCursor, null);
+    }
+    
     public Long getUnreadCount(Long userId) {
-        return notificationRepository.countUnreadByUserId(userId);
+        return notificationCounterStore.getUnreadCount(userId);
     }
     
+    @Transactional
     public void markAsRead(Long notificationId) {
-        notificationRepository.findById(notificationId).ifPresent(notification -> {
-            notification.setIsRead(true);
-            notificationRepository.save(notification);
+        notificationRepository.findUserIdById(notificationId).ifPresent(userId -> {
+            // Only the request that flips the flag adjusts the counter
+            if (notificationRepository.markAsRead(notificationId) > 0) {
+                notificationCounterStore.add(userId, -1);
+                notificationPushService.publishUnreadCount(userId);
+            }
         });
     }
     
+    @Transactional
     public void markAllAsRead(Long userId) {
-        List<Notification> unreadNotifications = getUnreadNotifications(userId);
-        unreadNotifications.forEach(notification -> notification.setIsRead(true));
-        notificationRepository.saveAll(unreadNotifications);
+        int marked = notificationRepository.markAllAsReadByUserId(userId);
+        if (marked > 0) {
+            notificationCounterStore.add(userId, -marked);
+            notificationPushService.publishUnreadCount(userId);
+        }
     }
 }
\ No newline at end of file
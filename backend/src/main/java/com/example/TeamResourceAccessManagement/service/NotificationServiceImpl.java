@@ -18,12 +18,17 @@ public class NotificationServiceImpl {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private NotificationCounterStore notificationCounterStore;
+    
     public Notification createNotification(User user, String title, String message, 
                                          Notification.NotificationType type, AccessRequest accessRequest) {
         Notification notification = new Notification(user, title, message, type);
         notification.setRelatedEntityId(accessRequest.getId());
         notification.setRelatedEntityType("ACCESS_REQUEST");
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        notificationCounterStore.add(user.getId(), 1);
+        return saved;
     }
     
     public List<Notification> getUserNotifications(Long userId) {
@@ -35,19 +40,18 @@ public class NotificationServiceImpl {
     }
     
     public Long getUnreadCount(Long userId) {
-        return notificationRepository.countUnreadByUserId(userId);
+        return notificationCounterStore.getUnreadCount(userId);
     }
     
     public void markAsRead(Long notificationId) {
-        notificationRepository.findById(notificationId).ifPresent(notification -> {
-            notification.setIsRead(true);
-            notificationRepository.save(notification);
+        notificationRepository.findUserIdById(notificationId).ifPresent(userId -> {
+            if (notificationRepository.markAsRead(notificationId) > 0) {
+                notificationCounterStore.add(userId, -1);
+            }
         });
     }
     
     public void markAllAsRead(Long userId) {
-        List<Notification> unreadNotifications = getUnreadNotifications(userId);
-        unreadNotifications.forEach(notification -> notification.setIsRead(true));
-        notificationRepository.saveAll(unreadNotifications);
+        notificationCounterStore.add(userId, -notificationRepository.markAllAsReadByUserId(userId));
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.dto.PermissionGrantStatusDTO;
+import java.util.Optional;
+
+public interface PermissionGrantService {
+    
+    // Queues READ/ADMIN grants for every project member (or every user for global resources)
+    PermissionGrantStatusDTO scheduleCommonResourceGrants(Resource resource);
+    
+    Optional<PermissionGrantStatusDTO> getGrantStatus(Long resourceId);
+    
+    void clearGrantStatus(Long resourceId);
+}
@@ -0,0 +1,218 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.TeamResourceAccessManagement.domain.Permission;
+import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.dto.PermissionGrantStatusDTO;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Grants COMMON resource permissions in the background. Users are read in id order one page
+ * at a time and each page is written with a single JDBC batch insert, so a global resource
+ * costs (users / batch size) round trips instead of one insert per user. On PostgreSQL the
+ * insert is a plain VALUES row, which reWriteBatchedInserts folds into one multi-row insert,
+ * and ON CONFLICT skips users granted concurrently instead of failing the batch.
+ */
+@Service
+public class PermissionGrantServiceImpl implements PermissionGrantService {
+    
+    private static final String INSERT_PERMISSION =
+        "INSERT INTO permissions (user_id, resource_id, access_level, is_active, granted_at) " +
+        "VALUES (?, ?, ?, true, ?) ON CONFLICT (user_id, resource_id) DO NOTHING";
+    // Other databases (H2 in tests) lack ON CONFLICT with a target; not safe against concurrent grants
+    private static final String INSERT_PERMISSION_IF_ABSENT =
+        "INSERT INTO permissions (user_id, resource_id, access_level, is_active, granted_at) " +
+        "SELECT ?, ?, ?, true, ? WHERE NOT EXISTS " +
+        "(SELECT 1 FROM permissions WHERE user_id = ? AND resource_id = ?)";
+    
+    private static final String PROJECT_USERS_PAGE =
+        "SELECT u.id, u.role FROM tramusers u JOIN project_users pu ON pu.user_id = u.id " +
+        "WHERE pu.project_id = ? AND u.id > ? ORDER BY u.id LIMIT ?";
+    
+    private static final String ALL_USERS_PAGE =
+        "SELECT u.id, u.role FROM tramusers u WHERE u.id > ? ORDER BY u.id LIMIT ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    @Qualifier("permissionGrantExecutor")
+    private TaskExecutor permissionGrantExecutor;
+    
+    @Autowired
+    private AccessDecisionCache accessDecisionCache;
+    
+    @Value("${app.permission-grants.batch-size:500}")
+    private int batchSize;
+    
+    private final Map<Long, PermissionGrantStatusDTO> statuses = new ConcurrentHashMap<>();
+    
+    private boolean postgres;
+    
+    @PostConstruct
+    public void init() {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            System.err.println("Could not check database for permission grants: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public PermissionGrantStatusDTO scheduleCommonResourceGrants(Resource resource) {
+        Long resourceId = resource.getId();
+        Long projectId = resource.getProject() != null ? resource.getProject().getId() : null;
+        
+        PermissionGrantStatusDTO status = new PermissionGrantStatusDTO(resourceId, PermissionGrantStatusDTO.Status.PENDING);
+        statuses.put(resourceId, status);
+        // Saved in the caller's transaction: the grants need the committed resource row
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completion) {
+                    if (completion == STATUS_COMMITTED) {
+                        submit(resourceId, projectId, status);
+                    } else {
+                        statuses.remove(resourceId, status);
+                    }
+                }
+            });
+        } else {
+            submit(resourceId, projectId, status);
+        }
+        return copyOf(status);
+    }
+    
+    private void submit(Long resourceId, Long projectId, PermissionGrantStatusDTO status) {
+        try {
+            permissionGrantExecutor.execute(() -> grantAll(resourceId, projectId, status));
+        } catch (RuntimeException e) {
+            markFailed(status, "Grant queue is full: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public Optional<PermissionGrantStatusDTO> getGrantStatus(Long resourceId) {
+        return Optional.ofNullable(statuses.get(resourceId)).map(this::copyOf);
+    }
+    
+    @Override
+    public void clearGrantStatus(Long resourceId) {
+        statuses.remove(resourceId);
+    }
+    
+    private void grantAll(Long resourceId, Long projectId, PermissionGrantStatusDTO status) {
+        synchronized (status) {
+            status.setStatus(PermissionGrantStatusDTO.Status.RUNNING);
+            status.setStartedAt(LocalDateTime.now());
+            status.setTotalUsers(countUsers(projectId));
+        }
+        try {
+            long lastUserId = 0;
+            while (true) {
+                List<UserRow> users = projectId != null
+                    ? jdbcTemplate.query(PROJECT_USERS_PAGE, (rs, i) -> new UserRow(rs.getLong(1), rs.getString(2)), projectId, lastUserId, batchSize)
+                    : jdbcTemplate.query(ALL_USERS_PAGE, (rs, i) -> new UserRow(rs.getLong(1), rs.getString(2)), lastUserId, batchSize);
+                if (users.isEmpty()) {
+                    break;
+                }
+                
+                Timestamp grantedAt = Timestamp.valueOf(LocalDateTime.now());
+                jdbcTemplate.batchUpdate(postgres ? INSERT_PERMISSION : INSERT_PERMISSION_IF_ABSENT, users, users.size(), (ps, user) -> {
+                    ps.setLong(1, user.id);
+                    ps.setLong(2, resourceId);
+                    ps.setString(3, accessLevelFor(user.role).name());
+                    ps.setTimestamp(4, grantedAt);
+                    if (!postgres) {
+                        ps.setLong(5, user.id);
+                        ps.setLong(6, resourceId);
+                    }
+                });
+                
+                lastUserId = users.get(users.size() - 1).id;
+                synchronized (status) {
+                    status.setProcessedUsers(status.getProcessedUsers() + users.size());
+                }
+                if (users.size() < batchSize) {
+                    break;
+                }
+            }
+            synchronized (status) {
+                status.setStatus(PermissionGrantStatusDTO.Status.COMPLETED);
+                status.setCompletedAt(LocalDateTime.now());
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to grant permissions for resource " + resourceId + ": " + e.getMessage());
+            markFailed(status, e.getMessage());
+        } finally {
+            accessDecisionCache.invalidateResource(resourceId);
+        }
+    }
+    
+    private long countUsers(Long projectId) {
+        Long count = projectId != null
+            ? jdbcTemplate.queryForObject("SELECT COUNT(*) FROM project_users WHERE project_id = ?", Long.class, projectId)
+            : jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tramusers", Long.class);
+        return count != null ? count : 0;
+    }
+    
+    private Permission.AccessLevel accessLevelFor(String role) {
+        return User.UserRole.ADMIN.name().equals(role) ||
+               User.UserRole.PROJECT_MANAGER.name().equals(role) ||
+               User.UserRole.TEAMLEAD.name().equals(role)
+            ? Permission.AccessLevel.ADMIN : Permission.AccessLevel.READ;
+    }
+    
+    private void markFailed(PermissionGrantStatusDTO status, String message) {
+        synchronized (status) {
+            status.setStatus(PermissionGrantStatusDTO.Status.FAILED);
+            status.setErrorMessage(message);
+            status.setCompletedAt(LocalDateTime.now());
+        }
+    }
+    
+    private PermissionGrantStatusDTO copyOf(PermissionGrantStatusDTO status) {
+        synchronized (status) {
+            PermissionGrantStatusDTO copy = new PermissionGrantStatusDTO(status.getResourceId(), status.getStatus());
+            copy.setTotalUsers(status.getTotalUsers());
+            copy.setProcessedUsers(status.getProcessedUsers());
+            copy.setStartedAt(status.getStartedAt());
+            copy.setCompletedAt(status.getCompletedAt());
+            copy.setErrorMessage(status.getErrorMessage());
+            return copy;
+        }
+    }
+    
+    private static final class UserRow {
+        private final long id;
+        private final String role;
+        
+        private UserRow(long id, String role) {
+            this.id = id;
+            this.role = role;
+        }
+    }
+}
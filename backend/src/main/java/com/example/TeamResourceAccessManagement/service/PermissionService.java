@@ -5,6 +5,7 @@ import com.example.TeamResourceAccessManagement.domain.User;
 import com.example.TeamResourceAccessManagement.domain.Resource;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface PermissionService {
@@ -68,6 +69,11 @@ public interface PermissionService {
     boolean isPermissionExpired(Long permissionId);
     boolean canUserAccessResource(Long userId, Long resourceId);
     boolean permissionExists(Long userId, Long resourceId);
+    Map<String, Object> getAccessCacheStats();
+    Map<String, Object> getAccessMatrixStats();
+    int countUsersWithAccessLevel(Long resourceId, Permission.AccessLevel level);
+    List<Long> getUsersWithAccessToAllResources(List<Long> resourceIds, Permission.AccessLevel level);
+    int countSharedResources(Long userId, Long otherUserId, Permission.AccessLevel level);
     
     // Manager Operations
     void revokeUserResourceAccess(Long userId, Long resourceId);
@@ -7,15 +7,20 @@ import com.example.TeamResourceAccessManagement.repository.PermissionRepository;
 import com.example.TeamResourceAccessManagement.repository.UserRepository;
 import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class PermissionServiceImpl implements PermissionService {
     
+    private static final int ID_CHUNK = 1000;
+    
     @Autowired
     private PermissionRepository permissionRepository;
     
@@ -25,6 +30,18 @@ public class PermissionServiceImpl implements PermissionService {
     @Autowired
     private ResourceRepository resourceRepository;
     
+    @Autowired
+    private AccessDecisionCache accessDecisionCache;
+    
+    @Autowired
+    private UserGroupAccessService userGroupAccessService;
+    
+    @Autowired
+    private EffectiveAccessIndex effectiveAccessIndex;
+    
+    @Autowired
+    private AccessMatrix accessMatrix;
+    
     @Override
     public Permission grantPermission(Long userId, Long resourceId, Permission.AccessLevel accessLevel, LocalDateTime expiresAt) {
         Optional<User> userOpt = userRepository.findById(userId);
@@ -32,7 +49,9 @@ public class PermissionServiceImpl implements PermissionService {
         
         if (userOpt.isPresent() && resourceOpt.isPresent()) {
             Permission permission = new Permission(userOpt.get(), resourceOpt.get(), accessLevel, expiresAt);
-            return permissionRepository.save(permission);
+            Permission savedPermission = permissionRepository.save(permission);
+            accessDecisionCache.invalidate(userId, resourceId);
+            return savedPermission;
         }
         return null;
     }
@@ -54,14 +73,19 @@ public class PermissionServiceImpl implements PermissionService {
             Permission permission = permissionOpt.get();
             permission.setAccessLevel(accessLevel);
             permission.setExpiresAt(expiresAt);
-            return permissionRepository.save(permission);
+            Permission savedPermission = permissionRepository.save(permission);
+            invalidateDecision(savedPermission);
+            return savedPermission;
         }
         return null;
     }
     
     @Override
     public void deletePermission(Long permissionId) {
+        Optional<Permission> permission = permissionRepository.findById(permissionId);
         permissionRepository.deleteById(permissionId);
+        // After the delete, so listeners that re-read the pair see it gone
+        permission.ifPresent(this::invalidateDecision);
     }
     
     @Override
@@ -71,6 +95,7 @@ public class PermissionServiceImpl implements PermissionService {
             Permission permission = permissionOpt.get();
             permission.setIsActive(false);
             permissionRepository.save(permission);
+            invalidateDecision(permission);
         }
     }
     
@@ -81,6 +106,7 @@ public class PermissionServiceImpl implements PermissionService {
             Permission permission = permissionOpt.get();
             permission.setIsActive(true);
             permissionRepository.save(permission);
+            invalidateDecision(permission);
         }
     }
     
@@ -96,6 +122,7 @@ public class PermissionServiceImpl implements PermissionService {
             Permission permission = permissionOpt.get();
             permission.setExpiresAt(newExpiryDate);
             permissionRepository.save(permission);
+            invalidateDecision(permission);
         }
     }
     
@@ -106,6 +133,7 @@ public class PermissionServiceImpl implements PermissionService {
             Permission permission = permissionOpt.get();
             permission.setExpiresAt(null);
             permissionRepository.save(permission);
+            invalidateDecision(permission);
         }
     }
     
@@ -148,29 +176,7 @@ public class PermissionServiceImpl implements PermissionService {
     
     @Override
     public boolean hasPermissionLevel(Long userId, Long resourceId, Permission.AccessLevel requiredLevel) {
-        Optional<Permission> permission = permissionRepository.findByUserIdAndResourceId(userId, resourceId);
-        if (permission.isPresent() && permission.get().getIsActive()) {
-            Permission.AccessLevel userLevel = permission.get().getAccessLevel();
-            return isAccessLevelSufficient(userLevel, requiredLevel);
-        }
-        return false;
-    }
-    
-    private boolean isAccessLevelSufficient(Permission.AccessLevel userLevel, Permission.AccessLevel requiredLevel) {
-        // FULL_ACCESS > ADMIN > WRITE > READ
-        int userLevelValue = getAccessLevelValue(userLevel);
-        int requiredLevelValue = getAccessLevelValue(requiredLevel);
-        return userLevelValue >= requiredLevelValue;
-    }
-    
-    private int getAccessLevelValue(Permission.AccessLevel level) {
-        switch (level) {
-            case READ: return 1;
-            case WRITE: return 2;
-            case ADMIN: return 3;
-            case FULL_ACCESS: return 4;
-            default: return 0;
-        }
+        return accessMatrix.hasAccess(userId, resourceId, requiredLevel);
     }
     
     @Override
@@ -184,24 +190,21 @@ public class PermissionServiceImpl implements PermissionService {
     
     @Override
     public List<User> getUsersWithAccessToResource(Long resourceId) {
-        List<Permission> permissions = permissionRepository.findByResourceId(resourceId);
-        return permissions.stream()
-            .filter(Permission::getIsActive)
-            .filter(p -> p.getExpiresAt() == null || p.getExpiresAt().isAfter(LocalDateTime.now()))
-            .map(Permission::getUser)
-            .distinct()
-            .collect(Collectors.toList());
+        return findAllById(userRepository, AccessMatrix.toIdList(accessMatrix.usersWithAccess(resourceId, Permission.AccessLevel.READ)));
     }
     
     @Override
     public List<Resource> getResourcesAccessibleByUser(Long userId) {
-        List<Permission> permissions = permissionRepository.findByUserId(userId);
-        return permissions.stream()
-            .filter(Permission::getIsActive)
-            .filter(p -> p.getExpiresAt() == null || p.getExpiresAt().isAfter(LocalDateTime.now()))
-            .map(Permission::getResource)
-            .distinct()
-            .collect(Collectors.toList());
+        return findAllById(resourceRepository, effectiveAccessIndex.getAccessibleResourceIdList(userId));
+    }
+    
+    // Chunked so the IN list stays well under the driver's bind parameter limit
+    private static <T> List<T> findAllById(JpaRepository<T, Long> repository, List<Long> ids) {
+        List<T> found = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+            found.addAll(repository.findAllById(ids.subList(from, Math.min(from + ID_CHUNK, ids.size()))));
+        }
+        return found;
     }
     
     @Override
@@ -221,6 +224,7 @@ public class PermissionServiceImpl implements PermissionService {
             permission.setIsActive(false);
             permissionRepository.save(permission);
         });
+        accessDecisionCache.invalidateUser(userId);
     }
     
     @Override
@@ -230,6 +234,7 @@ public class PermissionServiceImpl implements PermissionService {
             permission.setIsActive(false);
             permissionRepository.save(permission);
         });
+        accessDecisionCache.invalidateResource(resourceId);
     }
     
     @Override
@@ -245,6 +250,7 @@ public class PermissionServiceImpl implements PermissionService {
         expiredPermissions.forEach(permission -> {
             permission.setIsActive(false);
             permissionRepository.save(permission);
+            invalidateDecision(permission);
         });
     }
     
@@ -257,6 +263,7 @@ public class PermissionServiceImpl implements PermissionService {
                 permission.setIsActive(false);
                 permissionRepository.save(permission);
             });
+        accessDecisionCache.invalidateUser(userId);
     }
     
     @Override
@@ -289,6 +296,7 @@ public class PermissionServiceImpl implements PermissionService {
                 Permission permission = permissionOpt.get();
                 permission.setAccessLevel(newAccessLevel);
                 permissionRepository.save(permission);
+                invalidateDecision(permission);
             }
         });
     }
@@ -336,49 +344,50 @@ public class PermissionServiceImpl implements PermissionService {
     
     @Override
     public boolean canUserAccessResource(Long userId, Long resourceId) {
+        return accessDecisionCache.isAllowed(userId, resourceId, () -> loadAccessDecision(userId, resourceId));
+    }
+    
+    private AccessDecisionCache.Decision loadAccessDecision(Long userId, Long resourceId) {
         // First check if user has explicit permission
-        if (hasPermission(userId, resourceId)) {
-            return true;
+        Optional<Permission> permission = permissionRepository.findByUserIdAndResourceId(userId, resourceId);
+        if (permission.isPresent() && permission.get().getIsActive() &&
+            (permission.get().getExpiresAt() == null || permission.get().getExpiresAt().isAfter(LocalDateTime.now()))) {
+            return AccessDecisionCache.Decision.allow(permission.get().getExpiresAt());
         }
         
         // Check if user can access via allowedUserGroups
-        return canUserAccessViaUserGroups(userId, resourceId);
+        return userGroupAccessService.canUserAccessViaUserGroups(userId, resourceId)
+            ? AccessDecisionCache.Decision.allow(null)
+            : AccessDecisionCache.Decision.deny();
     }
     
-    private boolean canUserAccessViaUserGroups(Long userId, Long resourceId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        Optional<Resource> resourceOpt = resourceRepository.findById(resourceId);
-        
-        if (userOpt.isPresent() && resourceOpt.isPresent()) {
-            User user = userOpt.get();
-            Resource resource = resourceOpt.get();
-            
-            // Only check for manager controlled resources
-            // if (resource.getAccessType() != Resource.ResourceAccessType.MANAGER_CONTROLLED) {
-            //     return false;
-            // }
-            
-            String allowedGroups = resource.getAllowedUserGroups();
-            if (allowedGroups == null || allowedGroups.trim().isEmpty()) {
-                return false;
-            }
-            
-            String username = user.getUsername();
-            if (username == null) {
-                return false;
-            }
-            
-            // Check if user's domain matches any allowed groups
-            String[] groups = allowedGroups.split(",");
-            for (String group : groups) {
-                group = group.trim();
-                if (!group.isEmpty() && username.toLowerCase().contains("." + group.toLowerCase())) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
+    @Override
+    public Map<String, Object> getAccessCacheStats() {
+        return accessDecisionCache.getStats();
+    }
+    
+    @Override
+    public Map<String, Object> getAccessMatrixStats() {
+        return accessMatrix.getStats();
+    }
+    
+    @Override
+    public int countUsersWithAccessLevel(Long resourceId, Permission.AccessLevel level) {
+        return accessMatrix.countUsers(resourceId, level);
+    }
+    
+    @Override
+    public List<Long> getUsersWithAccessToAllResources(List<Long> resourceIds, Permission.AccessLevel level) {
+        return AccessMatrix.toIdList(accessMatrix.usersWithAccessToAll(resourceIds, level));
+    }
+    
+    @Override
+    public int countSharedResources(Long userId, Long otherUserId, Permission.AccessLevel level) {
+        return accessMatrix.countSharedResources(userId, otherUserId, level);
+    }
+    
+    private void invalidateDecision(Permission permission) {
+        accessDecisionCache.invalidate(permission.getUser().getId(), permission.getResource().getId());
     }
     
     @Override
@@ -400,6 +409,7 @@ public class PermissionServiceImpl implements PermissionService {
                 
                 permission.get().setIsActive(false);
                 Permission saved = permissionRepository.save(permission.get());
+                accessDecisionCache.invalidate(userId, resourceId);
                 
                 System.out.println("✅ Permission revoked successfully");
                 System.out.println("New status: " + (saved.getIsActive() ? "ACTIVE" : "INACTIVE"));
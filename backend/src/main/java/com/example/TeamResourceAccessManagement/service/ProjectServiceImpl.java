@@ -9,7 +9,6 @@ import com.example.TeamResourceAccessManagement.dto.UserResponseDTO;
 import com.example.TeamResourceAccessManagement.dto.ResourceResponseDTO;
 import com.example.TeamResourceAccessManagement.mapper.ProjectMapper;
 import com.example.TeamResourceAccessManagement.mapper.UserMapper;
-import com.example.TeamResourceAccessManagement.mapper.ResourceMapper;
 import com.example.TeamResourceAccessManagement.repository.ProjectRepository;
 import com.example.TeamResourceAccessManagement.repository.UserRepository;
 import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
@@ -32,6 +31,9 @@ public class ProjectServiceImpl implements ProjectService {
     @Autowired
     private ResourceRepository resourceRepository;
     
+    @Autowired
+    private AccessDecisionCache accessDecisionCache;
+    
     @Override
     public ProjectResponseDTO createProject(ProjectRequestDTO projectRequestDTO) {
         System.out.println("Creating project with data: " + projectRequestDTO.getName());
@@ -135,6 +137,7 @@ public class ProjectServiceImpl implements ProjectService {
             if (!project.getUsers().contains(user)) {
                 project.getUsers().add(user);
                 projectRepository.save(project);
+                accessDecisionCache.invalidateUser(userId);
                 System.out.println("Successfully added user " + user.getUsername() + " to project " + project.getName());
             } else {
                 System.out.println("User " + user.getUsername() + " is already in project " + project.getName());
@@ -154,6 +157,7 @@ public class ProjectServiceImpl implements ProjectService {
             User user = userOpt.get();
             project.getUsers().remove(user);
             projectRepository.save(project);
+            accessDecisionCache.invalidateUser(userId);
         }
     }
     
@@ -185,9 +189,7 @@ public class ProjectServiceImpl implements ProjectService {
     
     @Override
     public List<ResourceResponseDTO> getProjectResources(Long projectId) {
-        return resourceRepository.findByProjectId(projectId).stream()
-            .map(ResourceMapper::toResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findSummariesByProjectId(projectId);
     }
     
     @Override
@@ -285,8 +287,7 @@ public class ProjectServiceImpl implements ProjectService {
     
     @Override
     public int getProjectResourceCount(Long projectId) {
-        List<Resource> resources = resourceRepository.findByProjectId(projectId);
-        return resources.size();
+        return (int) resourceRepository.countByProjectId(projectId);
     }
     
     @Override
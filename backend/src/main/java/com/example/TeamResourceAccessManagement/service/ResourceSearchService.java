@@ -0,0 +1,10 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.dto.ResourceSearchResultDTO;
+import java.util.List;
+
+public interface ResourceSearchService {
+    
+    // Ranked search over name, description, category and uploader, best match first
+    List<ResourceSearchResultDTO> search(String text, int limit);
+}
@@ -9,8 +9,13 @@ import com.example.TeamResourceAccessManagement.domain.AccessRequest;
 import com.example.TeamResourceAccessManagement.domain.Permission;
 import com.example.TeamResourceAccessManagement.domain.Resource;
 import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.dto.FileDownloadDTO;
+import com.example.TeamResourceAccessManagement.dto.PermissionGrantStatusDTO;
+import com.example.TeamResourceAccessManagement.dto.ResourceQueryDTO;
 import com.example.TeamResourceAccessManagement.dto.ResourceRequestDTO;
 import com.example.TeamResourceAccessManagement.dto.ResourceResponseDTO;
+import com.example.TeamResourceAccessManagement.dto.ResourceSearchResultDTO;
 import com.example.TeamResourceAccessManagement.dto.ResourceAccessUpdateDTO;
 
 public interface ResourceService {
@@ -20,11 +25,19 @@ public interface ResourceService {
     ResourceResponseDTO createResourceWithFile(MultipartFile file, String name, String description, 
                                              String type, String category, String accessType, 
                                              Boolean isGlobal, Long projectId, String resourceUrl, String allowedUserGroups);
+    ResourceResponseDTO createResourceFromUpload(String uploadId, String name, String description, 
+                                                 String type, String category, String accessType, 
+                                                 Boolean isGlobal, Long projectId, String resourceUrl, String allowedUserGroups);
     Optional<ResourceResponseDTO> getResourceById(Long resourceId);
     List<ResourceResponseDTO> getAllResources();
     List<ResourceResponseDTO> getResourcesByType(Resource.ResourceType type);
     ResourceResponseDTO updateResource(Long resourceId, ResourceRequestDTO resourceRequestDTO);
     void deleteResource(Long resourceId);
+    FileDownloadDTO getResourceDownload(Long resourceId);
+    // Audits a download; the controller calls it once per download, not per request
+    void recordDownload(FileDownloadDTO download);
+    Optional<PermissionGrantStatusDTO> getPermissionGrantStatus(Long resourceId);
+    CursorPageDTO<ResourceResponseDTO> queryResources(ResourceQueryDTO query, String cursor, Integer size, boolean includeTotal);
     
     // Global vs Project Resources
     List<ResourceResponseDTO> getGlobalResources();
@@ -43,6 +56,7 @@ public interface ResourceService {
     
     // Resource Search Operations
     List<ResourceResponseDTO> searchResourcesByName(String name);
+    List<ResourceSearchResultDTO> searchResources(String text, Integer limit);
     List<ResourceResponseDTO> getResourcesByUser(Long userId);
     List<ResourceResponseDTO> getAccessibleResourcesForUser(Long userId);
     List<ResourceResponseDTO> getResourcesUserCanRequest(Long userId);
@@ -1,25 +1,41 @@
 package com.example.TeamResourceAccessManagement.service;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.TeamResourceAccessManagement.domain.AccessRequest;
+import com.example.TeamResourceAccessManagement.domain.AuditLog;
 import com.example.TeamResourceAccessManagement.domain.Permission;
 import com.example.TeamResourceAccessManagement.domain.Project;
 import com.example.TeamResourceAccessManagement.domain.Resource;
 import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.dto.FileDownloadDTO;
+import com.example.TeamResourceAccessManagement.dto.KeysetCursor;
+import com.example.TeamResourceAccessManagement.dto.PermissionGrantStatusDTO;
+import com.example.TeamResourceAccessManagement.dto.ResourceQueryDTO;
 import com.example.TeamResourceAccessManagement.dto.ResourceRequestDTO;
 import com.example.TeamResourceAccessManagement.dto.ResourceResponseDTO;
+import com.example.TeamResourceAccessManagement.dto.ResourceSearchResultDTO;
 import com.example.TeamResourceAccessManagement.dto.ResourceAccessUpdateDTO;
+import com.example.TeamResourceAccessManagement.exceptions.ResourceNotFoundException;
 import com.example.TeamResourceAccessManagement.mapper.ResourceMapper;
 import com.example.TeamResourceAccessManagement.repository.AccessRequestRepository;
 import com.example.TeamResourceAccessManagement.repository.PermissionRepository;
@@ -30,6 +46,9 @@ import com.example.TeamResourceAccessManagement.repository.UserRepository;
 @Service
 public class ResourceServiceImpl implements ResourceService {
     
+    private static final int MAX_QUERY_PAGE_SIZE = 100;
+    private static final int SUMMARY_ID_CHUNK = 1000;
+    
     @Autowired
     private ResourceRepository resourceRepository;
     
@@ -45,6 +64,42 @@ public class ResourceServiceImpl implements ResourceService {
     @Autowired
     private ProjectRepository projectRepository;
     
+    @Autowired
+    private BlobStore blobStore;
+    
+    @Autowired
+    private LocalFileStore localFileStore;
+    
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+    
+    @Autowired
+    private BlobContentService blobContentService;
+    
+    @Autowired
+    private AccessDecisionCache accessDecisionCache;
+    
+    @Autowired
+    private UserGroupAccessService userGroupAccessService;
+    
+    @Autowired
+    private PermissionGrantService permissionGrantService;
+    
+    @Autowired
+    private ResourceSearchService resourceSearchService;
+    
+    @Autowired
+    private EffectiveAccessIndex effectiveAccessIndex;
+    
+    @Autowired
+    private AccessMatrix accessMatrix;
+    
+    @Autowired
+    private AuditLogService auditLogService;
+    
+    @Value("${spring.data.web.pageable.default-page-size:10}")
+    private int defaultPageSize;
+    
     @Override
     public ResourceResponseDTO createResource(ResourceRequestDTO resourceRequestDTO) {
         Resource resource = ResourceMapper.toEntity(resourceRequestDTO);
@@ -57,6 +112,18 @@ public class ResourceServiceImpl implements ResourceService {
             resource.setAccessType(Resource.ResourceAccessType.COMMON);
         }
         
+        // Inline uploads go to the blob store like multipart ones
+        if (resource.getFileData() != null) {
+            try {
+                BlobStore.StoredBlob blob = blobStore.store(new ByteArrayInputStream(resource.getFileData()));
+                resource.setContentHash(blob.getContentHash());
+                resource.setFileSize(blob.getSize());
+                resource.setFileData(null);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to store file: " + e.getMessage(), e);
+            }
+        }
+        
         // Set created by current user
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth != null && auth.getName() != null) {
@@ -71,10 +138,12 @@ public class ResourceServiceImpl implements ResourceService {
             }
         }
         Resource savedResource = resourceRepository.save(resource);
+        // New resources become requestable, and may match allowed user groups straight away
+        accessDecisionCache.invalidateResource(savedResource.getId());
         
-        // Auto-grant permissions for COMMON resources
+        // Auto-grant permissions for COMMON resources; runs in the background
         if (savedResource.getAccessType() == Resource.ResourceAccessType.COMMON) {
-            grantCommonResourcePermissions(savedResource);
+            permissionGrantService.scheduleCommonResourceGrants(savedResource);
         }
         
         return ResourceMapper.toResponse(savedResource);
@@ -84,92 +153,90 @@ public class ResourceServiceImpl implements ResourceService {
     public ResourceResponseDTO createResourceWithFile(MultipartFile file, String name, String description, 
                                                      String type, String category, String accessType, 
                                                      Boolean isGlobal, Long projectId, String resourceUrl, String allowedUserGroups) {
+        Resource.ResourceType resourceType = Resource.ResourceType.valueOf(type);
+        Resource.ResourceCategory resourceCategory = Resource.ResourceCategory.valueOf(category);
+        Resource.ResourceAccessType resourceAccessType = Resource.ResourceAccessType.valueOf(accessType);
         try {
-            // Get file data as byte array
-            byte[] fileData = file.getBytes();
-            
-            // Get file metadata
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-            
-            // Create resource entity
-            Resource resource = new Resource();
-            resource.setName(name);
-            resource.setDescription(description);
-            resource.setType(Resource.ResourceType.valueOf(type));
-            resource.setCategory(Resource.ResourceCategory.valueOf(category));
-            resource.setAccessType(Resource.ResourceAccessType.valueOf(accessType));
-            resource.setIsGlobal(isGlobal);
-            resource.setFileData(fileData); // Store file data in database
-            resource.setFileSize(file.getSize());
-            resource.setMimeType(file.getContentType());
-            resource.setFileExtension(fileExtension);
-            
-            if (resourceUrl != null && !resourceUrl.isEmpty()) {
-                resource.setResourceUrl(resourceUrl);
-            }
-            
-            if (allowedUserGroups != null && !allowedUserGroups.isEmpty()) {
-                resource.setAllowedUserGroups(allowedUserGroups);
-            }
-            
-            // Set project if not global
-            if (!isGlobal && projectId != null) {
-                Optional<Project> projectOpt = projectRepository.findById(projectId);
-                if (projectOpt.isPresent()) {
-                    resource.setProject(projectOpt.get());
-                }
-            }
-            
-            // Set created by current user
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth != null && auth.getName() != null) {
-                resource.setCreatedBy(auth.getName());
-                resource.setUploadedBy(auth.getName());
-            }
-            
-            Resource savedResource = resourceRepository.save(resource);
-            
-            // Auto-grant permissions for COMMON resources
-            if (savedResource.getAccessType() == Resource.ResourceAccessType.COMMON) {
-                grantCommonResourcePermissions(savedResource);
-            }
-            
-            return ResourceMapper.toResponse(savedResource);
-            
+            // Stream the upload into the blob store instead of holding it in memory
+            BlobStore.StoredBlob blob = blobStore.store(file.getInputStream());
+            return createFileResource(blob, file.getOriginalFilename(), file.getContentType(), name, description, resourceType,
+                resourceCategory, resourceAccessType, isGlobal, projectId, resourceUrl, allowedUserGroups);
         } catch (IOException e) {
             throw new RuntimeException("Failed to upload file: " + e.getMessage(), e);
         }
     }
     
-    private void grantCommonResourcePermissions(Resource resource) {
-        // Get all users in the project or all users if global
-        List<User> users;
-        if (resource.getProject() != null) {
-            users = resource.getProject().getUsers().stream().collect(Collectors.toList());
-        } else {
-            users = userRepository.findAll();
+    // One transaction with the resource row, so the upload session is only closed once it commits
+    @Override
+    @Transactional
+    public ResourceResponseDTO createResourceFromUpload(String uploadId, String name, String description, 
+                                                       String type, String category, String accessType, 
+                                                       Boolean isGlobal, Long projectId, String resourceUrl, String allowedUserGroups) {
+        // Parsed before the upload is used up, so a bad field can be corrected and the call retried
+        Resource.ResourceType resourceType = Resource.ResourceType.valueOf(type);
+        Resource.ResourceCategory resourceCategory = Resource.ResourceCategory.valueOf(category);
+        Resource.ResourceAccessType resourceAccessType = Resource.ResourceAccessType.valueOf(accessType);
+        ChunkedUploadService.CompletedUpload upload = chunkedUploadService.complete(uploadId);
+        return createFileResource(upload.getBlob(), upload.getFileName(), upload.getContentType(), name, description, resourceType,
+            resourceCategory, resourceAccessType, isGlobal, projectId, resourceUrl, allowedUserGroups);
+    }
+    
+    private ResourceResponseDTO createFileResource(BlobStore.StoredBlob blob, String originalFilename, String contentType,
+                                                   String name, String description, Resource.ResourceType type,
+                                                   Resource.ResourceCategory category, Resource.ResourceAccessType accessType,
+                                                   Boolean isGlobal, Long projectId, String resourceUrl, String allowedUserGroups) {
+        // Get file metadata
+        String fileExtension = "";
+        if (originalFilename != null && originalFilename.contains(".")) {
+            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
         }
         
-        // Grant permissions to all users
-        for (User user : users) {
-            Permission permission = new Permission();
-            permission.setUser(user);
-            permission.setResource(resource);
-            permission.setAccessLevel(isManagerOrAdmin(user) ? Permission.AccessLevel.ADMIN : Permission.AccessLevel.READ);
-            permission.setIsActive(true);
-            permission.setGrantedAt(LocalDateTime.now());
-            permissionRepository.save(permission);
+        // Create resource entity
+        Resource resource = new Resource();
+        resource.setName(name);
+        resource.setDescription(description);
+        resource.setType(type);
+        resource.setCategory(category);
+        resource.setAccessType(accessType);
+        resource.setIsGlobal(isGlobal);
+        resource.setContentHash(blob.getContentHash());
+        resource.setFileSize(blob.getSize());
+        resource.setMimeType(contentType);
+        resource.setFileExtension(fileExtension);
+        
+        if (resourceUrl != null && !resourceUrl.isEmpty()) {
+            resource.setResourceUrl(resourceUrl);
         }
-    }
-    
-    private boolean isManagerOrAdmin(User user) {
-        return user.getRole() == User.UserRole.ADMIN || 
-               user.getRole() == User.UserRole.PROJECT_MANAGER ||
-               user.getRole() == User.UserRole.TEAMLEAD;
+        
+        if (allowedUserGroups != null && !allowedUserGroups.isEmpty()) {
+            resource.setAllowedUserGroups(allowedUserGroups);
+        }
+        
+        // Set project if not global
+        if (!isGlobal && projectId != null) {
+            Optional<Project> projectOpt = projectRepository.findById(projectId);
+            if (projectOpt.isPresent()) {
+                resource.setProject(projectOpt.get());
+            }
+        }
+        
+        // Set created by current user
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getName() != null) {
+            resource.setCreatedBy(auth.getName());
+            resource.setUploadedBy(auth.getName());
+        }
+        
+        Resource savedResource = resourceRepository.save(resource);
+        // New resources become requestable, and may match allowed user groups straight away
+        accessDecisionCache.invalidateResource(savedResource.getId());
+        
+        // Auto-grant permissions for COMMON resources; runs in the background
+        if (savedResource.getAccessType() == Resource.ResourceAccessType.COMMON) {
+            permissionGrantService.scheduleCommonResourceGrants(savedResource);
+        }
+        
+        return ResourceMapper.toResponse(savedResource);
     }
     
     @Override
@@ -180,16 +247,12 @@ public class ResourceServiceImpl implements ResourceService {
     
     @Override
     public List<ResourceResponseDTO> getAllResources() {
-        return resourceRepository.findAll().stream()
-            .map(ResourceMapper::toResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findAllSummaries();
     }
     
     @Override
     public List<ResourceResponseDTO> getResourcesByType(Resource.ResourceType type) {
-        return resourceRepository.findByType(type).stream()
-            .map(ResourceMapper::toResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findSummariesByType(type);
     }
     
     @Override
@@ -208,31 +271,113 @@ public class ResourceServiceImpl implements ResourceService {
     @Override
     public void deleteResource(Long resourceId) {
         if (resourceRepository.existsById(resourceId)) {
+            String contentHash = resourceRepository.findContentHashById(resourceId);
             resourceRepository.deleteById(resourceId);
+            accessDecisionCache.invalidateResource(resourceId);
+            userGroupAccessService.evict(resourceId);
+            permissionGrantService.clearGrantStatus(resourceId);
+            blobContentService.releaseIfUnreferenced(contentHash);
         } else {
             throw new RuntimeException("Resource not found with id: " + resourceId);
         }
     }
     
+    @Override
+    public FileDownloadDTO getResourceDownload(Long resourceId) {
+        FileDownloadDTO download = resourceRepository.findDownloadById(resourceId)
+            .orElseThrow(() -> new ResourceNotFoundException("Resource not found with id: " + resourceId));
+        if (download.getContentHash() != null) {
+            // Content-addressed, so the hash is a strong validator on its own
+            download.setETag(download.getContentHash());
+            download.setContent(blobStore.load(download.getContentHash()));
+            if (download.getContent().isFile()) {
+                // Blobs kept on this server's disk go out the same way as file-path resources
+                serveFromDisk(download, blobFile(download.getContent()));
+            }
+            return download;
+        }
+        
+        if (download.getFilePath() != null) {
+            BasicFileAttributes attributes = serveFromDisk(download, localFileStore.resolve(download.getFilePath()));
+            download.setETag(resourceId + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "-" + Long.toHexString(attributes.size()));
+            return download;
+        }
+        
+        // Legacy rows not yet migrated still stream from file_data
+        // file_size is client-reported; the stored length is what gets streamed
+        download.setContentLength(resourceRepository.findFileDataLength(resourceId));
+        if (!download.hasContent()) {
+            return download;
+        }
+        
+        long lastModified = download.getLastModified() != null ? download.getLastModified().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        download.setETag(resourceId + "-" + Long.toHexString(lastModified) + "-" + Long.toHexString(download.getContentLength()));
+        download.setContent(new ChunkedContentResource(
+            "resource " + resourceId, download.getFileName(), download.getContentLength(),
+            (offset, length) -> resourceRepository.readFileDataChunk(resourceId, offset + 1, length)));
+        return download;
+    }
+    
+    @Override
+    public void recordDownload(FileDownloadDTO download) {
+        // Queued, so the download does not wait on the audit insert
+        auditLogService.logCurrentUserAction(download.getId(), AuditLog.ActionType.RESOURCE_DOWNLOADED, "Downloaded " + download.getFileName());
+    }
+    
+    private static BasicFileAttributes serveFromDisk(FileDownloadDTO download, Path file) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new ResourceNotFoundException("File not found for resource " + download.getId());
+        }
+        download.setContentLength(attributes.size());
+        download.setLocalFile(file);
+        return attributes;
+    }
+    
+    private static Path blobFile(org.springframework.core.io.Resource content) {
+        try {
+            return content.getFile().toPath();
+        } catch (IOException e) {
+            throw new IllegalStateException("Blob is not a file: " + content.getDescription(), e);
+        }
+    }
+    
+    @Override
+    public Optional<PermissionGrantStatusDTO> getPermissionGrantStatus(Long resourceId) {
+        return permissionGrantService.getGrantStatus(resourceId);
+    }
+    
+    @Override
+    public CursorPageDTO<ResourceResponseDTO> queryResources(ResourceQueryDTO query, String cursor, Integer size, boolean includeTotal) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, MAX_QUERY_PAGE_SIZE));
+        
+        // Fetch one extra row to learn whether another page exists
+        List<ResourceResponseDTO> rows = resourceRepository.findSummaryPage(query, KeysetCursor.decode(cursor), pageSize + 1);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            ResourceResponseDTO last = rows.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        Long totalCount = includeTotal ? resourceRepository.countByQuery(query) : null;
+        return new CursorPageDTO<>(rows, nextCursor, totalCount);
+    }
+    
     @Override
     public List<ResourceResponseDTO> getGlobalResources() {
-        return resourceRepository.findByIsGlobal(true).stream()
-            .map(ResourceMapper::toResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findSummariesByIsGlobal(true);
     }
     
     @Override
     public List<ResourceResponseDTO> getProjectResources(Long projectId) {
-        return resourceRepository.findByProjectId(projectId).stream()
-            .map(ResourceMapper::toResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findSummariesByProjectId(projectId);
     }
     
     @Override
     public List<ResourceResponseDTO> getAvailableResourcesForProject(Long projectId) {
-        return resourceRepository.findAvailableResourcesForProject(projectId).stream()
-            .map(ResourceMapper::toResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findAvailableSummariesForProject(projectId);
     }
     
     @Override
@@ -278,12 +423,7 @@ public class ResourceServiceImpl implements ResourceService {
     
     @Override
     public List<User> getResourceUsers(Long resourceId) {
-        List<Permission> permissions = permissionRepository.findByResourceId(resourceId);
-        return permissions.stream()
-            .filter(Permission::getIsActive)
-            .map(Permission::getUser)
-            .distinct()
-            .collect(Collectors.toList());
+        return userRepository.findAllById(AccessMatrix.toIdList(accessMatrix.usersWithAccess(resourceId, Permission.AccessLevel.READ)));
     }
     
     @Override
@@ -293,48 +433,21 @@ public class ResourceServiceImpl implements ResourceService {
     
     @Override
     public boolean hasUserAccessToResource(Long userId, Long resourceId) {
+        return accessDecisionCache.isAllowed(userId, resourceId, () -> loadAccessDecision(userId, resourceId));
+    }
+    
+    private AccessDecisionCache.Decision loadAccessDecision(Long userId, Long resourceId) {
         // Check explicit permission first
         Optional<Permission> permission = permissionRepository.findByUserIdAndResourceId(userId, resourceId);
         if (permission.isPresent() && permission.get().getIsActive() &&
             (permission.get().getExpiresAt() == null || permission.get().getExpiresAt().isAfter(LocalDateTime.now()))) {
-            return true;
+            return AccessDecisionCache.Decision.allow(permission.get().getExpiresAt());
         }
         
         // Check allowedUserGroups access
-        return canUserAccessViaUserGroups(userId, resourceId);
-    }
-    
-    private boolean canUserAccessViaUserGroups(Long userId, Long resourceId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        Optional<Resource> resourceOpt = resourceRepository.findById(resourceId);
-        
-        if (userOpt.isPresent() && resourceOpt.isPresent()) {
-            User user = userOpt.get();
-            Resource resource = resourceOpt.get();
-            
-
-            
-            String allowedGroups = resource.getAllowedUserGroups();
-            if (allowedGroups == null || allowedGroups.trim().isEmpty()) {
-                return false;
-            }
-            
-            String username = user.getUsername();
-            if (username == null) {
-                return false;
-            }
-            
-            // Check if user's domain matches any allowed groups
-            String[] groups = allowedGroups.split(",");
-            for (String group : groups) {
-                group = group.trim();
-                if (!group.isEmpty() && username.toLowerCase().contains("." + group.toLowerCase())) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
+        return userGroupAccessService.canUserAccessViaUserGroups(userId, resourceId)
+            ? AccessDecisionCache.Decision.allow(null)
+            : AccessDecisionCache.Decision.deny();
     }
     
     @Override
@@ -348,20 +461,19 @@ public class ResourceServiceImpl implements ResourceService {
     
     @Override
     public List<ResourceResponseDTO> searchResourcesByName(String name) {
-        return resourceRepository.findByNameContaining(name).stream()
-            .map(ResourceMapper::toResponse)
-            .collect(Collectors.toList());
+        // Every name containing the text, as this endpoint always returned; ranked search is /search/ranked
+        return resourceRepository.findSummariesByNameContaining(name);
+    }
+    
+    @Override
+    public List<ResourceSearchResultDTO> searchResources(String text, Integer limit) {
+        int maxResults = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, MAX_QUERY_PAGE_SIZE));
+        return resourceSearchService.search(text, maxResults);
     }
     
     @Override
     public List<ResourceResponseDTO> getResourcesByUser(Long userId) {
-        List<Permission> permissions = permissionRepository.findByUserId(userId);
-        return permissions.stream()
-            .filter(Permission::getIsActive)
-            .map(Permission::getResource)
-            .distinct()
-            .map(ResourceMapper::toResponse)
-            .collect(Collectors.toList());
+        return findSummariesByIds(effectiveAccessIndex.getAccessibleResourceIdList(userId));
     }
     
     @Override
@@ -371,17 +483,17 @@ public class ResourceServiceImpl implements ResourceService {
     
     @Override
     public List<ResourceResponseDTO> getResourcesUserCanRequest(Long userId) {
-        List<Resource> allResources = resourceRepository.findAll();
-        List<Permission> userPermissions = permissionRepository.findByUserId(userId);
-        List<Resource> userResources = userPermissions.stream()
-            .filter(Permission::getIsActive)
-            .map(Permission::getResource)
-            .collect(Collectors.toList());
-        
-        return allResources.stream()
-            .filter(resource -> !userResources.contains(resource))
-            .map(ResourceMapper::toResponse)
-            .collect(Collectors.toList());
+        return findSummariesByIds(effectiveAccessIndex.getRequestableResourceIdList(userId));
+    }
+    
+    // Chunked so the IN list stays well under the driver's bind parameter limit
+    private List<ResourceResponseDTO> findSummariesByIds(List<Long> resourceIds) {
+        List<ResourceResponseDTO> resources = new ArrayList<>(resourceIds.size());
+        for (int from = 0; from < resourceIds.size(); from += SUMMARY_ID_CHUNK) {
+            resources.addAll(resourceRepository.findSummariesByIdIn(
+                resourceIds.subList(from, Math.min(from + SUMMARY_ID_CHUNK, resourceIds.size()))));
+        }
+        return resources;
     }
     
     @Override
@@ -410,22 +522,17 @@ public class ResourceServiceImpl implements ResourceService {
     
     @Override
     public long getGlobalResourceCount() {
-        return resourceRepository.findByIsGlobal(true).size();
+        return resourceRepository.countByIsGlobal(true);
     }
     
     @Override
     public long getProjectResourceCount(Long projectId) {
-        return resourceRepository.findByProjectId(projectId).size();
+        return resourceRepository.countByProjectId(projectId);
     }
     
     @Override
     public int getResourceUserCount(Long resourceId) {
-        List<Permission> permissions = permissionRepository.findByResourceId(resourceId);
-        return (int) permissions.stream()
-            .filter(Permission::getIsActive)
-            .map(Permission::getUser)
-            .distinct()
-            .count();
+        return accessMatrix.countUsers(resourceId, Permission.AccessLevel.READ);
     }
     
     @Override
@@ -445,24 +552,19 @@ public class ResourceServiceImpl implements ResourceService {
     
     @Override
     public boolean isResourceNameUnique(String name) {
-        return resourceRepository.findByNameContaining(name).stream()
-            .noneMatch(resource -> resource.getName().equals(name));
+        return !resourceRepository.existsByName(name);
     }
     
 
     
     @Override
     public List<ResourceResponseDTO> getResourcesByCategory(Resource.ResourceCategory category) {
-        return resourceRepository.findByCategory(category).stream()
-            .map(ResourceMapper::toResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findSummariesByCategory(category);
     }
     
     @Override
     public List<ResourceResponseDTO> getProjectResourcesByCategory(Long projectId, Resource.ResourceCategory category) {
-        return resourceRepository.findByProjectIdAndCategory(projectId, category).stream()
-            .map(ResourceMapper::toResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findSummariesByProjectIdAndCategory(projectId, category);
     }
     
     // @Override
@@ -474,9 +576,7 @@ public class ResourceServiceImpl implements ResourceService {
     
     @Override
     public List<ResourceResponseDTO> getProjectResourcesByAccessType(Long projectId, Resource.ResourceAccessType accessType) {
-        return resourceRepository.findByProjectIdAndAccessType(projectId, accessType).stream()
-            .map(ResourceMapper::toResponse)
-            .collect(Collectors.toList());
+        return resourceRepository.findSummariesByProjectIdAndAccessType(projectId, accessType);
     }
     
     public void updateExistingResourcesWithUserGroups() {
@@ -488,6 +588,8 @@ public class ResourceServiceImpl implements ResourceService {
         for (Resource resource : managerResources) {
             resource.setAllowedUserGroups("dev,test,QA");
             resourceRepository.save(resource);
+            userGroupAccessService.updateGroups(resource.getId(), resource.getAllowedUserGroups());
+            accessDecisionCache.invalidateResource(resource.getId());
         }
     }
     
@@ -518,6 +620,8 @@ public class ResourceServiceImpl implements ResourceService {
             resource.setAllowedUserGroups(accessUpdateDTO.getAllowedUserGroups());
             
             Resource savedResource = resourceRepository.save(resource);
+            userGroupAccessService.updateGroups(resourceId, savedResource.getAllowedUserGroups());
+            accessDecisionCache.invalidateResource(resourceId);
             return ResourceMapper.toResponse(savedResource);
         } catch (Exception e) {
             System.err.println("Error updating resource access settings: " + e.getMessage());
@@ -0,0 +1,38 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * The one tokenizer for user search input: lower-cased runs of letters and digits, with
+ * everything else dropped, so input can never carry tsquery syntax. Searched text has to be
+ * split the same way for a term to find its word (see AuditLogSearchService.detailsVector).
+ */
+final class SearchTerms {
+    
+    private SearchTerms() {
+    }
+    
+    static List<String> of(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text != null) {
+            for (String term : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+    
+    // "proj plan" -> "proj:* & plan:*"
+    static String toPrefixQuery(String text) {
+        return prefixQueryOf(of(text));
+    }
+    
+    static String prefixQueryOf(List<String> terms) {
+        return terms.stream().map(term -> term + ":*").collect(Collectors.joining(" & "));
+    }
+}
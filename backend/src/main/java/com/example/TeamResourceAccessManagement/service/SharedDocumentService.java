@@ -1,5 +1,7 @@
 package com.example.TeamResourceAccessManagement.service;
 
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.dto.FileDownloadDTO;
 import com.example.TeamResourceAccessManagement.dto.SharedDocumentDTO;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -7,8 +9,10 @@ import java.util.List;
 
 public interface SharedDocumentService {
     List<SharedDocumentDTO> getAllSharedDocuments();
+    CursorPageDTO<SharedDocumentDTO> getSharedDocumentFeed(Long authorId, String documentType, String cursor, int limit);
     SharedDocumentDTO shareDocument(SharedDocumentDTO documentDTO, MultipartFile file);
+    SharedDocumentDTO shareDocumentFromUpload(SharedDocumentDTO documentDTO, String uploadId);
     SharedDocumentDTO shareDocumentWithUrl(SharedDocumentDTO documentDTO);
     void deleteSharedDocument(Long documentId, Long userId);
-    byte[] downloadDocument(Long documentId);
+    FileDownloadDTO downloadDocument(Long documentId);
 }
\ No newline at end of file
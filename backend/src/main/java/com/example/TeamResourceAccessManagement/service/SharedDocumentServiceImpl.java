@@ -1,29 +1,77 @@
 package com.example.TeamResourceAccessManagement.service;
 
 import com.example.TeamResourceAccessManagement.domain.SharedDocument;
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.dto.FileDownloadDTO;
+import com.example.TeamResourceAccessManagement.dto.KeysetCursor;
 import com.example.TeamResourceAccessManagement.dto.SharedDocumentDTO;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
 import com.example.TeamResourceAccessManagement.exceptions.ResourceNotFoundException;
 import com.example.TeamResourceAccessManagement.repository.SharedDocumentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class SharedDocumentServiceImpl implements SharedDocumentService {
 
+    public static final int MAX_FEED_PAGE_SIZE = 100;
+
     @Autowired
     private SharedDocumentRepository sharedDocumentRepository;
 
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private BlobContentService blobContentService;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
     @Override
     public List<SharedDocumentDTO> getAllSharedDocuments() {
-        return sharedDocumentRepository.findAllOrderBySharedAtDesc()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return sharedDocumentRepository.findFeed(Pageable.unpaged());
+    }
+
+    @Override
+    public CursorPageDTO<SharedDocumentDTO> getSharedDocumentFeed(Long authorId, String documentType, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_FEED_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_FEED_PAGE_SIZE);
+        }
+        if (authorId != null && documentType != null) {
+            throw new BadRequestException("Filter by authorId or documentType, not both");
+        }
+        KeysetCursor before = KeysetCursor.decode(cursor);
+        // One extra row tells whether there is a next page
+        Pageable page = PageRequest.of(0, limit + 1);
+        List<SharedDocumentDTO> rows;
+        if (authorId != null) {
+            rows = before == null ? sharedDocumentRepository.findFeedByAuthorId(authorId, page)
+                    : sharedDocumentRepository.findFeedByAuthorIdBefore(authorId, before.getTimestamp(), before.getId(), page);
+        } else if (documentType != null) {
+            rows = before == null ? sharedDocumentRepository.findFeedByDocumentType(documentType, page)
+                    : sharedDocumentRepository.findFeedByDocumentTypeBefore(documentType, before.getTimestamp(), before.getId(), page);
+        } else {
+            rows = before == null ? sharedDocumentRepository.findFeed(page)
+                    : sharedDocumentRepository.findFeedBefore(before.getTimestamp(), before.getId(), page);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            SharedDocumentDTO last = rows.get(limit - 1);
+            nextCursor = new KeysetCursor(last.getSharedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(rows, nextCursor, null);
     }
 
     @Override
@@ -38,9 +86,10 @@ public class SharedDocumentServiceImpl implements SharedDocumentService {
 
         if (file != null && !file.isEmpty()) {
             try {
-                document.setFileData(file.getBytes());
+                BlobStore.StoredBlob blob = blobStore.store(file.getInputStream());
+                document.setContentHash(blob.getContentHash());
                 document.setFileName(file.getOriginalFilename());
-                document.setFileSize(file.getSize());
+                document.setFileSize(blob.getSize());
             } catch (IOException e) {
                 throw new RuntimeException("Failed to process file", e);
             }
@@ -50,6 +99,27 @@ public class SharedDocumentServiceImpl implements SharedDocumentService {
         return convertToDTO(savedDocument);
     }
 
+    // One transaction with the document row, so the upload session is only closed once it commits
+    @Override
+    @Transactional
+    public SharedDocumentDTO shareDocumentFromUpload(SharedDocumentDTO documentDTO, String uploadId) {
+        ChunkedUploadService.CompletedUpload upload = chunkedUploadService.complete(uploadId);
+
+        SharedDocument document = new SharedDocument();
+        document.setTitle(documentDTO.getTitle());
+        document.setMessage(documentDTO.getMessage());
+        document.setDocumentType(documentDTO.getDocumentType());
+        document.setAuthorId(documentDTO.getAuthorId());
+        document.setAuthorName(documentDTO.getAuthorName());
+        document.setAuthorRole(documentDTO.getAuthorRole());
+        document.setContentHash(upload.getBlob().getContentHash());
+        document.setFileName(upload.getFileName());
+        document.setFileSize(upload.getBlob().getSize());
+
+        SharedDocument savedDocument = sharedDocumentRepository.save(document);
+        return convertToDTO(savedDocument);
+    }
+
     @Override
     public SharedDocumentDTO shareDocumentWithUrl(SharedDocumentDTO documentDTO) {
         SharedDocument document = new SharedDocument();
@@ -67,22 +137,42 @@ public class SharedDocumentServiceImpl implements SharedDocumentService {
 
     @Override
     public void deleteSharedDocument(Long documentId, Long userId) {
-        SharedDocument document = sharedDocumentRepository.findById(documentId)
+        // Only the metadata is read; loading the entity would pull in a legacy file_data too
+        Long authorId = sharedDocumentRepository.findAuthorIdById(documentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
 
-        if (!document.getAuthorId().equals(userId)) {
+        if (!authorId.equals(userId)) {
             throw new RuntimeException("Only the author can delete this document");
         }
 
-        sharedDocumentRepository.delete(document);
+        String contentHash = sharedDocumentRepository.findDownloadById(documentId)
+                .map(FileDownloadDTO::getContentHash)
+                .orElse(null);
+        sharedDocumentRepository.deleteByIdWithoutLoading(documentId);
+        blobContentService.releaseIfUnreferenced(contentHash);
     }
 
     @Override
-    public byte[] downloadDocument(Long documentId) {
-        SharedDocument document = sharedDocumentRepository.findById(documentId)
+    public FileDownloadDTO downloadDocument(Long documentId) {
+        FileDownloadDTO download = sharedDocumentRepository.findDownloadById(documentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
+        if (!download.hasContent()) {
+            return download;
+        }
+        if (download.getContentHash() != null) {
+            download.setETag(download.getContentHash());
+            download.setContent(blobStore.load(download.getContentHash()));
+            return download;
+        }
 
-        return document.getFileData();
+        // Legacy documents not yet migrated still stream from file_data
+        // Shared documents are never modified after upload, so id, time and size identify the bytes
+        long sharedAt = download.getLastModified() != null ? download.getLastModified().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        download.setETag("doc-" + documentId + "-" + Long.toHexString(sharedAt) + "-" + Long.toHexString(download.getContentLength()));
+        download.setContent(new ChunkedContentResource(
+                "shared document " + documentId, download.getFileName(), download.getContentLength(),
+                (offset, length) -> sharedDocumentRepository.readFileDataChunk(documentId, offset, length)));
+        return download;
     }
 
     private SharedDocumentDTO convertToDTO(SharedDocument document) {
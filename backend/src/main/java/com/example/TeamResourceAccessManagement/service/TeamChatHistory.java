@@ -0,0 +1,231 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.TeamResourceAccessManagement.domain.ChatMessage;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import com.example.TeamResourceAccessManagement.repository.ChatMessageRepository;
+
+/**
+ * Chat history per team. The last {@code recentSize} messages of each team in use are kept in
+ * a ring buffer, so opening a chat or catching up after a reconnect is served from memory;
+ * anything older is read from chat_messages by keyset over (team_id, id). Every message is
+ * appended through here, which keeps the buffer ahead of ChatMessageWriter: a message is
+ * readable as soon as it is posted, and reads that go to the database merge in the buffer
+ * for whatever is not written yet. Pages are always returned oldest first.
+ * <p>
+ * At most {@code maxBufferedTeams} buffers are kept; past that the least recently used one is
+ * dropped, but only once it has been idle for {@code bufferIdleMillis}, by when everything it
+ * held has been written. Reads for a team without any messages do not create a buffer.
+ */
+@Component
+public class TeamChatHistory {
+    
+    public static final int MAX_PAGE_SIZE = 200;
+    
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+    
+    @Autowired
+    private ChatMessageWriter chatMessageWriter;
+    
+    @Value("${app.chat.recent-buffer-size:200}")
+    private int recentSize;
+    
+    @Value("${app.chat.max-buffered-teams:10000}")
+    private int maxBufferedTeams;
+    
+    @Value("${app.chat.buffer-idle-ms:60000}")
+    private long bufferIdleMillis;
+    
+    // Access-ordered, so the eldest entry is the team whose history was used least recently
+    private final Map<Long, RecentMessages> recent = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, RecentMessages> eldest) {
+            return size() > maxBufferedTeams
+                && eldest.getValue().lastUsed() < System.currentTimeMillis() - bufferIdleMillis;
+        }
+    };
+    
+    public ChatMessage append(Long teamId, String sender, String text) {
+        RecentMessages buffer = buffer(teamId, true);
+        // Ids are handed out under the lock, so each buffer stays in id order
+        synchronized (buffer) {
+            ChatMessage message = chatMessageWriter.append(teamId, sender, text);
+            buffer.add(message);
+            return message;
+        }
+    }
+    
+    public List<ChatMessage> latest(Long teamId, int limit) {
+        checkLimit(limit);
+        RecentMessages buffer = buffer(teamId, false);
+        List<ChatMessage> cached = buffer.snapshot();
+        if (cached.size() >= limit || buffer.isComplete()) {
+            return tail(cached, limit);
+        }
+        List<ChatMessage> stored = new ArrayList<>(chatMessageRepository.findByTeamIdOrderByIdDesc(teamId, PageRequest.of(0, limit)));
+        Collections.reverse(stored);
+        return tail(merge(stored, cached), limit);
+    }
+    
+    // The whole history, unpaged, for callers that predate paging
+    public List<ChatMessage> all(Long teamId) {
+        RecentMessages buffer = buffer(teamId, false);
+        List<ChatMessage> cached = buffer.snapshot();
+        if (buffer.isComplete()) {
+            return new ArrayList<>(cached);
+        }
+        return merge(chatMessageRepository.findByTeamIdOrderByIdAsc(teamId), cached);
+    }
+    
+    // Messages after afterId, for clients catching up
+    public List<ChatMessage> since(Long teamId, long afterId, int limit) {
+        checkLimit(limit);
+        RecentMessages buffer = buffer(teamId, false);
+        List<ChatMessage> cached = newerThan(buffer.snapshot(), afterId);
+        // The buffer holds every message from its oldest one on
+        if (buffer.isComplete() || afterId + 1 >= buffer.oldestId()) {
+            return head(cached, limit);
+        }
+        List<ChatMessage> stored = chatMessageRepository.findByTeamIdAndIdGreaterThanOrderByIdAsc(teamId, afterId, PageRequest.of(0, limit));
+        return head(merge(stored, cached), limit);
+    }
+    
+    // The page just before beforeId, for scrolling back
+    public List<ChatMessage> before(Long teamId, long beforeId, int limit) {
+        checkLimit(limit);
+        RecentMessages buffer = buffer(teamId, false);
+        List<ChatMessage> cached = olderThan(buffer.snapshot(), beforeId);
+        if (cached.size() >= limit || buffer.isComplete()) {
+            return tail(cached, limit);
+        }
+        List<ChatMessage> stored = new ArrayList<>(
+            chatMessageRepository.findByTeamIdAndIdLessThanOrderByIdDesc(teamId, beforeId, PageRequest.of(0, limit)));
+        Collections.reverse(stored);
+        return tail(merge(stored, cached), limit);
+    }
+    
+    private RecentMessages buffer(Long teamId, boolean forAppend) {
+        synchronized (recent) {
+            RecentMessages buffer = recent.get(teamId);
+            if (buffer != null) {
+                buffer.touch();
+                return buffer;
+            }
+        }
+        // Loaded outside the lock so one team's query does not hold up the others
+        List<ChatMessage> newest = new ArrayList<>(chatMessageRepository.findByTeamIdOrderByIdDesc(teamId, PageRequest.of(0, recentSize)));
+        Collections.reverse(newest);
+        RecentMessages loaded = new RecentMessages(recentSize, newest.size() < recentSize);
+        newest.forEach(loaded::add);
+        if (newest.isEmpty() && !forAppend) {
+            // Answers this read; only a post makes an empty team worth keeping
+            return loaded;
+        }
+        synchronized (recent) {
+            RecentMessages buffer = recent.putIfAbsent(teamId, loaded);
+            if (buffer != null) {
+                // Another thread got there first and may already have appended to it
+                buffer.touch();
+                return buffer;
+            }
+            return loaded;
+        }
+    }
+    
+    int bufferedTeams() {
+        synchronized (recent) {
+            return recent.size();
+        }
+    }
+    
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+    
+    // Stored rows and buffered ones overlap; the buffer also has those not written yet
+    private static List<ChatMessage> merge(List<ChatMessage> stored, List<ChatMessage> cached) {
+        TreeMap<Long, ChatMessage> byId = new TreeMap<>();
+        stored.forEach(message -> byId.put(message.getId(), message));
+        cached.forEach(message -> byId.put(message.getId(), message));
+        return new ArrayList<>(byId.values());
+    }
+    
+    private static List<ChatMessage> newerThan(List<ChatMessage> messages, long id) {
+        return messages.stream().filter(message -> message.getId() > id).toList();
+    }
+    
+    private static List<ChatMessage> olderThan(List<ChatMessage> messages, long id) {
+        return messages.stream().filter(message -> message.getId() < id).toList();
+    }
+    
+    private static List<ChatMessage> head(List<ChatMessage> messages, int limit) {
+        return new ArrayList<>(messages.subList(0, Math.min(limit, messages.size())));
+    }
+    
+    private static List<ChatMessage> tail(List<ChatMessage> messages, int limit) {
+        return new ArrayList<>(messages.subList(Math.max(0, messages.size() - limit), messages.size()));
+    }
+    
+    // Fixed-size ring of a team's newest messages, oldest first
+    private static final class RecentMessages {
+        private final ChatMessage[] ring;
+        private int start;
+        private int size;
+        // True while the team's whole history fits, so a miss here is a miss everywhere
+        private boolean complete;
+        private volatile long lastUsed = System.currentTimeMillis();
+    
+        private RecentMessages(int capacity, boolean complete) {
+            this.ring = new ChatMessage[capacity];
+            this.complete = complete;
+        }
+    
+        private void touch() {
+            lastUsed = System.currentTimeMillis();
+        }
+    
+        private long lastUsed() {
+            return lastUsed;
+        }
+    
+        private synchronized void add(ChatMessage message) {
+            if (size < ring.length) {
+                ring[(start + size++) % ring.length] = message;
+                return;
+            }
+            ring[start] = message;
+            start = (start + 1) % ring.length;
+            complete = false;
+        }
+    
+        private synchronized List<ChatMessage> snapshot() {
+            List<ChatMessage> messages = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                messages.add(ring[(start + i) % ring.length]);
+            }
+            return messages;
+        }
+    
+        private synchronized long oldestId() {
+            return size == 0 ? Long.MAX_VALUE : ring[start].getId();
+        }
+    
+        private synchronized boolean isComplete() {
+            return complete;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import com.example.TeamResourceAccessManagement.domain.ChatMessage;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Team chat rooms. Every open chat socket joins its team's room; a posted message is added to
+ * TeamChatHistory, serialized once and sent to everyone in the room, so each client
+ * receives only the new message. Sockets are wrapped so a slow client buffers up to a limit
+ * and is then disconnected instead of holding up the rest of the room.
+ */
+@Service
+public class TeamChatService {
+    
+    @Autowired
+    private TeamChatHistory teamChatHistory;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.chat.max-message-length:4000}")
+    private int maxMessageLength;
+    
+    @Value("${app.chat.send-time-limit-ms:5000}")
+    private int sendTimeLimitMillis;
+    
+    @Value("${app.chat.send-buffer-bytes:524288}")
+    private int sendBufferBytes;
+    
+    private final Map<Long, Set<WebSocketSession>> rooms = new ConcurrentHashMap<>();
+    
+    // Returns the session to send through from now on
+    public WebSocketSession join(Long teamId, WebSocketSession session) {
+        WebSocketSession member = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, sendBufferBytes);
+        rooms.computeIfAbsent(teamId, id -> ConcurrentHashMap.newKeySet()).add(member);
+        return member;
+    }
+    
+    /**
+     * Joins the room and sends what was posted after {@code lastMessageId}, so a reconnecting
+     * client misses nothing. A client too far behind is told to resync and reload the latest
+     * page instead. Messages posted while catching up may arrive twice; clients dedupe by id.
+     */
+    public WebSocketSession join(Long teamId, WebSocketSession session, Long lastMessageId) throws IOException {
+        WebSocketSession member = join(teamId, session);
+        if (lastMessageId != null) {
+            List<ChatMessage> missed = teamChatHistory.since(teamId, lastMessageId, TeamChatHistory.MAX_PAGE_SIZE);
+            if (missed.size() >= TeamChatHistory.MAX_PAGE_SIZE) {
+                member.sendMessage(new TextMessage("{\"resync\":true}"));
+            } else {
+                for (ChatMessage message : missed) {
+                    member.sendMessage(toFrame(message));
+                }
+            }
+        }
+        return member;
+    }
+    
+    public void leave(Long teamId, WebSocketSession member) {
+        rooms.computeIfPresent(teamId, (id, members) -> {
+            members.remove(member);
+            return members.isEmpty() ? null : members;
+        });
+    }
+    
+    public ChatMessage post(Long teamId, String sender, String text) {
+        if (text == null || text.isBlank()) {
+            throw new BadRequestException("Message must not be empty");
+        }
+        if (text.length() > maxMessageLength) {
+            throw new BadRequestException("Message must be at most " + maxMessageLength + " characters");
+        }
+        ChatMessage message = teamChatHistory.append(teamId, sender, text);
+        broadcast(teamId, message);
+        return message;
+    }
+    
+    public int getMemberCount(Long teamId) {
+        Set<WebSocketSession> members = rooms.get(teamId);
+        return members != null ? members.size() : 0;
+    }
+    
+    private void broadcast(Long teamId, ChatMessage message) {
+        Set<WebSocketSession> members = rooms.get(teamId);
+        if (members == null) {
+            return;
+        }
+        TextMessage frame = toFrame(message);
+        for (WebSocketSession member : members) {
+            try {
+                member.sendMessage(frame);
+            } catch (IOException | RuntimeException e) {
+                // Closed, or too far behind to catch up
+                leave(teamId, member);
+                try {
+                    member.close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException ignored) {
+                    // Already gone
+                }
+            }
+        }
+    }
+    
+    private TextMessage toFrame(ChatMessage message) {
+        try {
+            return new TextMessage(objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize chat message", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+
+/**
+ * Group-based access shared by PermissionServiceImpl and ResourceServiceImpl. Each resource's
+ * allowedUserGroups is parsed once into a UserGroupMatcher and kept until the groups change.
+ */
+@Service
+public class UserGroupAccessService {
+    
+    @Autowired
+    private ResourceRepository resourceRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private final Map<Long, UserGroupMatcher> matchers = new ConcurrentHashMap<>();
+    
+    public boolean canUserAccessViaUserGroups(Long userId, Long resourceId) {
+        UserGroupMatcher matcher = getMatcher(resourceId);
+        if (matcher.isEmpty()) {
+            return false;
+        }
+        return matcher.matches(userRepository.findUsernameById(userId));
+    }
+    
+    public UserGroupMatcher getMatcher(Long resourceId) {
+        return matchers.computeIfAbsent(resourceId,
+            id -> UserGroupMatcher.parse(resourceRepository.findAllowedUserGroupsById(id)));
+    }
+    
+    // For callers that already read allowed_user_groups; reuses the parsed matcher when present
+    public UserGroupMatcher getMatcher(Long resourceId, String allowedUserGroups) {
+        return matchers.computeIfAbsent(resourceId, id -> UserGroupMatcher.parse(allowedUserGroups));
+    }
+    
+    // Call after a resource's allowedUserGroups is saved
+    public void updateGroups(Long resourceId, String allowedUserGroups) {
+        matchers.put(resourceId, UserGroupMatcher.parse(allowedUserGroups));
+    }
+    
+    public void evict(Long resourceId) {
+        matchers.remove(resourceId);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Parsed form of Resource.allowedUserGroups ("dev,test,QA"). A username belongs to a group
+ * when it contains "." followed by the group name, case-insensitively (e.g. "jane.dev").
+ * Instead of scanning every group, the matcher looks up the text after each dot in the
+ * username against a hash set, so the cost depends on the username, not the group count.
+ */
+public final class UserGroupMatcher {
+    
+    public static final UserGroupMatcher NONE = new UserGroupMatcher(Set.of(), 0, 0);
+    
+    private final Set<String> groups;
+    private final int minLength;
+    private final int maxLength;
+    
+    private UserGroupMatcher(Set<String> groups, int minLength, int maxLength) {
+        this.groups = groups;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+    
+    public static UserGroupMatcher parse(String allowedUserGroups) {
+        if (allowedUserGroups == null || allowedUserGroups.trim().isEmpty()) {
+            return NONE;
+        }
+        Set<String> groups = new HashSet<>();
+        int minLength = Integer.MAX_VALUE;
+        int maxLength = 0;
+        for (String group : allowedUserGroups.split(",")) {
+            group = group.trim().toLowerCase(Locale.ROOT);
+            if (!group.isEmpty()) {
+                groups.add(group);
+                minLength = Math.min(minLength, group.length());
+                maxLength = Math.max(maxLength, group.length());
+            }
+        }
+        return groups.isEmpty() ? NONE : new UserGroupMatcher(Set.copyOf(groups), minLength, maxLength);
+    }
+    
+    public boolean matches(String username) {
+        if (groups.isEmpty() || username == null) {
+            return false;
+        }
+        String name = username.toLowerCase(Locale.ROOT);
+        for (int dot = name.indexOf('.'); dot >= 0; dot = name.indexOf('.', dot + 1)) {
+            int start = dot + 1;
+            int longest = Math.min(maxLength, name.length() - start);
+            for (int length = minLength; length <= longest; length++) {
+                if (groups.contains(name.substring(start, start + length))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    public boolean isEmpty() {
+        return groups.isEmpty();
+    }
+}
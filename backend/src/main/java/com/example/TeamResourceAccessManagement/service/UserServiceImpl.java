@@ -34,6 +34,9 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private AccessRequestRepository accessRequestRepository;
     
+    @Autowired
+    private AccessDecisionCache accessDecisionCache;
+    
     @Override
     @Transactional
     public UserResponseDTO createUser(UserRequestDTO userRequestDTO) {
@@ -113,6 +116,8 @@ public class UserServiceImpl implements UserService {
             user.setFullName(userRequestDTO.getFullName());
             user.setRole(userRequestDTO.getRole());
             User savedUser = userRepository.save(user);
+            // Group access is matched against the username
+            accessDecisionCache.invalidateUser(userId);
             return UserMapper.toResponse(savedUser);
         }
         return null;
@@ -121,6 +126,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(Long userId) {
         userRepository.deleteById(userId);
+        accessDecisionCache.invalidateUser(userId);
     }
     
     @Override
@@ -133,6 +139,7 @@ public class UserServiceImpl implements UserService {
             Project project = projectOpt.get();
             user.getProjects().add(project);
             userRepository.save(user);
+            accessDecisionCache.invalidateUser(userId);
         }
     }
     
@@ -146,6 +153,7 @@ public class UserServiceImpl implements UserService {
             Project project = projectOpt.get();
             user.getProjects().remove(project);
             userRepository.save(user);
+            accessDecisionCache.invalidateUser(userId);
         }
     }
     
@@ -178,6 +186,7 @@ public class UserServiceImpl implements UserService {
             Permission permission = permissionOpt.get();
             permission.setIsActive(false);
             permissionRepository.save(permission);
+            accessDecisionCache.invalidate(userId, resourceId);
         }
     }
     
@@ -229,6 +238,7 @@ public class UserServiceImpl implements UserService {
                 permission.setIsActive(false);
                 permissionRepository.save(permission);
             });
+        accessDecisionCache.invalidateUser(userId);
     }
     
     @Override
@@ -0,0 +1,9 @@
+-- Unread notification count per user (see NotificationCounterStore, which also creates this on startup
+-- and backfills it from notifications while it is empty)
+CREATE TABLE IF NOT EXISTS notification_counters (
+    user_id BIGINT PRIMARY KEY,
+    unread_count BIGINT NOT NULL
+);
+
+-- Serves mark-all-read and the counter rebuild
+CREATE INDEX IF NOT EXISTS idx_notification_user_read ON notifications (user_id, is_read);
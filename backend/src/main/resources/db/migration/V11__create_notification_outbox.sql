@@ -0,0 +1,20 @@
+-- Notification events waiting for delivery (see NotificationOutbox, which also creates this on startup;
+-- NotificationDispatcher delivers and deletes the rows)
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    audience VARCHAR(20) NOT NULL,
+    audience_id BIGINT NOT NULL,
+    type VARCHAR(40) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    message TEXT,
+    related_entity_id BIGINT,
+    related_entity_type VARCHAR(50),
+    created_at TIMESTAMP NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    attempts INT NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(1000)
+);
+
+-- Serves the dispatcher's due-event scan
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_due ON notification_outbox (status, next_attempt_at);
@@ -0,0 +1,6 @@
+-- Keyset indexes for the notification feed (NotificationService.getNotificationFeed); the first
+-- also serves mark-all-read and the counter rebuild, so it replaces idx_notification_user_read
+CREATE INDEX IF NOT EXISTS idx_notification_user_read_created ON notifications (user_id, is_read, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_notification_user_created ON notifications (user_id, created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_notification_user_read;
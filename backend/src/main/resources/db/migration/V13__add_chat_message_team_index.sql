@@ -0,0 +1,3 @@
+-- Keyset index for chat history (TeamChatHistory); ids follow posting order, so (team_id, id)
+-- serves the latest page, catch-up after an id and scrolling back before one
+CREATE INDEX IF NOT EXISTS idx_chat_message_team_id ON chat_messages (team_id, id);
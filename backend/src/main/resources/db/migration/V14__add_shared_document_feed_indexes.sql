@@ -0,0 +1,5 @@
+-- Keyset indexes for the shared-document feed (SharedDocumentService.getSharedDocumentFeed):
+-- newest first overall, per author and per document type
+CREATE INDEX IF NOT EXISTS idx_shared_document_shared_at ON shared_documents (shared_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_shared_document_author_shared_at ON shared_documents (author_id, shared_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_shared_document_type_shared_at ON shared_documents (document_type, shared_at DESC, id DESC);
@@ -0,0 +1,14 @@
+-- Chunked upload sessions (ChunkedUploadService); the bytes themselves are spooled to disk
+CREATE TABLE IF NOT EXISTS upload_sessions (
+    id VARCHAR(36) PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    content_type VARCHAR(255),
+    total_size BIGINT NOT NULL,
+    chunk_size INTEGER NOT NULL,
+    received_bytes BIGINT NOT NULL,
+    created_by VARCHAR(255),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_upload_session_updated_at ON upload_sessions (updated_at);
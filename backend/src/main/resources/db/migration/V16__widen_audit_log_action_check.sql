@@ -0,0 +1,8 @@
+-- RESOURCE_DOWNLOADED audit action (AuditLogWriter). Hibernate's schema update never widens the CHECK it
+-- created for the enum column, so it is recreated here; AuditLogPartitionManager also does this on startup
+ALTER TABLE audit_logs DROP CONSTRAINT IF EXISTS audit_logs_action_check;
+ALTER TABLE audit_logs ADD CONSTRAINT audit_logs_action_check CHECK (action IN (
+    'ACCESS_GRANTED', 'ACCESS_REVOKED', 'ACCESS_REQUESTED',
+    'RESOURCE_CREATED', 'RESOURCE_UPDATED', 'RESOURCE_DELETED',
+    'USER_LOGIN', 'USER_LOGOUT', 'PERMISSION_CHANGED', 'RESOURCE_DOWNLOADED'
+));
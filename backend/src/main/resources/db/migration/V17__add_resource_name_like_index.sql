@@ -0,0 +1,5 @@
+-- Case-sensitive substring match behind the legacy GET /api/resources/search
+-- (see FullTextResourceSearchService, which also creates this on startup)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_resource_name_like_trgm ON resources USING GIN (name gin_trgm_ops);
@@ -0,0 +1,6 @@
+-- Audit details search splits words on every character that is not a letter or digit, like the
+-- search input (see AuditLogSearchService; AuditLogPartitionManager also does this on startup).
+-- The V9 index kept file names, e-mail addresses and paths as single lexemes.
+CREATE INDEX IF NOT EXISTS idx_audit_log_details_words ON audit_logs
+    USING GIN (to_tsvector('simple', regexp_replace(coalesce(details, ''), '[^[:alnum:]]+', ' ', 'g')));
+DROP INDEX IF EXISTS idx_audit_log_details_fts;
@@ -0,0 +1,3 @@
+-- Digest notifications link every event they stand for (see NotificationDispatcher;
+-- Hibernate's schema update adds this column on startup)
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS related_entity_ids TEXT;
@@ -0,0 +1,9 @@
+-- File content moves to the content-addressed blob store; rows keep the SHA-256 of their bytes
+ALTER TABLE resources ADD COLUMN content_hash VARCHAR(64);
+ALTER TABLE shared_documents ADD COLUMN content_hash VARCHAR(64);
+
+CREATE INDEX idx_resource_content_hash ON resources(content_hash);
+CREATE INDEX idx_shared_document_content_hash ON shared_documents(content_hash);
+
+COMMENT ON COLUMN resources.content_hash IS 'SHA-256 of the file content held in the blob store';
+COMMENT ON COLUMN shared_documents.content_hash IS 'SHA-256 of the file content held in the blob store';
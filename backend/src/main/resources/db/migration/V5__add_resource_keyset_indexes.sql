@@ -0,0 +1,3 @@
+-- Keyset pagination for /api/resources/query orders by (created_at DESC, id DESC)
+CREATE INDEX idx_resource_created_at_id ON resources(created_at, id);
+CREATE INDEX idx_resource_project_created_at_id ON resources(project_id, created_at, id);
@@ -0,0 +1,10 @@
+-- Full-text and typo-tolerant resource search (see FullTextResourceSearchService, which also creates these on startup)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_resource_search_vector ON resources USING GIN (
+    (setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+     setweight(to_tsvector('simple', coalesce(description, '')), 'B') ||
+     setweight(to_tsvector('simple', coalesce(category, '') || ' ' || coalesce(uploaded_by, '')), 'C'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_resource_name_trgm ON resources USING GIN (lower(name) gin_trgm_ops);
@@ -0,0 +1,35 @@
+-- Monthly range partitioning of audit_logs (see AuditLogPartitionManager, which performs this
+-- conversion on startup and creates upcoming partitions nightly). Example for an empty table;
+-- existing rows are copied over in the same transaction by the startup conversion.
+CREATE SEQUENCE IF NOT EXISTS audit_log_id_seq;
+
+CREATE TABLE audit_logs_partitioned (
+    id          BIGINT NOT NULL DEFAULT nextval('audit_log_id_seq'),
+    action      VARCHAR(30) NOT NULL,
+    details     TEXT,
+    ip_address  VARCHAR(45),
+    resource_id BIGINT,
+    timestamp   TIMESTAMP(6) NOT NULL,
+    user_id     BIGINT,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE audit_logs_default PARTITION OF audit_logs_partitioned DEFAULT;
+
+INSERT INTO audit_logs_partitioned (id, action, details, ip_address, resource_id, timestamp, user_id)
+SELECT id, action, details, ip_address, resource_id, timestamp, user_id FROM audit_logs;
+SELECT setval('audit_log_id_seq', COALESCE((SELECT max(id) FROM audit_logs), 0) + 1, false);
+
+DROP TABLE audit_logs;
+ALTER TABLE audit_logs_partitioned RENAME TO audit_logs;
+ALTER SEQUENCE audit_log_id_seq OWNED BY audit_logs.id;
+
+ALTER TABLE audit_logs ADD CONSTRAINT fk_audit_log_user FOREIGN KEY (user_id) REFERENCES tramusers (id);
+ALTER TABLE audit_logs ADD CONSTRAINT fk_audit_log_resource FOREIGN KEY (resource_id) REFERENCES resources (id);
+CREATE INDEX idx_audit_log_user_id ON audit_logs (user_id);
+CREATE INDEX idx_audit_log_resource_id ON audit_logs (resource_id);
+CREATE INDEX idx_audit_log_action ON audit_logs (action);
+CREATE INDEX idx_audit_log_timestamp ON audit_logs (timestamp);
+
+-- One partition per month, e.g.:
+-- CREATE TABLE audit_logs_p2025_01 PARTITION OF audit_logs FOR VALUES FROM ('2025-01-01') TO ('2025-02-01');
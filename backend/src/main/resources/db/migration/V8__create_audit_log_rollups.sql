@@ -0,0 +1,12 @@
+-- Hourly audit counts per action and user/resource (see AuditRollupStore, which also creates this on startup
+-- and backfills it from audit_logs while it is empty)
+CREATE TABLE IF NOT EXISTS audit_log_rollups (
+    bucket_start TIMESTAMP NOT NULL,
+    action VARCHAR(30) NOT NULL,
+    dimension VARCHAR(10) NOT NULL,
+    subject_id BIGINT NOT NULL,
+    event_count BIGINT NOT NULL,
+    PRIMARY KEY (bucket_start, action, dimension, subject_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_audit_rollup_dimension ON audit_log_rollups (dimension, bucket_start);
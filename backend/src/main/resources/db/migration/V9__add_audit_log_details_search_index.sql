@@ -0,0 +1,2 @@
+-- Word search over audit details (see AuditLogSearchService; AuditLogPartitionManager also creates this on startup)
+CREATE INDEX IF NOT EXISTS idx_audit_log_details_fts ON audit_logs USING GIN (to_tsvector('simple', coalesce(details, '')));
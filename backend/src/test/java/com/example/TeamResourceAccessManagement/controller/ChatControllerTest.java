@@ -0,0 +1,83 @@
+package com.example.TeamResourceAccessManagement.controller;
+
+import com.example.TeamResourceAccessManagement.domain.ChatMessage;
+import com.example.TeamResourceAccessManagement.service.TeamChatHistory;
+import com.example.TeamResourceAccessManagement.service.TeamChatService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ChatControllerTest {
+
+    private TeamChatHistory teamChatHistory;
+    private TeamChatService teamChatService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        teamChatHistory = mock(TeamChatHistory.class);
+        teamChatService = mock(TeamChatService.class);
+        when(teamChatService.post(any(), any(), any())).thenAnswer(invocation -> {
+            ChatMessage message = new ChatMessage();
+            message.setId(1L);
+            message.setTeamId(invocation.getArgument(0));
+            message.setSender(invocation.getArgument(1));
+            message.setMessage(invocation.getArgument(2));
+            message.setTimestamp(LocalDateTime.now());
+            return message;
+        });
+
+        ChatController controller = new ChatController();
+        ReflectionTestUtils.setField(controller, "teamChatHistory", teamChatHistory);
+        ReflectionTestUtils.setField(controller, "teamChatService", teamChatService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    public void testHistoryIsWholeWithoutParametersAndPagedWithThem() throws Exception {
+        when(teamChatHistory.all(3L)).thenReturn(List.of());
+        when(teamChatHistory.latest(eq(3L), anyInt())).thenReturn(List.of());
+        when(teamChatHistory.since(eq(3L), anyLong(), anyInt())).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/teams/3/chat/messages")).andExpect(status().isOk());
+        verify(teamChatHistory).all(3L);
+
+        mockMvc.perform(get("/api/teams/3/chat/messages").param("limit", "20")).andExpect(status().isOk());
+        verify(teamChatHistory).latest(3L, 20);
+        mockMvc.perform(get("/api/teams/3/chat/messages").param("since", "7")).andExpect(status().isOk());
+        verify(teamChatHistory).since(3L, 7L, 50);
+        verify(teamChatHistory, times(1)).all(any());
+    }
+
+    @Test
+    public void testSenderIsTheSignedInUser() throws Exception {
+        mockMvc.perform(post("/api/teams/3/chat/messages")
+                .principal(new UsernamePasswordAuthenticationToken("priya.manager", null))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"sender\": \"someone.else\", \"message\": \"Standup moved to 10\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.sender").value("priya.manager"));
+
+        verify(teamChatService).post(eq(3L), eq("priya.manager"), eq("Standup moved to 10"));
+    }
+}
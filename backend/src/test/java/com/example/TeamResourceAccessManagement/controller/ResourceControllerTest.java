@@ -0,0 +1,175 @@
+package com.example.TeamResourceAccessManagement.controller;
+
+import com.example.TeamResourceAccessManagement.dto.FileDownloadDTO;
+import com.example.TeamResourceAccessManagement.exceptions.GlobalExceptionHandler;
+import com.example.TeamResourceAccessManagement.service.LocalFileStore;
+import com.example.TeamResourceAccessManagement.service.ResourceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Files on this server's disk are written by the controller itself rather than by Spring MVC
+public class ResourceControllerTest {
+
+    private static final String ETAG = "\"1-abc-a\"";
+
+    @TempDir
+    Path root;
+
+    private ResourceService resourceService;
+    private LocalFileStore localFileStore;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.writeString(root.resolve("digits.txt"), "0123456789");
+        Files.createFile(root.resolve("empty.txt"));
+        localFileStore = new LocalFileStore(root.toString(), 4, 1024, 3);
+        resourceService = mock(ResourceService.class);
+        when(resourceService.getResourceDownload(1L)).thenAnswer(invocation -> download(1L, "digits.txt", 10L));
+        when(resourceService.getResourceDownload(2L)).thenAnswer(invocation -> download(2L, "empty.txt", 0L));
+
+        ResourceController controller = new ResourceController();
+        ReflectionTestUtils.setField(controller, "resourceService", resourceService);
+        ReflectionTestUtils.setField(controller, "localFileStore", localFileStore);
+        ReflectionTestUtils.setField(controller, "sendfileMinSize", Long.MAX_VALUE);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(new GlobalExceptionHandler()).build();
+    }
+
+    @Test
+    public void testWholeFile() throws Exception {
+        mockMvc.perform(get("/api/resources/1/download"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+            .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    public void testSingleRange() throws Exception {
+        mockMvc.perform(get("/api/resources/1/download").header(HttpHeaders.RANGE, "bytes=2-5"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+            .andExpect(content().string("2345"));
+    }
+
+    @Test
+    public void testSuffixRange() throws Exception {
+        mockMvc.perform(get("/api/resources/1/download").header(HttpHeaders.RANGE, "bytes=-3"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-9/10"))
+            .andExpect(content().string("789"));
+    }
+
+    @Test
+    public void testUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get("/api/resources/1/download").header(HttpHeaders.RANGE, "bytes=20-30"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    public void testIfRangeDecidesBetweenPartAndWhole() throws Exception {
+        mockMvc.perform(get("/api/resources/1/download").header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, ETAG))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().string("2345"));
+        // The client holds another version, so a part of this one would be corrupt
+        mockMvc.perform(get("/api/resources/1/download").header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"1-old-a\""))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+            .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    public void testIfNoneMatch() throws Exception {
+        mockMvc.perform(get("/api/resources/1/download").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        mockMvc.perform(get("/api/resources/1/download").header(HttpHeaders.IF_NONE_MATCH, "\"1-old-a\""))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testHeadSendsHeadersOnly() throws Exception {
+        mockMvc.perform(head("/api/resources/1/download"))
+            .andExpect(status().isOk())
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+            .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    public void testOnlyTheStartOfADownloadIsAudited() throws Exception {
+        mockMvc.perform(get("/api/resources/1/download"));
+        mockMvc.perform(get("/api/resources/1/download").header(HttpHeaders.RANGE, "bytes=0-3"));
+        // Stale If-Range: the whole file goes out again
+        mockMvc.perform(get("/api/resources/1/download").header(HttpHeaders.RANGE, "bytes=4-").header(HttpHeaders.IF_RANGE, "\"1-old-a\""));
+        verify(resourceService, times(3)).recordDownload(any());
+
+        // Seeking, revalidating and probing are part of a download already counted
+        mockMvc.perform(get("/api/resources/1/download").header(HttpHeaders.RANGE, "bytes=4-"));
+        mockMvc.perform(get("/api/resources/1/download").header(HttpHeaders.RANGE, "bytes=-3"));
+        mockMvc.perform(get("/api/resources/1/download").header(HttpHeaders.IF_NONE_MATCH, ETAG));
+        mockMvc.perform(head("/api/resources/1/download"));
+        verify(resourceService, times(3)).recordDownload(any());
+    }
+
+    @Test
+    public void testProjectIdMustBeANumber() throws Exception {
+        mockMvc.perform(post("/api/resources/uploads/abc/complete")
+                .param("name", "Notes").param("description", "").param("type", "DOCUMENT").param("category", "OTHER")
+                .param("accessType", "COMMON").param("isGlobal", "false").param("projectId", "seven"))
+            .andExpect(status().isBadRequest());
+        verify(resourceService, never()).createResourceFromUpload(any(), any(), any(), any(), any(), any(), any(), any(), any(), any());
+
+        mockMvc.perform(post("/api/resources/uploads/abc/complete")
+                .param("name", "Notes").param("description", "").param("type", "DOCUMENT").param("category", "OTHER")
+                .param("accessType", "COMMON").param("isGlobal", "false").param("projectId", "7"))
+            .andExpect(status().isCreated());
+        verify(resourceService).createResourceFromUpload(eq("abc"), anyString(), anyString(), anyString(), anyString(), anyString(),
+            anyBoolean(), eq(7L), any(), any());
+    }
+
+    @Test
+    public void testEmptyFileIsAnEmptyOk() throws Exception {
+        mockMvc.perform(get("/api/resources/2/download"))
+            .andExpect(status().isOk())
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 0))
+            .andExpect(content().string(""));
+    }
+
+    // As the service returns file-path resources: length and ETag taken from the file on disk
+    private FileDownloadDTO download(Long id, String fileName, Long size) {
+        FileDownloadDTO download = new FileDownloadDTO(id, fileName, "text/plain", size, null, null, fileName);
+        download.setLocalFile(localFileStore.resolve(fileName));
+        download.setETag(id + "-abc-" + Long.toHexString(size));
+        return download;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.TeamResourceAccessManagement.repository;
+
+import com.example.TeamResourceAccessManagement.domain.Project;
+import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.dto.ResourceResponseDTO;
+import com.example.TeamResourceAccessManagement.mapper.ResourceMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the entity-based resource listing with the metadata-only projection
+ * on a seeded 10k-resource dataset. Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.format_sql=false"
+})
+public class ResourceListingBenchmarkTest {
+
+    private static final int RESOURCE_COUNT = 10_000;
+    private static final int FILE_SIZE = 8 * 1024;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    public void seed() {
+        Project project = new Project("Benchmark Project", "Seeded for the listing benchmark", Project.ProjectStatus.ACTIVE);
+        entityManager.persist(project);
+
+        byte[] payload = new byte[FILE_SIZE];
+        for (int i = 0; i < RESOURCE_COUNT; i++) {
+            Resource resource = new Resource("resource-" + i, "Seeded resource " + i, Resource.ResourceType.PDF, false, project);
+            resource.setCategory(Resource.ResourceCategory.DOCUMENTS);
+            resource.setAccessType(Resource.ResourceAccessType.COMMON);
+            resource.setFileData(payload);
+            resource.setFileSize((long) FILE_SIZE);
+            resource.setMimeType("application/pdf");
+            entityManager.persist(resource);
+            if (i % 500 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                project = entityManager.merge(project);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void projectionListingAllocatesLessThanEntityListing() {
+        Result entityPath = measure(() -> resourceRepository.findAll().stream()
+            .map(ResourceMapper::toResponse)
+            .collect(Collectors.toList()));
+        Result projectionPath = measure(() -> resourceRepository.findAllSummaries());
+
+        System.out.println("=== Resource listing benchmark (" + RESOURCE_COUNT + " resources, " + FILE_SIZE + " bytes each) ===");
+        System.out.println("Entity + mapper : " + entityPath);
+        System.out.println("Projection      : " + projectionPath);
+
+        assertTrue(projectionPath.allocatedBytes < entityPath.allocatedBytes,
+            "Projection should allocate less heap than the entity listing");
+    }
+
+    private Result measure(Supplier<List<ResourceResponseDTO>> listing) {
+        // Warm up once so class loading and query plan caching are not measured
+        assertEquals(RESOURCE_COUNT, listing.get().size());
+        entityManager.clear();
+
+        com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long totalBytes = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            List<ResourceResponseDTO> resources = listing.get();
+            totalNanos += System.nanoTime() - start;
+            totalBytes += threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+            assertEquals(RESOURCE_COUNT, resources.size());
+            entityManager.clear();
+        }
+        return new Result(totalBytes / ROUNDS, totalNanos / ROUNDS);
+    }
+
+    private record Result(long allocatedBytes, long nanos) {
+        @Override
+        public String toString() {
+            return String.format("%,d KB allocated, %,d ms", allocatedBytes / 1024, nanos / 1_000_000);
+        }
+    }
+}
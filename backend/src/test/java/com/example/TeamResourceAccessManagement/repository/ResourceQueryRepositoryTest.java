@@ -0,0 +1,113 @@
+package com.example.TeamResourceAccessManagement.repository;
+
+import com.example.TeamResourceAccessManagement.domain.Project;
+import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.dto.KeysetCursor;
+import com.example.TeamResourceAccessManagement.dto.ResourceQueryDTO;
+import com.example.TeamResourceAccessManagement.dto.ResourceResponseDTO;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+public class ResourceQueryRepositoryTest {
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Project project;
+
+    @BeforeEach
+    public void seed() {
+        project = new Project("Query Project", "Keyset pagination", Project.ProjectStatus.ACTIVE);
+        entityManager.persist(project);
+        for (int i = 0; i < 25; i++) {
+            Resource resource = new Resource("resource-" + i, null, i % 2 == 0 ? Resource.ResourceType.PDF : Resource.ResourceType.URL, false, project);
+            resource.setUploadedBy(i % 5 == 0 ? "alice" : "bob");
+            entityManager.persist(resource);
+        }
+        entityManager.flush();
+        // Several rows share a timestamp so the id tie-breaker is exercised
+        entityManager.createQuery("UPDATE Resource r SET r.createdAt = :createdAt WHERE MOD(r.id, 3) = 0")
+            .setParameter("createdAt", LocalDateTime.of(2024, 1, 1, 12, 0))
+            .executeUpdate();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testPagesCoverEveryRowOnceInOrder() {
+        ResourceQueryDTO query = new ResourceQueryDTO();
+        query.setProjectId(project.getId());
+
+        List<ResourceResponseDTO> seen = new ArrayList<>();
+        KeysetCursor cursor = null;
+        while (true) {
+            List<ResourceResponseDTO> page = resourceRepository.findSummaryPage(query, cursor, 4);
+            if (page.isEmpty()) {
+                break;
+            }
+            seen.addAll(page);
+            ResourceResponseDTO last = page.get(page.size() - 1);
+            cursor = KeysetCursor.decode(new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+
+        assertEquals(25, seen.size());
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < seen.size(); i++) {
+            assertTrue(ids.add(seen.get(i).getId()));
+            if (i > 0) {
+                ResourceResponseDTO previous = seen.get(i - 1);
+                ResourceResponseDTO current = seen.get(i);
+                int byTime = current.getCreatedAt().compareTo(previous.getCreatedAt());
+                assertTrue(byTime < 0 || (byTime == 0 && current.getId() < previous.getId()));
+            }
+        }
+        assertEquals(25, resourceRepository.countByQuery(query));
+    }
+
+    @Test
+    public void testFiltersCombine() {
+        ResourceQueryDTO query = new ResourceQueryDTO();
+        query.setType(Resource.ResourceType.PDF);
+        query.setUploadedBy("alice");
+
+        List<ResourceResponseDTO> page = resourceRepository.findSummaryPage(query, null, 50);
+
+        assertEquals(3, page.size());
+        assertTrue(page.stream().allMatch(r -> r.getType() == Resource.ResourceType.PDF && "alice".equals(r.getUploadedBy())));
+        assertEquals(3, resourceRepository.countByQuery(query));
+    }
+
+    @Test
+    public void testNameSearchReturnsEveryMatch() {
+        for (int i = 0; i < 120; i++) {
+            entityManager.persist(new Resource("Bulk report " + i, null, Resource.ResourceType.PDF, true, null));
+        }
+        entityManager.persist(new Resource("100% coverage", null, Resource.ResourceType.PDF, true, null));
+        entityManager.flush();
+
+        // No page cap, substring and case-sensitive like the derived query it replaced
+        assertEquals(120, resourceRepository.findSummariesByNameContaining("port ").size());
+        assertEquals(0, resourceRepository.findSummariesByNameContaining("bulk").size());
+        assertEquals(25, resourceRepository.findSummariesByNameContaining("resource-").size());
+        // Wildcards are literal
+        assertEquals(1, resourceRepository.findSummariesByNameContaining("0%").size());
+        assertEquals(0, resourceRepository.findSummariesByNameContaining("resource_").size());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessDecisionCacheTest {
+
+    @Test
+    public void testRepeatedChecksAreServedFromMemory() {
+        AccessDecisionCache cache = new AccessDecisionCache(60, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cache.isAllowed(1L, 2L, () -> {
+                loads.incrementAndGet();
+                return AccessDecisionCache.Decision.allow(null);
+            }));
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(4L, cache.getStats().get("hits"));
+        assertEquals(1L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    public void testInvalidationForcesReload() {
+        AccessDecisionCache cache = new AccessDecisionCache(60, 100);
+        cache.isAllowed(1L, 2L, AccessDecisionCache.Decision::deny);
+        cache.isAllowed(3L, 2L, AccessDecisionCache.Decision::deny);
+
+        cache.invalidate(1L, 2L);
+        assertTrue(cache.isAllowed(1L, 2L, () -> AccessDecisionCache.Decision.allow(null)));
+
+        cache.invalidateResource(2L);
+        assertEquals(0, cache.getStats().get("size"));
+    }
+
+    @Test
+    public void testDecisionLoadedAcrossAnInvalidationIsNotKept() {
+        AccessDecisionCache cache = new AccessDecisionCache(60, 100);
+
+        // The loader read the grant, then the revoke committed and invalidated before the put
+        assertTrue(cache.isAllowed(1L, 2L, () -> {
+            cache.invalidate(1L, 2L);
+            return AccessDecisionCache.Decision.allow(null);
+        }));
+        assertFalse(cache.isAllowed(1L, 2L, AccessDecisionCache.Decision::deny));
+
+        cache.invalidate(1L, 2L);
+        cache.isAllowed(1L, 2L, () -> {
+            cache.invalidateUser(1L);
+            return AccessDecisionCache.Decision.allow(null);
+        });
+        assertEquals(0, cache.getStats().get("size"));
+    }
+
+    @Test
+    public void testInvalidationInsideATransactionIsRepeatedAfterCommit() {
+        AccessDecisionCache cache = new AccessDecisionCache(60, 100);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(1L, 2L);
+            // A concurrent check before the commit still sees the old permissions
+            assertFalse(cache.isAllowed(1L, 2L, AccessDecisionCache.Decision::deny));
+            assertEquals(1, cache.getStats().get("size"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(cache.isAllowed(1L, 2L, () -> AccessDecisionCache.Decision.allow(null)));
+    }
+
+    @Test
+    public void testDecisionDoesNotOutliveExpiredPermission() {
+        AccessDecisionCache cache = new AccessDecisionCache(60, 100);
+        cache.isAllowed(1L, 2L, () -> AccessDecisionCache.Decision.allow(LocalDateTime.now().minusSeconds(1)));
+
+        assertFalse(cache.isAllowed(1L, 2L, AccessDecisionCache.Decision::deny));
+    }
+
+    @Test
+    public void testCacheStaysBounded() {
+        AccessDecisionCache cache = new AccessDecisionCache(60, 16);
+        for (long userId = 0; userId < 100; userId++) {
+            cache.isAllowed(userId, 1L, AccessDecisionCache.Decision::deny);
+        }
+
+        assertTrue((Integer) cache.getStats().get("size") <= 16);
+    }
+}
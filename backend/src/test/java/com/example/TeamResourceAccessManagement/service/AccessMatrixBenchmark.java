@@ -0,0 +1,71 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.Permission;
+import com.example.TeamResourceAccessManagement.repository.PermissionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * JMH benchmarks comparing the repository path (load a resource's permissions, filter in
+ * Java) with the in-memory AccessMatrix. The repository and matrix are handed over by
+ * AccessMatrixBenchmarkTest, which seeds the database and runs JMH in-process.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccessMatrixBenchmark {
+
+    static PermissionRepository permissionRepository;
+    static AccessMatrix accessMatrix;
+    static List<Long> resourceIds;
+
+    private int next;
+
+    private Long nextResourceId() {
+        next = (next + 1) % resourceIds.size();
+        return resourceIds.get(next);
+    }
+
+    @Benchmark
+    public int repositoryCountUsersWithAccess() {
+        return repositoryUsersWithAccess(nextResourceId()).size();
+    }
+
+    @Benchmark
+    public int matrixCountUsersWithAccess() {
+        return accessMatrix.countUsers(nextResourceId(), Permission.AccessLevel.READ);
+    }
+
+    @Benchmark
+    public int repositoryUsersWithAccessToBoth() {
+        Set<Long> users = repositoryUsersWithAccess(nextResourceId());
+        users.retainAll(repositoryUsersWithAccess(nextResourceId()));
+        return users.size();
+    }
+
+    @Benchmark
+    public int matrixUsersWithAccessToBoth() {
+        return accessMatrix.usersWithAccessToAll(List.of(nextResourceId(), nextResourceId()), Permission.AccessLevel.READ)
+            .getCardinality();
+    }
+
+    // What getUsersWithAccessToResource did before the matrix
+    private static Set<Long> repositoryUsersWithAccess(Long resourceId) {
+        LocalDateTime now = LocalDateTime.now();
+        return permissionRepository.findByResourceId(resourceId).stream()
+            .filter(Permission::getIsActive)
+            .filter(p -> p.getExpiresAt() == null || p.getExpiresAt().isAfter(now))
+            .map(p -> p.getUser().getId())
+            .collect(Collectors.toCollection(HashSet::new));
+    }
+}
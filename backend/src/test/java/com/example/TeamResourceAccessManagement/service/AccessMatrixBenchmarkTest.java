@@ -0,0 +1,150 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.Permission;
+import com.example.TeamResourceAccessManagement.domain.Project;
+import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.repository.PermissionRepository;
+import com.example.TeamResourceAccessManagement.repository.ProjectRepository;
+import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeds users, resources and explicit permissions, then runs AccessMatrixBenchmark through
+ * JMH in this JVM (no fork, so the benchmarks can reach the Spring-managed repository).
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.format_sql=false"
+})
+@Import(AccessMatrix.class)
+// Seed data must be committed so the JMH worker threads can read it
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AccessMatrixBenchmarkTest {
+
+    private static final int USER_COUNT = 2_000;
+    private static final int RESOURCE_COUNT = 200;
+    private static final int GRANTS_PER_USER = 20;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private AccessMatrix accessMatrix;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void seed() {
+        Project project = projectRepository.save(new Project("Benchmark Project", "Seeded for the access matrix benchmark", Project.ProjectStatus.ACTIVE));
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(new User("bench.user" + i, "bench.user" + i + "@example.com", "Bench User " + i, User.UserRole.TEAM_MEMBER));
+        }
+        List<Long> userIds = userRepository.saveAll(users).stream().map(User::getId).collect(Collectors.toList());
+
+        List<Resource> resources = new ArrayList<>();
+        for (int i = 0; i < RESOURCE_COUNT; i++) {
+            resources.add(new Resource("bench-resource-" + i, "Seeded resource " + i, Resource.ResourceType.PDF, false, project));
+        }
+        List<Long> resourceIds = resourceRepository.saveAll(resources).stream().map(Resource::getId).collect(Collectors.toList());
+
+        // Each user gets a random spread of grants across levels, some inactive or expired
+        Random random = new Random(42);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Timestamp past = new Timestamp(System.currentTimeMillis() - 86_400_000L);
+        List<Object[]> rows = new ArrayList<>();
+        for (Long userId : userIds) {
+            random.ints(0, RESOURCE_COUNT).distinct().limit(GRANTS_PER_USER).forEach(index -> {
+                int roll = random.nextInt(20);
+                rows.add(new Object[] {
+                    userId, resourceIds.get(index), random.nextBoolean() ? "READ" : "WRITE", now,
+                    roll != 0, roll == 1 ? past : null
+                });
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO permissions (user_id, resource_id, access_level, granted_at, is_active, expires_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        accessMatrix.rebuild();
+        AccessMatrixBenchmark.permissionRepository = permissionRepository;
+        AccessMatrixBenchmark.accessMatrix = accessMatrix;
+        AccessMatrixBenchmark.resourceIds = resourceIds;
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        permissionRepository.deleteAllInBatch();
+        resourceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void matrixAnswersSetQueriesFasterThanRepository() throws Exception {
+        // Both paths must agree before their speed is worth comparing
+        for (Long resourceId : AccessMatrixBenchmark.resourceIds) {
+            assertEquals(AccessMatrixBenchmark.permissionRepository.findByResourceId(resourceId).stream()
+                    .filter(p -> p.getIsActive() && p.getExpiresAt() == null).count(),
+                accessMatrix.countUsers(resourceId, Permission.AccessLevel.READ));
+        }
+
+        Options options = new OptionsBuilder()
+            .include(AccessMatrixBenchmark.class.getName())
+            .forks(0)
+            .warmupIterations(2)
+            .warmupTime(TimeValue.seconds(1))
+            .measurementIterations(3)
+            .measurementTime(TimeValue.seconds(1))
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        Map<String, Double> scores = results.stream().collect(Collectors.toMap(
+            result -> result.getParams().getBenchmark().replace(AccessMatrixBenchmark.class.getName() + ".", ""),
+            result -> result.getPrimaryResult().getScore()));
+        System.out.println("=== Access matrix benchmark (" + USER_COUNT + " users, " + RESOURCE_COUNT + " resources) ===");
+        scores.forEach((name, score) -> System.out.println(String.format("%-35s %,12.2f us/op", name, score)));
+
+        assertTrue(scores.get("matrixCountUsersWithAccess") < scores.get("repositoryCountUsersWithAccess"));
+        assertTrue(scores.get("matrixUsersWithAccessToBoth") < scores.get("repositoryUsersWithAccessToBoth"));
+    }
+}
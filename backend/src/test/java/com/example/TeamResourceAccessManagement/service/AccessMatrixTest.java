@@ -0,0 +1,63 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.Permission.AccessLevel;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessMatrixTest {
+
+    @Test
+    public void testLevelsAreCumulative() {
+        AccessMatrix matrix = new AccessMatrix();
+        matrix.put(1L, 10L, AccessLevel.ADMIN, null);
+
+        assertTrue(matrix.hasAccess(1L, 10L, AccessLevel.READ));
+        assertTrue(matrix.hasAccess(1L, 10L, AccessLevel.ADMIN));
+        assertFalse(matrix.hasAccess(1L, 10L, AccessLevel.FULL_ACCESS));
+        assertEquals(1, matrix.countUsers(10L, AccessLevel.WRITE));
+    }
+
+    @Test
+    public void testRegrantAndRevokeReplaceThePair() {
+        AccessMatrix matrix = new AccessMatrix();
+        matrix.put(1L, 10L, AccessLevel.FULL_ACCESS, null);
+        matrix.put(1L, 10L, AccessLevel.READ, null);
+
+        assertTrue(matrix.hasAccess(1L, 10L, AccessLevel.READ));
+        assertFalse(matrix.hasAccess(1L, 10L, AccessLevel.WRITE));
+
+        matrix.remove(1L, 10L);
+        assertFalse(matrix.hasAccess(1L, 10L, AccessLevel.READ));
+        assertEquals(0, matrix.countResources(1L, AccessLevel.READ));
+    }
+
+    @Test
+    public void testExpiredGrantsAreDropped() throws InterruptedException {
+        AccessMatrix matrix = new AccessMatrix();
+        matrix.put(1L, 10L, AccessLevel.READ, LocalDateTime.now().minusMinutes(1));
+        matrix.put(2L, 10L, AccessLevel.READ, LocalDateTime.now().plusNanos(50_000_000));
+        matrix.put(3L, 10L, AccessLevel.READ, LocalDateTime.now().plusDays(1));
+
+        Thread.sleep(100);
+
+        assertEquals(List.of(3L), AccessMatrix.toIdList(matrix.usersWithAccess(10L, AccessLevel.READ)));
+    }
+
+    @Test
+    public void testSetQueries() {
+        AccessMatrix matrix = new AccessMatrix();
+        matrix.put(1L, 10L, AccessLevel.WRITE, null);
+        matrix.put(1L, 11L, AccessLevel.WRITE, null);
+        matrix.put(2L, 10L, AccessLevel.WRITE, null);
+        matrix.put(2L, 11L, AccessLevel.READ, null);
+        matrix.put(3L, 10L, AccessLevel.READ, null);
+
+        assertEquals(List.of(1L, 2L), AccessMatrix.toIdList(matrix.usersWithAccessToAll(List.of(10L, 11L), AccessLevel.READ)));
+        assertEquals(List.of(1L), AccessMatrix.toIdList(matrix.usersWithAccessToAll(List.of(10L, 11L), AccessLevel.WRITE)));
+        assertEquals(2, matrix.countSharedResources(1L, 2L, AccessLevel.READ));
+        assertEquals(1, matrix.countSharedResources(1L, 2L, AccessLevel.WRITE));
+        assertEquals(0, matrix.countSharedResources(1L, 4L, AccessLevel.READ));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.dto.ArchivedAuditLogDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditArchiveStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @TempDir
+    Path root;
+
+    @Test
+    public void testScanPrunesSegmentsByTimeAndUser() throws IOException {
+        AuditArchiveStore store = newStore();
+        // January: users 1 and 2 on resource 10; February: user 3 on resource 20
+        store.writeSegment(rows(1, 0, 100, new long[] {1, 2}, 10L));
+        store.writeSegment(rows(101, 31 * 24, 100, new long[] {3}, 20L));
+
+        List<ArchivedAuditLogDTO> january = store.scan(START, START.plusDays(30), 1L, null);
+        assertEquals(50, january.size());
+        assertTrue(january.stream().allMatch(row -> row.getUserId() == 1L && "user1".equals(row.getUsername())));
+        assertEquals(1L, store.getStats().get("segmentsScanned"));
+
+        // No segment holds user 3 in January, nor user 1 at all in February
+        assertTrue(store.scan(START, START.plusDays(30), 3L, null).isEmpty());
+        assertTrue(store.scan(START.plusDays(31), START.plusDays(60), 1L, null).isEmpty());
+        assertEquals(1L, store.getStats().get("segmentsScanned"));
+
+        List<ArchivedAuditLogDTO> byResource = store.scan(START.plusDays(31), START.plusDays(31).plusHours(9), null, 20L);
+        assertEquals(10, byResource.size());
+        assertEquals(101L, byResource.get(0).getId());
+    }
+
+    @Test
+    public void testSegmentsAreImmutableAndReloaded() throws IOException {
+        AuditArchiveStore store = newStore();
+        store.writeSegment(rows(1, 0, 20, new long[] {1}, 10L));
+
+        Path segment = root.resolve("seg-000001.ndjson.gz");
+        assertTrue(Files.isRegularFile(segment));
+        assertFalse(Files.getPosixFilePermissions(segment).contains(PosixFilePermission.OWNER_WRITE));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 19, 0), store.getWatermarkTimestamp());
+        assertEquals(20L, store.getWatermarkId());
+
+        // Rows at or before the watermark would be archived twice
+        assertThrows(IllegalArgumentException.class, () -> store.writeSegment(rows(20, 19, 1, new long[] {1}, 10L)));
+
+        // A lost index is rebuilt from the segment
+        Files.delete(root.resolve("seg-000001.idx"));
+        AuditArchiveStore reloaded = newStore();
+        assertEquals(1, reloaded.getSegments().size());
+        assertEquals(store.getSegments().get(0).get("sha256"), reloaded.getSegments().get(0).get("sha256"));
+        assertEquals(20, reloaded.scan(START, START.plusDays(1), 1L, 10L).size());
+        assertEquals(20L, reloaded.getWatermarkId());
+    }
+
+    private AuditArchiveStore newStore() {
+        AuditArchiveStore store = new AuditArchiveStore(root.toString());
+        store.load();
+        return store;
+    }
+
+    // One row per hour from START + startHour, users taken in turn
+    private static List<ArchivedAuditLogDTO> rows(long firstId, int startHour, int count, long[] userIds, Long resourceId) {
+        List<ArchivedAuditLogDTO> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long userId = userIds[i % userIds.length];
+            rows.add(new ArchivedAuditLogDTO(firstId + i, userId, "user" + userId, resourceId, "resource" + resourceId,
+                "RESOURCE_DOWNLOADED", "event " + i, "127.0.0.1", START.plusHours(startHour + i)));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.AuditLog;
+import com.example.TeamResourceAccessManagement.dto.ArchivedAuditLogDTO;
+import com.example.TeamResourceAccessManagement.repository.AuditLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "app.audit.archive.segment-rows=2",
+    "app.audit.archive.purge-batch-rows=2"
+})
+@Import({AuditLogArchiver.class, AuditArchiveStore.class, AuditLogPartitionManager.class})
+public class AuditLogArchiverTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 2, 1, 12, 0);
+
+    @TempDir
+    static Path archiveRoot;
+
+    @DynamicPropertySource
+    static void archiveRoot(DynamicPropertyRegistry registry) {
+        registry.add("app.audit.archive.root", () -> archiveRoot.toString());
+    }
+
+    @Autowired
+    private AuditLogArchiver auditLogArchiver;
+
+    @Autowired
+    private AuditArchiveStore auditArchiveStore;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testPurgeStopsAtTheWatermarkNotTheCutoff() {
+        for (int i = 0; i < 5; i++) {
+            save("archived " + i, START.plusMinutes(i));
+        }
+        save("too recent", START.plusDays(2));
+        LocalDateTime cutoff = START.plusDays(1);
+        // Nothing is archived yet, so nothing may go
+        assertEquals(0, auditLogArchiver.purgeArchived());
+
+        assertEquals(5, auditLogArchiver.archiveBefore(cutoff));
+        assertEquals(3, auditArchiveStore.getSegments().size());
+        assertEquals(START.plusMinutes(4), auditArchiveStore.getWatermarkTimestamp());
+
+        // Committed after the archive read it, although it falls before the cutoff
+        save("late commit", START.plusHours(3));
+
+        assertEquals(5, auditLogArchiver.purgeArchived());
+        List<String> remaining = jdbcTemplate.queryForList("SELECT details FROM audit_logs ORDER BY timestamp", String.class);
+        assertEquals(List.of("late commit", "too recent"), remaining);
+
+        // The next run picks it up, and nothing is archived twice
+        assertEquals(1, auditLogArchiver.archiveBefore(cutoff));
+        List<ArchivedAuditLogDTO> archived = auditArchiveStore.scan(START, cutoff, null, null);
+        assertEquals(6, archived.size());
+        assertEquals(6, archived.stream().map(ArchivedAuditLogDTO::getId).distinct().count());
+        assertEquals(1, auditLogArchiver.purgeArchived());
+        assertEquals(1, auditLogRepository.count());
+    }
+
+    private void save(String details, LocalDateTime timestamp) {
+        AuditLogFixtures.insert(jdbcTemplate, null, null, AuditLog.ActionType.USER_LOGIN, details, timestamp);
+    }
+}
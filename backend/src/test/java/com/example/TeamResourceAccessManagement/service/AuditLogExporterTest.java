@@ -0,0 +1,109 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.AuditLog;
+import com.example.TeamResourceAccessManagement.domain.Project;
+import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import com.example.TeamResourceAccessManagement.repository.ProjectRepository;
+import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "app.audit.export.fetch-size=2"
+})
+@Import(AuditLogExporter.class)
+public class AuditLogExporterTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @Autowired
+    private AuditLogExporter auditLogExporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    private User user;
+    private Resource resource;
+
+    @BeforeEach
+    public void seed() {
+        // Flushed so the exporter's JDBC read can join them
+        user = userRepository.saveAndFlush(new User("export.user", "export.user@example.com", "Export User", User.UserRole.TEAM_MEMBER));
+        Project project = projectRepository.saveAndFlush(new Project("Export Project", "Audit export", Project.ProjectStatus.ACTIVE));
+        resource = resourceRepository.saveAndFlush(new Resource("Q1, \"final\" report", "Quarterly", Resource.ResourceType.PDF, false, project));
+
+        save(user, resource, AuditLog.ActionType.RESOURCE_DOWNLOADED, "line one\nline two", START.plusHours(2));
+        save(user, null, AuditLog.ActionType.USER_LOGIN, "login", START);
+        save(null, null, AuditLog.ActionType.USER_LOGOUT, "system", START.plusHours(1));
+        // Outside the exported range
+        save(user, null, AuditLog.ActionType.USER_LOGIN, "next month", START.plusMonths(1));
+    }
+
+    @Test
+    public void testNdjsonIsOrderedAndFlattened() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = auditLogExporter.export(AuditLogExporter.Format.NDJSON, START, START.plusDays(1), null, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, rows);
+        assertEquals(3, lines.length);
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("USER_LOGIN", first.get("action").asText());
+        assertEquals("export.user", first.get("username").asText());
+        assertTrue(objectMapper.readTree(lines[1]).get("userId").isNull());
+        JsonNode download = objectMapper.readTree(lines[2]);
+        assertEquals(resource.getId().longValue(), download.get("resourceId").asLong());
+        assertEquals("Q1, \"final\" report", download.get("resourceName").asText());
+        assertEquals("line one\nline two", download.get("details").asText());
+    }
+
+    @Test
+    public void testCsvQuotesAndFilters() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = auditLogExporter.export(AuditLogExporter.Format.CSV, START, START.plusDays(1), user.getId(), resource.getId(),
+            AuditLog.ActionType.RESOURCE_DOWNLOADED, out);
+
+        assertEquals(1, rows);
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("id,timestamp,action,userId,username,resourceId,resourceName,details,ipAddress\r\n"));
+        assertTrue(csv.contains(",RESOURCE_DOWNLOADED," + user.getId() + ",export.user," + resource.getId()
+            + ",\"Q1, \"\"final\"\" report\",\"line one\nline two\",\r\n"));
+    }
+
+    @Test
+    public void testUnknownFormatIsRejected() {
+        assertEquals(AuditLogExporter.Format.CSV, AuditLogExporter.Format.from("csv"));
+        assertThrows(BadRequestException.class, () -> AuditLogExporter.Format.from("xml"));
+    }
+
+    private void save(User user, Resource resource, AuditLog.ActionType action, String details, LocalDateTime timestamp) {
+        AuditLogFixtures.insert(jdbcTemplate, user, resource, action, details, timestamp);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.AuditLog;
+import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.domain.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Audit rows for tests that need control over their timestamps.
+ */
+final class AuditLogFixtures {
+
+    private AuditLogFixtures() {
+    }
+
+    // Plain INSERT: the entity would stamp its own creation time
+    static void insert(JdbcTemplate jdbcTemplate, User user, Resource resource, AuditLog.ActionType action,
+                       String details, LocalDateTime timestamp) {
+        jdbcTemplate.update("INSERT INTO audit_logs (user_id, resource_id, action, details, timestamp) VALUES (?, ?, ?, ?, ?)",
+            user != null ? user.getId() : null, resource != null ? resource.getId() : null, action.name(), details,
+            Timestamp.valueOf(timestamp));
+    }
+}
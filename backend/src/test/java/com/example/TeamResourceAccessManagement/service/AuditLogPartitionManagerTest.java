@@ -0,0 +1,55 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The partition DDL is PostgreSQL-only; these pin the names and ranges it is built from
+public class AuditLogPartitionManagerTest {
+
+    @Test
+    public void testPartitionNames() {
+        assertEquals("audit_logs_p2025_01", AuditLogPartitionManager.partitionName(YearMonth.of(2025, 1)));
+        assertEquals("audit_logs_p2025_12", AuditLogPartitionManager.partitionName(YearMonth.of(2025, 12)));
+    }
+
+    @Test
+    public void testRangesMeetAtMonthBoundaries() {
+        YearMonth december = YearMonth.of(2024, 12);
+        assertEquals("2024-12-01 00:00:00", AuditLogPartitionManager.rangeBound(december));
+        // Upper bound of December is the lower bound of January, across the year
+        assertEquals("2025-01-01 00:00:00", AuditLogPartitionManager.rangeBound(december.plusMonths(1)));
+        assertEquals("2024-02-01 00:00:00", AuditLogPartitionManager.rangeBound(YearMonth.of(2024, 2)));
+        assertEquals("2024-03-01 00:00:00", AuditLogPartitionManager.rangeBound(YearMonth.of(2024, 3)));
+    }
+
+    @Test
+    public void testMonthsBetweenIncludesBothEnds() {
+        assertEquals(List.of(YearMonth.of(2024, 11), YearMonth.of(2024, 12), YearMonth.of(2025, 1), YearMonth.of(2025, 2)),
+            AuditLogPartitionManager.monthsBetween(YearMonth.of(2024, 11), YearMonth.of(2025, 2)));
+        assertEquals(List.of(YearMonth.of(2025, 3)),
+            AuditLogPartitionManager.monthsBetween(YearMonth.of(2025, 3), YearMonth.of(2025, 3)));
+        assertTrue(AuditLogPartitionManager.monthsBetween(YearMonth.of(2025, 3), YearMonth.of(2025, 2)).isEmpty());
+    }
+
+    @Test
+    public void testRetentionSelectsOnlyPartitionsEndingByTheCutoff() {
+        List<String> partitions = List.of(
+            "audit_logs_p2024_12", "audit_logs_p2025_01", "audit_logs_p2025_02", "audit_logs_p2025_03", "audit_logs_default");
+
+        // Mid-February: January is over, February still has rows after the cutoff
+        assertEquals(List.of("audit_logs_p2024_12", "audit_logs_p2025_01"),
+            AuditLogPartitionManager.partitionsEndingBy(partitions, LocalDateTime.of(2025, 2, 14, 12, 0)));
+        // Exactly at a boundary the month that just ended goes too
+        assertEquals(List.of("audit_logs_p2024_12", "audit_logs_p2025_01", "audit_logs_p2025_02"),
+            AuditLogPartitionManager.partitionsEndingBy(partitions, LocalDateTime.of(2025, 3, 1, 0, 0)));
+        // One tick before the boundary February still holds a row that may be kept
+        assertEquals(List.of("audit_logs_p2024_12", "audit_logs_p2025_01"),
+            AuditLogPartitionManager.partitionsEndingBy(partitions, LocalDateTime.of(2025, 2, 28, 23, 59, 59, 999_999_000)));
+        assertTrue(AuditLogPartitionManager.partitionsEndingBy(partitions, LocalDateTime.of(2024, 12, 31, 0, 0)).isEmpty());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.AuditLog;
+import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.dto.AuditLogSearchResultDTO;
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+@Import(AuditLogSearchService.class)
+public class AuditLogSearchServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 8, 0);
+
+    @Autowired
+    private AuditLogSearchService auditLogSearchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    public void seed() {
+        user = userRepository.saveAndFlush(new User("search.user", "search.user@example.com", "Search User", User.UserRole.TEAM_MEMBER));
+        for (int i = 0; i < 5; i++) {
+            save(user, AuditLog.ActionType.RESOURCE_DOWNLOADED, "Downloaded Quarterly-Report v" + i, START.plusMinutes(i));
+        }
+        save(null, AuditLog.ActionType.RESOURCE_DOWNLOADED, "Downloaded quarterly summary", START.plusMinutes(10));
+        save(user, AuditLog.ActionType.USER_LOGIN, "Login from quarterly offsite", START.plusMinutes(20));
+        save(user, AuditLog.ActionType.RESOURCE_DOWNLOADED, "Downloaded budget", START.plusMinutes(30));
+    }
+
+    @Test
+    public void testEveryTermMustMatch() {
+        CursorPageDTO<AuditLogSearchResultDTO> page = auditLogSearchService.search("quarterly report", null, null, null, null, null, null, 50);
+
+        assertEquals(5, page.getItems().size());
+        assertNull(page.getNextCursor());
+        // Newest first
+        assertEquals("Downloaded Quarterly-Report v4", page.getItems().get(0).getDetails());
+        assertEquals("search.user", page.getItems().get(0).getUsername());
+    }
+
+    @Test
+    public void testTermsMatchWordPrefixes() {
+        // Same semantics as the tsquery: each term matches the start of a word, wherever the word is
+        assertEquals(7, auditLogSearchService.search("quart", null, null, null, null, null, null, 50).getItems().size());
+        assertEquals(5, auditLogSearchService.search("REPORT", null, null, null, null, null, null, 50).getItems().size());
+        assertEquals(1, auditLogSearchService.search("offsite login", null, null, null, null, null, null, 50).getItems().size());
+        assertEquals(0, auditLogSearchService.search("arterly", null, null, null, null, null, null, 50).getItems().size());
+        assertEquals(0, auditLogSearchService.search("port", null, null, null, null, null, null, 50).getItems().size());
+    }
+
+    @Test
+    public void testPunctuationSplitsWords() {
+        save(user, AuditLog.ActionType.RESOURCE_DOWNLOADED, "Downloaded report.pdf", START.plusMinutes(40));
+        save(user, AuditLog.ActionType.ACCESS_GRANTED, "Granted to ana.lee@example.com via files.example.com/shared/plans", START.plusMinutes(41));
+
+        // File names, addresses, hosts and paths are split like the search input, not kept whole
+        assertEquals(1, auditLogSearchService.search("pdf", null, null, null, null, null, null, 50).getItems().size());
+        assertEquals(1, auditLogSearchService.search("report.pdf", null, null, null, null, null, null, 50).getItems().size());
+        assertEquals(1, auditLogSearchService.search("lee example", null, null, null, null, null, null, 50).getItems().size());
+        assertEquals(1, auditLogSearchService.search("shared plan", null, null, null, null, null, null, 50).getItems().size());
+        assertEquals(0, auditLogSearchService.search("xample", null, null, null, null, null, null, 50).getItems().size());
+    }
+
+    @Test
+    public void testPostgresQuerySplitsDetailsLikeTheInput() {
+        // The vector blanks out what SearchTerms drops, so the parser never sees "report.pdf" as one file lexeme
+        assertEquals("to_tsvector('simple', regexp_replace(coalesce(details, ''), '[^[:alnum:]]+', ' ', 'g'))",
+            AuditLogSearchService.detailsVector("details"));
+
+        StringBuilder sql = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        AuditLogSearchService.appendDetailsMatch(sql, params, SearchTerms.of("Report.PDF ana@example"), true);
+        assertEquals(AuditLogSearchService.detailsVector("a.details") + " @@ to_tsquery('simple', ?)", sql.toString());
+        assertEquals(List.of("report:* & pdf:* & ana:* & example:*"), params);
+    }
+
+    @Test
+    public void testFilters() {
+        assertEquals(7, auditLogSearchService.search("quarterly", null, null, null, null, null, null, 50).getItems().size());
+        assertEquals(6, auditLogSearchService.search("quarterly", null, null, null, user.getId(), null, null, 50).getItems().size());
+        assertEquals(6, auditLogSearchService.search("quarterly", null, null, AuditLog.ActionType.RESOURCE_DOWNLOADED, null, null, null, 50).getItems().size());
+        assertEquals(2, auditLogSearchService.search("quarterly", START.plusMinutes(5), START.plusHours(1), null, null, null, null, 50).getItems().size());
+    }
+
+    @Test
+    public void testKeysetPagingVisitsEveryMatchOnce() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDTO<AuditLogSearchResultDTO> page = auditLogSearchService.search("quarterly", null, null, null, null, null, cursor, 3);
+            page.getItems().forEach(result -> seen.add(result.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(7, seen.size());
+        assertEquals(7, seen.stream().distinct().count());
+    }
+
+    @Test
+    public void testInvalidRequestsAreRejected() {
+        assertThrows(BadRequestException.class, () -> auditLogSearchService.search("quarterly", null, null, null, null, null, null, 0));
+        assertThrows(BadRequestException.class, () -> auditLogSearchService.search("quarterly", null, null, null, null, null, null, AuditLogSearchService.MAX_PAGE_SIZE + 1));
+        assertThrows(BadRequestException.class, () -> auditLogSearchService.search(" -- ", null, null, null, null, null, null, 10));
+    }
+
+    private void save(User user, AuditLog.ActionType action, String details, LocalDateTime timestamp) {
+        AuditLogFixtures.insert(jdbcTemplate, user, null, action, details, timestamp);
+    }
+}
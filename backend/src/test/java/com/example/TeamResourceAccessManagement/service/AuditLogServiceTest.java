@@ -0,0 +1,75 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.AuditLog;
+import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+@Import({AuditLogServiceImpl.class, AuditLogWriter.class, AuditLogPartitionManager.class, AuditLogArchiver.class,
+    AuditArchiveStore.class, AuditLogExporter.class, AuditRollupStore.class, AuditLogSearchService.class})
+public class AuditLogServiceTest {
+
+    @TempDir
+    static Path archiveRoot;
+
+    @DynamicPropertySource
+    static void archiveRoot(DynamicPropertyRegistry registry) {
+        registry.add("app.audit.archive.root", () -> archiveRoot.toString());
+    }
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testUnknownIdsAreStoredAsNull() {
+        User user = userRepository.save(new User("audit.user", "audit.user@example.com", "Audit User", User.UserRole.TEAM_MEMBER));
+
+        AuditLog saved = auditLogService.createAuditLog(user.getId(), 987654L, AuditLog.ActionType.RESOURCE_UPDATED, "Unknown resource");
+        auditLogService.createAuditLog(987654L, null, AuditLog.ActionType.USER_LOGIN, "Unknown user");
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT user_id, resource_id FROM audit_logs WHERE id = ?", saved.getId());
+        assertEquals(user.getId(), ((Number) row.get("user_id")).longValue());
+        assertNull(row.get("resource_id"));
+        assertNull(jdbcTemplate.queryForObject("SELECT user_id FROM audit_logs WHERE details = 'Unknown user'", Long.class));
+        // Counted under the ids that were stored
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT SUM(event_count) FROM audit_log_rollups WHERE dimension = 'USER' AND subject_id = ?", Integer.class, user.getId()));
+    }
+
+    @Test
+    public void testLegacySearchIsAnUncappedSubstringMatch() {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 8, 0);
+        for (int i = 0; i < AuditLogSearchService.MAX_PAGE_SIZE + 10; i++) {
+            AuditLogFixtures.insert(jdbcTemplate, null, null, AuditLog.ActionType.RESOURCE_DOWNLOADED, "Downloaded q3-report.pdf", start.plusSeconds(i));
+        }
+        AuditLogFixtures.insert(jdbcTemplate, null, null, AuditLog.ActionType.USER_LOGIN, "Login -- retry", start);
+
+        assertEquals(AuditLogSearchService.MAX_PAGE_SIZE + 10, auditLogService.searchAuditLogsByDetails("report.pdf").size());
+        // Inside a word, and punctuation only: both plain substrings
+        assertEquals(AuditLogSearchService.MAX_PAGE_SIZE + 10, auditLogService.searchAuditLogsByDetails("eport").size());
+        assertEquals(1, auditLogService.searchAuditLogsByDetails("--").size());
+    }
+}
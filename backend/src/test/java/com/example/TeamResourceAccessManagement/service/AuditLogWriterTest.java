@@ -0,0 +1,72 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.AuditLog;
+import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.repository.AuditLogRepository;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "app.audit.flush-interval-ms=20"
+})
+@Import({AuditLogWriter.class, AuditRollupStore.class})
+// The writer thread only sees committed rows
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AuditLogWriterTest {
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    public void cleanUp() {
+        auditLogRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testEventsAreWrittenInBatches() {
+        User user = userRepository.save(new User("audit.user", "audit.user@example.com", "Audit User", User.UserRole.TEAM_MEMBER));
+        for (int i = 0; i < 1200; i++) {
+            auditLogWriter.submit(user.getId(), null, null, AuditLog.ActionType.USER_LOGIN, "login " + i, "127.0.0.1");
+        }
+
+        assertTrue(auditLogWriter.flush(10_000));
+        assertEquals(1200, auditLogRepository.countByUserId(user.getId()));
+        assertTrue((Long) auditLogWriter.getStats().get("batches") < 1200L);
+        assertEquals(0L, auditLogWriter.getStats().get("dropped"));
+    }
+
+    @Test
+    public void testReferencesAreResolvedInTheInsert() {
+        User user = userRepository.save(new User("audit.byname", "audit.byname@example.com", "Audit By Name", User.UserRole.TEAM_MEMBER));
+        auditLogWriter.submit(null, "audit.byname", null, AuditLog.ActionType.RESOURCE_DOWNLOADED, "by username", null);
+        // Unknown ids are stored as NULL instead of failing the batch
+        auditLogWriter.submit(987654L, null, 987654L, AuditLog.ActionType.ACCESS_REQUESTED, "unknown ids", null);
+
+        assertTrue(auditLogWriter.flush(10_000));
+        assertEquals(1, auditLogRepository.countByUserId(user.getId()));
+        List<AuditLog> logs = auditLogRepository.findByAction(AuditLog.ActionType.ACCESS_REQUESTED);
+        assertEquals(1, logs.size());
+        assertNull(logs.get(0).getUser());
+        assertNull(logs.get(0).getResource());
+        assertEquals(0L, auditLogWriter.getStats().get("failed"));
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.AuditLog;
+import com.example.TeamResourceAccessManagement.domain.Project;
+import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.repository.AuditLogRepository;
+import com.example.TeamResourceAccessManagement.repository.ProjectRepository;
+import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "app.audit.flush-interval-ms=20",
+    "app.audit.batch-size=50"
+})
+@Import({AuditLogWriter.class, AuditRollupStore.class})
+// The writer thread only sees committed rows
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AuditRollupStoreTest {
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private AuditRollupStore auditRollupStore;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User busy;
+    private User quiet;
+    private Resource resource;
+
+    @BeforeEach
+    public void seed() {
+        jdbcTemplate.update("DELETE FROM audit_log_rollups");
+        busy = userRepository.save(new User("rollup.busy", "rollup.busy@example.com", "Busy", User.UserRole.TEAM_MEMBER));
+        quiet = userRepository.save(new User("rollup.quiet", "rollup.quiet@example.com", "Quiet", User.UserRole.TEAM_MEMBER));
+        Project project = projectRepository.save(new Project("Rollup Project", "Audit rollups", Project.ProjectStatus.ACTIVE));
+        resource = resourceRepository.save(new Resource("rollup-report", "Rollup report", Resource.ResourceType.PDF, false, project));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM audit_log_rollups");
+        auditLogRepository.deleteAllInBatch();
+        resourceRepository.deleteAllInBatch();
+        projectRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testRollupsFollowTheWriter() {
+        for (int i = 0; i < 120; i++) {
+            auditLogWriter.submit(busy.getId(), null, resource.getId(), AuditLog.ActionType.RESOURCE_DOWNLOADED, "download " + i, null);
+        }
+        for (int i = 0; i < 30; i++) {
+            auditLogWriter.submit(null, "rollup.quiet", null, AuditLog.ActionType.USER_LOGIN, "login " + i, null);
+        }
+        // Counted under ALL only, like the NULL user it is stored with
+        auditLogWriter.submit(987654L, null, null, AuditLog.ActionType.USER_LOGIN, "unknown user", null);
+        assertTrue(auditLogWriter.flush(10_000));
+
+        LocalDateTime from = LocalDateTime.now().minusHours(3);
+        LocalDateTime to = LocalDateTime.now().plusHours(1);
+        assertEquals(auditLogRepository.findByTimestampBetween(from, to).size(), auditRollupStore.count(from, to, null, AuditRollupStore.Dimension.ALL, null));
+        assertEquals(151, auditRollupStore.count(from, to, null, AuditRollupStore.Dimension.ALL, null));
+        assertEquals(30, auditRollupStore.count(from, to, AuditLog.ActionType.USER_LOGIN, AuditRollupStore.Dimension.USER, quiet.getId()));
+        assertEquals(120, auditRollupStore.count(from, to, null, AuditRollupStore.Dimension.RESOURCE, resource.getId()));
+
+        Map<String, Long> byAction = auditRollupStore.countByAction(from, to);
+        assertEquals(120L, byAction.get("RESOURCE_DOWNLOADED"));
+        assertEquals(31L, byAction.get("USER_LOGIN"));
+
+        List<Map<String, Object>> topUsers = auditRollupStore.top(AuditRollupStore.Dimension.USER, from, to, null, 5);
+        assertEquals(2, topUsers.size());
+        assertEquals("rollup.busy", topUsers.get(0).get("username"));
+        assertEquals(120L, topUsers.get(0).get("count"));
+        assertEquals("rollup.quiet", topUsers.get(1).get("username"));
+
+        List<Map<String, Object>> histogram = auditRollupStore.histogram(from, to, null, AuditRollupStore.Granularity.DAY);
+        assertEquals(151L, histogram.stream().mapToLong(bucket -> (Long) bucket.get("total")).sum());
+    }
+
+    @Test
+    public void testRebuildMatchesIncrementalCounts() {
+        for (int i = 0; i < 40; i++) {
+            auditLogWriter.submit(i % 2 == 0 ? busy.getId() : quiet.getId(), null, resource.getId(), AuditLog.ActionType.ACCESS_GRANTED, "grant " + i, null);
+        }
+        assertTrue(auditLogWriter.flush(10_000));
+        LocalDateTime from = LocalDateTime.now().minusHours(3);
+        LocalDateTime to = LocalDateTime.now().plusHours(1);
+        List<Map<String, Object>> incremental = auditRollupStore.top(AuditRollupStore.Dimension.USER, from, to, null, 5);
+
+        auditRollupStore.rebuild(LocalDateTime.of(2000, 1, 1, 0, 0));
+
+        assertEquals(incremental, auditRollupStore.top(AuditRollupStore.Dimension.USER, from, to, null, 5));
+        assertEquals(40, auditRollupStore.count(from, to, AuditLog.ActionType.ACCESS_GRANTED, AuditRollupStore.Dimension.ALL, null));
+    }
+
+    @Test
+    public void testRemovedEventsLeaveTheirBuckets() {
+        LocalDateTime hour = LocalDateTime.of(2024, 6, 1, 10, 0);
+        AuditRollupStore.RollupEvent first = new AuditRollupStore.RollupEvent(hour.plusMinutes(5), AuditLog.ActionType.RESOURCE_DOWNLOADED, busy.getId(), null, resource.getId());
+        AuditRollupStore.RollupEvent second = new AuditRollupStore.RollupEvent(hour.plusMinutes(50), AuditLog.ActionType.RESOURCE_DOWNLOADED, busy.getId(), null, resource.getId());
+        auditRollupStore.record(List.of(first, second));
+
+        auditRollupStore.remove(List.of(first));
+        assertEquals(1, auditRollupStore.count(hour, hour.plusHours(2), null, AuditRollupStore.Dimension.USER, busy.getId()));
+        assertEquals(1, auditRollupStore.count(hour, hour.plusHours(2), null, AuditRollupStore.Dimension.RESOURCE, resource.getId()));
+
+        auditRollupStore.remove(List.of(second));
+        assertEquals(0, auditRollupStore.count(hour, hour.plusHours(2), null, AuditRollupStore.Dimension.ALL, null));
+        // Empty buckets are dropped rather than showing up in top-N with a zero count
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_log_rollups", Integer.class));
+    }
+
+    @Test
+    public void testRebuildKeepsBucketsOfArchivedHistory() {
+        // Counted before its rows were archived and purged
+        LocalDateTime archivedHour = LocalDateTime.of(2024, 1, 1, 9, 0);
+        auditRollupStore.record(List.of(new AuditRollupStore.RollupEvent(archivedHour, AuditLog.ActionType.USER_LOGIN, busy.getId(), null, null)));
+        for (int i = 0; i < 10; i++) {
+            auditLogWriter.submit(quiet.getId(), null, null, AuditLog.ActionType.USER_LOGIN, "login " + i, null);
+        }
+        assertTrue(auditLogWriter.flush(10_000));
+
+        auditRollupStore.rebuild(LocalDateTime.of(2000, 1, 1, 0, 0));
+
+        assertEquals(1, auditRollupStore.count(archivedHour, archivedHour.plusHours(1), null, AuditRollupStore.Dimension.USER, busy.getId()));
+        LocalDateTime from = LocalDateTime.now().minusHours(3);
+        LocalDateTime to = LocalDateTime.now().plusHours(1);
+        assertEquals(10, auditRollupStore.count(from, to, AuditLog.ActionType.USER_LOGIN, AuditRollupStore.Dimension.ALL, null));
+    }
+
+    @Test
+    public void testEdgeHoursAcrossTheArchiveBoundary() {
+        LocalDateTime hour = LocalDateTime.of(2024, 3, 4, 10, 0);
+        for (int minute : new int[] { 5, 20, 50 }) {
+            AuditLogFixtures.insert(jdbcTemplate, busy, null, AuditLog.ActionType.USER_LOGIN, "login", hour.plusMinutes(minute));
+            auditRollupStore.record(List.of(new AuditRollupStore.RollupEvent(hour.plusMinutes(minute), AuditLog.ActionType.USER_LOGIN, busy.getId(), null, null)));
+        }
+        AuditLogFixtures.insert(jdbcTemplate, busy, null, AuditLog.ActionType.USER_LOGIN, "login", hour.plusMinutes(70));
+        auditRollupStore.record(List.of(new AuditRollupStore.RollupEvent(hour.plusMinutes(70), AuditLog.ActionType.USER_LOGIN, busy.getId(), null, null)));
+
+        // While every row is live the edges are exact
+        assertEquals(2, auditRollupStore.count(hour.plusMinutes(15), hour.plusMinutes(59), null, AuditRollupStore.Dimension.ALL, null));
+        assertEquals(3, auditRollupStore.count(hour.plusMinutes(15), hour.plusMinutes(75), null, AuditRollupStore.Dimension.USER, busy.getId()));
+
+        // Archived up to 10:30; the rollups keep counting what was purged
+        jdbcTemplate.update("DELETE FROM audit_logs WHERE timestamp <= ?", Timestamp.valueOf(hour.plusMinutes(30)));
+
+        // The 10:00 hour lost rows, so its whole bucket stands in for the edge rather than the one row left
+        assertEquals(3, auditRollupStore.count(hour.plusMinutes(15), hour.plusMinutes(59), null, AuditRollupStore.Dimension.ALL, null));
+        assertEquals(4, auditRollupStore.count(hour.plusMinutes(15), hour.plusMinutes(75), null, AuditRollupStore.Dimension.USER, busy.getId()));
+        // The 11:00 hour is intact and still counted to the minute
+        assertEquals(0, auditRollupStore.count(hour.plusMinutes(71), hour.plusMinutes(90), null, AuditRollupStore.Dimension.ALL, null));
+        assertEquals(1, auditRollupStore.count(hour.plusMinutes(65), hour.plusMinutes(90), null, AuditRollupStore.Dimension.ALL, null));
+    }
+}
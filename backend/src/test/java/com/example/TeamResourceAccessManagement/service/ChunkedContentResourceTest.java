@@ -0,0 +1,87 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkedContentResourceTest {
+
+    private static final byte[] DATA = "abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+    // Offset and length of every chunk read, as the database would see them
+    private final List<long[]> reads = new ArrayList<>();
+
+    @Test
+    public void testReadsAcrossChunkBoundaries() throws IOException {
+        ChunkedContentResource resource = resource(DATA.length, 4);
+
+        try (InputStream in = resource.getInputStream()) {
+            byte[] buffer = new byte[6];
+            // A read stops at the end of the buffered chunk
+            assertEquals(4, in.read(buffer, 0, 6));
+            assertEquals("abcd", new String(buffer, 0, 4, StandardCharsets.UTF_8));
+            assertEquals('e', in.read());
+            assertEquals(3, in.read(buffer, 0, 6));
+            assertEquals("fgh", new String(buffer, 0, 3, StandardCharsets.UTF_8));
+        }
+        assertEquals("abcdefghij", new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(10, resource.contentLength());
+    }
+
+    @Test
+    public void testLastChunkIsPartial() throws IOException {
+        ChunkedContentResource resource = resource(DATA.length, 4);
+
+        assertArrayEquals(DATA, resource.getInputStream().readAllBytes());
+        assertEquals(3, reads.size());
+        assertArrayEquals(new long[] { 8, 2 }, reads.get(2));
+    }
+
+    @Test
+    public void testSkipMovesTheOffsetWithoutReading() throws IOException {
+        ChunkedContentResource resource = resource(DATA.length, 4);
+
+        try (InputStream in = resource.getInputStream()) {
+            assertEquals(6, in.skip(6));
+            assertTrue(reads.isEmpty());
+            assertEquals("ghij", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(0, in.skip(5));
+        }
+        assertArrayEquals(new long[] { 6, 4 }, reads.get(0));
+    }
+
+    @Test
+    public void testZeroLengthContent() throws IOException {
+        ChunkedContentResource resource = resource(0, 4);
+
+        try (InputStream in = resource.getInputStream()) {
+            assertEquals(-1, in.read());
+            assertEquals(-1, in.read(new byte[4], 0, 4));
+            assertEquals(0, in.skip(3));
+        }
+        assertTrue(reads.isEmpty());
+    }
+
+    @Test
+    public void testContentShorterThanItsLengthFails() {
+        // Stored length says twelve, only ten bytes come back
+        ChunkedContentResource resource = resource(12, 4);
+
+        assertThrows(IOException.class, () -> resource.getInputStream().readAllBytes());
+    }
+
+    private ChunkedContentResource resource(long length, int chunkSize) {
+        return new ChunkedContentResource("test", "test.txt", length, (offset, count) -> {
+            reads.add(new long[] { offset, count });
+            int from = (int) Math.min(offset, DATA.length);
+            return Arrays.copyOfRange(DATA, from, (int) Math.min(DATA.length, offset + count));
+        }, chunkSize);
+    }
+}
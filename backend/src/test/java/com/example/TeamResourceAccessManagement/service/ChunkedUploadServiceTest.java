@@ -0,0 +1,197 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.UploadSession;
+import com.example.TeamResourceAccessManagement.dto.SharedDocumentDTO;
+import com.example.TeamResourceAccessManagement.dto.UploadSessionDTO;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import com.example.TeamResourceAccessManagement.exceptions.ConflictException;
+import com.example.TeamResourceAccessManagement.exceptions.ResourceNotFoundException;
+import com.example.TeamResourceAccessManagement.repository.SharedDocumentRepository;
+import com.example.TeamResourceAccessManagement.repository.UploadSessionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "app.uploads.spool-dir=target/test-uploads/spool",
+    "app.blob-store.root=target/test-uploads/blobs",
+    "app.uploads.chunk-size=4"
+})
+@Import({ChunkedUploadService.class, LocalFileSystemBlobStore.class, BlobContentService.class, SharedDocumentServiceImpl.class})
+// Sessions are closed when the caller's transaction commits, so each call here commits on its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ChunkedUploadServiceTest {
+
+    private static final byte[] CONTENT = "chunked upload!".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private SharedDocumentService sharedDocumentService;
+
+    @Autowired
+    private SharedDocumentRepository sharedDocumentRepository;
+
+    @Test
+    public void testChunksAssembleIntoABlob() throws IOException {
+        UploadSessionDTO session = chunkedUploadService.createSession("notes.txt", "text/plain", CONTENT.length);
+        assertEquals(4, session.getChunkSize());
+
+        for (int index = 0; index < 4; index++) {
+            session = put(session.getUploadId(), index, chunk(index));
+        }
+        assertTrue(session.isComplete());
+        assertEquals(CONTENT.length, session.getReceivedBytes());
+
+        ChunkedUploadService.CompletedUpload upload = chunkedUploadService.complete(session.getUploadId());
+        assertEquals("notes.txt", upload.getFileName());
+        assertEquals("text/plain", upload.getContentType());
+        assertEquals(CONTENT.length, upload.getBlob().getSize());
+        assertEquals(sha256(CONTENT), upload.getBlob().getContentHash());
+        try (InputStream in = blobStore.load(upload.getBlob().getContentHash()).getInputStream()) {
+            assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+        assertFalse(uploadSessionRepository.existsById(session.getUploadId()));
+        assertFalse(Files.exists(spoolFile(session.getUploadId())));
+    }
+
+    @Test
+    public void testUploadResumesFromTheLastChunkReceived() {
+        String uploadId = chunkedUploadService.createSession("notes.txt", null, CONTENT.length).getUploadId();
+        put(uploadId, 0, chunk(0));
+
+        // Chunk 1 was lost; the client reads the session back and continues from it
+        assertThrows(ConflictException.class, () -> put(uploadId, 2, chunk(2)));
+        UploadSessionDTO status = chunkedUploadService.getSession(uploadId);
+        assertEquals(4, status.getReceivedBytes());
+        assertEquals(1, status.getNextChunk());
+
+        // Resending a chunk that did arrive is harmless, unless its bytes differ
+        assertEquals(4, put(uploadId, 0, chunk(0)).getReceivedBytes());
+        assertThrows(ConflictException.class, () -> put(uploadId, 0, "XXXX".getBytes(StandardCharsets.UTF_8)));
+
+        assertThrows(ConflictException.class, () -> chunkedUploadService.complete(uploadId));
+        put(uploadId, 1, chunk(1));
+        put(uploadId, 2, chunk(2));
+        put(uploadId, 3, chunk(3));
+        assertEquals(CONTENT.length, chunkedUploadService.complete(uploadId).getBlob().getSize());
+    }
+
+    @Test
+    public void testBadChunksAreNotKept() throws IOException {
+        String uploadId = chunkedUploadService.createSession("notes.txt", null, CONTENT.length).getUploadId();
+        put(uploadId, 0, chunk(0));
+
+        byte[] second = chunk(1);
+        assertThrows(BadRequestException.class, () -> chunkedUploadService.putChunk(uploadId, 1, 4, sha256(chunk(2)), new ByteArrayInputStream(second)));
+        assertThrows(BadRequestException.class, () -> put(uploadId, 1, Arrays.copyOf(second, 3)));
+        assertThrows(BadRequestException.class, () -> put(uploadId, 1, Arrays.copyOf(second, 5)));
+        assertThrows(BadRequestException.class, () -> chunkedUploadService.putChunk(uploadId, 1, 5, sha256(second), new ByteArrayInputStream(second)));
+        assertThrows(BadRequestException.class, () -> put(uploadId, 4, chunk(0)));
+        assertThrows(BadRequestException.class, () -> chunkedUploadService.putChunk(uploadId, 1, 4, "not-a-checksum", new ByteArrayInputStream(second)));
+
+        assertEquals(4, chunkedUploadService.getSession(uploadId).getReceivedBytes());
+        assertEquals(4, Files.size(spoolFile(uploadId)));
+        assertEquals(8, put(uploadId, 1, second).getReceivedBytes());
+    }
+
+    @Test
+    public void testAbandonedUploadsAreRemoved() {
+        String aborted = chunkedUploadService.createSession("a.txt", null, 10).getUploadId();
+        String stale = chunkedUploadService.createSession("b.txt", null, 10).getUploadId();
+        String active = chunkedUploadService.createSession("c.txt", null, 10).getUploadId();
+        UploadSession session = uploadSessionRepository.findById(stale).orElseThrow();
+        session.setUpdatedAt(LocalDateTime.now().minusDays(2));
+        uploadSessionRepository.save(session);
+
+        chunkedUploadService.abort(aborted);
+        chunkedUploadService.expireStaleSessions();
+
+        assertThrows(ResourceNotFoundException.class, () -> chunkedUploadService.getSession(aborted));
+        assertThrows(ResourceNotFoundException.class, () -> chunkedUploadService.getSession(stale));
+        assertFalse(Files.exists(spoolFile(aborted)));
+        assertFalse(Files.exists(spoolFile(stale)));
+        assertEquals(0, chunkedUploadService.getSession(active).getReceivedBytes());
+        assertThrows(BadRequestException.class, () -> chunkedUploadService.createSession("d.txt", null, 0));
+    }
+
+    @Test
+    public void testUploadSurvivesAFailedSave() throws IOException {
+        String uploadId = chunkedUploadService.createSession("notes.txt", "text/plain", CONTENT.length).getUploadId();
+        for (int index = 0; index < 4; index++) {
+            put(uploadId, index, chunk(index));
+        }
+        long documents = sharedDocumentRepository.count();
+
+        // Longer than the title column, so the insert fails after the blob was stored
+        SharedDocumentDTO document = document("x".repeat(256));
+        assertThrows(RuntimeException.class, () -> sharedDocumentService.shareDocumentFromUpload(document, uploadId));
+        assertEquals(documents, sharedDocumentRepository.count());
+        assertTrue(chunkedUploadService.getSession(uploadId).isComplete());
+        assertArrayEquals(CONTENT, Files.readAllBytes(spoolFile(uploadId)));
+
+        // Corrected and sent again, the same upload becomes the document
+        SharedDocumentDTO saved = sharedDocumentService.shareDocumentFromUpload(document("Notes"), uploadId);
+        assertEquals("notes.txt", saved.getFileName());
+        assertEquals(sha256(CONTENT), sharedDocumentRepository.findById(saved.getId()).orElseThrow().getContentHash());
+        assertFalse(uploadSessionRepository.existsById(uploadId));
+        assertFalse(Files.exists(spoolFile(uploadId)));
+    }
+
+    private static SharedDocumentDTO document(String title) {
+        SharedDocumentDTO document = new SharedDocumentDTO();
+        document.setTitle(title);
+        document.setDocumentType("DOC");
+        document.setAuthorId(1L);
+        document.setAuthorName("Priya");
+        document.setAuthorRole("MANAGER");
+        return document;
+    }
+
+    private UploadSessionDTO put(String uploadId, int index, byte[] bytes) {
+        return chunkedUploadService.putChunk(uploadId, index, index * 4L, sha256(bytes), new ByteArrayInputStream(bytes));
+    }
+
+    private static byte[] chunk(int index) {
+        return Arrays.copyOfRange(CONTENT, index * 4, Math.min(CONTENT.length, index * 4 + 4));
+    }
+
+    private static Path spoolFile(String uploadId) {
+        return Paths.get("target/test-uploads/spool").toAbsolutePath().resolve(uploadId + ".part");
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.Permission;
+import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.repository.PermissionRepository;
+import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+@Import({EffectiveAccessIndex.class, AccessDecisionCache.class, UserGroupAccessService.class})
+// Resource changes are applied after commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EffectiveAccessIndexTest {
+
+    @Autowired
+    private EffectiveAccessIndex effectiveAccessIndex;
+
+    @Autowired
+    private AccessDecisionCache accessDecisionCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    private User developer;
+    private User tester;
+    private Resource handbook;
+    private Resource roadmap;
+
+    @BeforeEach
+    public void seed() {
+        accessDecisionCache.invalidateAll();
+        developer = userRepository.save(new User("alice.dev", "alice.dev@example.com", "Alice", User.UserRole.TEAM_MEMBER));
+        tester = userRepository.save(new User("bob.qa", "bob.qa@example.com", "Bob", User.UserRole.TEAM_MEMBER));
+        handbook = resourceRepository.save(new Resource("Handbook", "Common", Resource.ResourceType.PDF, true, null));
+        roadmap = resourceRepository.save(new Resource("Roadmap", "Restricted", Resource.ResourceType.PDF, true, null));
+        permissionRepository.save(new Permission(developer, handbook, Permission.AccessLevel.READ, null));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        permissionRepository.deleteAllInBatch();
+        resourceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testRequestableIsTheComplementOfAccessible() {
+        assertEquals(List.of(handbook.getId()), effectiveAccessIndex.getAccessibleResourceIdList(developer.getId()));
+        assertEquals(List.of(roadmap.getId()), effectiveAccessIndex.getRequestableResourceIdList(developer.getId()));
+        assertEquals(List.of(handbook.getId(), roadmap.getId()), effectiveAccessIndex.getRequestableResourceIdList(tester.getId()));
+
+        Resource created = resourceRepository.save(new Resource("Runbook", "New", Resource.ResourceType.PDF, true, null));
+        accessDecisionCache.invalidateResource(created.getId());
+        assertEquals(List.of(roadmap.getId(), created.getId()), effectiveAccessIndex.getRequestableResourceIdList(developer.getId()));
+
+        resourceRepository.deleteById(roadmap.getId());
+        accessDecisionCache.invalidateResource(roadmap.getId());
+        assertEquals(List.of(created.getId()), effectiveAccessIndex.getRequestableResourceIdList(developer.getId()));
+    }
+
+    @Test
+    public void testResourceChangeOnlyUpdatesThatResource() {
+        assertFalse(effectiveAccessIndex.canAccess(tester.getId(), roadmap.getId()));
+        assertTrue(effectiveAccessIndex.canAccess(developer.getId(), handbook.getId()));
+
+        // Not announced, so the cached sets must keep the old answer for the handbook
+        permissionRepository.save(new Permission(tester, handbook, Permission.AccessLevel.READ, null));
+
+        roadmap.setAllowedUserGroups("qa");
+        resourceRepository.save(roadmap);
+        accessDecisionCache.invalidateResource(roadmap.getId());
+
+        assertTrue(effectiveAccessIndex.canAccess(tester.getId(), roadmap.getId()));
+        assertFalse(effectiveAccessIndex.canAccess(developer.getId(), roadmap.getId()));
+        assertFalse(effectiveAccessIndex.canAccess(tester.getId(), handbook.getId()));
+        assertTrue(effectiveAccessIndex.canAccess(developer.getId(), handbook.getId()));
+
+        permissionRepository.deleteAllInBatch();
+        accessDecisionCache.invalidateResource(handbook.getId());
+        assertFalse(effectiveAccessIndex.canAccess(developer.getId(), handbook.getId()));
+    }
+
+    @Test
+    public void testIdsOutsideTheIndexAreNeverAccessible() {
+        assertFalse(effectiveAccessIndex.canAccess(developer.getId(), Integer.MAX_VALUE + 1L));
+        assertFalse(effectiveAccessIndex.canAccess(developer.getId(), -1L));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.dto.ResourceSearchResultDTO;
+import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the portable fallback; the PostgreSQL path shares the tokenizer checked at the bottom
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+@Import(FullTextResourceSearchService.class)
+public class FullTextResourceSearchServiceTest {
+
+    @Autowired
+    private FullTextResourceSearchService searchService;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    private Resource plan;
+    private Resource notes;
+
+    @BeforeEach
+    public void seed() {
+        plan = resourceRepository.save(new Resource("Project Plan", "Milestones for the <beta>", Resource.ResourceType.PDF, true, null));
+        notes = resourceRepository.save(new Resource("Meeting notes", "Review of the project plan", Resource.ResourceType.PDF, true, null));
+        Resource other = new Resource("Roadmap", "Quarterly goals", Resource.ResourceType.URL, true, null);
+        other.setUploadedBy("planner");
+        resourceRepository.save(other);
+        resourceRepository.flush();
+    }
+
+    @Test
+    public void testEveryTermMustStartAWord() {
+        List<ResourceSearchResultDTO> results = searchService.search("proj pla", 10);
+
+        assertEquals(List.of(plan.getId(), notes.getId()), ids(results));
+        assertTrue(searchService.search("lan", 10).isEmpty());
+        // The uploader is searched too
+        assertEquals(3, searchService.search("plan", 10).size());
+        assertTrue(searchService.search(" -- ", 10).isEmpty());
+    }
+
+    @Test
+    public void testNameMatchesRankFirstAndAreHighlighted() {
+        List<ResourceSearchResultDTO> results = searchService.search("plan", 1);
+
+        assertEquals(List.of(plan.getId()), ids(results));
+        assertEquals(1.0, results.get(0).getScore());
+        assertEquals("Project <mark>Plan</mark>", results.get(0).getNameHighlight());
+        assertEquals("Milestones for the &lt;beta&gt;", results.get(0).getDescriptionHighlight());
+    }
+
+    @Test
+    public void testTokenizer() {
+        assertEquals(List.of("proj", "plan", "v2"), SearchTerms.of("Proj-plan (v2)!"));
+        assertEquals("proj:* & plan:* & v2:*", SearchTerms.toPrefixQuery("Proj-plan (v2)!"));
+        assertEquals("", SearchTerms.toPrefixQuery("&|!:*()"));
+        assertEquals("", SearchTerms.toPrefixQuery(null));
+    }
+
+    private static List<Long> ids(List<ResourceSearchResultDTO> results) {
+        return results.stream().map(result -> result.getResource().getId()).toList();
+    }
+}
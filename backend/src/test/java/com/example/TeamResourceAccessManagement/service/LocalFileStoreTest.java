@@ -0,0 +1,84 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalFileStoreTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    public void testTransfersRangesFromChannelThenMapping() throws IOException {
+        LocalFileStore fileStore = new LocalFileStore(root.toString(), 4, 1024, 3);
+        Files.createDirectories(root.resolve("docs"));
+        Files.writeString(root.resolve("docs/readme.txt"), "0123456789");
+        Path file = fileStore.resolve("docs/readme.txt");
+
+        assertEquals("0123456789", read(fileStore, file, 0, 10));
+        assertEquals("3456", read(fileStore, file, 3, 4));
+        assertFalse(fileStore.isMapped(file));
+
+        // Third read of a small file maps it; reads past the end are cut short
+        assertEquals("789", read(fileStore, file, 7, 10));
+        assertTrue(fileStore.isMapped(file));
+        assertEquals("12", read(fileStore, file, 1, 2));
+        assertEquals("", read(fileStore, file, 10, 5));
+        assertEquals(1, fileStore.getOpenHandleCount());
+    }
+
+    @Test
+    public void testReplacedFilesAreReopened() throws IOException {
+        LocalFileStore fileStore = new LocalFileStore(root.toString(), 4, 1024, 1);
+        Files.writeString(root.resolve("notes.txt"), "first");
+        Path file = fileStore.resolve("notes.txt");
+        assertEquals("first", read(fileStore, file, 0, 100));
+        assertTrue(fileStore.isMapped(file));
+
+        Files.writeString(root.resolve("notes.txt"), "second version");
+        assertEquals("second version", read(fileStore, file, 0, 100));
+    }
+
+    @Test
+    public void testHandleCacheIsBounded() throws IOException {
+        LocalFileStore fileStore = new LocalFileStore(root.toString(), 2, 0, 1);
+        for (int i = 0; i < 5; i++) {
+            Files.writeString(root.resolve("f" + i), "file " + i);
+            assertEquals("file " + i, read(fileStore, fileStore.resolve("f" + i), 0, 100));
+        }
+        assertEquals(2, fileStore.getOpenHandleCount());
+        // Evicted files are simply opened again
+        assertEquals("file 0", read(fileStore, fileStore.resolve("f0"), 0, 100));
+        assertFalse(fileStore.isMapped(fileStore.resolve("f0")));
+    }
+
+    @Test
+    public void testOnlyFilesUnderTheRootResolve() throws IOException {
+        Path files = Files.createDirectories(root.resolve("files"));
+        Files.writeString(root.resolve("secret.txt"), "secret");
+        Files.createSymbolicLink(files.resolve("link.txt"), root.resolve("secret.txt"));
+        Files.createDirectories(files.resolve("dir"));
+        LocalFileStore fileStore = new LocalFileStore(files.toString(), 4, 1024, 3);
+
+        assertThrows(ResourceNotFoundException.class, () -> fileStore.resolve("../secret.txt"));
+        assertThrows(ResourceNotFoundException.class, () -> fileStore.resolve(root.resolve("secret.txt").toString()));
+        assertThrows(ResourceNotFoundException.class, () -> fileStore.resolve("link.txt"));
+        assertThrows(ResourceNotFoundException.class, () -> fileStore.resolve("dir"));
+        assertThrows(ResourceNotFoundException.class, () -> fileStore.resolve("missing.txt"));
+    }
+
+    private static String read(LocalFileStore fileStore, Path file, long position, long count) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = fileStore.transfer(file, position, count, Channels.newChannel(out));
+        assertEquals(out.size(), written);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalFileSystemBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    public void testStoreIsContentAddressed() throws IOException {
+        LocalFileSystemBlobStore blobStore = new LocalFileSystemBlobStore(root.toString());
+        byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+
+        BlobStore.StoredBlob blob = blobStore.store(new ByteArrayInputStream(content));
+
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", blob.getContentHash());
+        assertEquals(content.length, blob.getSize());
+        assertTrue(blobStore.exists(blob.getContentHash()));
+        try (InputStream in = blobStore.load(blob.getContentHash()).getInputStream()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testIdenticalContentIsStoredOnce() throws IOException {
+        LocalFileSystemBlobStore blobStore = new LocalFileSystemBlobStore(root.toString());
+        byte[] content = "same bytes".getBytes(StandardCharsets.UTF_8);
+
+        BlobStore.StoredBlob first = blobStore.store(new ByteArrayInputStream(content));
+        BlobStore.StoredBlob second = blobStore.store(new ByteArrayInputStream(content));
+
+        assertEquals(first.getContentHash(), second.getContentHash());
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+
+        blobStore.delete(first.getContentHash());
+        assertFalse(blobStore.exists(first.getContentHash()));
+    }
+
+    @Test
+    public void testDeleteIfIdleKeepsBlobsStoredOntoSinceTheCutoff() throws IOException {
+        LocalFileSystemBlobStore blobStore = new LocalFileSystemBlobStore(root.toString());
+        byte[] content = "released".getBytes(StandardCharsets.UTF_8);
+        String contentHash = blobStore.store(new ByteArrayInputStream(content)).getContentHash();
+        Path blobPath = blobStore.load(contentHash).getFile().toPath();
+        Files.setLastModifiedTime(blobPath, FileTime.from(Instant.now().minusSeconds(7200)));
+
+        // An identical upload deduplicates onto the released blob and refreshes it
+        blobStore.store(new ByteArrayInputStream(content));
+        assertFalse(blobStore.deleteIfIdle(contentHash, Instant.now().minusSeconds(3600)));
+        assertTrue(blobStore.exists(contentHash));
+
+        Files.setLastModifiedTime(blobPath, FileTime.from(Instant.now().minusSeconds(7200)));
+        assertTrue(blobStore.deleteIfIdle(contentHash, Instant.now().minusSeconds(3600)));
+        assertFalse(blobStore.exists(contentHash));
+    }
+
+    @Test
+    public void testRejectsMalformedHash() {
+        LocalFileSystemBlobStore blobStore = new LocalFileSystemBlobStore(root.toString());
+        assertThrows(IllegalArgumentException.class, () -> blobStore.load("../../etc/passwd"));
+    }
+}
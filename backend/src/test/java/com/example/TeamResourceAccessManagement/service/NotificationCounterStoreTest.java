@@ -0,0 +1,105 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.config.AsyncConfig;
+import com.example.TeamResourceAccessManagement.domain.Notification;
+import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.repository.NotificationRepository;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+@Import({NotificationService.class, NotificationCounterStore.class, NotificationOutbox.class, NotificationPushService.class, AsyncConfig.class})
+public class NotificationCounterStoreTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationCounterStore notificationCounterStore;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User requester;
+    private User other;
+
+    @BeforeEach
+    public void seed() {
+        jdbcTemplate.update("DELETE FROM notification_counters");
+        requester = userRepository.save(new User("counter.user", "counter.user@example.com", "Counter User", User.UserRole.TEAM_MEMBER));
+        other = userRepository.save(new User("counter.other", "counter.other@example.com", "Counter Other", User.UserRole.TEAM_MEMBER));
+    }
+
+    @Test
+    public void testCountersFollowReads() {
+        for (int i = 0; i < 3; i++) {
+            deliver(requester, "Update " + i);
+        }
+        deliver(other, "Update");
+        assertEquals(3L, notificationService.getUnreadCount(requester.getId()));
+        assertEquals(1L, notificationService.getUnreadCount(other.getId()));
+
+        Long first = notificationRepository.findByUserIdOrderByCreatedAtDesc(requester.getId()).get(0).getId();
+        notificationService.markAsRead(first);
+        // Reading it again changes nothing
+        notificationService.markAsRead(first);
+        assertEquals(2L, notificationService.getUnreadCount(requester.getId()));
+        assertEquals(notificationRepository.countUnreadByUserId(requester.getId()), notificationService.getUnreadCount(requester.getId()));
+
+        notificationService.markAllAsRead(requester.getId());
+        notificationService.markAllAsRead(requester.getId());
+        assertEquals(0L, notificationService.getUnreadCount(requester.getId()));
+        assertEquals(1L, notificationService.getUnreadCount(other.getId()));
+        List<Notification> unread = notificationRepository.findByUserIdAndIsReadOrderByCreatedAtDesc(requester.getId(), false);
+        assertTrue(unread.isEmpty());
+    }
+
+    @Test
+    public void testRebuildRecountsFromNotifications() {
+        notificationRepository.save(new Notification(requester, "One", "One", Notification.NotificationType.GENERAL));
+        notificationRepository.save(new Notification(requester, "Two", "Two", Notification.NotificationType.GENERAL));
+        Notification read = new Notification(other, "Read", "Read", Notification.NotificationType.GENERAL);
+        read.setIsRead(true);
+        notificationRepository.saveAndFlush(read);
+        // Written behind the store's back, as on an install that predates the counters
+        assertEquals(0L, notificationCounterStore.getUnreadCount(requester.getId()));
+
+        notificationCounterStore.rebuild();
+
+        assertEquals(2L, notificationCounterStore.getUnreadCount(requester.getId()));
+        assertEquals(0L, notificationCounterStore.getUnreadCount(other.getId()));
+    }
+
+    @Test
+    public void testCounterNeverGoesNegative() {
+        notificationCounterStore.add(requester.getId(), -5);
+        assertEquals(0L, notificationCounterStore.getUnreadCount(requester.getId()));
+        notificationCounterStore.add(requester.getId(), 2);
+        notificationCounterStore.add(requester.getId(), -3);
+        assertEquals(0L, notificationCounterStore.getUnreadCount(requester.getId()));
+    }
+
+    // As NotificationDispatcher delivers one
+    private void deliver(User user, String title) {
+        notificationRepository.save(new Notification(user, title, title, Notification.NotificationType.GENERAL));
+        notificationCounterStore.add(user.getId(), 1);
+    }
+}
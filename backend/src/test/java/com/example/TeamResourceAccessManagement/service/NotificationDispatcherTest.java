@@ -0,0 +1,179 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.config.AsyncConfig;
+import com.example.TeamResourceAccessManagement.domain.AccessRequest;
+import com.example.TeamResourceAccessManagement.domain.Notification;
+import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.dto.NotificationDTO;
+import com.example.TeamResourceAccessManagement.repository.NotificationRepository;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "app.notifications.outbox.max-attempts=2",
+    "app.notifications.outbox.retry-backoff-ms=0"
+})
+@Import({NotificationService.class, NotificationOutbox.class, NotificationDispatcher.class, NotificationCounterStore.class,
+    NotificationPushService.class, AsyncConfig.class})
+// The dispatcher delivers in transactions of its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class NotificationDispatcherTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User requester;
+    private User other;
+
+    @BeforeEach
+    public void seed() {
+        requester = userRepository.save(new User("outbox.user", "outbox.user@example.com", "Outbox User", User.UserRole.TEAM_MEMBER));
+        other = userRepository.save(new User("outbox.other", "outbox.other@example.com", "Outbox Other", User.UserRole.TEAM_MEMBER));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM notification_outbox");
+        jdbcTemplate.update("DELETE FROM notification_counters");
+        notificationRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testEventsAreDeliveredByTheDispatcher() {
+        notificationService.createAccessResponseNotification(accessRequest(41L, requester), true);
+        assertTrue(notificationRepository.findByUserIdOrderByCreatedAtDesc(requester.getId()).isEmpty());
+        assertEquals(1, notificationOutbox.countByStatus("PENDING"));
+
+        assertEquals(1, notificationDispatcher.dispatchPending());
+
+        List<Notification> delivered = notificationRepository.findByUserIdOrderByCreatedAtDesc(requester.getId());
+        assertEquals(1, delivered.size());
+        assertEquals("Access Request Approved", delivered.get(0).getTitle());
+        assertEquals(41L, delivered.get(0).getRelatedEntityId());
+        assertEquals("ACCESS_REQUEST", delivered.get(0).getRelatedEntityType());
+        assertFalse(delivered.get(0).getIsRead());
+        assertEquals(1L, notificationService.getUnreadCount(requester.getId()));
+        assertEquals(0, notificationOutbox.countByStatus("PENDING"));
+    }
+
+    @Test
+    public void testRepeatedEventsAreCoalescedIntoDigests() {
+        for (int i = 1; i <= 3; i++) {
+            notificationOutbox.enqueue(NotificationOutbox.Audience.USER, requester.getId(), Notification.NotificationType.GENERAL,
+                "Maintenance", "Window " + i, null, null);
+        }
+        notificationOutbox.enqueue(NotificationOutbox.Audience.USER, requester.getId(), Notification.NotificationType.ACCESS_REQUEST_RECEIVED,
+            "Access requested", "Someone asked for access", null, null);
+        notificationOutbox.enqueue(NotificationOutbox.Audience.USER, other.getId(), Notification.NotificationType.GENERAL,
+            "Maintenance", "Window 1", null, null);
+
+        assertEquals(3, notificationDispatcher.dispatchPending());
+
+        List<Notification> delivered = notificationRepository.findByUserIdAndIsReadOrderByCreatedAtDesc(requester.getId(), false);
+        assertEquals(2, delivered.size());
+        Notification digest = delivered.stream().filter(n -> n.getType() == Notification.NotificationType.GENERAL).findFirst().get();
+        assertEquals("Maintenance (3)", digest.getTitle());
+        assertEquals(3, digest.getMessage().split("\n").length);
+        assertEquals(2L, notificationService.getUnreadCount(requester.getId()));
+        assertEquals(1L, notificationService.getUnreadCount(other.getId()));
+    }
+
+    @Test
+    public void testLinkedEventsAreDigestedWithEveryLink() {
+        // What approving a batch of requests enqueues: each event links its access request
+        for (long id = 1; id <= 3; id++) {
+            notificationService.createAccessResponseNotification(accessRequest(id, requester), true);
+        }
+        notificationService.createAccessResponseNotification(accessRequest(4L, requester), false);
+
+        assertEquals(2, notificationDispatcher.dispatchPending());
+
+        List<Notification> delivered = notificationRepository.findByUserIdOrderByCreatedAtDesc(requester.getId());
+        assertEquals(2, delivered.size());
+        Notification digest = delivered.stream().filter(n -> n.getType() == Notification.NotificationType.ACCESS_REQUEST_APPROVED).findFirst().get();
+        assertEquals("Access Request Approved (3)", digest.getTitle());
+        assertNull(digest.getRelatedEntityId());
+        assertEquals("ACCESS_REQUEST", digest.getRelatedEntityType());
+        assertEquals("1,2,3", digest.getRelatedEntityIds());
+        assertEquals(2L, notificationService.getUnreadCount(requester.getId()));
+
+        List<NotificationDTO> feed = notificationService.getNotificationFeed(requester.getId(), false, null, 10).getItems();
+        assertEquals(Set.of(List.of(1L, 2L, 3L), List.of(4L)),
+            feed.stream().map(NotificationDTO::getAccessRequestIds).collect(Collectors.toSet()));
+        assertEquals(4L, feed.stream().filter(n -> n.getAccessRequestId() != null).findFirst().get().getAccessRequestId());
+    }
+
+    @Test
+    public void testUnknownRecipientsAreSkipped() {
+        notificationOutbox.enqueue(NotificationOutbox.Audience.USER, 987654L, Notification.NotificationType.GENERAL, "Nobody", null, null, null);
+        notificationOutbox.enqueue(NotificationOutbox.Audience.USER, other.getId(), Notification.NotificationType.GENERAL, "Somebody", null, null, null);
+
+        // Rather than failing the batch
+        assertEquals(1, notificationDispatcher.dispatchPending());
+        assertEquals(1, notificationRepository.findByUserIdOrderByCreatedAtDesc(other.getId()).size());
+        assertEquals(0, notificationOutbox.countByStatus("PENDING"));
+    }
+
+    @Test
+    public void testFailingEventIsRetriedWithoutBlockingOthers() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO notification_outbox (audience, audience_id, type, title, created_at, status, attempts, next_attempt_at) " +
+            "VALUES ('USER', ?, 'NO_SUCH_TYPE', 'Broken', ?, 'PENDING', 0, ?)", requester.getId(), now, now);
+        notificationService.createAccessResponseNotification(accessRequest(7L, requester), false);
+
+        assertEquals(1, notificationDispatcher.dispatchPending());
+        assertEquals(1, notificationRepository.findByUserIdOrderByCreatedAtDesc(requester.getId()).size());
+        assertEquals(1, notificationOutbox.countByStatus("PENDING"));
+
+        // Second and last attempt
+        assertEquals(0, notificationDispatcher.dispatchPending());
+        assertEquals(0, notificationOutbox.countByStatus("PENDING"));
+        assertEquals(1, notificationOutbox.countByStatus("FAILED"));
+        assertEquals(1L, notificationService.getUnreadCount(requester.getId()));
+    }
+
+    private AccessRequest accessRequest(Long id, User user) {
+        Resource resource = new Resource();
+        resource.setName("Report " + id);
+        AccessRequest request = new AccessRequest();
+        request.setId(id);
+        request.setUser(user);
+        request.setResource(resource);
+        return request;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.config.AsyncConfig;
+import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.dto.NotificationDTO;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false"
+})
+@Import({NotificationService.class, NotificationCounterStore.class, NotificationOutbox.class, NotificationPushService.class, AsyncConfig.class})
+public class NotificationFeedTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private User other;
+
+    @BeforeEach
+    public void seed() {
+        user = userRepository.save(new User("feed.user", "feed.user@example.com", "Feed User", User.UserRole.TEAM_MEMBER));
+        other = userRepository.save(new User("feed.other", "feed.other@example.com", "Feed Other", User.UserRole.TEAM_MEMBER));
+        // 25 notifications, in pairs sharing a timestamp so pages split ties; every third one is read
+        for (int i = 0; i < 25; i++) {
+            insert(user, "N" + i, i % 3 == 0, BASE.plusMinutes(i / 2), null, null);
+        }
+        insert(other, "Someone else's", false, BASE.plusDays(1), null, null);
+    }
+
+    @Test
+    public void testFeedPagesThroughHistoryNewestFirst() {
+        List<NotificationDTO> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDTO<NotificationDTO> page = notificationService.getNotificationFeed(user.getId(), false, cursor, 10);
+            seen.addAll(page.getItems());
+            assertEquals(page.getNextCursor() != null, page.isHasMore());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(25, seen.size());
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < seen.size(); i++) {
+            assertTrue(ids.add(seen.get(i).getId()));
+            if (i > 0) {
+                NotificationDTO previous = seen.get(i - 1);
+                NotificationDTO current = seen.get(i);
+                assertTrue(previous.getCreatedAt().isAfter(current.getCreatedAt())
+                    || (previous.getCreatedAt().equals(current.getCreatedAt()) && previous.getId() > current.getId()));
+            }
+        }
+        assertEquals("N24", seen.get(0).getTitle());
+        assertEquals("N0", seen.get(24).getTitle());
+    }
+
+    @Test
+    public void testUnreadFeedSkipsReadNotifications() {
+        CursorPageDTO<NotificationDTO> first = notificationService.getNotificationFeed(user.getId(), true, null, 12);
+        CursorPageDTO<NotificationDTO> second = notificationService.getNotificationFeed(user.getId(), true, first.getNextCursor(), 12);
+
+        assertEquals(12, first.getItems().size());
+        assertEquals(4, second.getItems().size());
+        assertNull(second.getNextCursor());
+        assertTrue(first.getItems().stream().noneMatch(NotificationDTO::getIsRead));
+        assertTrue(second.getItems().stream().noneMatch(NotificationDTO::getIsRead));
+    }
+
+    @Test
+    public void testFeedOnlyLinksAccessRequests() {
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", user.getId());
+        insert(user, "Approved", false, BASE, 42L, "ACCESS_REQUEST");
+        insert(user, "Archived", false, BASE.plusMinutes(1), 7L, "PROJECT");
+
+        List<NotificationDTO> items = notificationService.getNotificationFeed(user.getId(), false, null, 20).getItems();
+
+        assertEquals(2, items.size());
+        assertNull(items.get(0).getAccessRequestId());
+        assertEquals(42L, items.get(1).getAccessRequestId());
+    }
+
+    @Test
+    public void testFeedRejectsBadLimitsAndCursors() {
+        assertThrows(BadRequestException.class, () -> notificationService.getNotificationFeed(user.getId(), false, null, 0));
+        assertThrows(BadRequestException.class,
+            () -> notificationService.getNotificationFeed(user.getId(), false, null, NotificationService.MAX_FEED_PAGE_SIZE + 1));
+        assertThrows(BadRequestException.class, () -> notificationService.getNotificationFeed(user.getId(), false, "not-a-cursor", 10));
+    }
+
+    private void insert(User owner, String title, boolean read, LocalDateTime createdAt, Long relatedEntityId, String relatedEntityType) {
+        jdbcTemplate.update("INSERT INTO notifications (user_id, title, message, type, is_read, related_entity_id, related_entity_type, created_at) " +
+            "VALUES (?, ?, ?, 'GENERAL', ?, ?, ?, ?)", owner.getId(), title, title, read, relatedEntityId, relatedEntityType,
+            Timestamp.valueOf(createdAt));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.config.AsyncConfig;
+import com.example.TeamResourceAccessManagement.controller.NotificationController;
+import com.example.TeamResourceAccessManagement.domain.Notification;
+import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.repository.NotificationRepository;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "app.notifications.stream.replay-limit=3"
+})
+@Import({NotificationPushService.class, NotificationCounterStore.class, AsyncConfig.class})
+// Pushes run on the executor and read committed rows
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class NotificationPushServiceTest {
+
+    @Autowired
+    private NotificationPushService notificationPushService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationCounterStore notificationCounterStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private MockMvc mockMvc;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        NotificationController controller = new NotificationController();
+        ReflectionTestUtils.setField(controller, "notificationPushService", notificationPushService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        user = userRepository.save(new User("push.user", "push.user@example.com", "Push User", User.UserRole.TEAM_MEMBER));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        notificationRepository.deleteAllInBatch();
+        notificationCounterStore.rebuild();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testNewNotificationsArePushed() throws Exception {
+        save("Unread before connecting");
+        notificationCounterStore.rebuild();
+        MockHttpServletResponse response = open("/api/notifications/user/" + user.getId() + "/stream");
+        awaitContent(response, body -> body.contains("event:unread-count\ndata:1\n"));
+        assertEquals(1, notificationPushService.getSubscriberCount());
+
+        Notification created = save("Access Request Approved");
+        notificationPushService.publish(user.getId(), NotificationPushService.toDTO(created));
+
+        awaitContent(response, body -> body.contains("\"title\":\"Access Request Approved\""));
+        assertTrue(response.getContentAsString().contains("id:" + created.getId() + "\nevent:notification\n"));
+
+        notificationPushService.heartbeat();
+        awaitContent(response, body -> body.contains(":heartbeat\n"));
+    }
+
+    @Test
+    public void testReconnectReplaysMissedNotifications() throws Exception {
+        Notification seen = save("Seen");
+        Notification missedOne = save("Missed one");
+        Notification missedTwo = save("Missed two");
+
+        MockHttpServletResponse response = open("/api/notifications/user/" + user.getId() + "/stream", seen.getId());
+        awaitContent(response, body -> body.contains("event:unread-count"));
+
+        String body = response.getContentAsString();
+        assertFalse(body.contains("id:" + seen.getId() + "\n"));
+        int first = body.indexOf("id:" + missedOne.getId() + "\n");
+        int second = body.indexOf("id:" + missedTwo.getId() + "\n");
+        assertTrue(first >= 0 && second > first);
+
+        // A late push of something already replayed is not sent twice
+        notificationPushService.publish(user.getId(), NotificationPushService.toDTO(missedTwo));
+        notificationPushService.heartbeat();
+        awaitContent(response, content -> content.contains(":heartbeat"));
+        assertEquals(second, response.getContentAsString().lastIndexOf("id:" + missedTwo.getId() + "\n"));
+    }
+
+    @Test
+    public void testTooFarBehindAsksForResync() throws Exception {
+        Notification seen = save("Seen");
+        for (int i = 0; i < 4; i++) {
+            save("Missed " + i);
+        }
+
+        MockHttpServletResponse response = open("/api/notifications/user/" + user.getId() + "/stream", seen.getId());
+        awaitContent(response, body -> body.contains("event:unread-count"));
+
+        String body = response.getContentAsString();
+        assertTrue(body.contains("event:resync\n"));
+        assertFalse(body.contains("event:notification\n"));
+    }
+
+    private Notification save(String title) {
+        return notificationRepository.save(new Notification(user, title, title, Notification.NotificationType.GENERAL));
+    }
+
+    private MockHttpServletResponse open(String path) throws Exception {
+        return mockMvc.perform(get(path)).andExpect(request().asyncStarted()).andReturn().getResponse();
+    }
+
+    private MockHttpServletResponse open(String path, Long lastEventId) throws Exception {
+        return mockMvc.perform(get(path).header("Last-Event-ID", lastEventId)).andExpect(request().asyncStarted()).andReturn().getResponse();
+    }
+
+    private void awaitContent(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.test(response.getContentAsString())) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for stream content: " + response.getContentAsString());
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.config.AsyncConfig;
+import com.example.TeamResourceAccessManagement.domain.Permission;
+import com.example.TeamResourceAccessManagement.domain.Resource;
+import com.example.TeamResourceAccessManagement.domain.User;
+import com.example.TeamResourceAccessManagement.dto.PermissionGrantStatusDTO;
+import com.example.TeamResourceAccessManagement.repository.PermissionRepository;
+import com.example.TeamResourceAccessManagement.repository.ResourceRepository;
+import com.example.TeamResourceAccessManagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "app.permission-grants.batch-size=2"
+})
+@Import({PermissionGrantServiceImpl.class, AccessDecisionCache.class, AsyncConfig.class})
+// Grants run on the executor and read committed rows
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PermissionGrantServiceTest {
+
+    @Autowired
+    private PermissionGrantService permissionGrantService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @AfterEach
+    public void cleanUp() {
+        permissionRepository.deleteAllInBatch();
+        resourceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testExistingPermissionInABatchIsSkipped() throws InterruptedException {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            users.add(userRepository.save(new User("grant.user" + i, "grant.user" + i + "@example.com", "Grant User " + i,
+                i == 0 ? User.UserRole.TEAMLEAD : User.UserRole.TEAM_MEMBER)));
+        }
+        Resource resource = resourceRepository.save(new Resource("Handbook", "Common", Resource.ResourceType.PDF, true, null));
+        // Already granted, e.g. by an approved access request, in the middle of the second batch
+        permissionRepository.save(new Permission(users.get(2), resource, Permission.AccessLevel.WRITE, null));
+
+        permissionGrantService.scheduleCommonResourceGrants(resource);
+        PermissionGrantStatusDTO status = awaitFinished(resource.getId());
+
+        assertEquals(PermissionGrantStatusDTO.Status.COMPLETED, status.getStatus());
+        assertEquals(5, status.getProcessedUsers());
+        assertEquals(5, permissionRepository.count());
+        assertEquals("WRITE", accessLevel(users.get(2), resource));
+        assertEquals("ADMIN", accessLevel(users.get(0), resource));
+        assertEquals("READ", accessLevel(users.get(4), resource));
+    }
+
+    private String accessLevel(User user, Resource resource) {
+        return jdbcTemplate.queryForObject("SELECT access_level FROM permissions WHERE user_id = ? AND resource_id = ?",
+            String.class, user.getId(), resource.getId());
+    }
+
+    private PermissionGrantStatusDTO awaitFinished(Long resourceId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            PermissionGrantStatusDTO status = permissionGrantService.getGrantStatus(resourceId).orElseThrow();
+            if (status.getStatus() == PermissionGrantStatusDTO.Status.COMPLETED || status.getStatus() == PermissionGrantStatusDTO.Status.FAILED) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        fail("Grant job did not finish");
+        return null;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.dto.CursorPageDTO;
+import com.example.TeamResourceAccessManagement.dto.SharedDocumentDTO;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "app.blob-store.root=target/test-blobs",
+    "app.uploads.spool-dir=target/test-uploads/spool",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.TeamResourceAccessManagement.service.SharedDocumentFeedTest$RecordingInspector"
+})
+@Import({SharedDocumentServiceImpl.class, BlobContentService.class, ChunkedUploadService.class, LocalFileSystemBlobStore.class})
+public class SharedDocumentFeedTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+    @Autowired
+    private SharedDocumentService sharedDocumentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void seed() {
+        // 15 documents by two authors, in pairs sharing a timestamp so pages split ties; each carries a legacy payload
+        for (int i = 0; i < 15; i++) {
+            insert("D" + i, i % 3 == 0 ? "PDF" : "DOC", i % 2 == 0 ? 1L : 2L, BASE.plusMinutes(i / 2));
+        }
+        RecordingInspector.statements.clear();
+    }
+
+    @Test
+    public void testFeedPagesNewestFirstWithoutReadingFileData() {
+        List<SharedDocumentDTO> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDTO<SharedDocumentDTO> page = sharedDocumentService.getSharedDocumentFeed(null, null, cursor, 6);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(15, seen.size());
+        assertEquals("D14", seen.get(0).getTitle());
+        assertEquals("D0", seen.get(14).getTitle());
+        assertEquals(15, seen.stream().map(SharedDocumentDTO::getId).distinct().count());
+        assertEquals(4L, seen.get(0).getFileSize());
+        assertFalse(RecordingInspector.statements.isEmpty());
+        assertTrue(RecordingInspector.statements.stream().noneMatch(sql -> sql.toLowerCase(Locale.ROOT).contains("file_data")));
+    }
+
+    @Test
+    public void testFeedFiltersByAuthorOrType() {
+        CursorPageDTO<SharedDocumentDTO> first = sharedDocumentService.getSharedDocumentFeed(2L, null, null, 5);
+        CursorPageDTO<SharedDocumentDTO> second = sharedDocumentService.getSharedDocumentFeed(2L, null, first.getNextCursor(), 5);
+        assertEquals(5, first.getItems().size());
+        assertEquals(2, second.getItems().size());
+        assertNull(second.getNextCursor());
+        assertTrue(first.getItems().stream().allMatch(doc -> doc.getAuthorId() == 2L));
+        assertTrue(second.getItems().stream().allMatch(doc -> doc.getAuthorId() == 2L));
+
+        List<SharedDocumentDTO> pdfs = sharedDocumentService.getSharedDocumentFeed(null, "PDF", null, 20).getItems();
+        assertEquals(List.of("D12", "D9", "D6", "D3", "D0"), pdfs.stream().map(SharedDocumentDTO::getTitle).toList());
+    }
+
+    @Test
+    public void testDeleteDoesNotLoadFileData() {
+        Long id = sharedDocumentService.getSharedDocumentFeed(1L, null, null, 1).getItems().get(0).getId();
+
+        assertThrows(RuntimeException.class, () -> sharedDocumentService.deleteSharedDocument(id, 2L));
+        sharedDocumentService.deleteSharedDocument(id, 1L);
+
+        assertEquals(14, sharedDocumentService.getAllSharedDocuments().size());
+        assertTrue(RecordingInspector.statements.stream()
+            .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("select"))
+            .noneMatch(sql -> sql.toLowerCase(Locale.ROOT).contains("file_data")));
+    }
+
+    @Test
+    public void testFeedRejectsBadArguments() {
+        assertThrows(BadRequestException.class, () -> sharedDocumentService.getSharedDocumentFeed(null, null, null, 0));
+        assertThrows(BadRequestException.class,
+            () -> sharedDocumentService.getSharedDocumentFeed(null, null, null, SharedDocumentServiceImpl.MAX_FEED_PAGE_SIZE + 1));
+        assertThrows(BadRequestException.class, () -> sharedDocumentService.getSharedDocumentFeed(1L, "PDF", null, 10));
+        assertThrows(BadRequestException.class, () -> sharedDocumentService.getSharedDocumentFeed(null, null, "not-a-cursor", 10));
+    }
+
+    private void insert(String title, String documentType, Long authorId, LocalDateTime sharedAt) {
+        jdbcTemplate.update("INSERT INTO shared_documents (title, message, document_type, author_id, author_name, author_role, " +
+            "file_data, file_name, file_size, shared_at) VALUES (?, ?, ?, ?, 'author', 'EMPLOYEE', ?, 'doc.bin', 4, ?)",
+            title, title, documentType, authorId, new byte[] {1, 2, 3, 4}, Timestamp.valueOf(sharedAt));
+    }
+
+    // Records the SQL Hibernate sends, so tests can check the payload column is never selected
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
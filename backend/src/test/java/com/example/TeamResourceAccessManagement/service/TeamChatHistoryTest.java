@@ -0,0 +1,133 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.ChatMessage;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import com.example.TeamResourceAccessManagement.repository.ChatMessageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "app.chat.recent-buffer-size=5",
+    "app.chat.max-buffered-teams=2",
+    "app.chat.buffer-idle-ms=0"
+})
+@Import({TeamChatHistory.class, ChatMessageWriter.class})
+// Messages are written by the writer thread, outside any test transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TeamChatHistoryTest {
+
+    @Autowired
+    private TeamChatHistory teamChatHistory;
+
+    @Autowired
+    private ChatMessageWriter chatMessageWriter;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @AfterEach
+    public void cleanUp() {
+        chatMessageWriter.flush(5000);
+        chatMessageRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testMessagesAreReadableBeforeTheyAreWritten() {
+        ChatMessage first = teamChatHistory.append(10L, "alice", "One");
+        ChatMessage second = teamChatHistory.append(10L, "bob", "Two");
+
+        assertEquals(List.of(first.getId(), second.getId()), ids(teamChatHistory.latest(10L, 50)));
+        assertEquals(List.of(second.getId()), ids(teamChatHistory.since(10L, first.getId(), 50)));
+        assertTrue(teamChatHistory.latest(11L, 50).isEmpty());
+    }
+
+    @Test
+    public void testOlderPagesComeFromTheTableAndNewerFromTheBuffer() {
+        // Twelve stored messages for a team this instance has not seen yet; the buffer warms with the newest five
+        long firstId = seed(20L, 12);
+
+        List<ChatMessage> latest = teamChatHistory.latest(20L, 3);
+        assertEquals(List.of(firstId + 9, firstId + 10, firstId + 11), ids(latest));
+
+        // Reaches past the buffer into the table
+        List<ChatMessage> earlier = teamChatHistory.before(20L, firstId + 9, 8);
+        assertEquals(8, earlier.size());
+        assertEquals(firstId + 1, earlier.get(0).getId());
+        assertEquals(firstId + 8, earlier.get(7).getId());
+        assertEquals(List.of(firstId), ids(teamChatHistory.before(20L, firstId + 1, 8)));
+
+        // Unwritten messages join the stored ones in id order
+        ChatMessage posted = teamChatHistory.append(20L, "carol", "Latest");
+        List<ChatMessage> caughtUp = teamChatHistory.since(20L, firstId + 2, 50);
+        assertEquals(10, caughtUp.size());
+        assertEquals(firstId + 3, caughtUp.get(0).getId());
+        assertEquals(posted.getId(), caughtUp.get(9).getId());
+        assertEquals(List.of(firstId + 3, firstId + 4), ids(teamChatHistory.since(20L, firstId + 2, 2)));
+        assertEquals(List.of(firstId + 10, firstId + 11, posted.getId()), ids(teamChatHistory.latest(20L, 3)));
+        assertEquals(13, teamChatHistory.latest(20L, 50).size());
+    }
+
+    @Test
+    public void testIdleTeamsAreEvictedAndEmptyReadsAreNotBuffered() {
+        // The history is shared with the other tests, which may have left buffers behind
+        int buffered = teamChatHistory.bufferedTeams();
+        assertTrue(teamChatHistory.latest(40L, 50).isEmpty());
+        assertTrue(teamChatHistory.since(40L, 0, 50).isEmpty());
+        assertEquals(buffered, teamChatHistory.bufferedTeams());
+
+        ChatMessage first = teamChatHistory.append(41L, "alice", "One");
+        teamChatHistory.append(42L, "bob", "Two");
+        teamChatHistory.append(43L, "carol", "Three");
+        assertEquals(2, teamChatHistory.bufferedTeams());
+
+        // The evicted team is read back from the table
+        assertTrue(chatMessageWriter.flush(5000));
+        assertEquals(List.of(first.getId()), ids(teamChatHistory.latest(41L, 50)));
+        assertEquals(2, teamChatHistory.bufferedTeams());
+    }
+
+    @Test
+    public void testLimitIsValidated() {
+        assertThrows(BadRequestException.class, () -> teamChatHistory.latest(30L, 0));
+        assertThrows(BadRequestException.class, () -> teamChatHistory.since(30L, 0, TeamChatHistory.MAX_PAGE_SIZE + 1));
+        assertThrows(BadRequestException.class, () -> teamChatHistory.before(30L, 1, -1));
+    }
+
+    // Writes straight through the writer, as if posted before this history was started
+    @Test
+    public void testAllReturnsTheWholeHistory() {
+        // More than the buffer holds, plus one not written yet
+        long firstId = seed(30L, 12);
+        ChatMessage posted = teamChatHistory.append(30L, "dave", "Unwritten");
+
+        List<ChatMessage> all = teamChatHistory.all(30L);
+        assertEquals(13, all.size());
+        assertEquals(firstId, all.get(0).getId());
+        assertEquals(posted.getId(), all.get(12).getId());
+        assertTrue(teamChatHistory.all(31L).isEmpty());
+    }
+
+    private long seed(Long teamId, int count) {
+        long firstId = chatMessageWriter.append(teamId, "seed", "Message 0").getId();
+        for (int i = 1; i < count; i++) {
+            assertEquals(firstId + i, chatMessageWriter.append(teamId, "seed", "Message " + i).getId());
+        }
+        assertTrue(chatMessageWriter.flush(5000));
+        return firstId;
+    }
+
+    private static List<Long> ids(List<ChatMessage> messages) {
+        return messages.stream().map(ChatMessage::getId).toList();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import com.example.TeamResourceAccessManagement.domain.ChatMessage;
+import com.example.TeamResourceAccessManagement.exceptions.BadRequestException;
+import com.example.TeamResourceAccessManagement.repository.ChatMessageRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "app.chat.max-message-length=20"
+})
+@Import({TeamChatService.class, TeamChatHistory.class, ChatMessageWriter.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+// Messages are written by the writer thread, outside any test transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TeamChatServiceTest {
+
+    @Autowired
+    private TeamChatService teamChatService;
+
+    @Autowired
+    private ChatMessageWriter chatMessageWriter;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    public void cleanUp() {
+        chatMessageWriter.flush(5000);
+        chatMessageRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testMessagesFanOutToTheTeamRoomOnly() throws Exception {
+        WebSocketSession alice = openSession("a");
+        WebSocketSession bob = openSession("b");
+        WebSocketSession otherTeam = openSession("c");
+        WebSocketSession aliceMember = teamChatService.join(1L, alice);
+        teamChatService.join(1L, bob);
+        teamChatService.join(2L, otherTeam);
+
+        ChatMessage sent = teamChatService.post(1L, "alice", "Standup in 5");
+
+        for (WebSocketSession session : List.of(alice, bob)) {
+            ArgumentCaptor<TextMessage> frame = ArgumentCaptor.forClass(TextMessage.class);
+            verify(session).sendMessage(frame.capture());
+            JsonNode body = objectMapper.readTree(frame.getValue().getPayload());
+            assertEquals(sent.getId().longValue(), body.get("id").asLong());
+            assertEquals("alice", body.get("sender").asText());
+            assertEquals("Standup in 5", body.get("message").asText());
+        }
+        verify(otherTeam, never()).sendMessage(any());
+
+        teamChatService.leave(1L, aliceMember);
+        teamChatService.post(1L, "bob", "Ok");
+        verify(alice, times(1)).sendMessage(any());
+        verify(bob, times(2)).sendMessage(any());
+        assertEquals(1, teamChatService.getMemberCount(1L));
+    }
+
+    @Test
+    public void testMessagesArePersistedAsynchronouslyWithTheirIds() {
+        ChatMessage first = teamChatService.post(3L, "alice", "One");
+        ChatMessage second = teamChatService.post(3L, "bob", "Two");
+        assertTrue(second.getId() > first.getId());
+
+        assertTrue(chatMessageWriter.flush(5000));
+
+        List<ChatMessage> stored = new ArrayList<>(chatMessageRepository.findByTeamIdOrderByIdDesc(3L, PageRequest.of(0, 10)));
+        Collections.reverse(stored);
+        assertEquals(2, stored.size());
+        assertEquals(first.getId(), stored.get(0).getId());
+        assertEquals("One", stored.get(0).getMessage());
+        assertEquals(second.getId(), stored.get(1).getId());
+        assertEquals("bob", stored.get(1).getSender());
+    }
+
+    @Test
+    public void testBrokenSessionIsDroppedFromTheRoom() throws Exception {
+        WebSocketSession healthy = openSession("h");
+        WebSocketSession broken = openSession("x");
+        doThrow(new IOException("Broken pipe")).when(broken).sendMessage(any());
+        teamChatService.join(4L, healthy);
+        teamChatService.join(4L, broken);
+
+        teamChatService.post(4L, "alice", "Hello");
+
+        assertEquals(1, teamChatService.getMemberCount(4L));
+        verify(broken).close(any());
+        verify(healthy).sendMessage(any());
+    }
+
+    @Test
+    public void testReconnectingMemberIsSentWhatItMissed() throws Exception {
+        ChatMessage seen = teamChatService.post(6L, "alice", "Seen");
+        ChatMessage missed = teamChatService.post(6L, "bob", "Missed");
+
+        WebSocketSession session = openSession("r");
+        teamChatService.join(6L, session, seen.getId());
+
+        ArgumentCaptor<TextMessage> frame = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session).sendMessage(frame.capture());
+        assertEquals(missed.getId().longValue(), objectMapper.readTree(frame.getValue().getPayload()).get("id").asLong());
+    }
+
+    @Test
+    public void testInvalidMessagesAreRejected() {
+        assertThrows(BadRequestException.class, () -> teamChatService.post(5L, "alice", "   "));
+        assertThrows(BadRequestException.class, () -> teamChatService.post(5L, "alice", null));
+        assertThrows(BadRequestException.class, () -> teamChatService.post(5L, "alice", "x".repeat(21)));
+    }
+
+    private static WebSocketSession openSession(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+}
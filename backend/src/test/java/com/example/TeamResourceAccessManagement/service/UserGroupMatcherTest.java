@@ -0,0 +1,41 @@
+package com.example.TeamResourceAccessManagement.service;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserGroupMatcherTest {
+
+    @Test
+    public void testMatchesGroupAfterAnyDot() {
+        UserGroupMatcher matcher = UserGroupMatcher.parse("dev, test ,QA");
+
+        assertTrue(matcher.matches("jane.dev"));
+        assertTrue(matcher.matches("John.QA"));
+        assertTrue(matcher.matches("a.b.testing"));
+        assertFalse(matcher.matches("developer"));
+        assertFalse(matcher.matches("jane.ops"));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    public void testEmptyGroupsMatchNothing() {
+        assertTrue(UserGroupMatcher.parse(null).isEmpty());
+        assertTrue(UserGroupMatcher.parse(" , ").isEmpty());
+        assertFalse(UserGroupMatcher.parse("").matches("jane.dev"));
+    }
+
+    @Test
+    public void testAgreesWithSubstringRule() {
+        String groups = "dev,test,qa,ops,de,team.lead";
+        String[] usernames = {"x.dev", "x.de", "x.d", "dev", "x.team.lead", "x.team", "a.opsy", "a..qa", "A.TEST", "a.b"};
+        UserGroupMatcher matcher = UserGroupMatcher.parse(groups);
+
+        for (String username : usernames) {
+            boolean expected = false;
+            for (String group : groups.split(",")) {
+                expected |= username.toLowerCase().contains("." + group);
+            }
+            assertEquals(expected, matcher.matches(username), username);
+        }
+    }
+}
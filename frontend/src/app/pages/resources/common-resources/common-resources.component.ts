@@ -346,11 +346,11 @@ export class CommonResourcesComponent implements OnInit {
   }
 
   canViewFile(resource: TeamResource): boolean {
-    return !!(resource.filePath || resource.resourceUrl || resource.fileData);
+    return !!(resource.filePath || resource.resourceUrl || resource.downloadUrl);
   }
 
   viewFile(resource: TeamResource): void {
-    if (resource.filePath || resource.fileData) {
+    if (resource.filePath || resource.downloadUrl) {
       this.teamService.downloadFile(resource.id).subscribe({
         next: (blob) => {
           const url = window.URL.createObjectURL(blob);
@@ -365,7 +365,7 @@ export class CommonResourcesComponent implements OnInit {
   }
 
   downloadFile(resource: TeamResource): void {
-    if (resource.filePath || resource.fileData) {
+    if (resource.filePath || resource.downloadUrl) {
       this.teamService.downloadFile(resource.id).subscribe({
         next: (blob) => {
           const url = window.URL.createObjectURL(blob);
@@ -374,11 +374,11 @@ export class ManagerResourcesComponent implements OnInit {
   }
 
   canViewFile(resource: TeamResource): boolean {
-    return !!(resource.filePath || resource.resourceUrl || resource.fileData);
+    return !!(resource.filePath || resource.resourceUrl || resource.downloadUrl);
   }
 
   viewFile(resource: TeamResource): void {
-    if (resource.filePath || resource.fileData) {
+    if (resource.filePath || resource.downloadUrl) {
       this.teamService.downloadFile(resource.id).subscribe({
         next: (blob) => {
           const url = window.URL.createObjectURL(blob);
@@ -393,7 +393,7 @@ export class ManagerResourcesComponent implements OnInit {
   }
 
   downloadFile(resource: TeamResource): void {
-    if (resource.filePath || resource.fileData) {
+    if (resource.filePath || resource.downloadUrl) {
       this.teamService.downloadFile(resource.id).subscribe({
         next: (blob) => {
           const url = window.URL.createObjectURL(blob);
@@ -1,6 +1,6 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpHeaders } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { Observable, catchError, from, lastValueFrom, retry, switchMap, throwError, timer } from 'rxjs';
 import { AuthService } from './auth.service';
 
 export interface Team {
@@ -33,7 +33,7 @@ export interface TeamResource {
   fileSize?: number;
   mimeType?: string;
   fileExtension?: string;
-  fileData?: string; // Base64 encoded file data (optional, for small files)
+  downloadUrl?: string; // Present when the resource has downloadable file content
   createdBy?: string;
   uploadedBy?: string;
   createdAt?: string;
@@ -86,6 +86,25 @@ export interface Notification {
   isRead: boolean;
   createdAt: string;
   accessRequestId?: number;
+  accessRequestIds?: number[];
+}
+
+export interface NotificationPage {
+  items: Notification[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
+export interface SharedDocumentPage {
+  items: any[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
+export interface NotificationStreamEvent {
+  type: 'notification' | 'unread-count' | 'resync';
+  notification?: Notification;
+  unreadCount?: number;
 }
 
 export interface ResourceAccess {
@@ -104,11 +123,27 @@ export interface ChatMessage {
   isCurrentUser?: boolean;
 }
 
+export interface UploadSession {
+  uploadId: string;
+  fileName: string;
+  totalSize: number;
+  chunkSize: number;
+  receivedBytes: number;
+  nextChunk: number;
+  complete: boolean;
+}
+
+export interface TeamChatEvent {
+  type: 'message' | 'resync';
+  message?: ChatMessage;
+}
+
 @Injectable({
   providedIn: 'root'
 })
 export class TeamService {
   private apiUrl = 'http://localhost:8080/api';
+  private chatSocket?: WebSocket;
 
   constructor(private http: HttpClient, private authService: AuthService) {}
 
@@ -219,7 +254,6 @@ export class TeamService {
 
   createResourceWithFile(file: File, resourceData: CreateResourceRequest): Observable<TeamResource> {
     const formData = new FormData();
-    formData.append('file', file);
     formData.append('name', resourceData.name);
     formData.append('description', resourceData.description);
     formData.append('type', resourceData.type);
@@ -241,7 +275,39 @@ export class TeamService {
       'Authorization': `Bearer ${this.authService.getToken()}`
     });
     
-    return this.http.post<TeamResource>(`${this.apiUrl}/resources/upload`, formData, { headers });
+    return this.uploadInChunks(file).pipe(
+      switchMap(uploadId => this.http.post<TeamResource>(`${this.apiUrl}/resources/uploads/${uploadId}/complete`, formData, { headers }))
+    );
+  }
+
+  // Resumable upload: the file goes up in checksummed chunks, so a dropped connection only resends one chunk.
+  // Emits the upload id to finalize as a resource or shared document.
+  uploadInChunks(file: File): Observable<string> {
+    return from(this.sendChunks(file));
+  }
+
+  private async sendChunks(file: File): Promise<string> {
+    const headers = new HttpHeaders({
+      'Authorization': `Bearer ${this.authService.getToken()}`
+    });
+    const params = `fileName=${encodeURIComponent(file.name)}&contentType=${encodeURIComponent(file.type)}&totalSize=${file.size}`;
+    let session = await lastValueFrom(this.http.post<UploadSession>(`${this.apiUrl}/uploads?${params}`, null, { headers }));
+    while (!session.complete) {
+      const offset = session.nextChunk * session.chunkSize;
+      const chunk = file.slice(offset, Math.min(file.size, offset + session.chunkSize));
+      const digest = await crypto.subtle.digest('SHA-256', await chunk.arrayBuffer());
+      const checksum = Array.from(new Uint8Array(digest), b => b.toString(16).padStart(2, '0')).join('');
+      const uploadUrl = `${this.apiUrl}/uploads/${session.uploadId}`;
+      session = await lastValueFrom(this.http.put<UploadSession>(`${uploadUrl}/chunks/${session.nextChunk}?offset=${offset}`, chunk, {
+        headers: headers.set('Content-Type', 'application/octet-stream').set('X-Chunk-Checksum', checksum)
+      }).pipe(
+        // Network and server errors resend the chunk; anything else is final
+        retry({ count: 3, delay: (err) => err.status === 0 || err.status >= 500 ? timer(2000) : throwError(() => err) }),
+        // The server is at a different chunk than we thought; carry on from where it is
+        catchError(err => err.status === 409 ? this.http.get<UploadSession>(uploadUrl, { headers }) : throwError(() => err))
+      ));
+    }
+    return session.uploadId;
   }
 
   getResourceAccess(resourceId: number): Observable<ResourceAccess[]> {
@@ -306,6 +372,15 @@ export class TeamService {
     return this.http.get<Notification[]>(`${this.apiUrl}/notifications/user/${userId}`, { headers: this.getHeaders() });
   }
 
+  // Newest first; pass nextCursor back to read further into the history
+  getNotificationFeed(userId: number, cursor?: string, limit: number = 20, unreadOnly: boolean = false): Observable<NotificationPage> {
+    let params = `?limit=${limit}&unreadOnly=${unreadOnly}`;
+    if (cursor) {
+      params += `&cursor=${encodeURIComponent(cursor)}`;
+    }
+    return this.http.get<NotificationPage>(`${this.apiUrl}/notifications/user/${userId}/feed${params}`, { headers: this.getHeaders() });
+  }
+
   getUnreadNotifications(userId: number): Observable<Notification[]> {
     return this.http.get<Notification[]>(`${this.apiUrl}/notifications/user/${userId}/unread`, { headers: this.getHeaders() });
   }
@@ -322,6 +397,20 @@ export class TeamService {
     return this.http.put(`${this.apiUrl}/notifications/user/${userId}/read-all`, {}, { headers: this.getHeaders() });
   }
 
+  // Server-pushed notifications; EventSource reconnects on its own and resumes from the last event id
+  streamNotifications(userId: number): Observable<NotificationStreamEvent> {
+    return new Observable<NotificationStreamEvent>(subscriber => {
+      const token = encodeURIComponent(this.authService.getToken() || '');
+      const source = new EventSource(`${this.apiUrl}/notifications/user/${userId}/stream?access_token=${token}`);
+      source.addEventListener('notification', (event: MessageEvent) =>
+        subscriber.next({ type: 'notification', notification: JSON.parse(event.data) }));
+      source.addEventListener('unread-count', (event: MessageEvent) =>
+        subscriber.next({ type: 'unread-count', unreadCount: Number(event.data) }));
+      source.addEventListener('resync', () => subscriber.next({ type: 'resync' }));
+      return () => source.close();
+    });
+  }
+
   // File download/viewing methods
   getFileDownloadUrl(resourceId: number): string {
     return `${this.apiUrl}/resources/${resourceId}/download`;
@@ -350,14 +439,60 @@ export class TeamService {
   }
   
   // Team Chat methods
-  getTeamChatMessages(teamId: number): Observable<ChatMessage[]> {
-    return this.http.get<ChatMessage[]>(`${this.apiUrl}/teams/${teamId}/chat/messages`, { headers: this.getHeaders() });
+  // Oldest first: the latest page, or the messages after since, or the page before before
+  getTeamChatMessages(teamId: number, options: { since?: number, before?: number, limit?: number } = {}): Observable<ChatMessage[]> {
+    let params = `?limit=${options.limit ?? 50}`;
+    if (options.since !== undefined) {
+      params += `&since=${options.since}`;
+    }
+    if (options.before !== undefined) {
+      params += `&before=${options.before}`;
+    }
+    return this.http.get<ChatMessage[]>(`${this.apiUrl}/teams/${teamId}/chat/messages${params}`, { headers: this.getHeaders() });
+  }
+  
+  // Live team chat: every message posted to the team arrives here, this user's own included.
+  // Each (re)connect sends the last id held, so the server replays what was missed or asks for a resync.
+  streamTeamChat(teamId: number, lastMessageId: () => number | undefined): Observable<TeamChatEvent> {
+    return new Observable<TeamChatEvent>(subscriber => {
+      const token = encodeURIComponent(this.authService.getToken() || '');
+      const socketUrl = this.apiUrl.replace(/^http/, 'ws').replace(/\/api$/, '');
+      const since = lastMessageId();
+      const socket = new WebSocket(`${socketUrl}/ws/teams/${teamId}/chat?access_token=${token}` + (since !== undefined ? `&since=${since}` : ''));
+      this.chatSocket = socket;
+      socket.onmessage = (event: MessageEvent) => {
+        const frame = JSON.parse(event.data);
+        if (frame.id) {
+          subscriber.next({ type: 'message', message: frame });
+        } else if (frame.resync) {
+          subscriber.next({ type: 'resync' });
+        } else if (frame.error) {
+          console.error('Chat error:', frame.error);
+        }
+      };
+      socket.onclose = () => subscriber.error(new Error('Chat connection closed'));
+      return () => {
+        if (this.chatSocket === socket) {
+          this.chatSocket = undefined;
+        }
+        socket.close();
+      };
+    }).pipe(retry({ delay: 3000 }));
+  }
+
+  // Sends over the open chat socket; false when there is none, so the caller can fall back to the API
+  sendLiveChatMessage(message: string): boolean {
+    if (!this.chatSocket || this.chatSocket.readyState !== WebSocket.OPEN) {
+      return false;
+    }
+    this.chatSocket.send(JSON.stringify({ message }));
+    return true;
   }
   
   sendChatMessage(teamId: number, message: string): Observable<ChatMessage> {
+    // The server takes the sender from the signed-in user
     const messageData = {
       teamId: teamId,
-      sender: this.getCurrentUsername(),
       message: message,
       timestamp: new Date().toISOString()
     };
@@ -408,6 +543,21 @@ export class TeamService {
     return this.http.get<any[]>(`${this.apiUrl}/shared-documents`, { headers: this.getHeaders() });
   }
   
+  // Newest first, one page at a time; the listing never carries file contents
+  getSharedDocumentFeed(cursor?: string, limit: number = 20, filter: { authorId?: number, documentType?: string } = {}): Observable<SharedDocumentPage> {
+    let params = `?limit=${limit}`;
+    if (cursor) {
+      params += `&cursor=${encodeURIComponent(cursor)}`;
+    }
+    if (filter.authorId !== undefined) {
+      params += `&authorId=${filter.authorId}`;
+    }
+    if (filter.documentType) {
+      params += `&documentType=${encodeURIComponent(filter.documentType)}`;
+    }
+    return this.http.get<SharedDocumentPage>(`${this.apiUrl}/shared-documents/feed${params}`, { headers: this.getHeaders() });
+  }
+  
   shareDocumentWithFile(documentData: any, file: File): Observable<any> {
     const formData = new FormData();
     formData.append('title', documentData.title);
@@ -416,13 +566,14 @@ export class TeamService {
     formData.append('authorId', documentData.authorId.toString());
     formData.append('authorName', documentData.authorName);
     formData.append('authorRole', documentData.authorRole);
-    formData.append('file', file);
     
     const headers = new HttpHeaders({
       'Authorization': `Bearer ${this.authService.getToken()}`
     });
     
-    return this.http.post(`${this.apiUrl}/shared-documents/share-file`, formData, { headers });
+    return this.uploadInChunks(file).pipe(
+      switchMap(uploadId => this.http.post(`${this.apiUrl}/shared-documents/uploads/${uploadId}/complete`, formData, { headers }))
+    );
   }
   
   shareDocumentWithUrl(documentData: any): Observable<any> {
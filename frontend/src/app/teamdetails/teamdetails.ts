@@ -1,8 +1,8 @@
-import { Component, OnInit, ChangeDetectorRef, inject } from '@angular/core';
+import { Component, OnInit, OnDestroy, ChangeDetectorRef, inject } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { ReactiveFormsModule, FormsModule, FormBuilder, FormGroup, Validators } from '@angular/forms';
 import { ActivatedRoute, Router, RouterModule } from '@angular/router';
-import { TeamService, Team, TeamMember, TeamResource, AccessRequest, CreateResourceRequest, ResourceAccess, AccessRequestDTO, Notification, ChatMessage } from '../services/team.service';
+import { TeamService, Team, TeamMember, TeamResource, AccessRequest, CreateResourceRequest, ResourceAccess, AccessRequestDTO, Notification, NotificationStreamEvent, ChatMessage, TeamChatEvent } from '../services/team.service';
 import { ToastService } from '../services/toast.service';
 import { LoadingService } from '../services/loading.service';
 import { ButtonComponent } from '../components/ui/button/button.component';
@@ -20,7 +20,7 @@ import { TableModule } from 'primeng/table';
 import { BadgeModule } from 'primeng/badge';
 import { TagModule } from 'primeng/tag';
 import { debounceTime, distinctUntilChanged, switchMap, catchError } from 'rxjs/operators';
-import { Subject, of } from 'rxjs';
+import { Subject, Subscription, of } from 'rxjs';
 
 type TabType = 'overview' | 'members' | 'resources' | 'requests' | 'audit' | 'uploads';
 
@@ -31,7 +31,7 @@ type TabType = 'overview' | 'members' | 'resources' | 'requests' | 'audit' | 'up
   templateUrl: 'teamdetails.html',
   styleUrls: ['./teamdetails.css', './toast-notification.css']
 })
-export class Teamdetails implements OnInit {
+export class Teamdetails implements OnInit, OnDestroy {
   team: Team | null = null;
   members: TeamMember[] = [];
   resources: TeamResource[] = [];
@@ -67,6 +67,9 @@ export class Teamdetails implements OnInit {
   adminStats: any = null;
   notifications: Notification[] = [];
   unreadNotificationCount: number = 0;
+  private notificationStream?: Subscription;
+  private chatStream?: Subscription;
+  private chatStreamTeamId?: number;
   showNotifications = false;
   showUserDropdown = false;
   userAccessRequests: AccessRequest[] = [];
@@ -79,6 +82,9 @@ export class Teamdetails implements OnInit {
   // Chat properties
   showTeamChat = false;
   chatMessages: ChatMessage[] = [];
+  hasOlderChatMessages = false;
+  loadingOlderChatMessages = false;
+  private readonly chatPageSize = 50;
   newMessage = '';
   
   // Audit log properties
@@ -225,6 +231,7 @@ export class Teamdetails implements OnInit {
       isManager: this.isManagerOrAdmin()
     });
     this.loadNotifications();
+    this.subscribeToNotifications();
     this.loadUserAccessRequests();
     this.loadUserUploads();
     if (this.isManagerOrAdmin()) {
@@ -482,21 +489,46 @@ export class Teamdetails implements OnInit {
       // Create mock notifications based on recent activity
       this.createMockNotifications();
       
-      this.teamService.getUserNotifications(this.currentUserId).subscribe({
-        next: (notifications) => {
-          if (notifications && notifications.length > 0) {
-            this.notifications = notifications;
+      this.teamService.getNotificationFeed(this.currentUserId).subscribe({
+        next: (page) => {
+          if (page.items && page.items.length > 0) {
+            this.notifications = page.items;
           }
-          this.unreadNotificationCount = this.notifications.filter(n => !n.isRead).length;
+          // The feed is one page; the badge needs the user's full unread count
+          this.teamService.getUnreadNotificationCount(this.currentUserId).subscribe({
+            next: (count) => this.unreadNotificationCount = count
+          });
         },
         error: (err) => {
           console.error('Error loading notifications:', err);
-          this.unreadNotificationCount = this.notifications.filter(n => !n.isRead).length;
         }
       });
     }
   }
   
+  subscribeToNotifications(): void {
+    this.notificationStream?.unsubscribe();
+    if (!this.currentUserId) {
+      return;
+    }
+    this.notificationStream = this.teamService.streamNotifications(this.currentUserId).subscribe((event: NotificationStreamEvent) => {
+      if (event.type === 'notification' && event.notification && !this.notifications.some(n => n.id === event.notification!.id)) {
+        this.notifications.unshift(event.notification);
+      } else if (event.type === 'unread-count' && event.unreadCount !== undefined) {
+        // The server pushes the user's full count after every change
+        this.unreadNotificationCount = event.unreadCount;
+      } else if (event.type === 'resync') {
+        this.loadNotifications();
+      }
+      this.cdr.detectChanges();
+    });
+  }
+  
+  ngOnDestroy(): void {
+    this.notificationStream?.unsubscribe();
+    this.chatStream?.unsubscribe();
+  }
+  
   createMockNotifications(): void {
     const now = new Date().toISOString();
     const teamName = this.team?.name || 'Team';
@@ -958,7 +990,7 @@ export class Teamdetails implements OnInit {
 
   // File viewing methods
   viewFile(resource: TeamResource): void {
-    if (resource.filePath || resource.fileData) {
+    if (resource.filePath || resource.downloadUrl) {
       // Download file and open in new tab for viewing
       this.teamService.downloadFile(resource.id).subscribe({
         next: (blob) => {
@@ -979,7 +1011,7 @@ export class Teamdetails implements OnInit {
   }
 
   downloadFile(resource: TeamResource): void {
-    if (resource.filePath || resource.fileData) {
+    if (resource.filePath || resource.downloadUrl) {
       this.teamService.downloadFile(resource.id).subscribe({
         next: (blob) => {
           const url = window.URL.createObjectURL(blob);
@@ -1003,7 +1035,7 @@ export class Teamdetails implements OnInit {
   }
 
   canViewFile(resource: TeamResource): boolean {
-    return !!(resource.filePath || resource.resourceUrl || resource.fileData);
+    return !!(resource.filePath || resource.resourceUrl || resource.downloadUrl);
   }
 
   hasPendingRequest(resource: TeamResource): boolean {
@@ -1538,18 +1570,38 @@ export class Teamdetails implements OnInit {
   // Team Chat Methods
   toggleTeamChat(): void {
     this.showTeamChat = !this.showTeamChat;
-    if (this.showTeamChat && this.chatMessages.length === 0) {
+    if (this.showTeamChat && this.chatStreamTeamId !== this.teamId) {
+      // Connect first so nothing posted while the history loads is missed
+      this.subscribeToTeamChat();
       this.loadChatMessages();
     }
   }
   
+  subscribeToTeamChat(): void {
+    this.chatStream?.unsubscribe();
+    this.chatMessages = [];
+    this.hasOlderChatMessages = false;
+    this.chatStreamTeamId = this.teamId;
+    const lastMessageId = () => this.chatMessages.length ? this.chatMessages[this.chatMessages.length - 1].id : undefined;
+    this.chatStream = this.teamService.streamTeamChat(this.teamId, lastMessageId).subscribe((event: TeamChatEvent) => {
+      if (event.type === 'message' && event.message) {
+        this.addChatMessage(event.message);
+      } else if (event.type === 'resync') {
+        // Too far behind to replay; start again from the latest page
+        this.chatMessages = [];
+        this.loadChatMessages();
+      }
+      this.cdr.detectChanges();
+    });
+  }
+  
   loadChatMessages(): void {
-    this.teamService.getTeamChatMessages(this.teamId).subscribe({
+    this.teamService.getTeamChatMessages(this.teamId, { limit: this.chatPageSize }).subscribe({
       next: (messages) => {
-        this.chatMessages = messages.map(msg => ({
-          ...msg,
-          isCurrentUser: msg.sender === this.currentUsername
-        }));
+        const live = this.chatMessages;
+        this.chatMessages = [];
+        [...messages, ...live].forEach(msg => this.addChatMessage(msg));
+        this.hasOlderChatMessages = messages.length === this.chatPageSize;
         this.scrollToBottom();
       },
       error: (err) => {
@@ -1569,17 +1621,38 @@ export class Teamdetails implements OnInit {
     });
   }
   
+  loadOlderChatMessages(): void {
+    if (!this.chatMessages.length || this.loadingOlderChatMessages) {
+      return;
+    }
+    this.loadingOlderChatMessages = true;
+    this.teamService.getTeamChatMessages(this.teamId, { before: this.chatMessages[0].id, limit: this.chatPageSize }).subscribe({
+      next: (messages) => {
+        const older = messages.map(msg => ({ ...msg, isCurrentUser: msg.sender === this.currentUsername }));
+        this.chatMessages = [...older, ...this.chatMessages];
+        this.hasOlderChatMessages = messages.length === this.chatPageSize;
+        this.loadingOlderChatMessages = false;
+      },
+      error: (err) => {
+        console.error('Error loading earlier chat messages:', err);
+        this.loadingOlderChatMessages = false;
+      }
+    });
+  }
+  
   sendMessage(): void {
     if (!this.newMessage.trim()) return;
     
     const messageText = this.newMessage.trim();
     this.newMessage = '';
     
+    // The socket echoes the message back to this chat like to everyone else's
+    if (this.teamService.sendLiveChatMessage(messageText)) {
+      return;
+    }
     this.teamService.sendChatMessage(this.teamId, messageText).subscribe({
       next: (sentMessage) => {
-        sentMessage.isCurrentUser = true;
-        this.chatMessages.push(sentMessage);
-        this.scrollToBottom();
+        this.addChatMessage(sentMessage);
         this.toastService.success('Success', 'Message sent successfully');
       },
       error: (err) => {
@@ -1590,6 +1663,19 @@ export class Teamdetails implements OnInit {
     });
   }
   
+  // Keeps the list in id order without duplicates, whether a message came from the history or the socket
+  private addChatMessage(message: ChatMessage): void {
+    if (this.chatMessages.some(m => m.id === message.id)) {
+      return;
+    }
+    let index = this.chatMessages.length;
+    while (index > 0 && this.chatMessages[index - 1].id > message.id) {
+      index--;
+    }
+    this.chatMessages.splice(index, 0, { ...message, isCurrentUser: message.sender === this.currentUsername });
+    this.scrollToBottom();
+  }
+  
   private scrollToBottom(): void {
     Promise.resolve().then(() => {
       const chatContainer = document.querySelector('.chat-messages');
@@ -1720,6 +1806,8 @@ export class Teamdetails implements OnInit {
   
   // Shared Documents
   sharedDocuments: any[] = [];
+  sharedDocumentsCursor: string | null = null;
+  loadingMoreSharedDocuments = false;
   showShareDocumentModal = false;
   shareDocumentForm!: FormGroup;
   shareMode: 'url' | 'file' = 'url';
@@ -2246,14 +2334,35 @@ export class Teamdetails implements OnInit {
   }
   
   loadSharedDocuments(): void {
-    this.teamService.getSharedDocuments().subscribe({
-      next: (documents) => {
-        this.sharedDocuments = documents || [];
+    this.teamService.getSharedDocumentFeed().subscribe({
+      next: (page) => {
+        this.sharedDocuments = page.items || [];
+        this.sharedDocumentsCursor = page.nextCursor;
       },
       error: (err) => {
         console.error('Error loading shared documents:', err);
         this.toastService.error('Error', 'Failed to load shared documents');
         this.sharedDocuments = [];
+        this.sharedDocumentsCursor = null;
+      }
+    });
+  }
+  
+  loadMoreSharedDocuments(): void {
+    if (!this.sharedDocumentsCursor || this.loadingMoreSharedDocuments) {
+      return;
+    }
+    this.loadingMoreSharedDocuments = true;
+    this.teamService.getSharedDocumentFeed(this.sharedDocumentsCursor).subscribe({
+      next: (page) => {
+        this.sharedDocuments = [...this.sharedDocuments, ...page.items];
+        this.sharedDocumentsCursor = page.nextCursor;
+        this.loadingMoreSharedDocuments = false;
+      },
+      error: (err) => {
+        console.error('Error loading more shared documents:', err);
+        this.toastService.error('Error', 'Failed to load more shared documents');
+        this.loadingMoreSharedDocuments = false;
       }
     });
   }